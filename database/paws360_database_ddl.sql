@@ -18,10 +18,98 @@ SET xmloption = content;
 SET client_min_messages = warning;
 SET row_security = off;
 
+--
+-- Name: pg_trgm; Type: EXTENSION; Schema: -; Owner: -
+--
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+
 SET default_tablespace = '';
 
 SET default_table_access_method = heap;
 
+--
+-- Name: account_balance_snapshots; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public.account_balance_snapshots (
+    entry_count bigint NOT NULL,
+    total_aid_accepted numeric(14,2) NOT NULL,
+    total_aid_disbursed numeric(14,2) NOT NULL,
+    total_charges numeric(14,2) NOT NULL,
+    total_credits numeric(14,2) NOT NULL,
+    total_payments numeric(14,2) NOT NULL,
+    account_id bigint NOT NULL,
+    snapshot_id bigint NOT NULL,
+    through_entry_id bigint,
+    taken_at timestamp(6) with time zone NOT NULL
+);
+
+
+--
+-- Name: account_balance_snapshots_snapshot_id_seq; Type: SEQUENCE; Schema: public; Owner: -
+--
+
+ALTER TABLE public.account_balance_snapshots ALTER COLUMN snapshot_id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME public.account_balance_snapshots_snapshot_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
+--
+-- Name: account_balances; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public.account_balances (
+    last_payment_amount numeric(12,2),
+    total_aid_accepted numeric(14,2) NOT NULL,
+    total_aid_disbursed numeric(14,2) NOT NULL,
+    total_charges numeric(14,2) NOT NULL,
+    total_credits numeric(14,2) NOT NULL,
+    total_payments numeric(14,2) NOT NULL,
+    account_id bigint NOT NULL,
+    entry_count bigint NOT NULL,
+    last_entry_id bigint,
+    last_payment_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone NOT NULL
+);
+
+
+--
+-- Name: account_ledger_entries; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public.account_ledger_entries (
+    amount numeric(12,2) NOT NULL,
+    account_id bigint NOT NULL,
+    award_id bigint,
+    ledger_entry_id bigint NOT NULL,
+    transaction_id bigint,
+    recorded_at timestamp(6) with time zone NOT NULL,
+    entry_type character varying(20) NOT NULL,
+    CONSTRAINT account_ledger_entries_entry_type_check CHECK (((entry_type)::text = ANY ((ARRAY['CHARGE'::character varying, 'CREDIT'::character varying, 'PAYMENT'::character varying, 'AID_ACCEPTED'::character varying, 'AID_DISBURSED'::character varying])::text[])))
+);
+
+
+--
+-- Name: account_ledger_entries_ledger_entry_id_seq; Type: SEQUENCE; Schema: public; Owner: -
+--
+
+ALTER TABLE public.account_ledger_entries ALTER COLUMN ledger_entry_id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME public.account_ledger_entries_ledger_entry_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
 --
 -- Name: account_transactions; Type: TABLE; Schema: public; Owner: -
 --
@@ -30,11 +118,13 @@ CREATE TABLE public.account_transactions (
     amount numeric(12,2) NOT NULL,
     due_date date,
     student_id integer NOT NULL,
+    aid_award_id bigint,
     posted_at timestamp(6) with time zone NOT NULL,
     transaction_id bigint NOT NULL,
     status character varying(12) NOT NULL,
     type character varying(12) NOT NULL,
     description character varying(255),
+    term_code character varying(32),
     CONSTRAINT account_transactions_status_check CHECK (((status)::text = ANY ((ARRAY['POSTED'::character varying, 'PENDING'::character varying])::text[]))),
     CONSTRAINT account_transactions_type_check CHECK (((type)::text = ANY ((ARRAY['CHARGE'::character varying, 'CREDIT'::character varying, 'PAYMENT'::character varying])::text[])))
 );
@@ -788,6 +878,39 @@ CREATE SEQUENCE public.professor_seq
     CACHE 1;
 
 
+--
+-- Name: scheduled_job_runs; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public.scheduled_job_runs (
+    shard integer,
+    duration_ms bigint NOT NULL,
+    finished_at timestamp(6) with time zone NOT NULL,
+    run_id bigint NOT NULL,
+    started_at timestamp(6) with time zone NOT NULL,
+    status character varying(12) NOT NULL,
+    run_key character varying(64),
+    job_name character varying(100) NOT NULL,
+    node_id character varying(200) NOT NULL,
+    error_message character varying(500),
+    CONSTRAINT scheduled_job_runs_status_check CHECK (((status)::text = ANY ((ARRAY['SUCCEEDED'::character varying, 'FAILED'::character varying, 'SKIPPED'::character varying])::text[])))
+);
+
+
+--
+-- Name: scheduled_job_runs_run_id_seq; Type: SEQUENCE; Schema: public; Owner: -
+--
+
+ALTER TABLE public.scheduled_job_runs ALTER COLUMN run_id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME public.scheduled_job_runs_run_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
 --
 -- Name: section_staff_assignments; Type: TABLE; Schema: public; Owner: -
 --
@@ -816,6 +939,98 @@ ALTER TABLE public.section_staff_assignments ALTER COLUMN assignment_id ADD GENE
 );
 
 
+--
+-- Name: session_revocations; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public.session_revocations (
+    user_id integer,
+    issued_before timestamp(6) with time zone,
+    keep_until timestamp(6) with time zone NOT NULL,
+    published_at timestamp(6) with time zone NOT NULL,
+    revocation_id bigint NOT NULL,
+    token_id character varying(32)
+);
+
+
+--
+-- Name: session_revocations_revocation_id_seq; Type: SEQUENCE; Schema: public; Owner: -
+--
+
+ALTER TABLE public.session_revocations ALTER COLUMN revocation_id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME public.session_revocations_revocation_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
+--
+-- Name: statement_run_partitions; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public.statement_run_partitions (
+    statements_written integer NOT NULL,
+    last_account_id bigint,
+    partition_id bigint NOT NULL,
+    range_end bigint NOT NULL,
+    range_start bigint NOT NULL,
+    run_id bigint NOT NULL,
+    updated_at timestamp(6) with time zone NOT NULL,
+    status character varying(12) NOT NULL,
+    error_message character varying(500),
+    CONSTRAINT statement_run_partitions_status_check CHECK (((status)::text = ANY ((ARRAY['PENDING'::character varying, 'RUNNING'::character varying, 'COMPLETED'::character varying, 'FAILED'::character varying])::text[])))
+);
+
+
+--
+-- Name: statement_run_partitions_partition_id_seq; Type: SEQUENCE; Schema: public; Owner: -
+--
+
+ALTER TABLE public.statement_run_partitions ALTER COLUMN partition_id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME public.statement_run_partitions_partition_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
+--
+-- Name: statement_runs; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public.statement_runs (
+    partition_count integer NOT NULL,
+    statement_month date NOT NULL,
+    finished_at timestamp(6) with time zone,
+    run_id bigint NOT NULL,
+    started_at timestamp(6) with time zone NOT NULL,
+    format character varying(8) NOT NULL,
+    status character varying(12) NOT NULL,
+    output_dir character varying(500) NOT NULL,
+    CONSTRAINT statement_runs_format_check CHECK (((format)::text = ANY ((ARRAY['CSV'::character varying, 'JSON'::character varying, 'TEXT'::character varying])::text[]))),
+    CONSTRAINT statement_runs_status_check CHECK (((status)::text = ANY ((ARRAY['RUNNING'::character varying, 'COMPLETED'::character varying, 'FAILED'::character varying])::text[])))
+);
+
+
+--
+-- Name: statement_runs_run_id_seq; Type: SEQUENCE; Schema: public; Owner: -
+--
+
+ALTER TABLE public.statement_runs ALTER COLUMN run_id ADD GENERATED BY DEFAULT AS IDENTITY (
+    SEQUENCE NAME public.statement_runs_run_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
 --
 -- Name: student; Type: TABLE; Schema: public; Owner: -
 --
@@ -998,6 +1213,30 @@ ALTER TABLE public.users ALTER COLUMN user_id ADD GENERATED BY DEFAULT AS IDENTI
 );
 
 
+--
+-- Name: account_balance_snapshots account_balance_snapshots_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.account_balance_snapshots
+    ADD CONSTRAINT account_balance_snapshots_pkey PRIMARY KEY (snapshot_id);
+
+
+--
+-- Name: account_balances account_balances_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.account_balances
+    ADD CONSTRAINT account_balances_pkey PRIMARY KEY (account_id);
+
+
+--
+-- Name: account_ledger_entries account_ledger_entries_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.account_ledger_entries
+    ADD CONSTRAINT account_ledger_entries_pkey PRIMARY KEY (ledger_entry_id);
+
+
 --
 -- Name: account_transactions account_transactions_pkey; Type: CONSTRAINT; Schema: public; Owner: -
 --
@@ -1326,6 +1565,14 @@ ALTER TABLE ONLY public.professor
     ADD CONSTRAINT professor_user_id_key UNIQUE (user_id);
 
 
+--
+-- Name: scheduled_job_runs scheduled_job_runs_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.scheduled_job_runs
+    ADD CONSTRAINT scheduled_job_runs_pkey PRIMARY KEY (run_id);
+
+
 --
 -- Name: section_staff_assignments section_staff_assignments_pkey; Type: CONSTRAINT; Schema: public; Owner: -
 --
@@ -1342,6 +1589,38 @@ ALTER TABLE ONLY public.section_staff_assignments
     ADD CONSTRAINT section_staff_assignments_section_id_user_id_role_key UNIQUE (section_id, user_id, role);
 
 
+--
+-- Name: session_revocations session_revocations_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.session_revocations
+    ADD CONSTRAINT session_revocations_pkey PRIMARY KEY (revocation_id);
+
+
+--
+-- Name: statement_run_partitions statement_run_partitions_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.statement_run_partitions
+    ADD CONSTRAINT statement_run_partitions_pkey PRIMARY KEY (partition_id);
+
+
+--
+-- Name: statement_runs statement_runs_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.statement_runs
+    ADD CONSTRAINT statement_runs_pkey PRIMARY KEY (run_id);
+
+
+--
+-- Name: statement_runs statement_runs_statement_month_format_key; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.statement_runs
+    ADD CONSTRAINT statement_runs_statement_month_format_key UNIQUE (statement_month, format);
+
+
 --
 -- Name: student_advisors student_advisors_pkey; Type: CONSTRAINT; Schema: public; Owner: -
 --
@@ -1438,6 +1717,179 @@ ALTER TABLE ONLY public.users
     ADD CONSTRAINT users_ssn_key UNIQUE (ssn);
 
 
+--
+-- Name: users_email_lower_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX users_email_lower_idx ON public.users USING btree (lower((email)::text));
+
+
+--
+-- Name: users_search_trgm_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX users_search_trgm_idx ON public.users USING gin (lower((((((((firstname)::text || ' '::text) || (lastname)::text) || ' '::text) || (COALESCE(preferred_name, ''::character varying))::text) || ' '::text) || (email)::text)) public.gin_trgm_ops);
+
+
+--
+-- Name: student_campus_id_trgm_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX student_campus_id_trgm_idx ON public.student USING gin (lower((COALESCE(campus_id, ''::character varying))::text) public.gin_trgm_ops);
+
+
+--
+-- Name: idx_course_enrollments_lecture_section; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_course_enrollments_lecture_section ON public.course_enrollments USING btree (lecture_section_id, status);
+
+
+--
+-- Name: idx_course_enrollments_lab_section; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_course_enrollments_lab_section ON public.course_enrollments USING btree (lab_section_id);
+
+
+--
+-- Name: idx_course_sections_term; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_course_sections_term ON public.course_sections USING btree (term, academic_year);
+
+
+--
+-- Name: idx_section_staff_assignments_user; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_section_staff_assignments_user ON public.section_staff_assignments USING btree (user_id);
+
+
+--
+-- Name: idx_advisor_messages_student; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_advisor_messages_student ON public.advisor_messages USING btree (student_id, message_id);
+
+
+--
+-- Name: idx_account_ledger_entries_account; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_account_ledger_entries_account ON public.account_ledger_entries USING btree (account_id, ledger_entry_id);
+
+
+--
+-- Name: idx_account_balance_snapshots_account; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_account_balance_snapshots_account ON public.account_balance_snapshots USING btree (account_id, through_entry_id);
+
+
+--
+-- Name: idx_account_transactions_student_term; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_account_transactions_student_term ON public.account_transactions USING btree (student_id, term_code);
+
+
+--
+-- Name: idx_account_transactions_student_posted; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_account_transactions_student_posted ON public.account_transactions USING btree (student_id, posted_at, transaction_id);
+
+
+--
+-- Name: idx_statement_run_partitions_run; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_statement_run_partitions_run ON public.statement_run_partitions USING btree (run_id, status);
+
+
+--
+-- Name: idx_payment_plans_due; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_payment_plans_due ON public.payment_plans USING btree (status, next_payment_date, plan_id);
+
+
+--
+-- Name: idx_account_transactions_aid_award; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_account_transactions_aid_award ON public.account_transactions USING btree (aid_award_id);
+
+
+--
+-- Name: idx_aid_awards_term_student; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_aid_awards_term_student ON public.aid_awards USING btree (term, academic_year, student_id);
+
+
+--
+-- Name: idx_session_revocations_published; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_session_revocations_published ON public.session_revocations USING btree (published_at);
+
+
+--
+-- Name: idx_scheduled_job_runs_job; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_scheduled_job_runs_job ON public.scheduled_job_runs USING btree (job_name, run_key, shard);
+
+
+--
+-- Name: idx_scheduled_job_runs_started; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX idx_scheduled_job_runs_started ON public.scheduled_job_runs USING btree (started_at);
+
+
+--
+-- Name: account_balance_snapshots account_balance_snapshots_account_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.account_balance_snapshots
+    ADD CONSTRAINT account_balance_snapshots_account_id_fkey FOREIGN KEY (account_id) REFERENCES public.financial_accounts(account_id);
+
+
+--
+-- Name: account_balances account_balances_account_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.account_balances
+    ADD CONSTRAINT account_balances_account_id_fkey FOREIGN KEY (account_id) REFERENCES public.financial_accounts(account_id);
+
+
+--
+-- Name: account_ledger_entries account_ledger_entries_account_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.account_ledger_entries
+    ADD CONSTRAINT account_ledger_entries_account_id_fkey FOREIGN KEY (account_id) REFERENCES public.financial_accounts(account_id);
+
+
+--
+-- Name: account_ledger_entries account_ledger_entries_award_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.account_ledger_entries
+    ADD CONSTRAINT account_ledger_entries_award_id_fkey FOREIGN KEY (award_id) REFERENCES public.aid_awards(award_id);
+
+
+--
+-- Name: account_ledger_entries account_ledger_entries_transaction_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.account_ledger_entries
+    ADD CONSTRAINT account_ledger_entries_transaction_id_fkey FOREIGN KEY (transaction_id) REFERENCES public.account_transactions(transaction_id);
+
+
 --
 -- Name: account_transactions fk1vrxb98kn1mpw4wydnc1a828l; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
@@ -1750,6 +2202,14 @@ ALTER TABLE ONLY public.course_enrollments
     ADD CONSTRAINT fkqiwek769v29r3n8b8wwllpq27 FOREIGN KEY (lab_section_id) REFERENCES public.course_sections(section_id);
 
 
+--
+-- Name: statement_run_partitions statement_run_partitions_run_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public.statement_run_partitions
+    ADD CONSTRAINT statement_run_partitions_run_id_fkey FOREIGN KEY (run_id) REFERENCES public.statement_runs(run_id);
+
+
 --
 -- PostgreSQL database dump complete
 --
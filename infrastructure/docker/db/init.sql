@@ -4,6 +4,7 @@
 -- Create extensions
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 CREATE EXTENSION IF NOT EXISTS "pgcrypto";
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
 -- Create users table matching JPA entity
 CREATE TABLE IF NOT EXISTS users (
@@ -40,6 +41,9 @@ CREATE TABLE IF NOT EXISTS users (
     session_expiration TIMESTAMP
 );
 
+-- Case-insensitive email lookups compare lower(email)
+CREATE INDEX IF NOT EXISTS users_email_lower_idx ON users (lower(email));
+
 -- Create student table matching JPA entity
 CREATE TABLE IF NOT EXISTS student (
     student_id SERIAL PRIMARY KEY,
@@ -55,6 +59,141 @@ CREATE TABLE IF NOT EXISTS student (
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
 );
 
+-- Admin student search (StudentSearchService) matches these expressions by substring and trigram
+CREATE INDEX IF NOT EXISTS users_search_trgm_idx ON users
+    USING gin (lower(firstname || ' ' || lastname || ' ' || coalesce(preferred_name, '') || ' ' || email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS student_campus_id_trgm_idx ON student
+    USING gin (lower(coalesce(campus_id, '')) gin_trgm_ops);
+
+-- Student finances. Tables the application reads through plain SQL are created here rather than
+-- left to Hibernate, together with the indexes those reads depend on
+CREATE TABLE IF NOT EXISTS financial_accounts (
+    account_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL UNIQUE REFERENCES student(student_id),
+    account_balance DECIMAL(12,2) NOT NULL,
+    charges_due DECIMAL(12,2) NOT NULL,
+    pending_aid DECIMAL(12,2) NOT NULL,
+    due_date DATE,
+    last_payment_amount DECIMAL(12,2),
+    last_payment_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS account_transactions (
+    transaction_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL REFERENCES student(student_id),
+    amount DECIMAL(12,2) NOT NULL,
+    type VARCHAR(12) NOT NULL,
+    status VARCHAR(12) NOT NULL,
+    description VARCHAR(255),
+    posted_at TIMESTAMPTZ NOT NULL,
+    due_date DATE,
+    -- Set on charges posted by the term tuition assessment
+    term_code VARCHAR(32),
+    -- Set on credits posted by an aid disbursement run
+    aid_award_id BIGINT
+);
+CREATE INDEX IF NOT EXISTS idx_account_transactions_student_posted ON account_transactions (student_id, posted_at, transaction_id);
+CREATE INDEX IF NOT EXISTS idx_account_transactions_student_term ON account_transactions (student_id, term_code);
+CREATE INDEX IF NOT EXISTS idx_account_transactions_aid_award ON account_transactions (aid_award_id);
+
+CREATE TABLE IF NOT EXISTS aid_awards (
+    award_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL REFERENCES student(student_id),
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    description VARCHAR(200),
+    term VARCHAR(20),
+    academic_year INTEGER,
+    amount_offered DECIMAL(12,2),
+    amount_accepted DECIMAL(12,2),
+    amount_disbursed DECIMAL(12,2),
+    created_at TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_aid_awards_term_student ON aid_awards (term, academic_year, student_id);
+
+-- Running totals per account, maintained by LedgerService with every posting
+CREATE TABLE IF NOT EXISTS account_balances (
+    account_id BIGINT PRIMARY KEY REFERENCES financial_accounts(account_id),
+    total_charges DECIMAL(14,2) NOT NULL,
+    total_credits DECIMAL(14,2) NOT NULL,
+    total_payments DECIMAL(14,2) NOT NULL,
+    total_aid_accepted DECIMAL(14,2) NOT NULL,
+    total_aid_disbursed DECIMAL(14,2) NOT NULL,
+    last_payment_amount DECIMAL(12,2),
+    last_payment_at TIMESTAMPTZ,
+    entry_count BIGINT NOT NULL,
+    last_entry_id BIGINT,
+    updated_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS account_ledger_entries (
+    ledger_entry_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id BIGINT NOT NULL REFERENCES financial_accounts(account_id),
+    entry_type VARCHAR(20) NOT NULL,
+    amount DECIMAL(12,2) NOT NULL,
+    transaction_id BIGINT REFERENCES account_transactions(transaction_id),
+    award_id BIGINT REFERENCES aid_awards(award_id),
+    recorded_at TIMESTAMPTZ NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_account_ledger_entries_account ON account_ledger_entries (account_id, ledger_entry_id);
+
+CREATE TABLE IF NOT EXISTS account_balance_snapshots (
+    snapshot_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id BIGINT NOT NULL REFERENCES financial_accounts(account_id),
+    through_entry_id BIGINT,
+    entry_count BIGINT NOT NULL,
+    total_charges DECIMAL(14,2) NOT NULL,
+    total_credits DECIMAL(14,2) NOT NULL,
+    total_payments DECIMAL(14,2) NOT NULL,
+    total_aid_accepted DECIMAL(14,2) NOT NULL,
+    total_aid_disbursed DECIMAL(14,2) NOT NULL,
+    taken_at TIMESTAMPTZ NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_account_balance_snapshots_account ON account_balance_snapshots (account_id, through_entry_id);
+
+CREATE TABLE IF NOT EXISTS statement_runs (
+    run_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    statement_month DATE NOT NULL,
+    format VARCHAR(8) NOT NULL,
+    output_dir VARCHAR(500) NOT NULL,
+    status VARCHAR(12) NOT NULL,
+    partition_count INTEGER NOT NULL,
+    started_at TIMESTAMPTZ NOT NULL,
+    finished_at TIMESTAMPTZ,
+    UNIQUE (statement_month, format)
+);
+
+CREATE TABLE IF NOT EXISTS statement_run_partitions (
+    partition_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id BIGINT NOT NULL REFERENCES statement_runs(run_id),
+    range_start BIGINT NOT NULL,
+    range_end BIGINT NOT NULL,
+    last_account_id BIGINT,
+    statements_written INTEGER NOT NULL,
+    status VARCHAR(12) NOT NULL,
+    error_message VARCHAR(500),
+    updated_at TIMESTAMPTZ NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_statement_run_partitions_run ON statement_run_partitions (run_id, status);
+
+CREATE TABLE IF NOT EXISTS scheduled_job_runs (
+    run_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    run_key VARCHAR(64),
+    shard INTEGER,
+    node_id VARCHAR(200) NOT NULL,
+    status VARCHAR(12) NOT NULL,
+    started_at TIMESTAMPTZ NOT NULL,
+    finished_at TIMESTAMPTZ NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    error_message VARCHAR(500)
+);
+CREATE INDEX IF NOT EXISTS idx_scheduled_job_runs_job ON scheduled_job_runs (job_name, run_key, shard);
+CREATE INDEX IF NOT EXISTS idx_scheduled_job_runs_started ON scheduled_job_runs (started_at);
+
 -- Insert demo users for E2E testing (using BCrypt hashed passwords)
 -- BCrypt hash for 'password': $2b$10$MaeYWA1x4HxyI9gf0Fv7XO.J/ftO1mdIfDv62/YFuOsepgH5neqHe
 INSERT INTO users (firstname, lastname, dob, ssn, email, password, status, role, ferpa_compliance, contact_by_phone, contact_by_email, contact_by_mail, ferpa_directory_opt_in, photo_release_opt_in, failed_attempts, account_locked)
@@ -77,4 +216,8 @@ ON CONFLICT (email) DO UPDATE SET
 INSERT INTO student (user_id, campus_id, department, standing, enrollement_status, gpa, expected_graduation)
 SELECT u.user_id, 'S1000001', 'COMPUTER_SCIENCE', 'SENIOR', 'ENROLLED', 3.50, '2026-05-15'
 FROM users u WHERE u.email = 'demo.student@uwm.edu'
-ON CONFLICT (campus_id) DO NOTHING;
\ No newline at end of file
+ON CONFLICT (campus_id) DO NOTHING;
+-- The application assigns student ids from Hibernate's pooled student_seq (blocks of 50), not from
+-- the SERIAL default above; create it here and move it past the rows seeded by this script
+CREATE SEQUENCE IF NOT EXISTS student_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('student_seq', COALESCE(MAX(student_id), 1), MAX(student_id) IS NOT NULL) FROM student;
@@ -1,9 +1,16 @@
 package com.uwm.paws360.Controller;
 
-import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.DTO.User.StudentBatchRequestDTO;
+import com.uwm.paws360.DTO.User.StudentBatchResponseDTO;
+import com.uwm.paws360.DTO.User.StudentSearchPageDTO;
+import com.uwm.paws360.DTO.User.StudentSearchResultDTO;
 import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Service.AdminDashboardService;
 import com.uwm.paws360.Service.SessionManagementService;
 import com.uwm.paws360.Service.StudentProfileService;
+import com.uwm.paws360.Service.StudentSearchService;
+import com.uwm.paws360.config.SessionAuthenticationFilter;
+import com.uwm.paws360.config.SessionPrincipal;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,22 +30,30 @@ import java.util.Optional;
 public class AdminStudentController {
 
     private final StudentProfileService studentProfileService;
+    private final StudentSearchService studentSearchService;
+    private final AdminDashboardService adminDashboardService;
     private final SessionManagementService sessionManagementService;
 
     public AdminStudentController(StudentProfileService studentProfileService,
+                                StudentSearchService studentSearchService,
+                                AdminDashboardService adminDashboardService,
                                 SessionManagementService sessionManagementService) {
         this.studentProfileService = studentProfileService;
+        this.studentSearchService = studentSearchService;
+        this.adminDashboardService = adminDashboardService;
         this.sessionManagementService = sessionManagementService;
     }
 
     /*------------------------- Student Search Endpoints -------------------------*/
 
     /**
-     * Search students by name for admin use
+     * Search students by name, email or campus id for admin use, best match first. Pass the
+     * returned next_cursor as {@code cursor} to get the following page.
      */
     @GetMapping("/students/search")
     public ResponseEntity<Map<String, Object>> searchStudents(@RequestParam(required = false) String query,
                                                               @RequestParam(required = false) String department,
+                                                              @RequestParam(required = false) String cursor,
                                                               @RequestParam(defaultValue = "50") int limit,
                                                               HttpServletRequest request) {
         // Verify admin authentication
@@ -47,29 +62,25 @@ public class AdminStudentController {
             return authCheck;
         }
 
-        List<StudentProfileService.StudentProfileData> students;
-        
-        if (department != null && !department.trim().isEmpty()) {
-            students = studentProfileService.getStudentsByDepartment(department);
-        } else if (query != null && !query.trim().isEmpty()) {
-            students = studentProfileService.searchStudentsByName(query);
-        } else {
-            students = studentProfileService.getAllStudents();
-        }
-
-        // Apply limit to results
-        if (students.size() > limit) {
-            students = students.subList(0, limit);
+        StudentSearchPageDTO page;
+        try {
+            page = studentSearchService.search(query, department, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         }
 
-        List<Map<String, Object>> studentList = students.stream()
+        List<Map<String, Object>> studentList = page.students().stream()
             .map(this::createAdminStudentSummary)
             .toList();
 
         Map<String, Object> response = new HashMap<>();
         response.put("students", studentList);
         response.put("count", studentList.size());
-        response.put("total_available", studentProfileService.getAllStudents().size());
+        response.put("total_available", page.estimatedTotal());
+        response.put("next_cursor", page.nextCursor());
+        response.put("has_more", page.hasMore());
         response.put("query", query);
         response.put("department", department);
         response.put("limit", limit);
@@ -77,6 +88,30 @@ public class AdminStudentController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get summaries for up to 1,000 students by user ID in one call (roster pages, admin tools)
+     */
+    @PostMapping("/students/batch")
+    public ResponseEntity<?> getStudentsBatch(@RequestBody StudentBatchRequestDTO batchRequest,
+                                              HttpServletRequest request) {
+        // Verify admin authentication
+        ResponseEntity<Map<String, Object>> authCheck = verifyAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        if (batchRequest == null || batchRequest.userIds() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "userIds is required"));
+        }
+
+        try {
+            StudentBatchResponseDTO response = studentProfileService.getStudentSummaries(batchRequest.userIds());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get detailed student profile by user ID (admin view)
      */
@@ -158,7 +193,7 @@ public class AdminStudentController {
     }
 
     /**
-     * Get student statistics for admin dashboard
+     * Get student statistics for admin dashboard, from the periodically refreshed snapshot
      */
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats(HttpServletRequest request) {
@@ -168,13 +203,17 @@ public class AdminStudentController {
             return authCheck;
         }
 
-        Map<String, Long> counts = studentProfileService.getStudentCounts();
+        AdminDashboardService.Snapshot snapshot = adminDashboardService.snapshot();
         
         Map<String, Object> stats = new HashMap<>();
-        stats.put("student_counts", counts);
-        stats.put("active_sessions", sessionManagementService.getActiveSessionsCount());
-        stats.put("session_stats", sessionManagementService.getSessionStatsByService());
-        stats.put("generated_at", java.time.LocalDateTime.now());
+        stats.put("student_counts", snapshot.studentCounts());
+        stats.put("students_by_department", snapshot.studentsByDepartment());
+        stats.put("students_by_standing", snapshot.studentsByStanding());
+        stats.put("students_by_enrollment_status", snapshot.studentsByEnrollmentStatus());
+        stats.put("section_enrollments", snapshot.sectionEnrollmentsByStatus());
+        stats.put("active_sessions", snapshot.activeSessions());
+        stats.put("session_stats", snapshot.activeSessionsByService());
+        stats.put("generated_at", snapshot.refreshedAt());
 
         return ResponseEntity.ok(stats);
     }
@@ -185,24 +224,22 @@ public class AdminStudentController {
      * Verify admin access and return error response if unauthorized
      */
     private ResponseEntity<Map<String, Object>> verifyAdminAccess(HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
-        
-        if (sessionToken == null) {
+        if (SessionAuthenticationFilter.extractSessionToken(request) == null) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Authentication required");
             errorResponse.put("required_role", "Administrator or Super_Administrator");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
         }
 
-        Optional<AuthenticationSession> sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
+        Optional<SessionPrincipal> principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
         
-        if (sessionOpt.isEmpty()) {
+        if (principal.isEmpty()) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Invalid or expired session");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
         }
 
-        Users user = sessionOpt.get().getUser();
+        Users user = principal.get().user();
         if (!hasAdminRole(user)) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Insufficient privileges");
@@ -218,43 +255,37 @@ public class AdminStudentController {
      * Get current admin user info from session
      */
     private String getCurrentAdminUser(HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
-        if (sessionToken != null) {
-            Optional<AuthenticationSession> sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
-            if (sessionOpt.isPresent()) {
-                Users user = sessionOpt.get().getUser();
-                return user.getEmail() + " (" + user.getRole().toString() + ")";
-            }
-        }
-        return "Unknown Admin";
+        return SessionAuthenticationFilter.resolve(request, sessionManagementService)
+                .map(principal -> principal.user().getEmail() + " (" + principal.role() + ")")
+                .orElse("Unknown Admin");
     }
 
     /**
      * Create summary student profile for admin list view
      */
-    private Map<String, Object> createAdminStudentSummary(StudentProfileService.StudentProfileData profile) {
+    private Map<String, Object> createAdminStudentSummary(StudentSearchResultDTO student) {
         Map<String, Object> summary = new HashMap<>();
         
         // User information
-        summary.put("user_id", profile.getUser().getId());
-        summary.put("student_id", profile.getStudent().getId());
-        summary.put("email", profile.getUser().getEmail());
-        summary.put("firstname", profile.getUser().getFirstname());
-        summary.put("lastname", profile.getUser().getLastname());
-        summary.put("preferred_name", profile.getUser().getPreferred_name());
-        summary.put("status", profile.getUser().getStatus());
+        summary.put("user_id", student.userId());
+        summary.put("student_id", student.studentId());
+        summary.put("email", student.email());
+        summary.put("firstname", student.firstname());
+        summary.put("lastname", student.lastname());
+        summary.put("preferred_name", student.preferredName());
+        summary.put("status", student.status());
         
         // Student academic information
-        summary.put("campus_id", profile.getStudent().getCampusId());
-        summary.put("department", profile.getStudent().getDepartment());
-        summary.put("standing", profile.getStudent().getStanding());
-        summary.put("enrollment_status", profile.getStudent().getEnrollementStatus());
-        summary.put("gpa", profile.getStudent().getGpa());
-        summary.put("expected_graduation", profile.getStudent().getExpectedGraduation());
+        summary.put("campus_id", student.campusId());
+        summary.put("department", student.department());
+        summary.put("standing", student.standing());
+        summary.put("enrollment_status", student.enrollmentStatus());
+        summary.put("gpa", student.gpa());
+        summary.put("expected_graduation", student.expectedGraduation());
         
         // Admin-specific fields
-        summary.put("last_updated", profile.getStudent().getUpdatedAt());
-        summary.put("account_created", profile.getUser().getDate_created());
+        summary.put("last_updated", student.lastUpdated());
+        summary.put("account_created", student.accountCreated());
         
         return summary;
     }
@@ -299,28 +330,6 @@ public class AdminStudentController {
         return response;
     }
 
-    /**
-     * Extract session token from request
-     */
-    private String extractSessionToken(HttpServletRequest request) {
-        // First try to get from cookie
-        if (request.getCookies() != null) {
-            for (var cookie : request.getCookies()) {
-                if ("PAWS360_SESSION".equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
-            }
-        }
-        
-        // Fallback to Authorization header
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
-        }
-        
-        return request.getHeader("X-Session-Token");
-    }
-
     /**
      * Check if user has admin role
      */
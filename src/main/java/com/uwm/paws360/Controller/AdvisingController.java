@@ -2,10 +2,13 @@ package com.uwm.paws360.Controller;
 
 import com.uwm.paws360.DTO.Advising.AdvisorDTO;
 import com.uwm.paws360.DTO.Advising.AppointmentDTO;
+import com.uwm.paws360.DTO.Advising.MessageDTO;
+import com.uwm.paws360.DTO.Advising.MessagePageDTO;
 import com.uwm.paws360.Service.AdvisingService;
 import org.springframework.http.ResponseEntity;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
 
@@ -44,6 +47,24 @@ public class AdvisingController {
         return ResponseEntity.ok(advisingService.listMessages(studentId));
     }
 
+    @GetMapping("/student/{studentId}/messages/page")
+    public ResponseEntity<MessagePageDTO> messagePage(@PathVariable Integer studentId,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(advisingService.pageMessages(studentId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Long poll: answers with the messages after afterId once there are any, or an empty list on timeout
+    @GetMapping("/student/{studentId}/messages/poll")
+    public DeferredResult<List<MessageDTO>> pollMessages(@PathVariable Integer studentId,
+                                                         @RequestParam(defaultValue = "0") long afterId) {
+        return advisingService.awaitMessages(studentId, afterId);
+    }
+
     @PostMapping("/student/{studentId}/messages")
     public ResponseEntity<com.uwm.paws360.DTO.Advising.MessageDTO> sendMessage(
             @PathVariable Integer studentId,
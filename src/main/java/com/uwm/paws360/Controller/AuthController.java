@@ -5,7 +5,11 @@ import com.uwm.paws360.DTO.Login.UserLoginResponseDTO;
 import com.uwm.paws360.Entity.Base.AuthenticationSession;
 import com.uwm.paws360.Entity.Base.Users;
 import com.uwm.paws360.Service.LoginService;
+import com.uwm.paws360.Service.PasswordHashingService;
 import com.uwm.paws360.Service.SessionManagementService;
+import com.uwm.paws360.config.ClientAddressResolver;
+import com.uwm.paws360.config.SessionAuthenticationFilter;
+import com.uwm.paws360.config.SessionPrincipal;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -32,16 +36,20 @@ public class AuthController {
 
     private final LoginService loginService;
     private final SessionManagementService sessionManagementService;
+    private final ClientAddressResolver clientAddressResolver;
     
     // Cookie configuration for SSO
-    private static final String SESSION_COOKIE_NAME = "PAWS360_SESSION";
+    private static final String SESSION_COOKIE_NAME = SessionAuthenticationFilter.SESSION_COOKIE_NAME;
     private static final int COOKIE_MAX_AGE = 3600; // 1 hour in seconds
     private static final boolean COOKIE_HTTP_ONLY = true;
     private static final boolean COOKIE_SECURE = false; // Set to true in production with HTTPS
+    private static final int LOGIN_RETRY_AFTER_SECONDS = 1;
 
-    public AuthController(LoginService loginService, SessionManagementService sessionManagementService) {
+    public AuthController(LoginService loginService, SessionManagementService sessionManagementService,
+                          ClientAddressResolver clientAddressResolver) {
         this.loginService = loginService;
         this.sessionManagementService = sessionManagementService;
+        this.clientAddressResolver = clientAddressResolver;
     }
 
     /**
@@ -58,60 +66,42 @@ public class AuthController {
             loginDTO.email() != null ? loginDTO.email().replaceAll("(.{3}).*(@.*)", "$1***$2") : "null", 
             clientIp);
         
+        String serviceOrigin = request.getHeader("X-Service-Origin");
+        if (serviceOrigin == null) {
+            serviceOrigin = "student-portal"; // Default for frontend requests
+        }
+        
         try {
-            // Use existing login service for authentication
-            UserLoginResponseDTO loginResponse = loginService.login(loginDTO);
+            // Authenticates and creates the SSO session with this request's context in one pass
+            UserLoginResponseDTO loginResponse = loginService.login(loginDTO, clientIp, userAgent, serviceOrigin);
             
             if (loginResponse.message().equals("Login Successful")) {
-                // Create SSO session with additional context
-                String serviceOrigin = request.getHeader("X-Service-Origin");
-                if (serviceOrigin == null) {
-                    serviceOrigin = "student-portal"; // Default for frontend requests
+                // Set HTTP-only session cookie for SSO.
+                // Build the Set-Cookie header explicitly so we can include SameSite and
+                // control Secure/HttpOnly flags consistently across environments.
+                // Note: using SameSite=Lax by default keeps reasonable CSRF protections
+                // while still working for same-site deployments. If you run cross-site
+                // in production (frontend and backend on different domains), consider
+                // using `SameSite=None; Secure` and serving over HTTPS.
+                StringBuilder cookieHeader = new StringBuilder();
+                cookieHeader.append(SESSION_COOKIE_NAME).append("=").append(loginResponse.session_token());
+                cookieHeader.append("; Max-Age=").append(COOKIE_MAX_AGE);
+                cookieHeader.append("; Path=/");
+                if (COOKIE_HTTP_ONLY) {
+                    cookieHeader.append("; HttpOnly");
                 }
-                
-                // Create or update SSO session
-                Optional<Users> userOpt = loginService.validateSSOSession(loginResponse.session_token());
-                if (userOpt.isPresent()) {
-                    Users user = userOpt.get();
-                    
-                    sessionManagementService.createSession(
-                        user,
-                        loginResponse.session_token(),
-                        clientIp,
-                        userAgent,
-                        serviceOrigin
-                    );
-                    
-                    // Set HTTP-only session cookie for SSO.
-                    // Build the Set-Cookie header explicitly so we can include SameSite and
-                    // control Secure/HttpOnly flags consistently across environments.
-                    // Note: using SameSite=Lax by default keeps reasonable CSRF protections
-                    // while still working for same-site deployments. If you run cross-site
-                    // in production (frontend and backend on different domains), consider
-                    // using `SameSite=None; Secure` and serving over HTTPS.
-                    StringBuilder cookieHeader = new StringBuilder();
-                    cookieHeader.append(SESSION_COOKIE_NAME).append("=").append(loginResponse.session_token());
-                    cookieHeader.append("; Max-Age=").append(COOKIE_MAX_AGE);
-                    cookieHeader.append("; Path=/");
-                    if (COOKIE_HTTP_ONLY) {
-                        cookieHeader.append("; HttpOnly");
-                    }
-                    if (COOKIE_SECURE) {
-                        cookieHeader.append("; Secure");
-                    }
-                    // Default to Lax which works for same-site setups and is safer for local dev.
-                    cookieHeader.append("; SameSite=Lax");
-                    response.addHeader("Set-Cookie", cookieHeader.toString());
-                    
-                    logger.info("Successful login for user ID: {} ({}), role: {}, from IP: {}", 
-                        user.getId(), user.getEmail().replaceAll("(.{3}).*(@.*)", "$1***$2"), 
-                        user.getRole(), clientIp);
-                    
-                    return ResponseEntity.ok(loginResponse);
-                } else {
-                    logger.warn("Login response indicated success but session validation failed for email: {}", 
-                        loginDTO.email() != null ? loginDTO.email().replaceAll("(.{3}).*(@.*)", "$1***$2") : "null");
+                if (COOKIE_SECURE) {
+                    cookieHeader.append("; Secure");
                 }
+                // Default to Lax which works for same-site setups and is safer for local dev.
+                cookieHeader.append("; SameSite=Lax");
+                response.addHeader("Set-Cookie", cookieHeader.toString());
+                
+                logger.info("Successful login for user ID: {} ({}), role: {}, from IP: {}", 
+                    loginResponse.user_id(), loginResponse.email().replaceAll("(.{3}).*(@.*)", "$1***$2"), 
+                    loginResponse.role(), clientIp);
+                
+                return ResponseEntity.ok(loginResponse);
             }
             
             // Handle authentication failures
@@ -123,8 +113,23 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.LOCKED).body(loginResponse);
             }
             
+            if (loginResponse.message().startsWith("Too Many Attempts")) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(loginResponse);
+            }
+            
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(loginResponse);
             
+        } catch (PasswordHashingService.HashingBusyException e) {
+            logger.warn("Login rejected for IP: {} - {}", clientIp, e.getMessage());
+            
+            UserLoginResponseDTO busyResponse = new UserLoginResponseDTO(
+                -1, null, null, null, null, null, null, null,
+                "Too many login requests - try again shortly"
+            );
+            
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(LOGIN_RETRY_AFTER_SECONDS))
+                .body(busyResponse);
         } catch (Exception e) {
             logger.error("Login error for email: {} from IP: {}: {}", 
                 loginDTO.email() != null ? loginDTO.email().replaceAll("(.{3}).*(@.*)", "$1***$2") : "null", 
@@ -145,17 +150,17 @@ public class AuthController {
     @GetMapping("/validate")
     public ResponseEntity<Map<String, Object>> validateSession(HttpServletRequest request) {
         String clientIp = getClientIpAddress(request);
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         Map<String, Object> responseBody = new HashMap<>();
         
         try {
             if (sessionToken != null) {
-                Optional<AuthenticationSession> sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
+                Optional<SessionPrincipal> principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
                 
-                if (sessionOpt.isPresent()) {
-                    AuthenticationSession session = sessionOpt.get();
-                    Users user = session.getUser();
+                if (principal.isPresent()) {
+                    AuthenticationSession session = principal.get().session();
+                    Users user = principal.get().user();
                     
                     responseBody.put("valid", true);
                     responseBody.put("user_id", user.getId());
@@ -200,7 +205,7 @@ public class AuthController {
      */
     @PostMapping("/extend")
     public ResponseEntity<Map<String, Object>> extendSession(HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         Map<String, Object> responseBody = new HashMap<>();
         
@@ -225,7 +230,7 @@ public class AuthController {
     @PostMapping("/logout")
     public ResponseEntity<Map<String, Object>> logout(HttpServletRequest request, 
                                                      HttpServletResponse response) {
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         Map<String, Object> responseBody = new HashMap<>();
         
@@ -264,29 +269,25 @@ public class AuthController {
      */
     @GetMapping("/session")
     public ResponseEntity<Map<String, Object>> getSessionInfo(HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
-        
         Map<String, Object> responseBody = new HashMap<>();
         
-        if (sessionToken != null) {
-            Optional<AuthenticationSession> sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
+        Optional<SessionPrincipal> principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        
+        if (principal.isPresent()) {
+            AuthenticationSession session = principal.get().session();
+            Users user = principal.get().user();
             
-            if (sessionOpt.isPresent()) {
-                AuthenticationSession session = sessionOpt.get();
-                Users user = session.getUser();
-                
-                responseBody.put("session_id", session.getSessionId());
-                responseBody.put("user_id", user.getId());
-                responseBody.put("email", user.getEmail());
-                responseBody.put("role", user.getRole());
-                responseBody.put("created_at", session.getCreatedAt());
-                responseBody.put("expires_at", session.getExpiresAt());
-                responseBody.put("last_accessed", session.getLastAccessed());
-                responseBody.put("service_origin", session.getServiceOrigin());
-                responseBody.put("ip_address", session.getIpAddress());
-                
-                return ResponseEntity.ok(responseBody);
-            }
+            responseBody.put("session_id", session.getSessionId());
+            responseBody.put("user_id", user.getId());
+            responseBody.put("email", user.getEmail());
+            responseBody.put("role", user.getRole());
+            responseBody.put("created_at", session.getCreatedAt());
+            responseBody.put("expires_at", session.getExpiresAt());
+            responseBody.put("last_accessed", session.getLastAccessed());
+            responseBody.put("service_origin", session.getServiceOrigin());
+            responseBody.put("ip_address", session.getIpAddress());
+            
+            return ResponseEntity.ok(responseBody);
         }
         
         responseBody.put("message", "No valid session found");
@@ -318,38 +319,34 @@ public class AuthController {
      */
     @GetMapping("/validate/admin")
     public ResponseEntity<Map<String, Object>> validateAdminSession(HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
-        
         Map<String, Object> responseBody = new HashMap<>();
         
-        if (sessionToken != null) {
-            Optional<AuthenticationSession> sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
+        Optional<SessionPrincipal> principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        
+        if (principal.isPresent()) {
+            AuthenticationSession session = principal.get().session();
+            Users user = principal.get().user();
             
-            if (sessionOpt.isPresent()) {
-                AuthenticationSession session = sessionOpt.get();
-                Users user = session.getUser();
+            // Check if user has admin privileges
+            if (hasAdminRole(user)) {
+                responseBody.put("valid", true);
+                responseBody.put("user_id", user.getId());
+                responseBody.put("email", user.getEmail());
+                responseBody.put("firstname", user.getFirstname());
+                responseBody.put("lastname", user.getLastname());
+                responseBody.put("role", user.getRole().toString());
+                responseBody.put("admin_level", getAdminLevel(user));
+                responseBody.put("session_id", session.getSessionId());
+                responseBody.put("service_origin", session.getServiceOrigin());
+                responseBody.put("expires_at", session.getExpiresAt());
+                responseBody.put("last_accessed", session.getLastAccessed());
                 
-                // Check if user has admin privileges
-                if (hasAdminRole(user)) {
-                    responseBody.put("valid", true);
-                    responseBody.put("user_id", user.getId());
-                    responseBody.put("email", user.getEmail());
-                    responseBody.put("firstname", user.getFirstname());
-                    responseBody.put("lastname", user.getLastname());
-                    responseBody.put("role", user.getRole().toString());
-                    responseBody.put("admin_level", getAdminLevel(user));
-                    responseBody.put("session_id", session.getSessionId());
-                    responseBody.put("service_origin", session.getServiceOrigin());
-                    responseBody.put("expires_at", session.getExpiresAt());
-                    responseBody.put("last_accessed", session.getLastAccessed());
-                    
-                    return ResponseEntity.ok(responseBody);
-                } else {
-                    responseBody.put("valid", false);
-                    responseBody.put("error", "Insufficient privileges");
-                    responseBody.put("required_role", "Administrator or Super_Administrator");
-                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(responseBody);
-                }
+                return ResponseEntity.ok(responseBody);
+            } else {
+                responseBody.put("valid", false);
+                responseBody.put("error", "Insufficient privileges");
+                responseBody.put("required_role", "Administrator or Super_Administrator");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(responseBody);
             }
         }
         
@@ -363,42 +360,38 @@ public class AuthController {
      */
     @GetMapping("/admin/profile")
     public ResponseEntity<Map<String, Object>> getAdminProfile(HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
-        
         Map<String, Object> responseBody = new HashMap<>();
         
-        if (sessionToken != null) {
-            Optional<AuthenticationSession> sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
+        Optional<SessionPrincipal> principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        
+        if (principal.isPresent()) {
+            AuthenticationSession session = principal.get().session();
+            Users user = principal.get().user();
             
-            if (sessionOpt.isPresent()) {
-                AuthenticationSession session = sessionOpt.get();
-                Users user = session.getUser();
+            // Verify admin role
+            if (hasAdminRole(user)) {
+                responseBody.put("user_id", user.getId());
+                responseBody.put("email", user.getEmail());
+                responseBody.put("firstname", user.getFirstname());
+                responseBody.put("lastname", user.getLastname());
+                responseBody.put("role", user.getRole().toString());
+                responseBody.put("admin_level", getAdminLevel(user));
+                responseBody.put("permissions", getAdminPermissions(user));
+                responseBody.put("status", user.getStatus());
+                responseBody.put("phone", user.getPhone());
+                responseBody.put("country_code", user.getCountryCode());
+                responseBody.put("session_info", Map.of(
+                    "session_id", session.getSessionId(),
+                    "service_origin", session.getServiceOrigin(),
+                    "ip_address", session.getIpAddress(),
+                    "expires_at", session.getExpiresAt(),
+                    "last_accessed", session.getLastAccessed()
+                ));
                 
-                // Verify admin role
-                if (hasAdminRole(user)) {
-                    responseBody.put("user_id", user.getId());
-                    responseBody.put("email", user.getEmail());
-                    responseBody.put("firstname", user.getFirstname());
-                    responseBody.put("lastname", user.getLastname());
-                    responseBody.put("role", user.getRole().toString());
-                    responseBody.put("admin_level", getAdminLevel(user));
-                    responseBody.put("permissions", getAdminPermissions(user));
-                    responseBody.put("status", user.getStatus());
-                    responseBody.put("phone", user.getPhone());
-                    responseBody.put("country_code", user.getCountryCode());
-                    responseBody.put("session_info", Map.of(
-                        "session_id", session.getSessionId(),
-                        "service_origin", session.getServiceOrigin(),
-                        "ip_address", session.getIpAddress(),
-                        "expires_at", session.getExpiresAt(),
-                        "last_accessed", session.getLastAccessed()
-                    ));
-                    
-                    return ResponseEntity.ok(responseBody);
-                } else {
-                    responseBody.put("error", "Access denied: Admin privileges required");
-                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(responseBody);
-                }
+                return ResponseEntity.ok(responseBody);
+            } else {
+                responseBody.put("error", "Access denied: Admin privileges required");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(responseBody);
             }
         }
         
@@ -469,43 +462,11 @@ public class AuthController {
         return permissions;
     }
 
-    /**
-     * Extract session token from cookie or Authorization header
-     */
-    private String extractSessionToken(HttpServletRequest request) {
-        // First try to get from cookie (preferred for SSO)
-        if (request.getCookies() != null) {
-            for (Cookie cookie : request.getCookies()) {
-                if (SESSION_COOKIE_NAME.equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
-            }
-        }
-        
-        // Fallback to Authorization header for API clients
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
-        }
-        
-        // Fallback to X-Session-Token header
-        return request.getHeader("X-Session-Token");
-    }
-
     /**
      * Extract client IP address from request
      */
     private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-        
-        return request.getRemoteAddr();
+        // Forwarding headers only count when they come from a trusted proxy
+        return clientAddressResolver.resolve(request);
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.uwm.paws360.Entity.Course.CourseSection;
 import com.uwm.paws360.Entity.Course.Courses;
 import com.uwm.paws360.Entity.Course.SectionStaffAssignment;
 import com.uwm.paws360.Service.CourseCatalogService;
+import com.uwm.paws360.Service.InstructorDashboardService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,9 +18,12 @@ import org.springframework.web.bind.annotation.*;
 public class CourseController {
 
     private final CourseCatalogService courseCatalogService;
+    private final InstructorDashboardService instructorDashboardService;
 
-    public CourseController(CourseCatalogService courseCatalogService) {
+    public CourseController(CourseCatalogService courseCatalogService,
+                            InstructorDashboardService instructorDashboardService) {
         this.courseCatalogService = courseCatalogService;
+        this.instructorDashboardService = instructorDashboardService;
     }
 
     @GetMapping
@@ -67,6 +71,12 @@ public class CourseController {
         return ResponseEntity.ok(prerequisite);
     }
 
+    // Teaching dashboard: every section the staff member is assigned to, with enrollment and grading counts
+    @GetMapping("/instructors/{userId}/dashboard")
+    public ResponseEntity<InstructorDashboardDTO> instructorDashboard(@PathVariable Integer userId) {
+        return ResponseEntity.ok(instructorDashboardService.getDashboard(userId));
+    }
+
     @PostMapping("/sections/assign-staff")
     public ResponseEntity<SectionStaffAssignmentResponseDTO> assignStaff(@Valid @RequestBody SectionStaffAssignmentRequestDTO request) {
         SectionStaffAssignment assignment = courseCatalogService.assignStaff(request);
@@ -2,7 +2,12 @@ package com.uwm.paws360.Controller;
 
 import com.uwm.paws360.DTO.Course.*;
 import com.uwm.paws360.Service.CourseEnrollmentService;
+import com.uwm.paws360.Service.GradeSyncService;
+import com.uwm.paws360.Service.RosterExportService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -10,7 +15,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -18,9 +30,15 @@ import java.util.List;
 public class CourseEnrollmentController {
 
     private final CourseEnrollmentService courseEnrollmentService;
+    private final GradeSyncService gradeSyncService;
+    private final RosterExportService rosterExportService;
 
-    public CourseEnrollmentController(CourseEnrollmentService courseEnrollmentService) {
+    public CourseEnrollmentController(CourseEnrollmentService courseEnrollmentService,
+                                      GradeSyncService gradeSyncService,
+                                      RosterExportService rosterExportService) {
         this.courseEnrollmentService = courseEnrollmentService;
+        this.gradeSyncService = gradeSyncService;
+        this.rosterExportService = rosterExportService;
     }
 
     @PostMapping("/enroll")
@@ -53,8 +71,47 @@ public class CourseEnrollmentController {
         return ResponseEntity.ok(courseEnrollmentService.updateCurrentGrade(request));
     }
 
+    // Nightly LMS feed: one GradeUpdateRequestDTO per line, read straight off the request stream
+    @PostMapping(value = "/grades/sync", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<GradeSyncResultDTO> syncCurrentGrades(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(gradeSyncService.syncCurrentGrades(request.getInputStream()));
+    }
+
     @PostMapping("/finalize")
     public ResponseEntity<CourseEnrollmentResponseDTO> finalizeGrade(@Valid @RequestBody FinalizeGradeRequestDTO request) {
         return ResponseEntity.ok(courseEnrollmentService.finalizeGrade(request));
     }
+
+    // Registrar rosters: CSV streamed from a database cursor while the response is being written
+    @GetMapping("/sections/{sectionId}/roster/export")
+    public ResponseEntity<StreamingResponseBody> exportSectionRoster(@PathVariable Long sectionId,
+                                                                     @RequestParam(defaultValue = "false") boolean includeDropped) {
+        if (!rosterExportService.sectionExists(sectionId)) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            rosterExportService.exportSectionRoster(sectionId, includeDropped, writer);
+        };
+        return csvAttachment("roster-section-" + sectionId + ".csv", body);
+    }
+
+    @GetMapping("/rosters/export")
+    public ResponseEntity<StreamingResponseBody> exportTermRosters(@RequestParam String term,
+                                                                   @RequestParam Integer academicYear,
+                                                                   @RequestParam(defaultValue = "false") boolean includeDropped) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            rosterExportService.exportTermRosters(term, academicYear, includeDropped, writer);
+        };
+        String filename = "rosters-" + term.replaceAll("[^A-Za-z0-9_-]", "") + "-" + academicYear + ".csv";
+        return csvAttachment(filename, body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> csvAttachment(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
 }
@@ -5,8 +5,14 @@ import com.uwm.paws360.Entity.Finances.*;
 import com.uwm.paws360.Entity.UserTypes.Student;
 import com.uwm.paws360.JPARepository.Finances.*;
 import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.Service.AidDisbursementService;
 import com.uwm.paws360.Service.FinancesService;
+import com.uwm.paws360.Service.LedgerService;
+import com.uwm.paws360.Service.PaymentPlanInstallmentService;
+import com.uwm.paws360.Service.StatementService;
+import com.uwm.paws360.Service.TuitionAssessmentService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,19 +31,34 @@ public class FinancesAdminController {
     private final AidAwardRepository aidAwardRepository;
     private final PaymentPlanRepository paymentPlanRepository;
     private final FinancesService financesService;
+    private final LedgerService ledgerService;
+    private final TuitionAssessmentService tuitionAssessmentService;
+    private final StatementService statementService;
+    private final PaymentPlanInstallmentService installmentService;
+    private final AidDisbursementService aidDisbursementService;
 
     public FinancesAdminController(StudentRepository studentRepository,
                                    FinancialAccountRepository financialAccountRepository,
                                    AccountTransactionRepository transactionRepository,
                                    AidAwardRepository aidAwardRepository,
                                    PaymentPlanRepository paymentPlanRepository,
-                                   FinancesService financesService) {
+                                   FinancesService financesService,
+                                   LedgerService ledgerService,
+                                   TuitionAssessmentService tuitionAssessmentService,
+                                   StatementService statementService,
+                                   PaymentPlanInstallmentService installmentService,
+                                   AidDisbursementService aidDisbursementService) {
         this.studentRepository = studentRepository;
         this.financialAccountRepository = financialAccountRepository;
         this.transactionRepository = transactionRepository;
         this.aidAwardRepository = aidAwardRepository;
         this.paymentPlanRepository = paymentPlanRepository;
         this.financesService = financesService;
+        this.ledgerService = ledgerService;
+        this.tuitionAssessmentService = tuitionAssessmentService;
+        this.statementService = statementService;
+        this.installmentService = installmentService;
+        this.aidDisbursementService = aidDisbursementService;
     }
 
     @PostMapping("/students/{studentId}/account")
@@ -89,7 +110,7 @@ public class FinancesAdminController {
         if (t.getDescription() == null) t.setDescription(req.description());
         if (req.postedAt() != null) t.setPostedAt(req.postedAt());
         t.setDueDate(req.dueDate());
-        AccountTransaction saved = transactionRepository.save(t);
+        AccountTransaction saved = ledgerService.postTransaction(t);
         // If posted, adjust stored balances to keep legacy views consistent
         if (saved.getStatus() == AccountTransaction.Status.POSTED) {
             financialAccountRepository.findByStudent(s).ifPresent(acc -> {
@@ -135,7 +156,7 @@ public class FinancesAdminController {
         if (req.status() != null) a.setStatus(req.status());
         a.setTerm(req.term());
         a.setAcademicYear(req.academicYear());
-        AidAward saved = aidAwardRepository.save(a);
+        AidAward saved = ledgerService.postAidAward(a);
         return ResponseEntity.ok(new AidAwardDTO(saved.getId(), saved.getType(), saved.getDescription(),
                 saved.getAmountOffered(), saved.getAmountAccepted(), saved.getAmountDisbursed(), saved.getStatus(),
                 saved.getTerm(), saved.getAcademicYear()));
@@ -185,7 +206,7 @@ public class FinancesAdminController {
         t1.setStatus(AccountTransaction.Status.POSTED);
         t1.setDescription("Tuition");
         t1.setDueDate(due);
-        AccountTransaction saved1 = transactionRepository.save(t1);
+        AccountTransaction saved1 = ledgerService.postTransaction(t1);
         created.add(new TransactionDTO(saved1.getId(), saved1.getPostedAt(), saved1.getDueDate(), saved1.getDescription(), saved1.getAmount(), saved1.getType(), saved1.getStatus()));
 
         AccountTransaction t2 = new AccountTransaction();
@@ -195,7 +216,7 @@ public class FinancesAdminController {
         t2.setStatus(AccountTransaction.Status.POSTED);
         t2.setDescription("Student Fees");
         t2.setDueDate(due);
-        AccountTransaction saved2 = transactionRepository.save(t2);
+        AccountTransaction saved2 = ledgerService.postTransaction(t2);
         created.add(new TransactionDTO(saved2.getId(), saved2.getPostedAt(), saved2.getDueDate(), saved2.getDescription(), saved2.getAmount(), saved2.getType(), saved2.getStatus()));
 
         // Stored balances are adjusted by createTransaction logic for POSTED items
@@ -207,4 +228,51 @@ public class FinancesAdminController {
 
         return ResponseEntity.ok(created);
     }
+
+    @PostMapping("/students/{studentId}/ledger/rebuild")
+    public ResponseEntity<FinancesSummaryResponseDTO> rebuildLedgerBalance(@PathVariable Integer studentId) {
+        Student s = studentRepository.findById(studentId)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Student not found for id " + studentId));
+        FinancialAccount acc = financialAccountRepository.findByStudent(s)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Financial account not found for student id " + studentId));
+        ledgerService.rebuildBalance(acc.getId());
+        return ResponseEntity.ok(financesService.getSummary(studentId));
+    }
+
+    @PostMapping("/tuition/assess")
+    public ResponseEntity<TuitionAssessmentResultDTO> assessTermTuition(@Valid @RequestBody TuitionAssessmentRequestDTO req) {
+        return ResponseEntity.ok(tuitionAssessmentService.assessTerm(req.term(), req.academicYear(), req.dueDate()));
+    }
+
+    @PostMapping("/statements/runs")
+    public ResponseEntity<StatementRunDTO> startStatementRun(@Valid @RequestBody StatementRunRequestDTO req) {
+        return ResponseEntity.accepted().body(statementService.startRun(req.month(), req.format()));
+    }
+
+    @GetMapping("/statements/runs/{runId}")
+    public ResponseEntity<StatementRunDTO> getStatementRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(statementService.getRun(runId));
+    }
+
+    @PostMapping("/statements/runs/{runId}/resume")
+    public ResponseEntity<StatementRunDTO> resumeStatementRun(@PathVariable Long runId) {
+        return ResponseEntity.accepted().body(statementService.resumeRun(runId));
+    }
+
+    @PostMapping("/payment-plans/installments/run")
+    public ResponseEntity<InstallmentRunDTO> runInstallments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(installmentService.processDueInstallments(asOf != null ? asOf : LocalDate.now()));
+    }
+
+    @GetMapping("/payment-plans/installments/last-run")
+    public ResponseEntity<InstallmentRunDTO> lastInstallmentRun() {
+        InstallmentRunDTO last = installmentService.getLastRun();
+        return last != null ? ResponseEntity.ok(last) : ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/aid/disbursements")
+    public ResponseEntity<AidDisbursementResultDTO> disburseAid(@Valid @RequestBody AidDisbursementRequestDTO req) {
+        return ResponseEntity.ok(aidDisbursementService.disburseTerm(req.term(), req.academicYear(), req.dryRun()));
+    }
 }
@@ -2,9 +2,16 @@ package com.uwm.paws360.Controller;
 
 import com.uwm.paws360.DTO.Finances.*;
 import com.uwm.paws360.Service.FinancesService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -27,6 +34,33 @@ public class FinancesController {
         return ResponseEntity.ok(financesService.listTransactions(studentId));
     }
 
+    @GetMapping("/student/{studentId}/transactions/page")
+    public ResponseEntity<TransactionPageDTO> transactionPage(@PathVariable Integer studentId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(financesService.pageTransactions(studentId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/student/{studentId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable Integer studentId) {
+        // Checked up front: once the body starts streaming the status is already committed
+        if (!financesService.studentExists(studentId)) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            financesService.exportTransactions(studentId, writer);
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + studentId + ".csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
     @GetMapping("/student/{studentId}/aid")
     public ResponseEntity<AidOverviewDTO> aid(@PathVariable Integer studentId) {
         return ResponseEntity.ok(financesService.getAidOverview(studentId));
@@ -1,8 +1,10 @@
 package com.uwm.paws360.Controller;
 
 import com.uwm.paws360.DTO.User.*;
+import com.uwm.paws360.Service.UserImportService;
 import com.uwm.paws360.Service.UserService;
 import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.MediaType;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController()
@@ -19,10 +22,12 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
     @PostMapping(value = "/profile-picture", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -50,6 +55,15 @@ public class UserController {
         return userService.createUser(userDTO);
     }
 
+    // Term onboarding: CSV with a header row, or one CreateUserDTO per line, read off the request stream
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<UserImportResultDTO> importUsers(HttpServletRequest request) throws IOException {
+        UserImportService.Format format = request.getContentType() != null && request.getContentType().startsWith("text/csv")
+                ? UserImportService.Format.CSV : UserImportService.Format.NDJSON;
+        logger.info("importUsers called with format={}", format);
+        return ResponseEntity.ok(userImportService.importUsers(request.getInputStream(), format));
+    }
+
     @PostMapping("/edit")
     public ResponseEntity<UserResponseDTO> editUser(@Valid @RequestBody EditUserRequestDTO userDTO) {
         logger.info("editUser called for email={}", userDTO.email());
@@ -1,7 +1,12 @@
 package com.uwm.paws360.Controller;
 
+import com.uwm.paws360.DTO.User.StudentSearchPageDTO;
+import com.uwm.paws360.DTO.User.StudentSearchResultDTO;
+import com.uwm.paws360.Service.AdminDashboardService;
 import com.uwm.paws360.Service.StudentProfileService;
+import com.uwm.paws360.Service.StudentSearchService;
 import com.uwm.paws360.Service.SessionManagementService;
+import com.uwm.paws360.config.SessionAuthenticationFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,11 +30,17 @@ public class UserProfileController {
     private static final Logger logger = LoggerFactory.getLogger(UserProfileController.class);
 
     private final StudentProfileService studentProfileService;
+    private final StudentSearchService studentSearchService;
+    private final AdminDashboardService adminDashboardService;
     private final SessionManagementService sessionManagementService;
 
     public UserProfileController(StudentProfileService studentProfileService, 
+                               StudentSearchService studentSearchService,
+                               AdminDashboardService adminDashboardService,
                                SessionManagementService sessionManagementService) {
         this.studentProfileService = studentProfileService;
+        this.studentSearchService = studentSearchService;
+        this.adminDashboardService = adminDashboardService;
         this.sessionManagementService = sessionManagementService;
     }
 
@@ -41,7 +52,7 @@ public class UserProfileController {
     @GetMapping("/student")
     public ResponseEntity<Map<String, Object>> getCurrentStudentProfile(HttpServletRequest request) {
         String clientIp = getClientIpAddress(request);
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         logger.debug("Student profile request from IP: {}", clientIp);
         
@@ -53,16 +64,16 @@ public class UserProfileController {
                 );
             }
 
-            var sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
-            if (sessionOpt.isEmpty()) {
+            var principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+            if (principal.isEmpty()) {
                 logger.warn("Student profile request with invalid session from IP: {}", clientIp);
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
                     Map.of("error", "Invalid or expired session", "message", "Your session has expired. Please log in again.")
                 );
             }
 
-            int userId = sessionOpt.get().getUser().getId();
-            var user = sessionOpt.get().getUser();
+            int userId = principal.get().userId();
+            var user = principal.get().user();
             
             // Check if user is a student - only students should have student profiles
             if (!"STUDENT".equals(user.getRole().name())) {
@@ -119,7 +130,7 @@ public class UserProfileController {
     @GetMapping("/student/{userId}")
     public ResponseEntity<Map<String, Object>> getStudentProfile(@PathVariable int userId,
                                                                HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         if (sessionToken == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
@@ -127,8 +138,8 @@ public class UserProfileController {
             );
         }
 
-        var sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
-        if (sessionOpt.isEmpty()) {
+        var principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        if (principal.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
                 Map.of("error", "Invalid or expired session")
             );
@@ -157,7 +168,7 @@ public class UserProfileController {
     @GetMapping("/student/by-email")
     public ResponseEntity<Map<String, Object>> getStudentProfileByEmail(@RequestParam String email,
                                                                       HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         if (sessionToken == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
@@ -165,8 +176,8 @@ public class UserProfileController {
             );
         }
 
-        var sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
-        if (sessionOpt.isEmpty()) {
+        var principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        if (principal.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
                 Map.of("error", "Invalid or expired session")
             );
@@ -195,8 +206,10 @@ public class UserProfileController {
     @GetMapping("/students/search")
     public ResponseEntity<Map<String, Object>> searchStudents(@RequestParam(required = false) String query,
                                                              @RequestParam(required = false) String department,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit,
                                                              HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         if (sessionToken == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
@@ -204,8 +217,8 @@ public class UserProfileController {
             );
         }
 
-        var sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
-        if (sessionOpt.isEmpty()) {
+        var principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        if (principal.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
                 Map.of("error", "Invalid or expired session")
             );
@@ -213,23 +226,22 @@ public class UserProfileController {
 
         // TODO: Add role-based access control for admin endpoints
 
-        List<StudentProfileService.StudentProfileData> students;
-        
-        if (department != null && !department.trim().isEmpty()) {
-            students = studentProfileService.getStudentsByDepartment(department);
-        } else if (query != null && !query.trim().isEmpty()) {
-            students = studentProfileService.searchStudentsByName(query);
-        } else {
-            students = studentProfileService.getAllStudents();
+        StudentSearchPageDTO page;
+        try {
+            page = studentSearchService.search(query, department, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
 
-        List<Map<String, Object>> studentList = students.stream()
+        List<Map<String, Object>> studentList = page.students().stream()
             .map(this::createSummaryProfileResponse)
             .toList();
 
         Map<String, Object> response = new HashMap<>();
         response.put("students", studentList);
         response.put("count", studentList.size());
+        response.put("next_cursor", page.nextCursor());
+        response.put("has_more", page.hasMore());
         response.put("query", query);
         response.put("department", department);
 
@@ -244,7 +256,7 @@ public class UserProfileController {
     @GetMapping("/student/{userId}/validate")
     public ResponseEntity<Map<String, Object>> validateStudentData(@PathVariable int userId,
                                                                   HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         if (sessionToken == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
@@ -252,8 +264,8 @@ public class UserProfileController {
             );
         }
 
-        var sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
-        if (sessionOpt.isEmpty()) {
+        var principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        if (principal.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
                 Map.of("error", "Invalid or expired session")
             );
@@ -268,7 +280,7 @@ public class UserProfileController {
      */
     @GetMapping("/students/stats")
     public ResponseEntity<Map<String, Object>> getStudentStats(HttpServletRequest request) {
-        String sessionToken = extractSessionToken(request);
+        String sessionToken = SessionAuthenticationFilter.extractSessionToken(request);
         
         if (sessionToken == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
@@ -276,8 +288,8 @@ public class UserProfileController {
             );
         }
 
-        var sessionOpt = sessionManagementService.validateAndRefreshSession(sessionToken);
-        if (sessionOpt.isEmpty()) {
+        var principal = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        if (principal.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
                 Map.of("error", "Invalid or expired session")
             );
@@ -285,7 +297,7 @@ public class UserProfileController {
 
         // TODO: Add role-based access control for admin endpoints
 
-        Map<String, Long> counts = studentProfileService.getStudentCounts();
+        Map<String, Long> counts = adminDashboardService.snapshot().studentCounts();
         return ResponseEntity.ok(Map.of("statistics", counts));
     }
 
@@ -325,47 +337,24 @@ public class UserProfileController {
     /**
      * Create summary profile response for list views
      */
-    private Map<String, Object> createSummaryProfileResponse(StudentProfileService.StudentProfileData profile) {
+    private Map<String, Object> createSummaryProfileResponse(StudentSearchResultDTO student) {
         Map<String, Object> response = new HashMap<>();
         
-        response.put("user_id", profile.getUser().getId());
-        response.put("student_id", profile.getStudent().getId());
-        response.put("email", profile.getUser().getEmail());
-        response.put("firstname", profile.getUser().getFirstname());
-        response.put("lastname", profile.getUser().getLastname());
-        response.put("preferred_name", profile.getUser().getPreferred_name());
-        response.put("campus_id", profile.getStudent().getCampusId());
-        response.put("department", profile.getStudent().getDepartment());
-        response.put("standing", profile.getStudent().getStanding());
-        response.put("gpa", profile.getStudent().getGpa());
-        response.put("status", profile.getUser().getStatus());
+        response.put("user_id", student.userId());
+        response.put("student_id", student.studentId());
+        response.put("email", student.email());
+        response.put("firstname", student.firstname());
+        response.put("lastname", student.lastname());
+        response.put("preferred_name", student.preferredName());
+        response.put("campus_id", student.campusId());
+        response.put("department", student.department());
+        response.put("standing", student.standing());
+        response.put("gpa", student.gpa());
+        response.put("status", student.status());
         
         return response;
     }
 
-    /**
-     * Extract session token from cookie or Authorization header
-     */
-    private String extractSessionToken(HttpServletRequest request) {
-        // First try to get from cookie (preferred for SSO)
-        if (request.getCookies() != null) {
-            for (var cookie : request.getCookies()) {
-                if ("PAWS360_SESSION".equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
-            }
-        }
-        
-        // Fallback to Authorization header for API clients
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
-        }
-        
-        // Fallback to X-Session-Token header
-        return request.getHeader("X-Session-Token");
-    }
-
     /**
      * Extract client IP address from request
      */
@@ -0,0 +1,9 @@
+package com.uwm.paws360.DTO.Advising;
+
+import java.util.List;
+
+public record MessagePageDTO(
+        List<MessageDTO> items,
+        String nextCursor,
+        boolean hasMore
+) {}
@@ -0,0 +1,7 @@
+package com.uwm.paws360.DTO.Course;
+
+public record GradeSyncErrorDTO(
+        int line,
+        String message
+) {
+}
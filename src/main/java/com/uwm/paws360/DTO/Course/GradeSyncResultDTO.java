@@ -0,0 +1,12 @@
+package com.uwm.paws360.DTO.Course;
+
+import java.util.List;
+
+public record GradeSyncResultDTO(
+        int linesRead,
+        int updated,
+        int rejected,
+        boolean errorsTruncated,
+        List<GradeSyncErrorDTO> errors
+) {
+}
@@ -0,0 +1,14 @@
+package com.uwm.paws360.DTO.Course;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record InstructorDashboardDTO(
+        int userId,
+        List<InstructorSectionSummaryDTO> sections,
+        int totalEnrolled,
+        int totalWaitlisted,
+        int totalFinalGradesPending,
+        OffsetDateTime generatedAt
+) {
+}
@@ -0,0 +1,28 @@
+package com.uwm.paws360.DTO.Course;
+
+import com.uwm.paws360.Entity.EntityDomains.InstructionalRole;
+import com.uwm.paws360.Entity.EntityDomains.SectionType;
+
+import java.time.OffsetDateTime;
+
+public record InstructorSectionSummaryDTO(
+        Long sectionId,
+        Long parentSectionId,
+        String courseCode,
+        String courseName,
+        String sectionCode,
+        SectionType sectionType,
+        String term,
+        Integer academicYear,
+        InstructionalRole role,
+        Integer maxEnrollment,
+        Integer waitlistCapacity,
+        int enrolled,
+        int waitlisted,
+        int pendingApproval,
+        int completed,
+        int currentGradesPosted,
+        int finalGradesPosted,
+        OffsetDateTime lastGradeUpdate
+) {
+}
@@ -0,0 +1,10 @@
+package com.uwm.paws360.DTO.Finances;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record AidDisbursementRequestDTO(
+        @NotBlank String term,
+        @NotNull Integer academicYear,
+        boolean dryRun
+) {}
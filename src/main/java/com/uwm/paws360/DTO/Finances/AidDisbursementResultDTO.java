@@ -0,0 +1,24 @@
+package com.uwm.paws360.DTO.Finances;
+
+import java.math.BigDecimal;
+
+public record AidDisbursementResultDTO(
+        String term,
+        Integer academicYear,
+        boolean dryRun,
+        int partitions,
+        // Partitions that stopped on an error; their earlier pages are included in the totals
+        int partitionsFailed,
+        int studentsConsidered,
+        int awardsDisbursed,
+        int awardsWithoutBalance,
+        int awardsConflicted,
+        BigDecimal amountDisbursed,
+        // Reconciliation: term totals on aid_awards and on aid-linked ledger credits, before and after
+        BigDecimal awardsDisbursedBefore,
+        BigDecimal awardsDisbursedAfter,
+        BigDecimal aidCreditsBefore,
+        BigDecimal aidCreditsAfter,
+        boolean reconciled,
+        long elapsedMillis
+) {}
@@ -0,0 +1,18 @@
+package com.uwm.paws360.DTO.Finances;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+public record InstallmentRunDTO(
+        LocalDate asOf,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        int installmentsPosted,
+        int plansCompleted,
+        int plansSkipped,
+        int chunksFailed,
+        BigDecimal amountCollected,
+        long elapsedMillis,
+        double installmentsPerSecond
+) {}
@@ -0,0 +1,25 @@
+package com.uwm.paws360.DTO.Finances;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record StatementDTO(
+        Long accountId,
+        Integer studentId,
+        String campusId,
+        String studentName,
+        LocalDate periodStart,
+        LocalDate periodEnd,
+        BigDecimal openingBalance,
+        List<StatementLineDTO> lines,
+        BigDecimal periodCharges,
+        BigDecimal periodCredits,
+        BigDecimal periodPayments,
+        BigDecimal closingBalance,
+        BigDecimal aidDisbursed,
+        BigDecimal pendingAid,
+        BigDecimal amountDue,
+        LocalDate dueDate,
+        List<PaymentPlanDTO> activePaymentPlans
+) {}
@@ -0,0 +1,14 @@
+package com.uwm.paws360.DTO.Finances;
+
+import com.uwm.paws360.Entity.Finances.AccountTransaction;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+public record StatementLineDTO(
+        Long transactionId,
+        OffsetDateTime postedAt,
+        String description,
+        AccountTransaction.Type type,
+        BigDecimal amount
+) {}
@@ -0,0 +1,19 @@
+package com.uwm.paws360.DTO.Finances;
+
+import com.uwm.paws360.Entity.Finances.StatementRun;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+public record StatementRunDTO(
+        Long runId,
+        LocalDate statementMonth,
+        StatementRun.Format format,
+        StatementRun.RunStatus status,
+        String outputDir,
+        int partitionCount,
+        long partitionsCompleted,
+        long statementsWritten,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt
+) {}
@@ -0,0 +1,11 @@
+package com.uwm.paws360.DTO.Finances;
+
+import com.uwm.paws360.Entity.Finances.StatementRun;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.YearMonth;
+
+public record StatementRunRequestDTO(
+        @NotNull YearMonth month,
+        StatementRun.Format format
+) {}
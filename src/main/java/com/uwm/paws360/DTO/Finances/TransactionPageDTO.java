@@ -0,0 +1,9 @@
+package com.uwm.paws360.DTO.Finances;
+
+import java.util.List;
+
+public record TransactionPageDTO(
+        List<TransactionDTO> items,
+        String nextCursor,
+        boolean hasMore
+) {}
@@ -0,0 +1,12 @@
+package com.uwm.paws360.DTO.Finances;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public record TuitionAssessmentRequestDTO(
+        @NotBlank String term,
+        @NotNull Integer academicYear,
+        LocalDate dueDate
+) {}
@@ -0,0 +1,13 @@
+package com.uwm.paws360.DTO.Finances;
+
+import java.math.BigDecimal;
+
+public record TuitionAssessmentResultDTO(
+        String termCode,
+        int accountsOpened,
+        int chargesPosted,
+        int creditsPosted,
+        BigDecimal totalCharged,
+        BigDecimal totalCredited,
+        long elapsedMillis
+) {}
@@ -0,0 +1,7 @@
+package com.uwm.paws360.DTO.User;
+
+import java.util.List;
+
+public record StudentBatchRequestDTO(
+        List<Integer> userIds
+) {}
@@ -0,0 +1,8 @@
+package com.uwm.paws360.DTO.User;
+
+import java.util.List;
+
+public record StudentBatchResponseDTO(
+        List<StudentSummaryDTO> students,
+        List<Integer> missingUserIds
+) {}
@@ -0,0 +1,10 @@
+package com.uwm.paws360.DTO.User;
+
+import java.util.List;
+
+public record StudentSearchPageDTO(
+        List<StudentSearchResultDTO> students,
+        String nextCursor,
+        boolean hasMore,
+        long estimatedTotal
+) {}
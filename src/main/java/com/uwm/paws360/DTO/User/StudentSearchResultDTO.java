@@ -0,0 +1,24 @@
+package com.uwm.paws360.DTO.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record StudentSearchResultDTO(
+        int userId,
+        int studentId,
+        String email,
+        String firstname,
+        String lastname,
+        String preferredName,
+        String status,
+        String campusId,
+        String department,
+        String standing,
+        String enrollmentStatus,
+        BigDecimal gpa,
+        LocalDate expectedGraduation,
+        LocalDateTime lastUpdated,
+        LocalDate accountCreated,
+        float rank
+) {}
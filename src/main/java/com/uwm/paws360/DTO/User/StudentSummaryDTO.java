@@ -0,0 +1,23 @@
+package com.uwm.paws360.DTO.User;
+
+import com.uwm.paws360.Entity.EntityDomains.Department;
+import com.uwm.paws360.Entity.EntityDomains.Enrollement_Status;
+import com.uwm.paws360.Entity.EntityDomains.Student_Standing;
+import com.uwm.paws360.Entity.EntityDomains.User.Status;
+
+import java.math.BigDecimal;
+
+public record StudentSummaryDTO(
+        int userId,
+        int studentId,
+        String email,
+        String firstname,
+        String lastname,
+        String preferredName,
+        Status status,
+        String campusId,
+        Department department,
+        Student_Standing standing,
+        Enrollement_Status enrollmentStatus,
+        BigDecimal gpa
+) {}
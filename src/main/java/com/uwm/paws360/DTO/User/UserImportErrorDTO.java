@@ -0,0 +1,8 @@
+package com.uwm.paws360.DTO.User;
+
+public record UserImportErrorDTO(
+        int line,
+        String email,
+        String message
+) {
+}
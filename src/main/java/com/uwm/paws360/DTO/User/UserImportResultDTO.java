@@ -0,0 +1,13 @@
+package com.uwm.paws360.DTO.User;
+
+import java.util.List;
+
+public record UserImportResultDTO(
+        int rowsRead,
+        int created,
+        int rejected,
+        boolean errorsTruncated,
+        List<UserImportErrorDTO> errors,
+        long elapsedMs
+) {
+}
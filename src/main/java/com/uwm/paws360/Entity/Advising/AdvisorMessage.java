@@ -7,7 +7,9 @@ import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "advisor_messages")
+@Table(name = "advisor_messages", indexes = {
+        @Index(name = "idx_advisor_messages_student", columnList = "student_id, message_id")
+})
 public class AdvisorMessage {
 
     public enum Sender { STUDENT, ADVISOR }
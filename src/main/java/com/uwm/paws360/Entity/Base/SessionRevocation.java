@@ -0,0 +1,57 @@
+package com.uwm.paws360.Entity.Base;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A revocation of signed session tokens, shared between instances through the JPA session store:
+ * either one token by its token id, or every token of a user issued before a cutoff. Each instance
+ * polls the rows published since its last poll into its in-memory revocation list.
+ */
+@Entity
+@Table(name = "session_revocations", indexes = {
+        @Index(name = "idx_session_revocations_published", columnList = "published_at")
+})
+public class SessionRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "revocation_id")
+    private Long id;
+
+    @Column(name = "token_id", length = 32)
+    private String tokenId;
+
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Column(name = "issued_before")
+    private OffsetDateTime issuedBefore;
+
+    // No token the revocation could match is alive after this
+    @Column(name = "keep_until", nullable = false)
+    private OffsetDateTime keepUntil;
+
+    @Column(name = "published_at", nullable = false)
+    private OffsetDateTime publishedAt;
+
+    public SessionRevocation() {
+    }
+
+    public SessionRevocation(String tokenId, Integer userId, OffsetDateTime issuedBefore, OffsetDateTime keepUntil,
+                             OffsetDateTime publishedAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.issuedBefore = issuedBefore;
+        this.keepUntil = keepUntil;
+        this.publishedAt = publishedAt;
+    }
+
+    public Long getId() { return id; }
+    public String getTokenId() { return tokenId; }
+    public Integer getUserId() { return userId; }
+    public OffsetDateTime getIssuedBefore() { return issuedBefore; }
+    public OffsetDateTime getKeepUntil() { return keepUntil; }
+    public OffsetDateTime getPublishedAt() { return publishedAt; }
+}
@@ -9,6 +9,9 @@ import java.time.OffsetDateTime;
 @Entity
 @Table(name = "course_enrollments", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "student_id", "lecture_section_id" })
+}, indexes = {
+        @Index(name = "idx_course_enrollments_lecture_section", columnList = "lecture_section_id, status"),
+        @Index(name = "idx_course_enrollments_lab_section", columnList = "lab_section_id")
 })
 public class CourseEnrollment {
 
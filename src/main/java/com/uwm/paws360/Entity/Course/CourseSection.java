@@ -15,6 +15,8 @@ import java.util.Set;
 @Entity
 @Table(name = "course_sections", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "course_id", "section_code", "term", "academic_year", "section_type" })
+}, indexes = {
+        @Index(name = "idx_course_sections_term", columnList = "term, academic_year")
 })
 public class CourseSection {
 
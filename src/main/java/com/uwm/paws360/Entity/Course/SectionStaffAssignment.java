@@ -9,6 +9,8 @@ import java.time.OffsetDateTime;
 @Entity
 @Table(name = "section_staff_assignments", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "section_id", "user_id", "role" })
+}, indexes = {
+        @Index(name = "idx_section_staff_assignments_user", columnList = "user_id")
 })
 public class SectionStaffAssignment {
 
@@ -0,0 +1,111 @@
+package com.uwm.paws360.Entity.Finances;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Materialized running totals for one {@link FinancialAccount}, maintained in the same database
+ * transaction as each {@link AccountLedgerEntry} so summary reads never have to scan history.
+ */
+@Entity
+@Table(name = "account_balances")
+public class AccountBalance {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "total_charges", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalCharges = BigDecimal.ZERO;
+
+    @Column(name = "total_credits", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalCredits = BigDecimal.ZERO;
+
+    @Column(name = "total_payments", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalPayments = BigDecimal.ZERO;
+
+    @Column(name = "total_aid_accepted", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalAidAccepted = BigDecimal.ZERO;
+
+    @Column(name = "total_aid_disbursed", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalAidDisbursed = BigDecimal.ZERO;
+
+    @Column(name = "last_payment_amount", precision = 12, scale = 2)
+    private BigDecimal lastPaymentAmount;
+
+    @Column(name = "last_payment_at")
+    private OffsetDateTime lastPaymentAt;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "last_entry_id")
+    private Long lastEntryId;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    public AccountBalance() {
+    }
+
+    public AccountBalance(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void onWrite() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+
+    /**
+     * Apply one posting to the running totals.
+     */
+    public void apply(AccountLedgerEntry.EntryType type, BigDecimal amount) {
+        switch (type) {
+            case CHARGE -> totalCharges = totalCharges.add(amount);
+            case CREDIT -> totalCredits = totalCredits.add(amount);
+            case PAYMENT -> totalPayments = totalPayments.add(amount);
+            case AID_ACCEPTED -> totalAidAccepted = totalAidAccepted.add(amount);
+            case AID_DISBURSED -> totalAidDisbursed = totalAidDisbursed.add(amount);
+        }
+    }
+
+    /**
+     * Remember the most recent posted payment; out-of-order postings do not move it backwards.
+     */
+    public void notePayment(BigDecimal amount, OffsetDateTime postedAt) {
+        if (lastPaymentAt == null || (postedAt != null && !postedAt.isBefore(lastPaymentAt))) {
+            this.lastPaymentAmount = amount;
+            this.lastPaymentAt = postedAt;
+        }
+    }
+
+    public void recordEntry(Long entryId) {
+        this.entryCount++;
+        this.lastEntryId = entryId;
+    }
+
+    public Long getAccountId() { return accountId; }
+    public BigDecimal getTotalCharges() { return totalCharges; }
+    public void setTotalCharges(BigDecimal totalCharges) { this.totalCharges = totalCharges; }
+    public BigDecimal getTotalCredits() { return totalCredits; }
+    public void setTotalCredits(BigDecimal totalCredits) { this.totalCredits = totalCredits; }
+    public BigDecimal getTotalPayments() { return totalPayments; }
+    public void setTotalPayments(BigDecimal totalPayments) { this.totalPayments = totalPayments; }
+    public BigDecimal getTotalAidAccepted() { return totalAidAccepted; }
+    public void setTotalAidAccepted(BigDecimal totalAidAccepted) { this.totalAidAccepted = totalAidAccepted; }
+    public BigDecimal getTotalAidDisbursed() { return totalAidDisbursed; }
+    public void setTotalAidDisbursed(BigDecimal totalAidDisbursed) { this.totalAidDisbursed = totalAidDisbursed; }
+    public BigDecimal getLastPaymentAmount() { return lastPaymentAmount; }
+    public OffsetDateTime getLastPaymentAt() { return lastPaymentAt; }
+    public void setLastPayment(BigDecimal amount, OffsetDateTime postedAt) {
+        this.lastPaymentAmount = amount;
+        this.lastPaymentAt = postedAt;
+    }
+    public long getEntryCount() { return entryCount; }
+    public Long getLastEntryId() { return lastEntryId; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+}
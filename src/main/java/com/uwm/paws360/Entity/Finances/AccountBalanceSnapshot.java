@@ -0,0 +1,74 @@
+package com.uwm.paws360.Entity.Finances;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Periodic copy of an {@link AccountBalance}, taken every few hundred ledger entries. Auditing or
+ * rebuilding an account only has to replay the ledger from the latest snapshot forward.
+ */
+@Entity
+@Table(name = "account_balance_snapshots", indexes = {
+        @Index(name = "idx_account_balance_snapshots_account", columnList = "account_id, through_entry_id")
+})
+public class AccountBalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "through_entry_id")
+    private Long throughEntryId;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "total_charges", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalCharges;
+
+    @Column(name = "total_credits", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalCredits;
+
+    @Column(name = "total_payments", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalPayments;
+
+    @Column(name = "total_aid_accepted", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalAidAccepted;
+
+    @Column(name = "total_aid_disbursed", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalAidDisbursed;
+
+    @Column(name = "taken_at", nullable = false, updatable = false)
+    private OffsetDateTime takenAt = OffsetDateTime.now();
+
+    public AccountBalanceSnapshot() {
+    }
+
+    public AccountBalanceSnapshot(AccountBalance balance) {
+        this.accountId = balance.getAccountId();
+        this.throughEntryId = balance.getLastEntryId();
+        this.entryCount = balance.getEntryCount();
+        this.totalCharges = balance.getTotalCharges();
+        this.totalCredits = balance.getTotalCredits();
+        this.totalPayments = balance.getTotalPayments();
+        this.totalAidAccepted = balance.getTotalAidAccepted();
+        this.totalAidDisbursed = balance.getTotalAidDisbursed();
+    }
+
+    public Long getId() { return id; }
+    public Long getAccountId() { return accountId; }
+    public Long getThroughEntryId() { return throughEntryId; }
+    public long getEntryCount() { return entryCount; }
+    public BigDecimal getTotalCharges() { return totalCharges; }
+    public BigDecimal getTotalCredits() { return totalCredits; }
+    public BigDecimal getTotalPayments() { return totalPayments; }
+    public BigDecimal getTotalAidAccepted() { return totalAidAccepted; }
+    public BigDecimal getTotalAidDisbursed() { return totalAidDisbursed; }
+    public OffsetDateTime getTakenAt() { return takenAt; }
+}
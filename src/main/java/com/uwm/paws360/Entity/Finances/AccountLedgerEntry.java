@@ -0,0 +1,62 @@
+package com.uwm.paws360.Entity.Finances;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Append-only record of every posting that moved a {@link FinancialAccount}'s materialized
+ * {@link AccountBalance}. Rows are never updated or deleted.
+ */
+@Entity
+@Table(name = "account_ledger_entries", indexes = {
+        @Index(name = "idx_account_ledger_entries_account", columnList = "account_id, ledger_entry_id")
+})
+public class AccountLedgerEntry {
+
+    public enum EntryType { CHARGE, CREDIT, PAYMENT, AID_ACCEPTED, AID_DISBURSED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ledger_entry_id")
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private EntryType entryType;
+
+    @Column(name = "amount", precision = 12, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "award_id")
+    private Long awardId;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private OffsetDateTime recordedAt = OffsetDateTime.now();
+
+    public AccountLedgerEntry() {
+    }
+
+    public AccountLedgerEntry(Long accountId, EntryType entryType, BigDecimal amount, Long transactionId, Long awardId) {
+        this.accountId = accountId;
+        this.entryType = entryType;
+        this.amount = amount;
+        this.transactionId = transactionId;
+        this.awardId = awardId;
+    }
+
+    public Long getId() { return id; }
+    public Long getAccountId() { return accountId; }
+    public EntryType getEntryType() { return entryType; }
+    public BigDecimal getAmount() { return amount; }
+    public Long getTransactionId() { return transactionId; }
+    public Long getAwardId() { return awardId; }
+    public OffsetDateTime getRecordedAt() { return recordedAt; }
+}
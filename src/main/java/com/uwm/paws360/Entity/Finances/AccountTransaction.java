@@ -8,7 +8,11 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "account_transactions")
+@Table(name = "account_transactions", indexes = {
+        @Index(name = "idx_account_transactions_student_posted", columnList = "student_id, posted_at, transaction_id"),
+        @Index(name = "idx_account_transactions_student_term", columnList = "student_id, term_code"),
+        @Index(name = "idx_account_transactions_aid_award", columnList = "aid_award_id")
+})
 public class AccountTransaction {
 
     public enum Type { CHARGE, CREDIT, PAYMENT }
@@ -43,6 +47,14 @@ public class AccountTransaction {
     @Column(name = "due_date")
     private LocalDate dueDate;
 
+    // Set on charges posted by the term tuition assessment so reruns can post only the difference
+    @Column(name = "term_code", length = 32)
+    private String termCode;
+
+    // Set on credits posted by an aid disbursement run; the ledger counts these as disbursed aid
+    @Column(name = "aid_award_id")
+    private Long aidAwardId;
+
     public Long getId() { return id; }
     public Student getStudent() { return student; }
     public void setStudent(Student student) { this.student = student; }
@@ -58,5 +70,9 @@ public class AccountTransaction {
     public void setPostedAt(OffsetDateTime postedAt) { this.postedAt = postedAt; }
     public LocalDate getDueDate() { return dueDate; }
     public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public String getTermCode() { return termCode; }
+    public void setTermCode(String termCode) { this.termCode = termCode; }
+    public Long getAidAwardId() { return aidAwardId; }
+    public void setAidAwardId(Long aidAwardId) { this.aidAwardId = aidAwardId; }
 }
 
@@ -7,7 +7,9 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "aid_awards")
+@Table(name = "aid_awards", indexes = {
+        @Index(name = "idx_aid_awards_term_student", columnList = "term, academic_year, student_id")
+})
 public class AidAward {
 
     public enum AidType { GRANT, SCHOLARSHIP, LOAN, WORK_STUDY }
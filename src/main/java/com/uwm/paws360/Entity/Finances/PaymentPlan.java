@@ -7,7 +7,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "payment_plans")
+@Table(name = "payment_plans", indexes = {
+        // Drives the installment processor's "due today" scan
+        @Index(name = "idx_payment_plans_due", columnList = "status, next_payment_date, plan_id")
+})
 public class PaymentPlan {
 
     public enum PlanStatus { ACTIVE, COMPLETED, CANCELLED }
@@ -0,0 +1,65 @@
+package com.uwm.paws360.Entity.Finances;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * One monthly statement generation run. The account-id space is split into
+ * {@link StatementRunPartition}s that workers process independently.
+ */
+@Entity
+@Table(name = "statement_runs", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"statement_month", "format"})
+})
+public class StatementRun {
+
+    public enum Format { CSV, JSON, TEXT }
+    public enum RunStatus { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "run_id")
+    private Long id;
+
+    // First day of the statement month
+    @Column(name = "statement_month", nullable = false)
+    private LocalDate statementMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 8)
+    private Format format;
+
+    @Column(name = "output_dir", nullable = false, length = 500)
+    private String outputDir;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 12)
+    private RunStatus status = RunStatus.RUNNING;
+
+    @Column(name = "partition_count", nullable = false)
+    private int partitionCount;
+
+    @Column(name = "started_at", nullable = false)
+    private OffsetDateTime startedAt = OffsetDateTime.now();
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+
+    public Long getId() { return id; }
+    public LocalDate getStatementMonth() { return statementMonth; }
+    public void setStatementMonth(LocalDate statementMonth) { this.statementMonth = statementMonth; }
+    public Format getFormat() { return format; }
+    public void setFormat(Format format) { this.format = format; }
+    public String getOutputDir() { return outputDir; }
+    public void setOutputDir(String outputDir) { this.outputDir = outputDir; }
+    public RunStatus getStatus() { return status; }
+    public void setStatus(RunStatus status) { this.status = status; }
+    public int getPartitionCount() { return partitionCount; }
+    public void setPartitionCount(int partitionCount) { this.partitionCount = partitionCount; }
+    public OffsetDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(OffsetDateTime startedAt) { this.startedAt = startedAt; }
+    public OffsetDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(OffsetDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,74 @@
+package com.uwm.paws360.Entity.Finances;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A contiguous account-id range of a {@link StatementRun}. {@code lastAccountId} is advanced after
+ * every page of statements is written, so a restarted run continues where the partition stopped.
+ */
+@Entity
+@Table(name = "statement_run_partitions", indexes = {
+        @Index(name = "idx_statement_run_partitions_run", columnList = "run_id, status")
+})
+public class StatementRunPartition {
+
+    public enum PartitionStatus { PENDING, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "partition_id")
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    // Accounts with range_start <= account_id < range_end belong to this partition
+    @Column(name = "range_start", nullable = false)
+    private Long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private Long rangeEnd;
+
+    @Column(name = "last_account_id")
+    private Long lastAccountId;
+
+    @Column(name = "statements_written", nullable = false)
+    private int statementsWritten;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 12)
+    private PartitionStatus status = PartitionStatus.PENDING;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    public StatementRunPartition() {
+    }
+
+    public StatementRunPartition(Long runId, Long rangeStart, Long rangeEnd) {
+        this.runId = runId;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void onWrite() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public Long getRunId() { return runId; }
+    public Long getRangeStart() { return rangeStart; }
+    public Long getRangeEnd() { return rangeEnd; }
+    public Long getLastAccountId() { return lastAccountId; }
+    public int getStatementsWritten() { return statementsWritten; }
+    public PartitionStatus getStatus() { return status; }
+    public String getErrorMessage() { return errorMessage; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+}
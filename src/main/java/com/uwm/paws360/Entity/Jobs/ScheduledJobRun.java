@@ -0,0 +1,82 @@
+package com.uwm.paws360.Entity.Jobs;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One execution of a cluster-wide scheduled job, or of one shard of it, on one node. Written by
+ * {@link com.uwm.paws360.Service.ScheduledJobRunner} when the run finishes.
+ */
+@Entity
+@Table(name = "scheduled_job_runs", indexes = {
+        @Index(name = "idx_scheduled_job_runs_job", columnList = "job_name, run_key, shard"),
+        @Index(name = "idx_scheduled_job_runs_started", columnList = "started_at")
+})
+public class ScheduledJobRun {
+
+    // SKIPPED: the work reported it could not run, so the shard is still open
+    public enum RunStatus { SUCCEEDED, FAILED, SKIPPED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "run_id")
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    // Identifies the scheduled occurrence a sharded run belongs to, e.g. the installment due date
+    @Column(name = "run_key", length = 64)
+    private String runKey;
+
+    @Column(name = "shard")
+    private Integer shard;
+
+    @Column(name = "node_id", nullable = false, length = 200)
+    private String nodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 12)
+    private RunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "finished_at", nullable = false)
+    private OffsetDateTime finishedAt;
+
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    public ScheduledJobRun() {
+    }
+
+    public ScheduledJobRun(String jobName, String runKey, Integer shard, String nodeId, RunStatus status,
+                           OffsetDateTime startedAt, OffsetDateTime finishedAt, long durationMs,
+                           String errorMessage) {
+        this.jobName = jobName;
+        this.runKey = runKey;
+        this.shard = shard;
+        this.nodeId = nodeId;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.durationMs = durationMs;
+        this.errorMessage = errorMessage;
+    }
+
+    public Long getId() { return id; }
+    public String getJobName() { return jobName; }
+    public String getRunKey() { return runKey; }
+    public Integer getShard() { return shard; }
+    public String getNodeId() { return nodeId; }
+    public RunStatus getStatus() { return status; }
+    public OffsetDateTime getStartedAt() { return startedAt; }
+    public OffsetDateTime getFinishedAt() { return finishedAt; }
+    public long getDurationMs() { return durationMs; }
+    public String getErrorMessage() { return errorMessage; }
+}
@@ -1,12 +1,36 @@
 package com.uwm.paws360.JPARepository.Advising;
 
 import com.uwm.paws360.Entity.Advising.AdvisorMessage;
-import com.uwm.paws360.Entity.UserTypes.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface AdvisorMessageRepository extends JpaRepository<AdvisorMessage, Long> {
-    List<AdvisorMessage> findByStudentOrderBySentAtAsc(Student student);
-}
+    // Conversation reads fetch the advisor and their user in the same query; pages and polls walk
+    // idx_advisor_messages_student in message_id order
+    String CONVERSATION_SELECT = "SELECT m FROM AdvisorMessage m JOIN FETCH m.advisor a JOIN FETCH a.user ";
+
+    @Query(CONVERSATION_SELECT + "WHERE m.student.id = :studentId ORDER BY m.sentAt, m.id")
+    List<AdvisorMessage> findConversation(@Param("studentId") Integer studentId);
+
+    @Query(CONVERSATION_SELECT + "WHERE m.student.id = :studentId ORDER BY m.id DESC")
+    List<AdvisorMessage> findConversationPage(@Param("studentId") Integer studentId, Limit limit);
 
+    // Keyset continuation: messages older than the last one already returned
+    @Query(CONVERSATION_SELECT + "WHERE m.student.id = :studentId AND m.id < :beforeId ORDER BY m.id DESC")
+    List<AdvisorMessage> findConversationPageBefore(@Param("studentId") Integer studentId,
+                                                    @Param("beforeId") Long beforeId,
+                                                    Limit limit);
+
+    // Messages newer than the last one a client has seen, oldest first
+    @Query(CONVERSATION_SELECT + "WHERE m.student.id = :studentId AND m.id > :afterId ORDER BY m.id")
+    List<AdvisorMessage> findConversationAfter(@Param("studentId") Integer studentId,
+                                               @Param("afterId") Long afterId,
+                                               Limit limit);
+
+    @Query("SELECT MAX(m.id) FROM AdvisorMessage m WHERE m.student.id = :studentId")
+    Long findLatestId(@Param("studentId") Integer studentId);
+}
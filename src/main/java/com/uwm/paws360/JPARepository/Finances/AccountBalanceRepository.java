@@ -0,0 +1,18 @@
+package com.uwm.paws360.JPARepository.Finances;
+
+import com.uwm.paws360.Entity.Finances.AccountBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, Long> {
+
+    // Row lock so concurrent postings to the same account serialize on the running totals
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalance b WHERE b.accountId = :accountId")
+    Optional<AccountBalance> findForUpdate(@Param("accountId") Long accountId);
+}
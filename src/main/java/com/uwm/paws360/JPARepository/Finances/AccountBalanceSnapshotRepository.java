@@ -0,0 +1,10 @@
+package com.uwm.paws360.JPARepository.Finances;
+
+import com.uwm.paws360.Entity.Finances.AccountBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Long> {
+    Optional<AccountBalanceSnapshot> findFirstByAccountIdOrderByThroughEntryIdDesc(Long accountId);
+}
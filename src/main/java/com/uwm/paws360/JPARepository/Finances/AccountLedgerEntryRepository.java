@@ -0,0 +1,7 @@
+package com.uwm.paws360.JPARepository.Finances;
+
+import com.uwm.paws360.Entity.Finances.AccountLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AccountLedgerEntryRepository extends JpaRepository<AccountLedgerEntry, Long> {
+}
@@ -1,12 +1,61 @@
 package com.uwm.paws360.JPARepository.Finances;
 
+import com.uwm.paws360.DTO.Finances.TransactionDTO;
 import com.uwm.paws360.Entity.Finances.AccountTransaction;
 import com.uwm.paws360.Entity.UserTypes.Student;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AccountTransactionRepository extends JpaRepository<AccountTransaction, Long> {
     List<AccountTransaction> findByStudentOrderByPostedAtDesc(Student student);
-}
 
+    // Transaction history reads project straight into DTOs and walk
+    // idx_account_transactions_student_posted in (posted_at, transaction_id) order
+    String HISTORY_SELECT = "SELECT new com.uwm.paws360.DTO.Finances.TransactionDTO(" +
+            "t.id, t.postedAt, t.dueDate, t.description, t.amount, t.type, t.status) " +
+            "FROM AccountTransaction t ";
+    String HISTORY_ORDER = " ORDER BY t.postedAt DESC, t.id DESC";
+
+    @Query(HISTORY_SELECT + "WHERE t.student.id = :studentId" + HISTORY_ORDER)
+    List<TransactionDTO> findHistory(@Param("studentId") Integer studentId);
+
+    @Query(HISTORY_SELECT + "WHERE t.student.id = :studentId" + HISTORY_ORDER)
+    List<TransactionDTO> findHistoryPage(@Param("studentId") Integer studentId, Limit limit);
+
+    // Keyset continuation: rows strictly after the (postedAt, id) of the last row already returned
+    @Query(HISTORY_SELECT + "WHERE t.student.id = :studentId " +
+           "AND (t.postedAt < :postedAt OR (t.postedAt = :postedAt AND t.id < :id))" + HISTORY_ORDER)
+    List<TransactionDTO> findHistoryPageAfter(@Param("studentId") Integer studentId,
+                                              @Param("postedAt") OffsetDateTime postedAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    // Export: rows are pulled from a server-side cursor instead of being materialized up front
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query(HISTORY_SELECT + "WHERE t.student.id = :studentId" + HISTORY_ORDER)
+    Stream<TransactionDTO> streamHistory(@Param("studentId") Integer studentId);
+
+    // Ledger rebuild: totals of posted transactions grouped by type. Aid disbursement credits are
+    // excluded because the aid_awards disbursed totals already account for them
+    @Query("SELECT t.type, COALESCE(SUM(t.amount), 0) FROM AccountTransaction t " +
+           "WHERE t.student = :student AND t.status = com.uwm.paws360.Entity.Finances.AccountTransaction.Status.POSTED " +
+           "AND t.aidAwardId IS NULL " +
+           "GROUP BY t.type")
+    List<Object[]> sumPostedAmountsByType(@Param("student") Student student);
+
+    Optional<AccountTransaction> findFirstByStudentAndTypeAndStatusOrderByPostedAtDesc(Student student,
+                                                                                        AccountTransaction.Type type,
+                                                                                        AccountTransaction.Status status);
+}
@@ -3,10 +3,16 @@ package com.uwm.paws360.JPARepository.Finances;
 import com.uwm.paws360.Entity.Finances.AidAward;
 import com.uwm.paws360.Entity.UserTypes.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface AidAwardRepository extends JpaRepository<AidAward, Long> {
     List<AidAward> findByStudent(Student student);
-}
 
+    // Ledger rebuild: accepted and disbursed totals across non-cancelled awards
+    @Query("SELECT COALESCE(SUM(a.amountAccepted), 0), COALESCE(SUM(a.amountDisbursed), 0) FROM AidAward a " +
+           "WHERE a.student = :student AND a.status <> com.uwm.paws360.Entity.Finances.AidAward.AidStatus.CANCELLED")
+    List<Object[]> sumAcceptedAndDisbursed(@Param("student") Student student);
+}
@@ -0,0 +1,65 @@
+package com.uwm.paws360.JPARepository.Finances;
+
+import com.uwm.paws360.Entity.Finances.StatementRunPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface StatementRunPartitionRepository extends JpaRepository<StatementRunPartition, Long> {
+    List<StatementRunPartition> findByRunIdOrderByRangeStart(Long runId);
+
+    List<StatementRunPartition> findByRunIdAndStatus(Long runId, StatementRunPartition.PartitionStatus status);
+
+    long countByRunIdAndStatus(Long runId, StatementRunPartition.PartitionStatus status);
+
+    // Failed partitions go back to PENDING before they are re-queued, so the run is not closed while they execute
+    @Transactional
+    @Modifying
+    @Query("UPDATE StatementRunPartition p SET p.status = com.uwm.paws360.Entity.Finances.StatementRunPartition.PartitionStatus.PENDING, " +
+           "p.errorMessage = null, p.updatedAt = :now " +
+           "WHERE p.runId = :runId AND p.status = com.uwm.paws360.Entity.Finances.StatementRunPartition.PartitionStatus.FAILED")
+    int resetFailed(@Param("runId") Long runId, @Param("now") OffsetDateTime now);
+
+    // RUNNING partitions with no checkpoint since :staleBefore lost their worker (killed node, shutdown)
+    // and go back to PENDING the same way
+    @Transactional
+    @Modifying
+    @Query("UPDATE StatementRunPartition p SET p.status = com.uwm.paws360.Entity.Finances.StatementRunPartition.PartitionStatus.PENDING, " +
+           "p.updatedAt = :now " +
+           "WHERE p.runId = :runId AND p.status = com.uwm.paws360.Entity.Finances.StatementRunPartition.PartitionStatus.RUNNING " +
+           "AND p.updatedAt < :staleBefore")
+    int resetStale(@Param("runId") Long runId, @Param("staleBefore") OffsetDateTime staleBefore, @Param("now") OffsetDateTime now);
+
+    // A worker owns a partition only if it moved it to RUNNING, from PENDING or from a RUNNING lease
+    // that expired at :staleBefore; zero rows means another worker has it
+    @Transactional
+    @Modifying
+    @Query("UPDATE StatementRunPartition p SET p.status = com.uwm.paws360.Entity.Finances.StatementRunPartition.PartitionStatus.RUNNING, " +
+           "p.errorMessage = null, p.updatedAt = :now " +
+           "WHERE p.id = :id AND (p.status = com.uwm.paws360.Entity.Finances.StatementRunPartition.PartitionStatus.PENDING " +
+           "OR (p.status = com.uwm.paws360.Entity.Finances.StatementRunPartition.PartitionStatus.RUNNING AND p.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("staleBefore") OffsetDateTime staleBefore, @Param("now") OffsetDateTime now);
+
+    // Progress checkpoint written by workers after each page of statements
+    @Transactional
+    @Modifying
+    @Query("UPDATE StatementRunPartition p SET p.lastAccountId = :lastAccountId, " +
+           "p.statementsWritten = p.statementsWritten + :written, p.updatedAt = :now WHERE p.id = :id")
+    int recordProgress(@Param("id") Long id,
+                       @Param("lastAccountId") Long lastAccountId,
+                       @Param("written") int written,
+                       @Param("now") OffsetDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StatementRunPartition p SET p.status = :status, p.errorMessage = :error, p.updatedAt = :now WHERE p.id = :id")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") StatementRunPartition.PartitionStatus status,
+                     @Param("error") String error,
+                     @Param("now") OffsetDateTime now);
+}
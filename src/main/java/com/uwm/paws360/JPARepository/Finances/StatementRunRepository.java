@@ -0,0 +1,11 @@
+package com.uwm.paws360.JPARepository.Finances;
+
+import com.uwm.paws360.Entity.Finances.StatementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface StatementRunRepository extends JpaRepository<StatementRun, Long> {
+    Optional<StatementRun> findByStatementMonthAndFormat(LocalDate statementMonth, StatementRun.Format format);
+}
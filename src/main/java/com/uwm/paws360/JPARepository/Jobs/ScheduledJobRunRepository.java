@@ -0,0 +1,21 @@
+package com.uwm.paws360.JPARepository.Jobs;
+
+import com.uwm.paws360.Entity.Jobs.ScheduledJobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+public interface ScheduledJobRunRepository extends JpaRepository<ScheduledJobRun, Long> {
+
+    boolean existsByJobNameAndRunKeyAndShardAndStatus(String jobName, String runKey, Integer shard,
+                                                      ScheduledJobRun.RunStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ScheduledJobRun r WHERE r.startedAt < :cutoff")
+    int deleteStartedBefore(@Param("cutoff") OffsetDateTime cutoff);
+}
@@ -24,6 +24,11 @@ public interface AuthenticationSessionRepository extends JpaRepository<Authentic
     Optional<AuthenticationSession> findValidSession(@Param("sessionToken") String sessionToken, 
                                                     @Param("currentTime") LocalDateTime currentTime);
     
+    // Same as findValidSession but loads the user too, so the result can be cached detached
+    @Query("SELECT s FROM AuthenticationSession s JOIN FETCH s.user WHERE s.sessionToken = :sessionToken AND s.isActive = true AND s.expiresAt > :currentTime")
+    Optional<AuthenticationSession> findValidSessionWithUser(@Param("sessionToken") String sessionToken,
+                                                            @Param("currentTime") LocalDateTime currentTime);
+    
     // User session management
     List<AuthenticationSession> findByUserAndIsActiveTrueOrderByCreatedAtDesc(Users user);
     
@@ -36,11 +41,7 @@ public interface AuthenticationSessionRepository extends JpaRepository<Authentic
     List<AuthenticationSession> findActiveSessionsByService(@Param("serviceOrigin") String serviceOrigin, 
                                                            @Param("currentTime") LocalDateTime currentTime);
     
-    // Session cleanup operations
-    @Modifying
-    @Query("UPDATE AuthenticationSession s SET s.isActive = false, s.logoutReason = 'expired' WHERE s.expiresAt < :expiredTime AND s.isActive = true")
-    int expireOldSessions(@Param("expiredTime") LocalDateTime expiredTime);
-    
+    // Session cleanup operations (expiry and purge run in bounded chunks from JpaSessionStore)
     @Modifying
     @Query("UPDATE AuthenticationSession s SET s.isActive = false, s.logoutReason = :reason WHERE s.user.id = :userId AND s.isActive = true")
     int invalidateUserSessions(@Param("userId") int userId, @Param("reason") String reason);
@@ -53,10 +54,6 @@ public interface AuthenticationSessionRepository extends JpaRepository<Authentic
     @Query("DELETE FROM AuthenticationSession s WHERE s.sessionToken = :sessionToken")
     int deleteBySessionToken(@Param("sessionToken") String sessionToken);
     
-    @Modifying
-    @Query("DELETE FROM AuthenticationSession s WHERE s.isActive = false AND s.createdAt < :cleanupDate")
-    int deleteInactiveSessions(@Param("cleanupDate") LocalDateTime cleanupDate);
-    
     // Analytics and monitoring
     @Query("SELECT COUNT(s) FROM AuthenticationSession s WHERE s.isActive = true AND s.expiresAt > :currentTime")
     long countActiveSessions(@Param("currentTime") LocalDateTime currentTime);
@@ -1,11 +1,42 @@
 package com.uwm.paws360.JPARepository.User;
 
+import com.uwm.paws360.DTO.User.StudentSummaryDTO;
 import com.uwm.paws360.Entity.UserTypes.Student;
 import com.uwm.paws360.Entity.Base.Users;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface StudentRepository extends JpaRepository<Student, Integer>{
     Optional<Student> findByUser(Users user);
     void deleteByUser(Users user);
+
+    // Row lock so concurrent sends to one advising conversation commit their message ids in order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Student s WHERE s.id = :id")
+    Optional<Student> findForUpdate(@Param("id") Integer id);
+
+    // The lookups below probe a unique index and fetch the user in the same statement
+    @Query("SELECT s FROM Student s JOIN FETCH s.user WHERE s.user.id = :userId")
+    Optional<Student> findByUserIdWithUser(@Param("userId") int userId);
+
+    @Query("SELECT s FROM Student s JOIN FETCH s.user WHERE s.campusId = :campusId")
+    Optional<Student> findByCampusIdWithUser(@Param("campusId") String campusId);
+
+    // Served by the users_email_lower_idx expression index
+    @Query("SELECT s FROM Student s JOIN FETCH s.user u WHERE lower(u.email) = lower(:email)")
+    Optional<Student> findByUserEmailWithUser(@Param("email") String email);
+
+    // Callers keep :userIds to a few hundred ids per call
+    @Query("SELECT new com.uwm.paws360.DTO.User.StudentSummaryDTO(" +
+           "u.id, s.id, u.email, u.firstname, u.lastname, u.preferred_name, u.status, " +
+           "s.campusId, s.department, s.standing, s.enrollementStatus, s.gpa) " +
+           "FROM Student s JOIN s.user u WHERE u.id IN :userIds")
+    List<StudentSummaryDTO> findSummariesByUserIds(@Param("userIds") Collection<Integer> userIds);
 }
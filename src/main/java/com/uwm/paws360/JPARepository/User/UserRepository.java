@@ -9,13 +9,16 @@ import java.util.Optional;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<Users, Integer> {
     List<Users> findAllByFirstnameLike(String firstname);
     Users findUsersByEmailLikeIgnoreCase(String email);
 
-    // Backwards-compatible method name expected by services
-    Users findUsersByEmailIgnoreCase(String email);
+    // Backwards-compatible method name expected by services. Written out so the predicate matches the
+    // users_email_lower_idx expression index; the derived query compares upper() and scans the table.
+    @Query("SELECT u FROM Users u WHERE lower(u.email) = lower(:email)")
+    Users findUsersByEmailIgnoreCase(@Param("email") String email);
 
     // Methods to support legacy session token storage in the user table
     // Use explicit JPQL to reference the field `session_token` (snake_case) since the entity uses
@@ -27,9 +30,13 @@ public interface UserRepository extends JpaRepository<Users, Integer> {
     @Query("SELECT u FROM Users u WHERE u.session_token = :sessionToken AND u.session_expiration > :currentTime")
     Optional<Users> findByValidSessionToken(@Param("sessionToken") String sessionToken, @Param("currentTime") LocalDateTime currentTime);
 
+    // Clears at most :limit expired legacy sessions; the cleanup job calls it until it returns less
+    @Transactional
     @Modifying
-    @Query("UPDATE Users u SET u.session_token = NULL, u.session_expiration = NULL WHERE u.session_expiration < :expiredTime")
-    int clearExpiredSessions(@Param("expiredTime") LocalDateTime expiredTime);
+    @Query(value = "UPDATE users SET session_token = NULL, session_expiration = NULL WHERE user_id IN (" +
+                   "SELECT user_id FROM users WHERE session_expiration < :expiredTime LIMIT :limit)",
+           nativeQuery = true)
+    int clearExpiredSessions(@Param("expiredTime") LocalDateTime expiredTime, @Param("limit") int limit);
 
     @Query("SELECT COUNT(u) FROM Users u WHERE u.session_expiration > :currentTime")
     long countActiveSessions(@Param("currentTime") LocalDateTime currentTime);
@@ -0,0 +1,178 @@
+package com.uwm.paws360.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admin dashboard statistics served from an in-memory snapshot, so loading the dashboard never
+ * queries the student, enrollment or session tables.
+ *
+ * The snapshot is rebuilt from GROUP BY aggregates every {@code paws360.admin-dashboard.refresh-interval}
+ * (see {@link com.uwm.paws360.config.ScheduledJobs}). In between, committed
+ * {@link SessionCountChangedEvent}s and {@link EnrollmentChangedEvent}s are added on top, so session
+ * and enrollment figures move with activity on this node. Sessions that lapse and changes made on
+ * other nodes only show up at the next rebuild, which also discards the accumulated increments.
+ */
+@Service
+public class AdminDashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminDashboardService.class);
+
+    private static final String STUDENT_TOTALS_SQL =
+            "SELECT COUNT(*) AS total_students, " +
+            "COALESCE(SUM(CASE WHEN u.status = 'ACTIVE' THEN 1 ELSE 0 END), 0) AS active_students, " +
+            "COALESCE(SUM(CASE WHEN s.gpa IS NOT NULL THEN 1 ELSE 0 END), 0) AS students_with_gpa, " +
+            "COALESCE(SUM(CASE WHEN s.campus_id IS NOT NULL AND TRIM(s.campus_id) <> '' THEN 1 ELSE 0 END), 0) " +
+            "AS students_with_campus_id " +
+            "FROM student s JOIN users u ON u.user_id = s.user_id";
+
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final String ALL_SESSIONS = "*";
+
+    public record Snapshot(Map<String, Long> studentCounts,
+                           Map<String, Long> studentsByDepartment,
+                           Map<String, Long> studentsByStanding,
+                           Map<String, Long> studentsByEnrollmentStatus,
+                           Map<String, Long> sectionEnrollmentsByStatus,
+                           long activeSessions,
+                           Map<String, Long> activeSessionsByService,
+                           LocalDateTime refreshedAt) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), 0, Map.of(), null);
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SessionManagementService sessionManagementService;
+
+    private volatile Snapshot base = Snapshot.EMPTY;
+    // Increments since the base was built, keyed by session origin (ALL_SESSIONS for the total)
+    // and by section enrollment status
+    private volatile Map<String, LongAdder> sessionDeltas = new ConcurrentHashMap<>();
+    private volatile Map<String, LongAdder> enrollmentDeltas = new ConcurrentHashMap<>();
+
+    public AdminDashboardService(NamedParameterJdbcTemplate jdbcTemplate,
+                                 SessionManagementService sessionManagementService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionManagementService = sessionManagementService;
+    }
+
+    /**
+     * The current statistics. Never reads the database; empty until the first refresh.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = base;
+        Map<String, Long> sessionsByService = new LinkedHashMap<>(current.activeSessionsByService());
+        long activeSessions = current.activeSessions();
+        for (Map.Entry<String, LongAdder> delta : sessionDeltas.entrySet()) {
+            if (ALL_SESSIONS.equals(delta.getKey())) {
+                activeSessions += delta.getValue().sum();
+            } else {
+                sessionsByService.merge(delta.getKey(), delta.getValue().sum(), AdminDashboardService::nonNegativeSum);
+            }
+        }
+        Map<String, Long> enrollments = new LinkedHashMap<>(current.sectionEnrollmentsByStatus());
+        enrollmentDeltas.forEach((status, delta) -> enrollments.merge(status, delta.sum(), AdminDashboardService::nonNegativeSum));
+        return new Snapshot(current.studentCounts(), current.studentsByDepartment(), current.studentsByStanding(),
+                current.studentsByEnrollmentStatus(), enrollments, Math.max(0, activeSessions), sessionsByService,
+                current.refreshedAt());
+    }
+
+    /**
+     * Rebuild the snapshot from the database.
+     */
+    public void refresh() {
+        // Increments from here on apply to the new base; ones committed while the queries run may be
+        // counted twice until the next refresh
+        Map<String, LongAdder> previousSessionDeltas = sessionDeltas;
+        Map<String, LongAdder> previousEnrollmentDeltas = enrollmentDeltas;
+        sessionDeltas = new ConcurrentHashMap<>();
+        enrollmentDeltas = new ConcurrentHashMap<>();
+        try {
+            Map<String, Long> studentCounts = jdbcTemplate.queryForObject(STUDENT_TOTALS_SQL, new MapSqlParameterSource(), (rs, i) -> {
+                Map<String, Long> counts = new HashMap<>();
+                counts.put("total_students", rs.getLong("total_students"));
+                counts.put("active_students", rs.getLong("active_students"));
+                counts.put("students_with_gpa", rs.getLong("students_with_gpa"));
+                counts.put("students_with_campus_id", rs.getLong("students_with_campus_id"));
+                return counts;
+            });
+
+            Map<String, Long> sessionsByService = new LinkedHashMap<>();
+            for (Object[] row : sessionManagementService.getSessionStatsByService()) {
+                sessionsByService.put(row[0] != null ? row[0].toString() : UNKNOWN, ((Number) row[1]).longValue());
+            }
+
+            base = new Snapshot(
+                    studentCounts != null ? Map.copyOf(studentCounts) : Map.of(),
+                    countBy("SELECT department AS k, COUNT(*) AS n FROM student GROUP BY department"),
+                    countBy("SELECT standing AS k, COUNT(*) AS n FROM student GROUP BY standing"),
+                    countBy("SELECT enrollement_status AS k, COUNT(*) AS n FROM student GROUP BY enrollement_status"),
+                    countBy("SELECT status AS k, COUNT(*) AS n FROM course_enrollments GROUP BY status"),
+                    sessionManagementService.getActiveSessionsCount(),
+                    sessionsByService,
+                    LocalDateTime.now());
+        } catch (RuntimeException e) {
+            // Keep serving the old figures together with what happened since
+            mergeInto(sessionDeltas, previousSessionDeltas);
+            mergeInto(enrollmentDeltas, previousEnrollmentDeltas);
+            logger.warn("Admin dashboard refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /*------------------------- Events -------------------------*/
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionCountChanged(SessionCountChangedEvent event) {
+        Map<String, LongAdder> deltas = sessionDeltas;
+        deltas.computeIfAbsent(ALL_SESSIONS, k -> new LongAdder()).add(event.delta());
+        if (event.serviceOrigin() != null) {
+            deltas.computeIfAbsent(event.serviceOrigin(), k -> new LongAdder()).add(event.delta());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (event.previousStatus() == event.status()) {
+            return;
+        }
+        Map<String, LongAdder> deltas = enrollmentDeltas;
+        if (event.previousStatus() != null) {
+            deltas.computeIfAbsent(event.previousStatus().name(), k -> new LongAdder()).decrement();
+        }
+        if (event.status() != null) {
+            deltas.computeIfAbsent(event.status().name(), k -> new LongAdder()).increment();
+        }
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private Map<String, Long> countBy(String sql) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, new MapSqlParameterSource());
+        for (Map<String, Object> row : rows) {
+            Object key = row.get("k");
+            counts.merge(key != null ? key.toString() : UNKNOWN, ((Number) row.get("n")).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
+    private static void mergeInto(Map<String, LongAdder> target, Map<String, LongAdder> source) {
+        source.forEach((key, delta) -> target.computeIfAbsent(key, k -> new LongAdder()).add(delta.sum()));
+    }
+
+    private static Long nonNegativeSum(Long a, Long b) {
+        return Math.max(0, a + b);
+    }
+}
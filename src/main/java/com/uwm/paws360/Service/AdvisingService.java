@@ -2,6 +2,8 @@ package com.uwm.paws360.Service;
 
 import com.uwm.paws360.DTO.Advising.AdvisorDTO;
 import com.uwm.paws360.DTO.Advising.AppointmentDTO;
+import com.uwm.paws360.DTO.Advising.MessageDTO;
+import com.uwm.paws360.DTO.Advising.MessagePageDTO;
 import com.uwm.paws360.Entity.Advising.AdvisorAppointment;
 import com.uwm.paws360.Entity.Advising.AdvisorMessage;
 import com.uwm.paws360.Entity.Advising.StudentAdvisor;
@@ -13,10 +15,18 @@ import com.uwm.paws360.JPARepository.Advising.AdvisorMessageRepository;
 import com.uwm.paws360.JPARepository.User.AdvisorRepository;
 import com.uwm.paws360.JPARepository.User.StudentRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,22 +34,34 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class AdvisingService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final StudentRepository studentRepository;
     private final AdvisorRepository advisorRepository;
     private final StudentAdvisorRepository studentAdvisorRepository;
     private final AdvisorAppointmentRepository appointmentRepository;
     private final AdvisorMessageRepository messageRepository;
+    private final AdvisorMessageNotifier notifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration pollTimeout;
 
     public AdvisingService(StudentRepository studentRepository,
                            AdvisorRepository advisorRepository,
                            StudentAdvisorRepository studentAdvisorRepository,
                            AdvisorAppointmentRepository appointmentRepository,
-                           AdvisorMessageRepository messageRepository) {
+                           AdvisorMessageRepository messageRepository,
+                           AdvisorMessageNotifier notifier,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${paws360.advising.messages.poll-timeout:PT25S}") Duration pollTimeout) {
         this.studentRepository = studentRepository;
         this.advisorRepository = advisorRepository;
         this.studentAdvisorRepository = studentAdvisorRepository;
         this.appointmentRepository = appointmentRepository;
         this.messageRepository = messageRepository;
+        this.notifier = notifier;
+        this.eventPublisher = eventPublisher;
+        this.pollTimeout = pollTimeout;
     }
 
     public AdvisorDTO getPrimaryAdvisor(Integer studentId) {
@@ -82,23 +104,71 @@ public class AdvisingService {
                 .collect(Collectors.toList());
     }
 
-    public java.util.List<com.uwm.paws360.DTO.Advising.MessageDTO> listMessages(Integer studentId) {
-        Student s = studentRepository.findById(studentId)
-                .orElseThrow(() -> new EntityNotFoundException("Student not found for id " + studentId));
-        return messageRepository.findByStudentOrderBySentAtAsc(s).stream().map(m -> new com.uwm.paws360.DTO.Advising.MessageDTO(
-                m.getId(),
-                s.getId(),
-                m.getAdvisor().getId(),
-                m.getAdvisor().getUser().getFirstname() + " " + m.getAdvisor().getUser().getLastname(),
-                m.getSender().name(),
-                m.getContent(),
-                m.getSentAt()
-        )).collect(Collectors.toList());
+    public List<MessageDTO> listMessages(Integer studentId) {
+        requireStudent(studentId);
+        return messageRepository.findConversation(studentId).stream()
+                .map(m -> toMessageDTO(m, studentId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One page of a student's messages, newest first. {@code cursor} is the opaque value returned as
+     * {@code nextCursor} by the previous page; each page is an index range scan below that message,
+     * so the cost does not grow with how far back the caller has paged.
+     */
+    public MessagePageDTO pageMessages(Integer studentId, String cursor, Integer limit) {
+        requireStudent(studentId);
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a count query
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<AdvisorMessage> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = messageRepository.findConversationPage(studentId, fetch);
+            // The first page carries the newest message, which lets the next poll wait without a query
+            notifier.recordLatest(studentId, rows.isEmpty() ? 0L : rows.get(0).getId());
+        } else {
+            rows = messageRepository.findConversationPageBefore(studentId, decodeCursor(cursor), fetch);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<MessageDTO> items = (hasMore ? rows.subList(0, pageSize) : rows).stream()
+                .map(m -> toMessageDTO(m, studentId))
+                .toList();
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1).id()) : null;
+        return new MessagePageDTO(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Messages newer than {@code afterId}, oldest first and at most {@value #MAX_PAGE_SIZE}, as a long
+     * poll: completes at once when there are some, otherwise with the next message sent or with an
+     * empty list after {@code paws360.advising.messages.poll-timeout}. While {@link AdvisorMessageNotifier}
+     * knows the newest message of the conversation, a waiting poll does not touch the database.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DeferredResult<List<MessageDTO>> awaitMessages(Integer studentId, long afterId) {
+        DeferredResult<List<MessageDTO>> result = new DeferredResult<>(pollTimeout.toMillis(), List.of());
+        if (notifier.park(studentId, afterId, result)) {
+            return result;
+        }
+        Long latest = messageRepository.findLatestId(studentId);
+        notifier.recordLatest(studentId, latest != null ? latest : 0L);
+        if (!notifier.park(studentId, afterId, result)) {
+            result.setResult(messageRepository.findConversationAfter(studentId, afterId, Limit.of(MAX_PAGE_SIZE)).stream()
+                    .map(m -> toMessageDTO(m, studentId))
+                    .toList());
+        }
+        return result;
     }
 
+    /**
+     * Sends to one conversation queue on the student's row until commit. Message ids are assigned at
+     * insert, so without this a later id could commit first and a poll that already moved past it
+     * would never see the earlier one.
+     */
     @Transactional
-    public com.uwm.paws360.DTO.Advising.MessageDTO sendMessage(Integer studentId, Integer advisorId, String content) {
-        Student s = studentRepository.findById(studentId)
+    public MessageDTO sendMessage(Integer studentId, Integer advisorId, String content) {
+        Student s = studentRepository.findForUpdate(studentId)
                 .orElseThrow(() -> new EntityNotFoundException("Student not found for id " + studentId));
         Advisor a = advisorRepository.findById(advisorId)
                 .orElseThrow(() -> new EntityNotFoundException("Advisor not found for id " + advisorId));
@@ -109,11 +179,40 @@ public class AdvisingService {
         msg.setContent(content);
         msg.setSentAt(OffsetDateTime.now());
         AdvisorMessage saved = messageRepository.save(msg);
-        return new com.uwm.paws360.DTO.Advising.MessageDTO(
-                saved.getId(), s.getId(), a.getId(),
+        MessageDTO dto = toMessageDTO(saved, s.getId());
+        eventPublisher.publishEvent(new AdvisorMessageSentEvent(s.getId(), dto));
+        return dto;
+    }
+
+    private void requireStudent(Integer studentId) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new EntityNotFoundException("Student not found for id " + studentId);
+        }
+    }
+
+    private static MessageDTO toMessageDTO(AdvisorMessage m, Integer studentId) {
+        Advisor a = m.getAdvisor();
+        return new MessageDTO(
+                m.getId(),
+                studentId,
+                a.getId(),
                 a.getUser().getFirstname() + " " + a.getUser().getLastname(),
-                saved.getSender().name(), saved.getContent(), saved.getSentAt()
+                m.getSender().name(),
+                m.getContent(),
+                m.getSentAt()
         );
     }
-}
 
+    // Keyset position (the id of the last message on a page) carried as a URL-safe token
+    private static String encodeCursor(Long messageId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(messageId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String token) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid message cursor", e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Advising.MessageDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory view of the newest message in each advising conversation (keyed by student id), and the
+ * long-poll requests parked until a newer one arrives.
+ *
+ * A conversation's newest id is learned from a database read and then kept current by committed
+ * {@link AdvisorMessageSentEvent}s, so a poll for messages after an id at or past it is parked
+ * without a query and completed with the new message when it is sent. Messages sent on other nodes
+ * raise no event here; a conversation's newest id is only trusted for
+ * {@code paws360.advising.messages.recheck-after}, after which the next poll reads the database again.
+ * At most {@code paws360.advising.messages.max-conversations} idle conversations are remembered.
+ */
+@Service
+public class AdvisorMessageNotifier {
+
+    public record Stats(int conversations, int waiters) {}
+
+    private record Waiter(long afterId, DeferredResult<List<MessageDTO>> result) {}
+
+    private static final class Conversation {
+        long latestId;
+        long verifiedAtNanos;
+        boolean verified;
+        final List<Waiter> waiters = new ArrayList<>(2);
+    }
+
+    private final int maxConversations;
+    private final Duration recheckAfter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Integer, Conversation> conversations;
+    private int waiterCount;
+
+    public AdvisorMessageNotifier(@Value("${paws360.advising.messages.max-conversations:10000}") int maxConversations,
+                                  @Value("${paws360.advising.messages.recheck-after:PT30S}") Duration recheckAfter) {
+        this.maxConversations = Math.max(1, maxConversations);
+        this.recheckAfter = recheckAfter;
+        // Access order, so iteration starts at the least recently used conversation
+        this.conversations = new LinkedHashMap<>(256, 0.75f, true);
+    }
+
+    /**
+     * Record that, according to the database, no message in the student's conversation is newer
+     * than {@code latestId}.
+     */
+    public void recordLatest(int studentId, long latestId) {
+        lock.lock();
+        try {
+            Conversation conversation = conversation(studentId);
+            // An event may already have reported a newer message than the read saw
+            conversation.latestId = Math.max(conversation.latestId, latestId);
+            conversation.verified = true;
+            conversation.verifiedAtNanos = System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Park {@code result} until a message newer than {@code afterId} is sent, provided the newest
+     * message of the conversation is known and is not newer already. Returns false, leaving
+     * {@code result} untouched, when the caller has to read the database instead.
+     */
+    public boolean park(int studentId, long afterId, DeferredResult<List<MessageDTO>> result) {
+        Waiter waiter = new Waiter(afterId, result);
+        lock.lock();
+        try {
+            Conversation conversation = conversations.get(studentId);
+            if (conversation == null || !conversation.verified || conversation.latestId > afterId
+                    || System.nanoTime() - conversation.verifiedAtNanos >= recheckAfter.toNanos()) {
+                return false;
+            }
+            conversation.waiters.add(waiter);
+            waiterCount++;
+        } finally {
+            lock.unlock();
+        }
+        // Timed out or abandoned polls leave the conversation
+        result.onCompletion(() -> unpark(studentId, waiter));
+        return true;
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(conversations.size(), waiterCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*------------------------- Events -------------------------*/
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(AdvisorMessageSentEvent event) {
+        long messageId = event.message().id();
+        List<Waiter> woken = new ArrayList<>();
+        lock.lock();
+        try {
+            Conversation conversation = conversation(event.studentId());
+            conversation.latestId = Math.max(conversation.latestId, messageId);
+            Iterator<Waiter> it = conversation.waiters.iterator();
+            while (it.hasNext()) {
+                Waiter waiter = it.next();
+                if (waiter.afterId() < messageId) {
+                    woken.add(waiter);
+                    it.remove();
+                    waiterCount--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Parked polls had seen everything before this message, so it is all they are missing
+        List<MessageDTO> delivery = List.of(event.message());
+        for (Waiter waiter : woken) {
+            waiter.result().setResult(delivery);
+        }
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    // Callers hold the lock
+    private Conversation conversation(int studentId) {
+        Conversation conversation = conversations.get(studentId);
+        if (conversation == null) {
+            evictIdle();
+            conversation = new Conversation();
+            conversations.put(studentId, conversation);
+        }
+        return conversation;
+    }
+
+    // Callers hold the lock; makes room for one more, keeping conversations with parked polls
+    private void evictIdle() {
+        Iterator<Map.Entry<Integer, Conversation>> eldest = conversations.entrySet().iterator();
+        while (conversations.size() >= maxConversations && eldest.hasNext()) {
+            if (eldest.next().getValue().waiters.isEmpty()) {
+                eldest.remove();
+            }
+        }
+    }
+
+    private void unpark(int studentId, Waiter waiter) {
+        lock.lock();
+        try {
+            Conversation conversation = conversations.get(studentId);
+            if (conversation != null && conversation.waiters.remove(waiter)) {
+                waiterCount--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
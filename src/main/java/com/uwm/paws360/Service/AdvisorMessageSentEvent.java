@@ -0,0 +1,8 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Advising.MessageDTO;
+
+/**
+ * Published when a message is added to a student's advising conversation.
+ */
+public record AdvisorMessageSentEvent(int studentId, MessageDTO message) {}
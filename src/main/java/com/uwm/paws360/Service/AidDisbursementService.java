@@ -0,0 +1,352 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.AidDisbursementResultDTO;
+import com.uwm.paws360.Entity.Finances.AccountTransaction;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Term aid disbursement. Accepted-but-undisbursed awards for a term are applied against each
+ * student's outstanding balance, oldest award first, up to what the student owes. Students are
+ * split into id ranges processed by parallel workers; each page of students is written in one
+ * transaction as a batch of conditional award updates plus a batch of aid-linked CREDIT postings.
+ * A partition that fails stops at its last committed page and is counted in the result, while the
+ * other partitions carry on. A dry run computes the same allocations without writing anything.
+ */
+@Service
+public class AidDisbursementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AidDisbursementService.class);
+
+    private static final int PAGE_SIZE = 500;
+    private static final int PARTITIONS_PER_WORKER = 4;
+
+    private static final String ELIGIBLE =
+            "term = :term AND academic_year = :year AND status <> 'CANCELLED' " +
+            "AND COALESCE(amount_accepted, 0) > COALESCE(amount_disbursed, 0)";
+
+    private static final String STUDENT_RANGE_SQL =
+            "SELECT MIN(student_id) AS min_id, MAX(student_id) AS max_id FROM aid_awards WHERE " + ELIGIBLE;
+
+    private static final String STUDENT_PAGE_SQL =
+            "SELECT DISTINCT student_id FROM aid_awards WHERE " + ELIGIBLE +
+            " AND student_id > :after AND student_id < :rangeEnd ORDER BY student_id LIMIT :pageSize";
+
+    private static final String AWARDS_SQL =
+            "SELECT award_id, student_id, COALESCE(amount_accepted, 0) AS accepted, COALESCE(amount_disbursed, 0) AS disbursed " +
+            "FROM aid_awards WHERE " + ELIGIBLE + " AND student_id IN (:studentIds) ORDER BY student_id, award_id";
+
+    // Outstanding balance with the same rule as FinancesService.getSummary: posted charges less
+    // credits and payments (excluding aid-linked credits) less all disbursed aid
+    private static final String OUTSTANDING_SQL =
+            "SELECT fa.account_id, fa.student_id, " +
+            "COALESCE((SELECT SUM(CASE WHEN t.type = 'CHARGE' THEN t.amount ELSE -t.amount END) FROM account_transactions t " +
+            "  WHERE t.student_id = fa.student_id AND t.status = 'POSTED' AND t.aid_award_id IS NULL), 0) " +
+            "- COALESCE((SELECT SUM(a.amount_disbursed) FROM aid_awards a " +
+            "  WHERE a.student_id = fa.student_id AND a.status <> 'CANCELLED'), 0) AS outstanding " +
+            "FROM financial_accounts fa WHERE fa.student_id IN (:studentIds)";
+
+    // Only matches if nobody disbursed against the award since it was read
+    private static final String DISBURSE_AWARD_SQL =
+            "UPDATE aid_awards SET amount_disbursed = COALESCE(amount_disbursed, 0) + :amount, updated_at = :now " +
+            "WHERE award_id = :awardId AND COALESCE(amount_disbursed, 0) = :expectedDisbursed AND status <> 'CANCELLED'";
+
+    // Which of the given awards this page's update stamped; the page holds their row locks until it commits
+    private static final String STAMPED_AWARDS_SQL =
+            "SELECT award_id FROM aid_awards WHERE award_id IN (:awardIds) AND updated_at = :now";
+
+    private static final String TERM_AWARD_TOTAL_SQL =
+            "SELECT COALESCE(SUM(amount_disbursed), 0) FROM aid_awards " +
+            "WHERE term = :term AND academic_year = :year AND status <> 'CANCELLED'";
+
+    private static final String TERM_CREDIT_TOTAL_SQL =
+            "SELECT COALESCE(SUM(t.amount), 0) FROM account_transactions t " +
+            "JOIN aid_awards a ON a.award_id = t.aid_award_id " +
+            "WHERE a.term = :term AND a.academic_year = :year AND t.status = 'POSTED'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerService ledgerService;
+    private final int workerCount;
+    private final ExecutorService workers;
+
+    public AidDisbursementService(NamedParameterJdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  LedgerService ledgerService,
+                                  @Value("${paws360.aid-disbursement.workers:4}") int workerCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.ledgerService = ledgerService;
+        this.workerCount = Math.max(1, workerCount);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, r -> {
+            Thread t = new Thread(r, "aid-disbursement-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Disburse accepted aid for a term and reconcile the run against the term's award and ledger
+     * totals. Rerunning is safe: awards that are fully disbursed are no longer selected, so a run
+     * that reports failed partitions can simply be repeated.
+     */
+    public AidDisbursementResultDTO disburseTerm(String term, int academicYear, boolean dryRun) {
+        long started = System.currentTimeMillis();
+        MapSqlParameterSource termParams = new MapSqlParameterSource()
+                .addValue("term", term)
+                .addValue("year", academicYear);
+
+        BigDecimal awardsBefore = jdbcTemplate.queryForObject(TERM_AWARD_TOTAL_SQL, termParams, BigDecimal.class);
+        BigDecimal creditsBefore = jdbcTemplate.queryForObject(TERM_CREDIT_TOTAL_SQL, termParams, BigDecimal.class);
+
+        List<long[]> ranges = partition(termParams);
+        List<Future<RunTally>> futures = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            futures.add(workers.submit(() -> processRange(term, academicYear, range[0], range[1], dryRun)));
+        }
+
+        RunTally total = new RunTally();
+        for (Future<RunTally> future : futures) {
+            try {
+                total.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Aid disbursement interrupted", e);
+            } catch (ExecutionException e) {
+                // processRange handles its own failures; this only happens if the task itself could not run
+                logger.warn("Aid disbursement partition failed: {}", e.getCause().getMessage(), e.getCause());
+                total.partitionsFailed++;
+            }
+        }
+
+        BigDecimal awardsAfter = jdbcTemplate.queryForObject(TERM_AWARD_TOTAL_SQL, termParams, BigDecimal.class);
+        BigDecimal creditsAfter = jdbcTemplate.queryForObject(TERM_CREDIT_TOTAL_SQL, termParams, BigDecimal.class);
+        BigDecimal expected = dryRun ? BigDecimal.ZERO : total.amount;
+        // Both the award totals and the ledger credits must have moved by exactly what this run posted
+        boolean reconciled = awardsAfter.subtract(awardsBefore).compareTo(expected) == 0
+                && creditsAfter.subtract(creditsBefore).compareTo(expected) == 0;
+        long elapsed = System.currentTimeMillis() - started;
+
+        if (reconciled) {
+            logger.info("Aid disbursement {} {}{}: {} awards, {} disbursed across {} partitions ({} failed) in {} ms",
+                    term, academicYear, dryRun ? " (dry run)" : "", total.awards, total.amount, ranges.size(),
+                    total.partitionsFailed, elapsed);
+        } else {
+            logger.warn("Aid disbursement {} {} did not reconcile: run {} vs awards {} -> {}, credits {} -> {}",
+                    term, academicYear, expected, awardsBefore, awardsAfter, creditsBefore, creditsAfter);
+        }
+        return new AidDisbursementResultDTO(term, academicYear, dryRun, ranges.size(), total.partitionsFailed,
+                total.students, total.awards,
+                total.withoutBalance, total.conflicts, total.amount, awardsBefore, awardsAfter, creditsBefore,
+                creditsAfter, reconciled, elapsed);
+    }
+
+    private List<long[]> partition(MapSqlParameterSource termParams) {
+        Map<String, Object> range = jdbcTemplate.queryForMap(STUDENT_RANGE_SQL, termParams);
+        if (range.get("min_id") == null) {
+            return List.of();
+        }
+        long minId = ((Number) range.get("min_id")).longValue();
+        long maxId = ((Number) range.get("max_id")).longValue();
+        long span = maxId - minId + 1;
+        int count = (int) Math.min(span, (long) workerCount * PARTITIONS_PER_WORKER);
+        long width = (span + count - 1) / count;
+        List<long[]> ranges = new ArrayList<>(count);
+        for (long start = minId; start <= maxId; start += width) {
+            ranges.add(new long[]{start, Math.min(start + width, maxId + 1)});
+        }
+        return ranges;
+    }
+
+    /**
+     * Walk one student-id range a page at a time. On failure the tally still holds every page that
+     * committed before it, and the partition is marked failed.
+     */
+    private RunTally processRange(String term, int academicYear, long rangeStart, long rangeEnd, boolean dryRun) {
+        RunTally tally = new RunTally();
+        try {
+            walkRange(term, academicYear, rangeStart, rangeEnd, dryRun, tally);
+        } catch (RuntimeException e) {
+            logger.warn("Aid disbursement {} {} partition [{}, {}) failed: {}",
+                    term, academicYear, rangeStart, rangeEnd, e.getMessage(), e);
+            tally.partitionsFailed++;
+        }
+        return tally;
+    }
+
+    private void walkRange(String term, int academicYear, long rangeStart, long rangeEnd, boolean dryRun,
+                           RunTally tally) {
+        long after = rangeStart - 1;
+        while (true) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("term", term)
+                    .addValue("year", academicYear)
+                    .addValue("after", after)
+                    .addValue("rangeEnd", rangeEnd)
+                    .addValue("pageSize", PAGE_SIZE);
+            List<Integer> studentIds = jdbcTemplate.queryForList(STUDENT_PAGE_SQL, params, Integer.class);
+            if (studentIds.isEmpty()) {
+                break;
+            }
+            params.addValue("studentIds", studentIds);
+            RunTally page = new RunTally();
+            List<Allocation> allocations = allocate(params, page);
+            page.students = studentIds.size();
+
+            if (dryRun) {
+                for (Allocation allocation : allocations) {
+                    page.awards++;
+                    page.amount = page.amount.add(allocation.amount());
+                }
+            } else if (!allocations.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> apply(term, academicYear, allocations, page));
+            }
+            // Only reached once the page has committed
+            tally.add(page);
+
+            after = studentIds.get(studentIds.size() - 1);
+            if (studentIds.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Apply each student's eligible awards, oldest first, until their outstanding balance is covered.
+     */
+    private List<Allocation> allocate(MapSqlParameterSource params, RunTally tally) {
+        Map<Integer, Long> accounts = new HashMap<>();
+        Map<Integer, BigDecimal> outstanding = new HashMap<>();
+        jdbcTemplate.query(OUTSTANDING_SQL, params, rs -> {
+            int studentId = rs.getInt("student_id");
+            accounts.put(studentId, rs.getLong("account_id"));
+            outstanding.put(studentId, rs.getBigDecimal("outstanding"));
+        });
+
+        List<Allocation> allocations = new ArrayList<>();
+        jdbcTemplate.query(AWARDS_SQL, params, rs -> {
+            int studentId = rs.getInt("student_id");
+            BigDecimal owed = outstanding.getOrDefault(studentId, BigDecimal.ZERO);
+            if (!accounts.containsKey(studentId) || owed.signum() <= 0) {
+                tally.withoutBalance++;
+                return;
+            }
+            BigDecimal disbursed = rs.getBigDecimal("disbursed");
+            BigDecimal amount = rs.getBigDecimal("accepted").subtract(disbursed).min(owed);
+            outstanding.put(studentId, owed.subtract(amount));
+            allocations.add(new Allocation(rs.getLong("award_id"), studentId, accounts.get(studentId), amount, disbursed));
+        });
+        return allocations;
+    }
+
+    private void apply(String term, int academicYear, List<Allocation> allocations, RunTally tally) {
+        // Microseconds so the value read back in applied() matches what the database stored
+        OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        SqlParameterSource[] updates = new SqlParameterSource[allocations.size()];
+        for (int i = 0; i < allocations.size(); i++) {
+            Allocation allocation = allocations.get(i);
+            updates[i] = new MapSqlParameterSource()
+                    .addValue("amount", allocation.amount())
+                    .addValue("now", now)
+                    .addValue("awardId", allocation.awardId())
+                    .addValue("expectedDisbursed", allocation.previouslyDisbursed());
+        }
+        Set<Long> applied = applied(allocations, jdbcTemplate.batchUpdate(DISBURSE_AWARD_SQL, updates), now);
+
+        List<LedgerService.BatchPosting> postings = new ArrayList<>(allocations.size());
+        int awards = 0;
+        int conflicts = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        for (int i = 0; i < allocations.size(); i++) {
+            Allocation allocation = allocations.get(i);
+            if (!applied.contains(allocation.awardId())) {
+                conflicts++;
+                continue;
+            }
+            postings.add(new LedgerService.BatchPosting(allocation.accountId(), allocation.studentId(),
+                    AccountTransaction.Type.CREDIT, allocation.amount(),
+                    "Financial aid disbursement " + term + " " + academicYear, null, null, now, allocation.awardId()));
+            awards++;
+            amount = amount.add(allocation.amount());
+        }
+        ledgerService.postBatch(postings);
+
+        tally.awards += awards;
+        tally.conflicts += conflicts;
+        tally.amount = tally.amount.add(amount);
+    }
+
+    /**
+     * The awards whose conditional update matched. A driver may report
+     * {@link Statement#SUCCESS_NO_INFO} instead of a row count; those awards count as applied only
+     * if reading them back shows this page's {@code updated_at}. Any other non-positive count is a
+     * conflict.
+     */
+    private Set<Long> applied(List<Allocation> allocations, int[] updated, OffsetDateTime now) {
+        Set<Long> applied = new HashSet<>();
+        List<Long> unknown = new ArrayList<>();
+        for (int i = 0; i < allocations.size(); i++) {
+            if (updated[i] > 0) {
+                applied.add(allocations.get(i).awardId());
+            } else if (updated[i] == Statement.SUCCESS_NO_INFO) {
+                unknown.add(allocations.get(i).awardId());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            applied.addAll(jdbcTemplate.queryForList(STAMPED_AWARDS_SQL, new MapSqlParameterSource()
+                    .addValue("awardIds", unknown)
+                    .addValue("now", now), Long.class));
+        }
+        return applied;
+    }
+
+    private record Allocation(Long awardId, Integer studentId, Long accountId, BigDecimal amount,
+                              BigDecimal previouslyDisbursed) {}
+
+    private static class RunTally {
+        private int students;
+        private int awards;
+        private int withoutBalance;
+        private int conflicts;
+        private int partitionsFailed;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        void add(RunTally other) {
+            partitionsFailed += other.partitionsFailed;
+            students += other.students;
+            awards += other.awards;
+            withoutBalance += other.withoutBalance;
+            conflicts += other.conflicts;
+            amount = amount.add(other.amount);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.uwm.paws360.Entity.EntityDomains.SectionType;
 import com.uwm.paws360.JPARepository.Course.*;
 import com.uwm.paws360.JPARepository.User.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +27,7 @@ public class CourseCatalogService {
     private final CoursePrerequisiteRepository coursePrerequisiteRepository;
     private final SectionStaffAssignmentRepository sectionStaffAssignmentRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher events;
 
     public CourseCatalogService(BuildingRepository buildingRepository,
                                 ClassroomRepository classroomRepository,
@@ -33,7 +35,8 @@ public class CourseCatalogService {
                                 CourseSectionRepository courseSectionRepository,
                                 CoursePrerequisiteRepository coursePrerequisiteRepository,
                                 SectionStaffAssignmentRepository sectionStaffAssignmentRepository,
-                                UserRepository userRepository) {
+                                UserRepository userRepository,
+                                ApplicationEventPublisher events) {
         this.buildingRepository = buildingRepository;
         this.classroomRepository = classroomRepository;
         this.courseRepository = courseRepository;
@@ -41,6 +44,7 @@ public class CourseCatalogService {
         this.coursePrerequisiteRepository = coursePrerequisiteRepository;
         this.sectionStaffAssignmentRepository = sectionStaffAssignmentRepository;
         this.userRepository = userRepository;
+        this.events = events;
     }
 
     @Transactional
@@ -202,8 +206,9 @@ public class CourseCatalogService {
             throw new IllegalStateException("Staff member is already assigned to this section in the specified role");
         }
 
-        SectionStaffAssignment assignment = new SectionStaffAssignment(section, staff, role);
-        return sectionStaffAssignmentRepository.save(assignment);
+        SectionStaffAssignment assignment = sectionStaffAssignmentRepository.save(new SectionStaffAssignment(section, staff, role));
+        events.publishEvent(new SectionStaffChangedEvent(staff.getId(), section.getId()));
+        return assignment;
     }
 
     public CourseCatalogResponseDTO toCourseResponse(Courses course) {
@@ -15,6 +15,7 @@ import com.uwm.paws360.JPARepository.Course.CourseEnrollmentRepository;
 import com.uwm.paws360.JPARepository.Course.CourseSectionRepository;
 import com.uwm.paws360.JPARepository.User.StudentRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,13 +31,16 @@ public class CourseEnrollmentService {
     private final CourseEnrollmentRepository courseEnrollmentRepository;
     private final CourseSectionRepository courseSectionRepository;
     private final StudentRepository studentRepository;
+    private final ApplicationEventPublisher events;
 
     public CourseEnrollmentService(CourseEnrollmentRepository courseEnrollmentRepository,
                                    CourseSectionRepository courseSectionRepository,
-                                   StudentRepository studentRepository) {
+                                   StudentRepository studentRepository,
+                                   ApplicationEventPublisher events) {
         this.courseEnrollmentRepository = courseEnrollmentRepository;
         this.courseSectionRepository = courseSectionRepository;
         this.studentRepository = studentRepository;
+        this.events = events;
     }
 
     @Transactional
@@ -75,6 +79,7 @@ public class CourseEnrollmentService {
         if (existingEnrollment != null && existingEnrollment.getStatus() != SectionEnrollmentStatus.DROPPED) {
             throw new IllegalStateException("Student is already enrolled or waitlisted for this lecture");
         }
+        SectionEnrollmentStatus previousStatus = existingEnrollment != null ? existingEnrollment.getStatus() : null;
 
         boolean hasLectureCapacity = hasCapacity(lectureSection);
         boolean hasLabCapacity = labSection == null || hasCapacity(labSection);
@@ -117,6 +122,7 @@ public class CourseEnrollmentService {
         }
 
         CourseEnrollment saved = courseEnrollmentRepository.save(enrollment);
+        publishChange(saved, previousStatus);
         return toResponse(saved);
     }
 
@@ -131,6 +137,7 @@ public class CourseEnrollmentService {
         if (enrollment.getStatus() == SectionEnrollmentStatus.DROPPED) {
             return toResponse(enrollment);
         }
+        SectionEnrollmentStatus previousStatus = enrollment.getStatus();
 
         if (enrollment.getStatus() == SectionEnrollmentStatus.WAITLISTED) {
             lectureSection.decrementWaitlist();
@@ -148,6 +155,7 @@ public class CourseEnrollmentService {
         enrollment.setDroppedAt(OffsetDateTime.now());
 
         CourseEnrollment saved = courseEnrollmentRepository.save(enrollment);
+        publishChange(saved, previousStatus);
         rebalanceWaitlistPositions(lectureSection);
         return toResponse(saved);
     }
@@ -187,6 +195,7 @@ public class CourseEnrollmentService {
         enrollment.setLabSection(newLab);
 
         CourseEnrollment saved = courseEnrollmentRepository.save(enrollment);
+        publishChange(saved, saved.getStatus());
         return toResponse(saved);
     }
 
@@ -276,9 +285,15 @@ public class CourseEnrollmentService {
             candidate.setAutoEnrolledFromWaitlist(true);
             candidate.setEnrolledAt(OffsetDateTime.now());
             courseEnrollmentRepository.save(candidate);
+            publishChange(candidate, SectionEnrollmentStatus.WAITLISTED);
         }
     }
 
+    private void publishChange(CourseEnrollment enrollment, SectionEnrollmentStatus previousStatus) {
+        events.publishEvent(new EnrollmentChangedEvent(enrollment.getStudent().getId(),
+                enrollment.getLectureSection().getId(), previousStatus, enrollment.getStatus()));
+    }
+
     private void rebalanceWaitlistPositions(CourseSection lectureSection) {
         List<CourseEnrollment> waitlisted = courseEnrollmentRepository
                 .findByLectureSectionAndStatusOrderByWaitlistPositionAsc(lectureSection, SectionEnrollmentStatus.WAITLISTED);
@@ -320,6 +335,7 @@ public class CourseEnrollmentService {
         }
         enrollment.setLastGradeUpdate(java.time.OffsetDateTime.now());
         CourseEnrollment saved = courseEnrollmentRepository.save(enrollment);
+        publishChange(saved, saved.getStatus());
         return toResponse(saved);
     }
 
@@ -328,10 +344,12 @@ public class CourseEnrollmentService {
         CourseEnrollment enrollment = courseEnrollmentRepository
                 .findByStudentIdAndLectureSectionId(request.studentId(), request.lectureSectionId())
                 .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Enrollment not found for student " + request.studentId()));
+        SectionEnrollmentStatus previousStatus = enrollment.getStatus();
         enrollment.setFinalLetter(request.finalLetter());
         enrollment.setStatus(com.uwm.paws360.Entity.EntityDomains.SectionEnrollmentStatus.COMPLETED);
         enrollment.setCompletedAt(java.time.OffsetDateTime.now());
         CourseEnrollment saved = courseEnrollmentRepository.save(enrollment);
+        publishChange(saved, previousStatus);
         return toResponse(saved);
     }
 }
@@ -0,0 +1,37 @@
+package com.uwm.paws360.Service;
+
+/**
+ * Field quoting shared by the CSV exports (RFC 4180).
+ */
+final class Csv {
+
+    // Leading characters a spreadsheet would evaluate as a formula
+    private static final String FORMULA_START = "=+-@\t\r";
+
+    private Csv() {
+    }
+
+    /**
+     * {@code value} as one CSV field: empty for null, prefixed with {@code '} when it would start a
+     * spreadsheet formula, and double-quoted with inner quotes doubled when it contains a comma, quote
+     * or line break.
+     */
+    static String field(String value) {
+        if (value == null) return "";
+        if (!value.isEmpty() && FORMULA_START.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (!needsQuoting(value)) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.EntityDomains.SectionEnrollmentStatus;
+
+/**
+ * Published when a course enrollment is created or changed. {@code previousStatus} is null for a
+ * new enrollment and equals {@code status} when only the grade changed.
+ */
+public record EnrollmentChangedEvent(int studentId,
+                                     Long lectureSectionId,
+                                     SectionEnrollmentStatus previousStatus,
+                                     SectionEnrollmentStatus status) {}
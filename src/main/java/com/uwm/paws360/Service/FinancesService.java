@@ -6,34 +6,50 @@ import com.uwm.paws360.Entity.UserTypes.Student;
 import com.uwm.paws360.JPARepository.Finances.*;
 import com.uwm.paws360.JPARepository.User.StudentRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
 public class FinancesService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final StudentRepository studentRepository;
     private final FinancialAccountRepository financialAccountRepository;
     private final AccountTransactionRepository transactionRepository;
     private final AidAwardRepository aidAwardRepository;
     private final PaymentPlanRepository paymentPlanRepository;
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final LedgerService ledgerService;
 
     public FinancesService(StudentRepository studentRepository,
                            FinancialAccountRepository financialAccountRepository,
                            AccountTransactionRepository transactionRepository,
                            AidAwardRepository aidAwardRepository,
-                           PaymentPlanRepository paymentPlanRepository) {
+                           PaymentPlanRepository paymentPlanRepository,
+                           AccountBalanceRepository accountBalanceRepository,
+                           LedgerService ledgerService) {
         this.studentRepository = studentRepository;
         this.financialAccountRepository = financialAccountRepository;
         this.transactionRepository = transactionRepository;
         this.aidAwardRepository = aidAwardRepository;
         this.paymentPlanRepository = paymentPlanRepository;
+        this.accountBalanceRepository = accountBalanceRepository;
+        this.ledgerService = ledgerService;
     }
 
     public FinancesSummaryResponseDTO getSummary(Integer studentId) {
@@ -41,39 +57,16 @@ public class FinancesService {
                 .orElseThrow(() -> new EntityNotFoundException("Student not found for id " + studentId));
         FinancialAccount acc = financialAccountRepository.findByStudent(s)
                 .orElseThrow(() -> new EntityNotFoundException("Financial account not found for student id " + studentId));
-        // Derive balances from transactions and aid so the summary stays accurate
-        var txns = transactionRepository.findByStudentOrderByPostedAtDesc(s);
-
-        BigDecimal charges = txns.stream()
-                .filter(t -> t.getStatus() == AccountTransaction.Status.POSTED && t.getType() == AccountTransaction.Type.CHARGE)
-                .map(AccountTransaction::getAmount)
-                .filter(java.util.Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal credits = txns.stream()
-                .filter(t -> t.getStatus() == AccountTransaction.Status.POSTED && t.getType() == AccountTransaction.Type.CREDIT)
-                .map(AccountTransaction::getAmount)
-                .filter(java.util.Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal payments = txns.stream()
-                .filter(t -> t.getStatus() == AccountTransaction.Status.POSTED && t.getType() == AccountTransaction.Type.PAYMENT)
-                .map(AccountTransaction::getAmount)
-                .filter(java.util.Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        var awards = aidAwardRepository.findByStudent(s).stream()
-                .filter(a -> a.getStatus() != AidAward.AidStatus.CANCELLED)
-                .collect(Collectors.toList());
-        BigDecimal disbursedAid = awards.stream()
-                .map(AidAward::getAmountDisbursed)
-                .filter(java.util.Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal acceptedAid = awards.stream()
-                .map(AidAward::getAmountAccepted)
-                .filter(java.util.Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal pendingAid = acceptedAid.subtract(disbursedAid);
+        // Running totals are maintained by LedgerService on every posting; accounts that predate
+        // the ledger are seeded from their history on first read
+        AccountBalance balance = accountBalanceRepository.findById(acc.getId())
+                .orElseGet(() -> ledgerService.rebuildBalance(acc.getId()));
+
+        BigDecimal charges = balance.getTotalCharges();
+        BigDecimal credits = balance.getTotalCredits();
+        BigDecimal payments = balance.getTotalPayments();
+        BigDecimal disbursedAid = balance.getTotalAidDisbursed();
+        BigDecimal pendingAid = balance.getTotalAidAccepted().subtract(disbursedAid);
         if (pendingAid.compareTo(BigDecimal.ZERO) < 0) pendingAid = BigDecimal.ZERO; // guard against negatives
 
         boolean hasChargeOrCredit = (charges.compareTo(BigDecimal.ZERO) > 0) || (credits.compareTo(BigDecimal.ZERO) > 0);
@@ -81,30 +74,96 @@ public class FinancesService {
                 ? charges.subtract(credits).subtract(payments).subtract(disbursedAid)
                 : acc.getAccountBalance().subtract(payments).subtract(disbursedAid);
 
-        // Last payment derived from latest posted PAYMENT
-        Optional<AccountTransaction> lastPayment = txns.stream()
-                .filter(t -> t.getStatus() == AccountTransaction.Status.POSTED && t.getType() == AccountTransaction.Type.PAYMENT)
-                .findFirst();
-
         BigDecimal chargesDue = accountBalance.compareTo(BigDecimal.ZERO) > 0 ? accountBalance : BigDecimal.ZERO;
         return new FinancesSummaryResponseDTO(
                 chargesDue,
                 accountBalance,
                 pendingAid,
-                lastPayment.map(AccountTransaction::getAmount).orElse(acc.getLastPaymentAmount()),
-                lastPayment.map(AccountTransaction::getPostedAt).orElse(acc.getLastPaymentAt()),
+                balance.getLastPaymentAt() != null ? balance.getLastPaymentAmount() : acc.getLastPaymentAmount(),
+                balance.getLastPaymentAt() != null ? balance.getLastPaymentAt() : acc.getLastPaymentAt(),
                 acc.getDueDate());
     }
 
     public List<TransactionDTO> listTransactions(Integer studentId) {
-        Student s = studentRepository.findById(studentId)
-                .orElseThrow(() -> new EntityNotFoundException("Student not found for id " + studentId));
-        return transactionRepository.findByStudentOrderByPostedAtDesc(s)
-                .stream()
-                .map(t -> new TransactionDTO(
-                        t.getId(), t.getPostedAt(), t.getDueDate(), t.getDescription(), t.getAmount(), t.getType(), t.getStatus()
-                ))
-                .collect(Collectors.toList());
+        requireStudent(studentId);
+        return transactionRepository.findHistory(studentId);
+    }
+
+    /**
+     * One page of transaction history, newest first. {@code cursor} is the opaque value returned as
+     * {@code nextCursor} by the previous page; each page is an index range scan after that position,
+     * so the cost does not grow with how far back the caller has paged.
+     */
+    public TransactionPageDTO pageTransactions(Integer studentId, String cursor, Integer limit) {
+        requireStudent(studentId);
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a count query
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<TransactionDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findHistoryPage(studentId, fetch);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findHistoryPageAfter(studentId, position.postedAt(), position.id(), fetch);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? TransactionCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new TransactionPageDTO(List.copyOf(items), nextCursor, hasMore);
+    }
+
+    /**
+     * Write the full transaction history as CSV, newest first, streaming rows from a database cursor
+     * so memory use stays flat regardless of history length.
+     */
+    public void exportTransactions(Integer studentId, Writer out) throws IOException {
+        requireStudent(studentId);
+        out.write("transaction_id,posted_at,due_date,type,status,amount,description\n");
+        try (Stream<TransactionDTO> rows = transactionRepository.streamHistory(studentId)) {
+            Iterator<TransactionDTO> it = rows.iterator();
+            while (it.hasNext()) {
+                TransactionDTO t = it.next();
+                out.write(t.id() + "," + t.postedAt() + "," + (t.dueDate() != null ? t.dueDate() : "") + ","
+                        + t.type() + "," + t.status() + "," + t.amount() + "," + Csv.field(t.description()) + "\n");
+            }
+        }
+        out.flush();
+    }
+
+    public boolean studentExists(Integer studentId) {
+        return studentRepository.existsById(studentId);
+    }
+
+    private void requireStudent(Integer studentId) {
+        if (!studentExists(studentId)) {
+            throw new EntityNotFoundException("Student not found for id " + studentId);
+        }
+    }
+
+    /**
+     * Keyset position (postedAt, id) of the last row on a page, carried as a URL-safe token.
+     */
+    record TransactionCursor(OffsetDateTime postedAt, Long id) {
+        static TransactionCursor of(TransactionDTO t) {
+            return new TransactionCursor(t.postedAt(), t.id());
+        }
+
+        String encode() {
+            String raw = postedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static TransactionCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new TransactionCursor(OffsetDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid transaction cursor", e);
+            }
+        }
     }
 
     public AidOverviewDTO getAidOverview(Integer studentId) {
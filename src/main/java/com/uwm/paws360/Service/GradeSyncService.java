@@ -0,0 +1,268 @@
+package com.uwm.paws360.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uwm.paws360.DTO.Course.GradeSyncErrorDTO;
+import com.uwm.paws360.DTO.Course.GradeSyncResultDTO;
+import com.uwm.paws360.DTO.Course.GradeUpdateRequestDTO;
+import com.uwm.paws360.Entity.EntityDomains.SectionEnrollmentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk ingestion of in-progress grades pushed by the LMS as newline-delimited JSON.
+ * Each line carries the same payload as {@code POST /enrollments/grade} and is applied with the
+ * same semantics as {@link CourseEnrollmentService#updateCurrentGrade}, but the body is read one
+ * line at a time and enrollments are resolved and updated a chunk at a time with JDBC batching.
+ * Every updated enrollment publishes an {@link EnrollmentChangedEvent} with an unchanged status.
+ * A chunk whose batch fails is retried line by line, so only the lines that fail are rejected.
+ */
+@Service
+public class GradeSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeSyncService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 500;
+
+    private static final String RESOLVE_ENROLLMENTS_SQL =
+            "SELECT enrollment_id, student_id, lecture_section_id, status FROM course_enrollments " +
+            "WHERE student_id IN (:studentIds) AND lecture_section_id IN (:sectionIds)";
+
+    // COALESCE keeps the existing value when a line omits the letter or sends a 0 percentage,
+    // matching updateCurrentGrade
+    private static final String UPDATE_GRADE_SQL =
+            "UPDATE course_enrollments SET current_letter = COALESCE(?, current_letter), " +
+            "current_percentage = COALESCE(?, current_percentage), last_grade_update = ?, updated_at = ? " +
+            "WHERE enrollment_id = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+
+    public GradeSyncService(NamedParameterJdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher events) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.events = events;
+    }
+
+    /**
+     * Apply every grade line in the stream. Malformed or unmatched lines are reported by line number
+     * and do not stop the rest of the feed from being applied.
+     */
+    public GradeSyncResultDTO syncCurrentGrades(InputStream body) throws IOException {
+        SyncTally tally = new SyncTally();
+        List<PendingGrade> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            tally.linesRead++;
+
+            GradeUpdateRequestDTO request;
+            try {
+                request = objectMapper.readValue(line, GradeUpdateRequestDTO.class);
+            } catch (JsonProcessingException e) {
+                tally.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+
+            String problem = validate(request);
+            if (problem != null) {
+                tally.reject(lineNumber, problem);
+                continue;
+            }
+
+            chunk.add(new PendingGrade(lineNumber, request));
+            if (chunk.size() >= CHUNK_SIZE) {
+                applyChunk(chunk, tally);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, tally);
+        }
+
+        logger.info("Grade sync finished: {} lines read, {} enrollments updated, {} lines rejected",
+                tally.linesRead, tally.updated, tally.rejected);
+        return tally.toResult();
+    }
+
+    private String validate(GradeUpdateRequestDTO request) {
+        if (request.studentId() <= 0) {
+            return "studentId is required";
+        }
+        if (request.lectureSectionId() <= 0) {
+            return "lectureSectionId is required";
+        }
+        if (request.currentLetter() != null && request.currentLetter().length() > 2) {
+            return "currentLetter must be at most 2 characters";
+        }
+        return null;
+    }
+
+    private void applyChunk(List<PendingGrade> chunk, SyncTally tally) {
+        Map<EnrollmentKey, ResolvedEnrollment> enrollments = resolveEnrollments(chunk);
+
+        List<PendingGrade> matched = new ArrayList<>(chunk.size());
+        for (PendingGrade pending : chunk) {
+            ResolvedEnrollment enrollment = enrollments.get(pending.key());
+            if (enrollment == null) {
+                tally.reject(pending.line(), "Enrollment not found for student " + pending.request().studentId()
+                        + " in section " + pending.request().lectureSectionId());
+            } else {
+                matched.add(pending.withEnrollment(enrollment));
+            }
+        }
+        if (matched.isEmpty()) {
+            return;
+        }
+
+        try {
+            writeGrades(matched);
+            tally.updated += matched.size();
+        } catch (DataAccessException e) {
+            logger.warn("Grade sync chunk of {} lines failed, retrying line by line: {}", matched.size(), e.getMessage());
+            // One bad row rolls back the whole batch; apply the rows one at a time to find it
+            for (PendingGrade pending : matched) {
+                try {
+                    writeGrades(List.of(pending));
+                    tally.updated++;
+                } catch (DataAccessException rowFailure) {
+                    tally.reject(pending.line(), "Update failed: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void writeGrades(List<PendingGrade> grades) {
+        OffsetDateTime now = OffsetDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_GRADE_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PendingGrade pending = grades.get(i);
+                    GradeUpdateRequestDTO request = pending.request();
+                    if (request.currentLetter() != null) {
+                        ps.setString(1, request.currentLetter());
+                    } else {
+                        ps.setNull(1, Types.VARCHAR);
+                    }
+                    if (request.currentPercentage() != 0) {
+                        ps.setInt(2, request.currentPercentage());
+                    } else {
+                        ps.setNull(2, Types.INTEGER);
+                    }
+                    ps.setObject(3, now);
+                    ps.setObject(4, now);
+                    ps.setLong(5, pending.enrollmentId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return grades.size();
+                }
+            });
+            for (PendingGrade pending : grades) {
+                events.publishEvent(new EnrollmentChangedEvent(pending.request().studentId(),
+                        pending.request().lectureSectionId(), pending.status(), pending.status()));
+            }
+        });
+    }
+
+    private Map<EnrollmentKey, ResolvedEnrollment> resolveEnrollments(List<PendingGrade> chunk) {
+        Set<Integer> studentIds = new HashSet<>();
+        Set<Long> sectionIds = new HashSet<>();
+        for (PendingGrade pending : chunk) {
+            studentIds.add(pending.request().studentId());
+            sectionIds.add(pending.request().lectureSectionId());
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentIds", studentIds)
+                .addValue("sectionIds", sectionIds);
+
+        // The IN/IN pair returns a superset of the requested keys; only exact pairs are kept
+        Map<EnrollmentKey, ResolvedEnrollment> enrollments = new HashMap<>(chunk.size() * 2);
+        jdbcTemplate.query(RESOLVE_ENROLLMENTS_SQL, params, rs -> {
+            enrollments.put(new EnrollmentKey(rs.getInt("student_id"), rs.getLong("lecture_section_id")),
+                    new ResolvedEnrollment(rs.getLong("enrollment_id"),
+                            SectionEnrollmentStatus.valueOf(rs.getString("status"))));
+        });
+        return enrollments;
+    }
+
+    private record EnrollmentKey(int studentId, long lectureSectionId) {}
+
+    private record ResolvedEnrollment(long enrollmentId, SectionEnrollmentStatus status) {}
+
+    private record PendingGrade(int line, GradeUpdateRequestDTO request, Long enrollmentId,
+                                SectionEnrollmentStatus status) {
+        PendingGrade(int line, GradeUpdateRequestDTO request) {
+            this(line, request, null, null);
+        }
+
+        EnrollmentKey key() {
+            return new EnrollmentKey(request.studentId(), request.lectureSectionId());
+        }
+
+        PendingGrade withEnrollment(ResolvedEnrollment enrollment) {
+            return new PendingGrade(line, request, enrollment.enrollmentId(), enrollment.status());
+        }
+    }
+
+    /**
+     * Running counters for one sync; only the first MAX_REPORTED_ERRORS errors are kept so a
+     * badly broken feed cannot grow the response without bound.
+     */
+    private static class SyncTally {
+        private int linesRead;
+        private int updated;
+        private int rejected;
+        private final List<GradeSyncErrorDTO> errors = new ArrayList<>();
+
+        void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new GradeSyncErrorDTO(line, message));
+            }
+        }
+
+        GradeSyncResultDTO toResult() {
+            return new GradeSyncResultDTO(linesRead, updated, rejected, rejected > errors.size(), errors);
+        }
+    }
+}
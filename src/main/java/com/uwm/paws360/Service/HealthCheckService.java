@@ -227,9 +227,8 @@ public class HealthCheckService {
             long activeSessions = sessionManagementService.getActiveSessionsCount();
             sessionHealth.put("active_sessions", activeSessions);
             
-            // Check session cleanup functionality
-            sessionManagementService.cleanupExpiredSessions();
-            sessionHealth.put("cleanup_executed", true);
+            // Sessions expired individually as their deadline passes
+            sessionHealth.put("expiry_tracked_sessions", sessionManagementService.getTrackedExpiryCount());
             
             // Session service health
             sessionHealth.put("service_operational", true);
@@ -0,0 +1,309 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * {@link SessionStore} kept in process memory, split into lock-striped shards by token hash so
+ * concurrent validations rarely contend. Sessions are lost on restart and are not shared between
+ * instances; use it for single-node deployments, development and tests.
+ */
+public class InMemorySessionStore implements SessionStore {
+
+    private final Shard[] shards;
+    private final int mask;
+    private final Map<Integer, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+
+    public InMemorySessionStore(int shardCount) {
+        int size = Integer.highestOneBit(Math.max(1, shardCount - 1) << 1);
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public AuthenticationSession create(AuthenticationSession session) {
+        Shard shard = shardFor(session.getSessionToken());
+        shard.lock.writeLock().lock();
+        try {
+            AuthenticationSession previous = shard.sessions.put(session.getSessionToken(), session);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+        tokensByUser.computeIfAbsent(session.getUser().getId(), id -> ConcurrentHashMap.newKeySet())
+                .add(session.getSessionToken());
+        return session;
+    }
+
+    @Override
+    public Optional<AuthenticationSession> findValid(String sessionToken, LocalDateTime now) {
+        return find(sessionToken, s -> s.isActive() && s.getExpiresAt().isAfter(now));
+    }
+
+    @Override
+    public Optional<AuthenticationSession> findActive(String sessionToken) {
+        return find(sessionToken, AuthenticationSession::isActive);
+    }
+
+    @Override
+    public boolean extend(String sessionToken, LocalDateTime expiresAt, LocalDateTime accessTime) {
+        return update(sessionToken, s -> {
+            s.setExpiresAt(expiresAt);
+            s.setLastAccessed(accessTime);
+        });
+    }
+
+    @Override
+    public int applyTouches(Collection<Touch> touches) {
+        int updated = 0;
+        for (Touch touch : touches) {
+            boolean applied = update(touch.sessionToken(), s -> {
+                if (touch.expiresAt() != null && touch.expiresAt().isAfter(s.getExpiresAt())) {
+                    s.setExpiresAt(touch.expiresAt());
+                }
+                if (touch.accessTime().isAfter(s.getLastAccessed())) {
+                    s.setLastAccessed(touch.accessTime());
+                }
+            });
+            if (applied) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Only an active session is invalidated; invalidating it again reports 0.
+     */
+    @Override
+    public int invalidate(String sessionToken, String reason) {
+        return update(sessionToken, s -> s.invalidate(reason)) ? 1 : 0;
+    }
+
+    @Override
+    public int invalidateUser(int userId, String reason) {
+        int invalidated = 0;
+        for (String token : tokensFor(userId)) {
+            if (update(token, s -> s.invalidate(reason))) {
+                invalidated++;
+            }
+        }
+        return invalidated;
+    }
+
+    @Override
+    public int enforceSessionLimit(int userId, int keep, String reason) {
+        List<AuthenticationSession> active = forUser(userId, AuthenticationSession::isActive);
+        active.sort(Comparator.comparing(AuthenticationSession::getCreatedAt).reversed());
+        int invalidated = 0;
+        for (AuthenticationSession session : active.subList(Math.min(Math.max(0, keep), active.size()), active.size())) {
+            if (update(session.getSessionToken(), s -> s.invalidate(reason))) {
+                invalidated++;
+            }
+        }
+        return invalidated;
+    }
+
+    @Override
+    public List<AuthenticationSession> findActiveForUser(int userId, LocalDateTime now) {
+        return forUser(userId, s -> s.isActive() && s.getExpiresAt().isAfter(now));
+    }
+
+    @Override
+    public List<AuthenticationSession> findSuspiciousForUser(int userId, String currentIp, LocalDateTime now) {
+        return forUser(userId, s -> s.isActive() && s.getExpiresAt().isAfter(now)
+                && s.getIpAddress() != null && !s.getIpAddress().equals(currentIp));
+    }
+
+    @Override
+    public List<AuthenticationSession> findUserHistory(int userId, LocalDateTime from) {
+        List<AuthenticationSession> history = forUser(userId, s -> !s.getCreatedAt().isBefore(from));
+        history.sort(Comparator.comparing(AuthenticationSession::getCreatedAt).reversed());
+        return history;
+    }
+
+    @Override
+    public List<AuthenticationSession> findByIpAddress(String ipAddress, LocalDateTime from) {
+        return scan(s -> ipAddress.equals(s.getIpAddress()) && !s.getCreatedAt().isBefore(from));
+    }
+
+    @Override
+    public long countActive(LocalDateTime now) {
+        return scan(s -> s.isActive() && s.getExpiresAt().isAfter(now)).size();
+    }
+
+    @Override
+    public long countActiveByService(String serviceOrigin, LocalDateTime now) {
+        return scan(s -> s.isActive() && s.getExpiresAt().isAfter(now)
+                && serviceOrigin.equals(s.getServiceOrigin())).size();
+    }
+
+    @Override
+    public List<Object[]> countActiveGroupedByService(LocalDateTime now) {
+        Map<String, Long> counts = new HashMap<>();
+        for (AuthenticationSession s : scan(s -> s.isActive() && s.getExpiresAt().isAfter(now))) {
+            counts.merge(s.getServiceOrigin(), 1L, Long::sum);
+        }
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((origin, count) -> rows.add(new Object[]{origin, count}));
+        return rows;
+    }
+
+    @Override
+    public int expireSessions(Collection<String> sessionTokens, LocalDateTime expiredTime) {
+        int expired = 0;
+        for (String token : sessionTokens) {
+            Shard shard = shardFor(token);
+            shard.lock.writeLock().lock();
+            try {
+                AuthenticationSession s = shard.sessions.get(token);
+                if (s != null && s.isActive() && s.getExpiresAt().isBefore(expiredTime)) {
+                    s.invalidate("expired");
+                    expired++;
+                }
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public int expire(LocalDateTime expiredTime, int limit) {
+        int expired = 0;
+        for (Shard shard : shards) {
+            shard.lock.writeLock().lock();
+            try {
+                for (AuthenticationSession s : shard.sessions.values()) {
+                    if (expired >= limit) {
+                        return expired;
+                    }
+                    if (s.isActive() && s.getExpiresAt().isBefore(expiredTime)) {
+                        s.invalidate("expired");
+                        expired++;
+                    }
+                }
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public int purgeInactive(LocalDateTime cleanupDate, int limit) {
+        int purged = 0;
+        for (Shard shard : shards) {
+            shard.lock.writeLock().lock();
+            try {
+                Iterator<AuthenticationSession> it = shard.sessions.values().iterator();
+                while (it.hasNext() && purged < limit) {
+                    AuthenticationSession s = it.next();
+                    if (!s.isActive() && s.getCreatedAt().isBefore(cleanupDate)) {
+                        it.remove();
+                        unindex(s);
+                        purged++;
+                    }
+                }
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+        return purged;
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private Shard shardFor(String sessionToken) {
+        int h = sessionToken.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    private Optional<AuthenticationSession> find(String sessionToken, Predicate<AuthenticationSession> filter) {
+        Shard shard = shardFor(sessionToken);
+        shard.lock.readLock().lock();
+        try {
+            AuthenticationSession session = shard.sessions.get(sessionToken);
+            return session != null && filter.test(session) ? Optional.of(session) : Optional.empty();
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    // Applies the change to an active session; returns whether one was found
+    private boolean update(String sessionToken, Consumer<AuthenticationSession> change) {
+        Shard shard = shardFor(sessionToken);
+        shard.lock.writeLock().lock();
+        try {
+            AuthenticationSession session = shard.sessions.get(sessionToken);
+            if (session == null || !session.isActive()) {
+                return false;
+            }
+            change.accept(session);
+            return true;
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    private List<String> tokensFor(int userId) {
+        Set<String> tokens = tokensByUser.get(userId);
+        return tokens != null ? new ArrayList<>(tokens) : List.of();
+    }
+
+    private List<AuthenticationSession> forUser(int userId, Predicate<AuthenticationSession> filter) {
+        List<AuthenticationSession> result = new ArrayList<>();
+        for (String token : tokensFor(userId)) {
+            find(token, filter).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    private List<AuthenticationSession> scan(Predicate<AuthenticationSession> filter) {
+        List<AuthenticationSession> result = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                for (AuthenticationSession s : shard.sessions.values()) {
+                    if (filter.test(s)) {
+                        result.add(s);
+                    }
+                }
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        return result;
+    }
+
+    private void unindex(AuthenticationSession session) {
+        tokensByUser.computeIfPresent(session.getUser().getId(), (id, tokens) -> {
+            tokens.remove(session.getSessionToken());
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    private static final class Shard {
+        private final Map<String, AuthenticationSession> sessions = new HashMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+}
@@ -0,0 +1,297 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Course.InstructorDashboardDTO;
+import com.uwm.paws360.DTO.Course.InstructorSectionSummaryDTO;
+import com.uwm.paws360.Entity.EntityDomains.InstructionalRole;
+import com.uwm.paws360.Entity.EntityDomains.SectionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * "My sections" for instructors and TAs: every section a staff member is assigned to, with
+ * enrollment, waitlist and grade-posting counts, built from one aggregate query over
+ * section_staff_assignments, course_sections, courses and course_enrollments.
+ *
+ * Dashboards are cached per staff member (least recently used evicted past
+ * {@code paws360.instructor-dashboard.max-entries}, none older than
+ * {@code paws360.instructor-dashboard.max-age}). Committed {@link EnrollmentChangedEvent}s evict the
+ * dashboards that show the lecture section or its labs, and {@link SectionStaffChangedEvent}s evict
+ * the assigned staff member's. Changes made on other nodes show up once the entry ages out.
+ */
+@Service
+public class InstructorDashboardService {
+
+    // Lab enrollments are counted against the lab section, everything else against the lecture
+    private static final String DASHBOARD_SQL =
+            "SELECT cs.section_id, cs.parent_section_id, c.course_code, c.course_name, cs.section_code, " +
+            "cs.section_type, cs.term, cs.academic_year, a.role, cs.max_enrollment, cs.waitlist_capacity, " +
+            "COALESCE(SUM(CASE WHEN e.status = 'ENROLLED' THEN 1 ELSE 0 END), 0) AS enrolled, " +
+            "COALESCE(SUM(CASE WHEN e.status = 'WAITLISTED' THEN 1 ELSE 0 END), 0) AS waitlisted, " +
+            "COALESCE(SUM(CASE WHEN e.status = 'PENDING_APPROVAL' THEN 1 ELSE 0 END), 0) AS pending_approval, " +
+            "COALESCE(SUM(CASE WHEN e.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completed, " +
+            "COALESCE(SUM(CASE WHEN e.status IN ('ENROLLED', 'COMPLETED') AND e.current_letter IS NOT NULL " +
+            "THEN 1 ELSE 0 END), 0) AS current_grades, " +
+            "COALESCE(SUM(CASE WHEN e.status IN ('ENROLLED', 'COMPLETED') AND e.final_letter IS NOT NULL " +
+            "THEN 1 ELSE 0 END), 0) AS final_grades, " +
+            "MAX(e.last_grade_update) AS last_grade_update " +
+            "FROM section_staff_assignments a " +
+            "JOIN course_sections cs ON cs.section_id = a.section_id " +
+            "JOIN courses c ON c.course_id = cs.course_id " +
+            "LEFT JOIN (" +
+            "  SELECT lecture_section_id AS section_id, status, current_letter, final_letter, last_grade_update " +
+            "  FROM course_enrollments " +
+            "  UNION ALL " +
+            "  SELECT lab_section_id, status, current_letter, final_letter, last_grade_update " +
+            "  FROM course_enrollments WHERE lab_section_id IS NOT NULL" +
+            ") e ON e.section_id = cs.section_id " +
+            "WHERE a.user_id = :userId " +
+            "GROUP BY cs.section_id, cs.parent_section_id, c.course_code, c.course_name, cs.section_code, " +
+            "cs.section_type, cs.term, cs.academic_year, a.role, cs.max_enrollment, cs.waitlist_capacity " +
+            "ORDER BY cs.academic_year DESC, cs.term, c.course_code, cs.section_code, cs.section_id";
+
+    private static final RowMapper<InstructorSectionSummaryDTO> ROW_MAPPER = (rs, i) -> new InstructorSectionSummaryDTO(
+            rs.getLong("section_id"),
+            rs.getObject("parent_section_id", Long.class),
+            rs.getString("course_code"),
+            rs.getString("course_name"),
+            rs.getString("section_code"),
+            SectionType.valueOf(rs.getString("section_type")),
+            rs.getString("term"),
+            rs.getInt("academic_year"),
+            InstructionalRole.valueOf(rs.getString("role")),
+            rs.getObject("max_enrollment", Integer.class),
+            rs.getObject("waitlist_capacity", Integer.class),
+            rs.getInt("enrolled"),
+            rs.getInt("waitlisted"),
+            rs.getInt("pending_approval"),
+            rs.getInt("completed"),
+            rs.getInt("current_grades"),
+            rs.getInt("final_grades"),
+            rs.getObject("last_grade_update", OffsetDateTime.class));
+
+    public record Stats(int size, long hits, long misses) {}
+
+    private record Entry(InstructorDashboardDTO dashboard, Set<Long> sectionIds, long expiresAtNanos) {}
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int maxEntries;
+    private final Duration maxAge;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Integer, Entry> entries;
+    // Every section (and the lecture above each lab) shown on a cached dashboard, to its staff
+    private final Map<Long, Set<Integer>> usersBySection = new HashMap<>();
+    // Sections and staff members changed while a dashboard was loading, to the tick of the change; a
+    // dashboard loaded across a change to one of its own sections or its staff member is returned but
+    // not cached. Both only hold changes newer than the oldest load in flight.
+    private long clock;
+    private final Map<Long, Long> sectionChanges = new HashMap<>();
+    private final Map<Integer, Long> userChanges = new HashMap<>();
+    // Start ticks of the loads in flight, to how many started at that tick
+    private final TreeMap<Long, Integer> loadsInFlight = new TreeMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public InstructorDashboardService(NamedParameterJdbcTemplate jdbcTemplate,
+                                      @Value("${paws360.instructor-dashboard.max-entries:5000}") int maxEntries,
+                                      @Value("${paws360.instructor-dashboard.max-age:PT10M}") Duration maxAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxAge = maxAge;
+        // Access order, so iteration starts at the least recently used dashboard
+        this.entries = new LinkedHashMap<>(256, 0.75f, true);
+    }
+
+    /**
+     * The dashboard of the staff member with user id {@code userId}; empty if they teach nothing.
+     */
+    public InstructorDashboardDTO getDashboard(int userId) {
+        long started;
+        lock.lock();
+        try {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() > 0) {
+                hits.incrementAndGet();
+                return entry.dashboard();
+            }
+            if (entry != null) {
+                remove(userId);
+            }
+            started = clock;
+            loadsInFlight.merge(started, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+        misses.incrementAndGet();
+
+        InstructorDashboardDTO dashboard = null;
+        Set<Long> sectionIds = new HashSet<>();
+        try {
+            dashboard = load(userId);
+            for (InstructorSectionSummaryDTO section : dashboard.sections()) {
+                sectionIds.add(section.sectionId());
+                if (section.parentSectionId() != null) {
+                    sectionIds.add(section.parentSectionId());
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                if (dashboard != null && !changedSince(started, userId, sectionIds)) {
+                    cache(userId, dashboard, sectionIds);
+                }
+                endLoad(started);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return dashboard;
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(entries.size(), hits.get(), misses.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*------------------------- Events -------------------------*/
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (event.lectureSectionId() != null) {
+            evictSection(event.lectureSectionId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSectionStaffChanged(SectionStaffChangedEvent event) {
+        lock.lock();
+        try {
+            if (!loadsInFlight.isEmpty()) {
+                userChanges.put(event.userId(), ++clock);
+            }
+            remove(event.userId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private InstructorDashboardDTO load(int userId) {
+        List<InstructorSectionSummaryDTO> sections =
+                jdbcTemplate.query(DASHBOARD_SQL, new MapSqlParameterSource("userId", userId), ROW_MAPPER);
+        int enrolled = 0;
+        int waitlisted = 0;
+        int finalGradesPending = 0;
+        for (InstructorSectionSummaryDTO section : sections) {
+            // Lab rosters repeat their lecture's students, so totals count non-lab sections only
+            if (section.parentSectionId() == null) {
+                enrolled += section.enrolled();
+                waitlisted += section.waitlisted();
+                finalGradesPending += Math.max(0, section.enrolled() + section.completed() - section.finalGradesPosted());
+            }
+        }
+        return new InstructorDashboardDTO(userId, List.copyOf(sections), enrolled, waitlisted, finalGradesPending,
+                OffsetDateTime.now());
+    }
+
+    private void evictSection(Long sectionId) {
+        lock.lock();
+        try {
+            if (!loadsInFlight.isEmpty()) {
+                sectionChanges.put(sectionId, ++clock);
+            }
+            Set<Integer> users = usersBySection.get(sectionId);
+            if (users != null) {
+                for (Integer userId : Set.copyOf(users)) {
+                    remove(userId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Callers hold the lock for everything below
+
+    private boolean changedSince(long started, int userId, Set<Long> sectionIds) {
+        Long userChange = userChanges.get(userId);
+        if (userChange != null && userChange > started) {
+            return true;
+        }
+        for (Long sectionId : sectionIds) {
+            Long sectionChange = sectionChanges.get(sectionId);
+            if (sectionChange != null && sectionChange > started) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cache(int userId, InstructorDashboardDTO dashboard, Set<Long> sectionIds) {
+        remove(userId);
+        entries.put(userId, new Entry(dashboard, sectionIds, System.nanoTime() + maxAge.toNanos()));
+        for (Long sectionId : sectionIds) {
+            usersBySection.computeIfAbsent(sectionId, k -> new HashSet<>()).add(userId);
+        }
+        var eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<Integer, Entry> evicted = eldest.next();
+            unindex(evicted.getKey(), evicted.getValue());
+            eldest.remove();
+        }
+    }
+
+    private void endLoad(long started) {
+        loadsInFlight.computeIfPresent(started, (tick, count) -> count > 1 ? count - 1 : null);
+        if (loadsInFlight.isEmpty()) {
+            sectionChanges.clear();
+            userChanges.clear();
+        } else {
+            // No load still running started before these
+            long oldest = loadsInFlight.firstKey();
+            sectionChanges.values().removeIf(tick -> tick <= oldest);
+            userChanges.values().removeIf(tick -> tick <= oldest);
+        }
+    }
+
+    private void remove(Integer userId) {
+        Entry entry = entries.remove(userId);
+        if (entry != null) {
+            unindex(userId, entry);
+        }
+    }
+
+    private void unindex(Integer userId, Entry entry) {
+        for (Long sectionId : entry.sectionIds()) {
+            Set<Integer> users = usersBySection.get(sectionId);
+            if (users != null) {
+                users.remove(userId);
+                if (users.isEmpty()) {
+                    usersBySection.remove(sectionId);
+                }
+            }
+        }
+    }
+}
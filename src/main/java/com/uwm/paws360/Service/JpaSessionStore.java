@@ -0,0 +1,288 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.Entity.Base.SessionRevocation;
+import com.uwm.paws360.JPARepository.User.AuthenticationSessionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link SessionStore} over the authentication_sessions table. Touches are written with one
+ * {@code UPDATE ... FROM (VALUES ...)} per chunk on PostgreSQL and a JDBC batch elsewhere.
+ * Expiry and purge touch a bounded set of rows per statement; on PostgreSQL rows locked by live
+ * requests are skipped and left for the next pass. Signed-token revocations are shared through
+ * the session_revocations table.
+ */
+public class JpaSessionStore implements SessionStore {
+
+    private static final int TOUCH_CHUNK_SIZE = 500;
+
+    // Row-at-a-time form, used on databases without UPDATE ... FROM (H2 in tests)
+    private static final String TOUCH_ONE_SQL =
+            "UPDATE authentication_sessions SET " +
+            "expires_at = GREATEST(expires_at, COALESCE(:expiresAt, expires_at)), " +
+            "last_accessed = GREATEST(last_accessed, :accessTime) " +
+            "WHERE session_token = :sessionToken AND is_active = true";
+
+    // Keeps the newest :keep active sessions; the subquery is evaluated before any row changes
+    private static final String ENFORCE_LIMIT_SQL =
+            "UPDATE authentication_sessions SET is_active = false, logout_reason = :reason " +
+            "WHERE session_id IN (SELECT session_id FROM authentication_sessions " +
+            "  WHERE user_id = :userId AND is_active = true " +
+            "  ORDER BY created_at DESC, session_id DESC OFFSET :keep ROWS)";
+
+    private static final String EXPIRE_TOKENS_SQL =
+            "UPDATE authentication_sessions SET is_active = false, logout_reason = 'expired' " +
+            "WHERE session_token IN (:tokens) AND is_active = true AND expires_at < :expiredTime";
+
+    // %s is FOR UPDATE SKIP LOCKED on PostgreSQL, empty elsewhere
+    private static final String EXPIRE_CHUNK_SQL =
+            "UPDATE authentication_sessions SET is_active = false, logout_reason = 'expired' " +
+            "WHERE session_id IN (SELECT session_id FROM authentication_sessions " +
+            "  WHERE is_active = true AND expires_at < :expiredTime LIMIT :limit%s)";
+
+    private static final String REVOCATIONS_SINCE_SQL =
+            "SELECT token_id, user_id, issued_before, keep_until FROM session_revocations " +
+            "WHERE published_at >= :since ORDER BY published_at";
+
+    private static final String PURGE_REVOCATIONS_SQL =
+            "DELETE FROM session_revocations WHERE published_at < :publishedBefore";
+
+    private static final String PURGE_CHUNK_SQL =
+            "DELETE FROM authentication_sessions WHERE session_id IN (" +
+            "  SELECT session_id FROM authentication_sessions " +
+            "  WHERE is_active = false AND created_at < :cleanupDate LIMIT :limit%s)";
+
+    private final AuthenticationSessionRepository sessionRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private volatile Boolean postgres;
+
+    public JpaSessionStore(AuthenticationSessionRepository sessionRepository, NamedParameterJdbcTemplate jdbcTemplate,
+                           EntityManager entityManager) {
+        this.sessionRepository = sessionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public AuthenticationSession create(AuthenticationSession session) {
+        // Delete any existing sessions with the same token to avoid constraint violation
+        sessionRepository.deleteBySessionToken(session.getSessionToken());
+        // persist rather than save: the id is assigned, so save would SELECT it first to merge
+        entityManager.persist(session);
+        return session;
+    }
+
+    @Override
+    public Optional<AuthenticationSession> findValid(String sessionToken, LocalDateTime now) {
+        return sessionRepository.findValidSessionWithUser(sessionToken, now);
+    }
+
+    @Override
+    public Optional<AuthenticationSession> findActive(String sessionToken) {
+        return sessionRepository.findBySessionTokenAndIsActiveTrue(sessionToken);
+    }
+
+    @Override
+    @Transactional
+    public boolean extend(String sessionToken, LocalDateTime expiresAt, LocalDateTime accessTime) {
+        return sessionRepository.extendSession(sessionToken, expiresAt, accessTime) > 0;
+    }
+
+    @Override
+    public int applyTouches(Collection<Touch> touches) {
+        List<Touch> all = new ArrayList<>(touches);
+        int updated = 0;
+        for (int from = 0; from < all.size(); from += TOUCH_CHUNK_SIZE) {
+            List<Touch> chunk = all.subList(from, Math.min(from + TOUCH_CHUNK_SIZE, all.size()));
+            updated += isPostgres() ? touchValues(chunk) : touchRows(chunk);
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int invalidate(String sessionToken, String reason) {
+        return sessionRepository.invalidateSession(sessionToken, reason);
+    }
+
+    @Override
+    @Transactional
+    public int invalidateUser(int userId, String reason) {
+        return sessionRepository.invalidateUserSessions(userId, reason);
+    }
+
+    @Override
+    @Transactional
+    public int enforceSessionLimit(int userId, int keep, String reason) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("keep", Math.max(0, keep))
+                .addValue("reason", reason);
+        return jdbcTemplate.update(ENFORCE_LIMIT_SQL, params);
+    }
+
+    @Override
+    public List<AuthenticationSession> findActiveForUser(int userId, LocalDateTime now) {
+        return sessionRepository.findActiveSessionsByUserId(userId, now);
+    }
+
+    @Override
+    public List<AuthenticationSession> findSuspiciousForUser(int userId, String currentIp, LocalDateTime now) {
+        return sessionRepository.findSuspiciousSessionsForUser(userId, currentIp, now);
+    }
+
+    @Override
+    public List<AuthenticationSession> findUserHistory(int userId, LocalDateTime from) {
+        return sessionRepository.findUserSessionHistory(userId, from);
+    }
+
+    @Override
+    public List<AuthenticationSession> findByIpAddress(String ipAddress, LocalDateTime from) {
+        return sessionRepository.findSessionsByIpAddress(ipAddress, from);
+    }
+
+    @Override
+    public long countActive(LocalDateTime now) {
+        return sessionRepository.countActiveSessions(now);
+    }
+
+    @Override
+    public long countActiveByService(String serviceOrigin, LocalDateTime now) {
+        return sessionRepository.countActiveSessionsByService(serviceOrigin, now);
+    }
+
+    @Override
+    public List<Object[]> countActiveGroupedByService(LocalDateTime now) {
+        return sessionRepository.getActiveSessionCountsByService(now);
+    }
+
+    @Override
+    public int expireSessions(Collection<String> sessionTokens, LocalDateTime expiredTime) {
+        List<String> all = new ArrayList<>(sessionTokens);
+        int expired = 0;
+        for (int from = 0; from < all.size(); from += TOUCH_CHUNK_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("tokens", all.subList(from, Math.min(from + TOUCH_CHUNK_SIZE, all.size())))
+                    .addValue("expiredTime", expiredTime, Types.TIMESTAMP);
+            expired += jdbcTemplate.update(EXPIRE_TOKENS_SQL, params);
+        }
+        return expired;
+    }
+
+    @Override
+    public int expire(LocalDateTime expiredTime, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("expiredTime", expiredTime, Types.TIMESTAMP)
+                .addValue("limit", limit);
+        return jdbcTemplate.update(EXPIRE_CHUNK_SQL.formatted(skipLocked()), params);
+    }
+
+    @Override
+    public int purgeInactive(LocalDateTime cleanupDate, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cleanupDate", cleanupDate, Types.TIMESTAMP)
+                .addValue("limit", limit);
+        return jdbcTemplate.update(PURGE_CHUNK_SQL.formatted(skipLocked()), params);
+    }
+
+    @Override
+    @Transactional
+    public void publishRevocation(Revocation revocation) {
+        entityManager.persist(new SessionRevocation(revocation.tokenId(), revocation.userId(),
+                offset(revocation.issuedBefore()), offset(revocation.keepUntil()), OffsetDateTime.now()));
+    }
+
+    @Override
+    public List<Revocation> revocationsSince(Instant since) {
+        return jdbcTemplate.query(REVOCATIONS_SINCE_SQL, new MapSqlParameterSource("since", offset(since)),
+                (rs, i) -> {
+                    Timestamp issuedBefore = rs.getTimestamp("issued_before");
+                    return new Revocation(rs.getString("token_id"), rs.getObject("user_id", Integer.class),
+                            issuedBefore != null ? issuedBefore.toInstant() : null,
+                            rs.getTimestamp("keep_until").toInstant());
+                });
+    }
+
+    @Override
+    public int purgeRevocations(Instant publishedBefore) {
+        return jdbcTemplate.update(PURGE_REVOCATIONS_SQL,
+                new MapSqlParameterSource("publishedBefore", offset(publishedBefore)));
+    }
+
+    /*------------------------- Touch flushing -------------------------*/
+
+    private int touchValues(List<Touch> chunk) {
+        StringBuilder sql = new StringBuilder(
+                "UPDATE authentication_sessions s SET " +
+                "expires_at = GREATEST(s.expires_at, COALESCE(v.expires_at, s.expires_at)), " +
+                "last_accessed = GREATEST(s.last_accessed, v.last_accessed) FROM (VALUES ");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (int i = 0; i < chunk.size(); i++) {
+            Touch touch = chunk.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(CAST(:t").append(i).append(" AS varchar), CAST(:e").append(i)
+                    .append(" AS timestamp), CAST(:a").append(i).append(" AS timestamp))");
+            params.addValue("t" + i, touch.sessionToken());
+            params.addValue("e" + i, touch.expiresAt(), Types.TIMESTAMP);
+            params.addValue("a" + i, touch.accessTime(), Types.TIMESTAMP);
+        }
+        sql.append(") AS v(session_token, expires_at, last_accessed) ")
+           .append("WHERE s.session_token = v.session_token AND s.is_active = true");
+        return jdbcTemplate.update(sql.toString(), params);
+    }
+
+    private int touchRows(List<Touch> chunk) {
+        SqlParameterSource[] batch = new SqlParameterSource[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            Touch touch = chunk.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("sessionToken", touch.sessionToken())
+                    .addValue("expiresAt", touch.expiresAt(), Types.TIMESTAMP)
+                    .addValue("accessTime", touch.accessTime(), Types.TIMESTAMP);
+        }
+        int updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(TOUCH_ONE_SQL, batch)) {
+            updated += Math.max(count, 0);
+        }
+        return updated;
+    }
+
+    private static OffsetDateTime offset(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private String skipLocked() {
+        return isPostgres() ? " FOR UPDATE SKIP LOCKED" : "";
+    }
+
+    private boolean isPostgres() {
+        Boolean known = postgres;
+        if (known == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            known = product != null && product.toLowerCase().contains("postgres");
+            postgres = known;
+        }
+        return known;
+    }
+}
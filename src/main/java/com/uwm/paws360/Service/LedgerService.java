@@ -0,0 +1,432 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Finances.*;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.Finances.*;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maintains the append-only account ledger and the materialized {@link AccountBalance} per
+ * {@link FinancialAccount}. Every posting is saved, journaled and applied to the running totals in
+ * one transaction, so {@link FinancesService#getSummary} reads a single row instead of replaying the
+ * student's full transaction and aid history.
+ */
+@Service
+@Transactional
+public class LedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerService.class);
+
+    // Copy the running totals into account_balance_snapshots every this many ledger entries
+    static final int SNAPSHOT_INTERVAL = 200;
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO account_transactions (student_id, amount, type, status, description, posted_at, due_date, term_code, aid_award_id) " +
+            "VALUES (:studentId, :amount, :type, 'POSTED', :description, :postedAt, :dueDate, :termCode, :aidAwardId)";
+
+    private static final String INSERT_ENTRY_SQL =
+            "INSERT INTO account_ledger_entries (account_id, entry_type, amount, transaction_id, award_id, recorded_at) " +
+            "VALUES (:accountId, :entryType, :amount, :transactionId, :awardId, :recordedAt)";
+
+    // postBatch seeds missing balance rows first, so every account in a batch has one to update
+    private static final String APPLY_BALANCE_SQL =
+            "UPDATE account_balances SET total_charges = total_charges + :charge, total_credits = total_credits + :credit, " +
+            "total_payments = total_payments + :payment, total_aid_disbursed = total_aid_disbursed + :aidDisbursed, " +
+            "entry_count = entry_count + 1, last_entry_id = :entryId, " +
+            "updated_at = :recordedAt WHERE account_id = :accountId";
+
+    private static final String EXISTING_BALANCES_SQL =
+            "SELECT account_id FROM account_balances WHERE account_id IN (:accountIds)";
+
+    private static final String APPLY_LAST_PAYMENT_SQL =
+            "UPDATE account_balances SET last_payment_amount = :amount, last_payment_at = :postedAt " +
+            "WHERE account_id = :accountId AND (last_payment_at IS NULL OR last_payment_at <= :postedAt)";
+
+    // Creates an empty balance row so there is always a row to lock. A concurrent seed of the same
+    // account makes this wait for it to commit and then insert nothing, instead of failing on the key
+    private static final String SEED_BALANCE_SQL =
+            "INSERT INTO account_balances (account_id, total_charges, total_credits, total_payments, " +
+            "total_aid_accepted, total_aid_disbursed, entry_count, updated_at) " +
+            "VALUES (:accountId, 0, 0, 0, 0, 0, 0, :now) ON CONFLICT (account_id) DO NOTHING";
+
+    // Same insert for databases without ON CONFLICT (H2 in tests)
+    private static final String SEED_BALANCE_MERGE_SQL =
+            "MERGE INTO account_balances b USING (VALUES (CAST(:accountId AS BIGINT))) s(account_id) " +
+            "ON b.account_id = s.account_id WHEN NOT MATCHED THEN INSERT (account_id, total_charges, total_credits, " +
+            "total_payments, total_aid_accepted, total_aid_disbursed, entry_count, updated_at) " +
+            "VALUES (s.account_id, 0, 0, 0, 0, 0, 0, :now)";
+
+    // Same adjustments FinancesAdminController makes to the legacy columns for single postings
+    private static final String APPLY_LEGACY_ACCOUNT_SQL =
+            "UPDATE financial_accounts SET account_balance = account_balance + :delta, " +
+            "charges_due = GREATEST(charges_due + :delta, 0), updated_at = :recordedAt WHERE account_id = :accountId";
+
+    private final FinancialAccountRepository financialAccountRepository;
+    private final AccountTransactionRepository transactionRepository;
+    private final AidAwardRepository aidAwardRepository;
+    private final AccountBalanceRepository balanceRepository;
+    private final AccountLedgerEntryRepository ledgerEntryRepository;
+    private final AccountBalanceSnapshotRepository snapshotRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public LedgerService(FinancialAccountRepository financialAccountRepository,
+                         AccountTransactionRepository transactionRepository,
+                         AidAwardRepository aidAwardRepository,
+                         AccountBalanceRepository balanceRepository,
+                         AccountLedgerEntryRepository ledgerEntryRepository,
+                         AccountBalanceSnapshotRepository snapshotRepository,
+                         NamedParameterJdbcTemplate jdbcTemplate) {
+        this.financialAccountRepository = financialAccountRepository;
+        this.transactionRepository = transactionRepository;
+        this.aidAwardRepository = aidAwardRepository;
+        this.balanceRepository = balanceRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /*------------------------- Posting -------------------------*/
+
+    /**
+     * Save a transaction and, when it is POSTED, journal it against the student's account.
+     */
+    public AccountTransaction postTransaction(AccountTransaction transaction) {
+        AccountTransaction saved = transactionRepository.save(transaction);
+        if (saved.getStatus() != AccountTransaction.Status.POSTED) {
+            return saved;
+        }
+        financialAccountRepository.findByStudent(saved.getStudent()).ifPresent(account ->
+                record(account, saved.getId(), saved.getAidAwardId(), saved.getPostedAt(),
+                        new Posting(saved.getAidAwardId() != null && saved.getType() == AccountTransaction.Type.CREDIT
+                                ? AccountLedgerEntry.EntryType.AID_DISBURSED
+                                : entryTypeFor(saved.getType()), saved.getAmount())));
+        return saved;
+    }
+
+    /**
+     * Save a new aid award and journal its accepted and disbursed amounts.
+     */
+    public AidAward postAidAward(AidAward award) {
+        AidAward saved = aidAwardRepository.save(award);
+        if (saved.getStatus() == AidAward.AidStatus.CANCELLED) {
+            return saved;
+        }
+        financialAccountRepository.findByStudent(saved.getStudent()).ifPresent(account ->
+                record(account, null, saved.getId(), null,
+                        new Posting(AccountLedgerEntry.EntryType.AID_ACCEPTED, saved.getAmountAccepted()),
+                        new Posting(AccountLedgerEntry.EntryType.AID_DISBURSED, saved.getAmountDisbursed())));
+        return saved;
+    }
+
+    /**
+     * Post many POSTED transactions at once for bulk jobs. Transactions, ledger entries and balance
+     * increments are each written as a single JDBC batch instead of one entity round trip per row.
+     * Batch postings do not take periodic snapshots; {@link #rebuildBalance} remains the repair path.
+     *
+     * @return generated transaction ids, in the order of {@code postings}
+     */
+    public List<Long> postBatch(List<BatchPosting> postings) {
+        if (postings.isEmpty()) {
+            return List.of();
+        }
+        OffsetDateTime recordedAt = OffsetDateTime.now();
+
+        SqlParameterSource[] transactionParams = new SqlParameterSource[postings.size()];
+        for (int i = 0; i < postings.size(); i++) {
+            BatchPosting p = postings.get(i);
+            transactionParams[i] = new MapSqlParameterSource()
+                    .addValue("studentId", p.studentId())
+                    .addValue("amount", p.amount())
+                    .addValue("type", p.type().name())
+                    .addValue("description", p.description())
+                    .addValue("postedAt", p.postedAt() != null ? p.postedAt() : recordedAt)
+                    .addValue("dueDate", p.dueDate())
+                    .addValue("termCode", p.termCode())
+                    .addValue("aidAwardId", p.aidAwardId());
+        }
+        List<Long> transactionIds = insertReturningIds(INSERT_TRANSACTION_SQL, transactionParams, "transaction_id");
+
+        SqlParameterSource[] entryParams = new SqlParameterSource[postings.size()];
+        for (int i = 0; i < postings.size(); i++) {
+            BatchPosting p = postings.get(i);
+            entryParams[i] = new MapSqlParameterSource()
+                    .addValue("accountId", p.accountId())
+                    .addValue("entryType", p.entryType().name())
+                    .addValue("amount", p.amount())
+                    .addValue("transactionId", transactionIds.get(i))
+                    .addValue("awardId", p.aidAwardId())
+                    .addValue("recordedAt", recordedAt);
+        }
+        List<Long> entryIds = insertReturningIds(INSERT_ENTRY_SQL, entryParams, "ledger_entry_id");
+
+        // Accounts without a balance row get one now. Their totals are computed from history below,
+        // which by then includes this batch, so the increments skip them
+        Set<Long> seeded = seedBalances(missingBalances(postings));
+
+        List<SqlParameterSource> balanceParams = new ArrayList<>(postings.size());
+        SqlParameterSource[] legacyParams = new SqlParameterSource[postings.size()];
+        List<SqlParameterSource> paymentParams = new ArrayList<>();
+        for (int i = 0; i < postings.size(); i++) {
+            BatchPosting p = postings.get(i);
+            BigDecimal amount = p.amount();
+            AccountLedgerEntry.EntryType entryType = p.entryType();
+            legacyParams[i] = new MapSqlParameterSource()
+                    .addValue("delta", p.type() == AccountTransaction.Type.CHARGE ? amount : amount.negate())
+                    .addValue("recordedAt", recordedAt)
+                    .addValue("accountId", p.accountId());
+            if (seeded.contains(p.accountId())) {
+                continue;
+            }
+            balanceParams.add(new MapSqlParameterSource()
+                    .addValue("charge", entryType == AccountLedgerEntry.EntryType.CHARGE ? amount : BigDecimal.ZERO)
+                    .addValue("credit", entryType == AccountLedgerEntry.EntryType.CREDIT ? amount : BigDecimal.ZERO)
+                    .addValue("payment", entryType == AccountLedgerEntry.EntryType.PAYMENT ? amount : BigDecimal.ZERO)
+                    .addValue("aidDisbursed", entryType == AccountLedgerEntry.EntryType.AID_DISBURSED ? amount : BigDecimal.ZERO)
+                    .addValue("entryId", entryIds.get(i))
+                    .addValue("recordedAt", recordedAt)
+                    .addValue("accountId", p.accountId()));
+            if (p.type() == AccountTransaction.Type.PAYMENT) {
+                paymentParams.add(new MapSqlParameterSource()
+                        .addValue("amount", amount)
+                        .addValue("postedAt", p.postedAt() != null ? p.postedAt() : recordedAt)
+                        .addValue("accountId", p.accountId()));
+            }
+        }
+        if (!balanceParams.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_BALANCE_SQL, balanceParams.toArray(new SqlParameterSource[0]));
+        }
+        jdbcTemplate.batchUpdate(APPLY_LEGACY_ACCOUNT_SQL, legacyParams);
+        if (!paymentParams.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_LAST_PAYMENT_SQL, paymentParams.toArray(new SqlParameterSource[0]));
+        }
+        for (Long accountId : seeded) {
+            FinancialAccount account = financialAccountRepository.findById(accountId)
+                    .orElseThrow(() -> new EntityNotFoundException("Financial account not found for id " + accountId));
+            AccountBalance balance = lockBalance(accountId).balance();
+            recompute(account, balance);
+            for (int i = 0; i < postings.size(); i++) {
+                if (accountId.equals(postings.get(i).accountId())) {
+                    balance.recordEntry(entryIds.get(i));
+                }
+            }
+            balanceRepository.save(balance);
+        }
+
+        logger.debug("Posted batch of {} ledger transactions", postings.size());
+        return transactionIds;
+    }
+
+    /*------------------------- Balances -------------------------*/
+
+    /**
+     * Recompute an account's running totals from its transaction and aid history and snapshot the
+     * result. Used to seed accounts that predate the ledger and to repair drift after manual SQL.
+     * Runs in its own transaction so it can be called from read-only callers.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public AccountBalance rebuildBalance(Long accountId) {
+        FinancialAccount account = financialAccountRepository.findById(accountId)
+                .orElseThrow(() -> new EntityNotFoundException("Financial account not found for id " + accountId));
+        AccountBalance balance = lockBalance(accountId).balance();
+        recompute(account, balance);
+        AccountBalance saved = balanceRepository.save(balance);
+        snapshotRepository.save(new AccountBalanceSnapshot(saved));
+        logger.debug("Rebuilt ledger balance for account {}", accountId);
+        return saved;
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private void record(FinancialAccount account, Long transactionId, Long awardId, OffsetDateTime postedAt,
+                        Posting... postings) {
+        LockedBalance locked = lockBalance(account.getId());
+        AccountBalance balance = locked.balance();
+        if (locked.seeded()) {
+            // First posting for an account that predates the ledger: seed the totals from history,
+            // which already includes the row saved by the caller in this transaction
+            recompute(account, balance);
+        } else {
+            for (Posting posting : postings) {
+                if (isZero(posting.amount())) continue;
+                balance.apply(posting.type(), posting.amount());
+                if (posting.type() == AccountLedgerEntry.EntryType.PAYMENT) {
+                    balance.notePayment(posting.amount(), postedAt);
+                }
+            }
+        }
+
+        for (Posting posting : postings) {
+            if (isZero(posting.amount())) continue;
+            AccountLedgerEntry entry = ledgerEntryRepository.save(
+                    new AccountLedgerEntry(account.getId(), posting.type(), posting.amount(), transactionId, awardId));
+            balance.recordEntry(entry.getId());
+            if (balance.getEntryCount() % SNAPSHOT_INTERVAL == 0) {
+                snapshotRepository.save(new AccountBalanceSnapshot(balance));
+            }
+        }
+        balanceRepository.save(balance);
+    }
+
+    /**
+     * Lock the account's balance row, creating an empty one first if the account has none yet.
+     * {@code seeded} is true when this transaction created the row, whose totals then still have to
+     * be computed from history.
+     */
+    private LockedBalance lockBalance(Long accountId) {
+        Optional<AccountBalance> existing = balanceRepository.findForUpdate(accountId);
+        if (existing.isPresent()) {
+            return new LockedBalance(existing.get(), false);
+        }
+        boolean seeded = seedBalances(List.of(accountId)).contains(accountId);
+        AccountBalance balance = balanceRepository.findForUpdate(accountId)
+                .orElseThrow(() -> new IllegalStateException("No balance row for account " + accountId));
+        return new LockedBalance(balance, seeded);
+    }
+
+    /**
+     * Insert an empty balance row for every account that has none.
+     *
+     * @return the accounts whose row was created by this call
+     */
+    private Set<Long> seedBalances(Collection<Long> accountIds) {
+        String sql = isPostgres() ? SEED_BALANCE_SQL : SEED_BALANCE_MERGE_SQL;
+        OffsetDateTime now = OffsetDateTime.now();
+        Set<Long> seeded = new HashSet<>();
+        for (Long accountId : accountIds) {
+            int inserted = jdbcTemplate.update(sql, new MapSqlParameterSource()
+                    .addValue("accountId", accountId)
+                    .addValue("now", now));
+            if (inserted > 0) {
+                seeded.add(accountId);
+            }
+        }
+        return seeded;
+    }
+
+    private Set<Long> missingBalances(List<BatchPosting> postings) {
+        Set<Long> missing = new HashSet<>();
+        for (BatchPosting p : postings) {
+            missing.add(p.accountId());
+        }
+        missing.removeAll(jdbcTemplate.queryForList(EXISTING_BALANCES_SQL,
+                new MapSqlParameterSource("accountIds", missing), Long.class));
+        return missing;
+    }
+
+    private boolean isPostgres() {
+        Boolean known = postgres;
+        if (known == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            known = product != null && product.toLowerCase().contains("postgres");
+            postgres = known;
+        }
+        return known;
+    }
+
+    private void recompute(FinancialAccount account, AccountBalance balance) {
+        Student student = account.getStudent();
+        balance.setTotalCharges(BigDecimal.ZERO);
+        balance.setTotalCredits(BigDecimal.ZERO);
+        balance.setTotalPayments(BigDecimal.ZERO);
+        balance.setTotalAidAccepted(BigDecimal.ZERO);
+        balance.setTotalAidDisbursed(BigDecimal.ZERO);
+
+        for (Object[] row : transactionRepository.sumPostedAmountsByType(student)) {
+            balance.apply(entryTypeFor((AccountTransaction.Type) row[0]), toDecimal(row[1]));
+        }
+
+        List<Object[]> aid = aidAwardRepository.sumAcceptedAndDisbursed(student);
+        if (!aid.isEmpty()) {
+            balance.setTotalAidAccepted(toDecimal(aid.get(0)[0]));
+            balance.setTotalAidDisbursed(toDecimal(aid.get(0)[1]));
+        }
+
+        transactionRepository.findFirstByStudentAndTypeAndStatusOrderByPostedAtDesc(
+                        student, AccountTransaction.Type.PAYMENT, AccountTransaction.Status.POSTED)
+                .ifPresentOrElse(p -> balance.setLastPayment(p.getAmount(), p.getPostedAt()),
+                        () -> balance.setLastPayment(null, null));
+    }
+
+    private List<Long> insertReturningIds(String sql, SqlParameterSource[] params, String keyColumn) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(sql, params, keyHolder, new String[]{keyColumn});
+        List<Long> ids = new ArrayList<>(params.length);
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            Object key = keys.containsKey(keyColumn) ? keys.get(keyColumn) : keys.values().iterator().next();
+            ids.add(((Number) key).longValue());
+        }
+        return ids;
+    }
+
+    static AccountLedgerEntry.EntryType entryTypeFor(AccountTransaction.Type type) {
+        return switch (type) {
+            case CHARGE -> AccountLedgerEntry.EntryType.CHARGE;
+            case CREDIT -> AccountLedgerEntry.EntryType.CREDIT;
+            case PAYMENT -> AccountLedgerEntry.EntryType.PAYMENT;
+        };
+    }
+
+    private static boolean isZero(BigDecimal amount) {
+        return amount == null || amount.signum() == 0;
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal decimal) return decimal;
+        return new BigDecimal(value.toString());
+    }
+
+    private record Posting(AccountLedgerEntry.EntryType type, BigDecimal amount) {}
+
+    private record LockedBalance(AccountBalance balance, boolean seeded) {}
+
+    /**
+     * One POSTED transaction for {@link #postBatch}; the caller has already resolved the account.
+     * A CREDIT carrying {@code aidAwardId} is an aid disbursement and is journaled as AID_DISBURSED.
+     */
+    public record BatchPosting(Long accountId,
+                               Integer studentId,
+                               AccountTransaction.Type type,
+                               BigDecimal amount,
+                               String description,
+                               LocalDate dueDate,
+                               String termCode,
+                               OffsetDateTime postedAt,
+                               Long aidAwardId) {
+
+        public BatchPosting(Long accountId, Integer studentId, AccountTransaction.Type type, BigDecimal amount,
+                            String description, LocalDate dueDate, String termCode, OffsetDateTime postedAt) {
+            this(accountId, studentId, type, amount, description, dueDate, termCode, postedAt, null);
+        }
+
+        AccountLedgerEntry.EntryType entryType() {
+            return aidAwardId != null && type == AccountTransaction.Type.CREDIT
+                    ? AccountLedgerEntry.EntryType.AID_DISBURSED
+                    : entryTypeFor(type);
+        }
+    }
+}
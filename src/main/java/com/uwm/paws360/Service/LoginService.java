@@ -5,44 +5,100 @@ import com.uwm.paws360.DTO.Login.UserLoginResponseDTO;
 import com.uwm.paws360.Entity.Base.AuthenticationSession;
 import com.uwm.paws360.Entity.Base.Users;
 import com.uwm.paws360.Entity.EntityDomains.User.Status;
-import com.uwm.paws360.JPARepository.User.AuthenticationSessionRepository;
 import com.uwm.paws360.JPARepository.User.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Service
 public class LoginService {
 
     private final UserRepository userRepository;
-    private final AuthenticationSessionRepository sessionRepository;
+    private final SessionStore sessionStore;
+    private final SessionTokenCache sessionCache;
+    private final SessionTouchBuffer touchBuffer;
+    private final SignedSessionTokens signedTokens;
+    private final SessionRevocationList revocations;
+    private final PasswordHashingService passwordHashing;
+    private final LoginThrottle loginThrottle;
+    private final SessionExpiryWheel expiryWheel;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
     private final int TOKEN = 32;
     private final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz1234567890";
-    private static final int MAX_FAILED_ATTEMPTS = 5;
-    private static final int LOCK_DURATION_MINUTES = 15;
     private static final int SESSION_TTL_HOURS = 1;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private static final String DEFAULT_SERVICE_ORIGIN = "student-portal";
 
-    public LoginService(UserRepository userRepository, AuthenticationSessionRepository sessionRepository){
+    // Concurrent sessions kept per user; a new login invalidates the oldest beyond this
+    @Value("${paws360.session.max-per-user:1}")
+    private int maxSessionsPerUser = 1;
+
+    public LoginService(UserRepository userRepository, SessionStore sessionStore,
+                        SessionTokenCache sessionCache, SessionTouchBuffer touchBuffer,
+                        SignedSessionTokens signedTokens, SessionRevocationList revocations,
+                        PasswordHashingService passwordHashing, LoginThrottle loginThrottle,
+                        SessionExpiryWheel expiryWheel, ApplicationEventPublisher events,
+                        TransactionTemplate transactionTemplate){
         this.userRepository = userRepository;
-        this.sessionRepository = sessionRepository;
+        this.sessionStore = sessionStore;
+        this.sessionCache = sessionCache;
+        this.touchBuffer = touchBuffer;
+        this.signedTokens = signedTokens;
+        this.revocations = revocations;
+        this.passwordHashing = passwordHashing;
+        this.loginThrottle = loginThrottle;
+        this.expiryWheel = expiryWheel;
+        this.events = events;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
     public UserLoginResponseDTO login(UserLoginRequestDTO userLogin){
+        return login(userLogin, null, null, DEFAULT_SERVICE_ORIGIN);
+    }
+
+    /**
+     * Authenticate and open the SSO session. The password is verified, and re-encoded when needed,
+     * before any transaction starts, so a login waiting on the hashing pool holds no database
+     * connection. A successful login then writes the user row once and inserts exactly one session
+     * row, carrying the caller's client details, in one transaction. The new session is cached after
+     * commit, so the first validation of the returned token needs no database read.
+     *
+     * Failed attempts are counted in {@link LoginThrottle}; the user row is only written when the
+     * account becomes locked, and emails or addresses already locked out are refused before the
+     * user is read or any password is hashed.
+     */
+    public UserLoginResponseDTO login(UserLoginRequestDTO userLogin, String ipAddress,
+                                      String userAgent, String serviceOrigin){
+        Optional<LoginThrottle.Block> block = loginThrottle.check(userLogin.email(), ipAddress);
+        if (block.isPresent()) {
+            return new UserLoginResponseDTO(-1, null, null, null, null, null, null, null,
+                    block.get().scope() == LoginThrottle.Scope.ACCOUNT
+                            ? "Account Locked - Try again later"
+                            : "Too Many Attempts - Try again later");
+        }
+
         Users user = userRepository.findUsersByEmailIgnoreCase(userLogin.email());
-        if (user == null) return new UserLoginResponseDTO(-1, null, null, null,
-                null, null, null, null, "Invalid Email or Password");
+        if (user == null) {
+            loginThrottle.recordFailure(userLogin.email(), ipAddress);
+            return new UserLoginResponseDTO(-1, null, null, null,
+                    null, null, null, null, "Invalid Email or Password");
+        }
 
         // If locked, check if lock has expired
         if (user.isAccount_locked()){
             LocalDateTime now = LocalDateTime.now();
             LocalDateTime lockedUntil = user.getAccount_locked_duration();
             if (lockedUntil != null && now.isBefore(lockedUntil)){
+                // Locked elsewhere; remember it so further attempts skip the lookup
+                loginThrottle.lock(userLogin.email(), lockedUntil.atZone(ZoneId.systemDefault()).toInstant());
                 return new UserLoginResponseDTO(-1, null,
                         null, null, null, null, null, null, "Account Locked - Try again later");
             } else {
@@ -56,35 +112,55 @@ public class LoginService {
         if(!user.getStatus().equals(Status.ACTIVE)) return new UserLoginResponseDTO(-1, null,
                 null, null, null, null, null, null, "Account Is Not Active");
 
+        // Hashing happens outside the transaction below
         if(!passwordMatches(user.getPassword(), userLogin.password())){
-            int fails = user.getFailed_attempts() + 1;
-            user.setFailed_attempts(fails);
-            if(fails >= MAX_FAILED_ATTEMPTS){
+            LoginThrottle.Failure failure = loginThrottle.recordFailure(userLogin.email(), ipAddress);
+            if(failure.locked()){
+                // Persist only the transition to locked
+                user.setFailed_attempts(failure.failures());
                 user.setAccount_locked(true);
-                user.setAccount_locked_duration(LocalDateTime.now().plusMinutes(LOCK_DURATION_MINUTES));
+                user.setAccount_locked_duration(LocalDateTime.ofInstant(failure.lockedUntil(), ZoneId.systemDefault()));
                 userRepository.save(user);
+                revocations.revokeUser(user.getId(), Instant.now());
+                sessionCache.evictUser(user.getId());
                 return new UserLoginResponseDTO(-1, null,
                         null, null, null, null, null, null, "Account Locked - Too many attempts");
             }
-            userRepository.save(user);
             return new UserLoginResponseDTO(-1, null, null, null, null, null, null, null, "Invalid Email or Password");
         }
 
+        loginThrottle.recordSuccess(userLogin.email());
+        // Upgrade legacy plaintext passwords, and bcrypt hashes below the configured cost floor
+        String rehashed = passwordHashing.needsRehash(user.getPassword())
+                ? passwordHashing.encode(userLogin.password())
+                : null;
+        return transactionTemplate.execute(status -> completeLogin(user, rehashed, ipAddress, userAgent, serviceOrigin));
+    }
+
+    private UserLoginResponseDTO completeLogin(Users user, String rehashed, String ipAddress,
+                                               String userAgent, String serviceOrigin){
         user.setFailed_attempts(0);
         user.setAccount_locked(false);
         user.setAccount_locked_duration(null);
         user.setLast_login(LocalDateTime.now());
-        // Upgrade legacy plaintext password to bcrypt
-        if (!isBCrypt(user.getPassword())){
-            user.setPassword(passwordEncoder.encode(userLogin.password()));
+        if (rehashed != null){
+            user.setPassword(rehashed);
         }
-        user.setSession_token(generateAuthenticationToken());
-        user.setSession_expiration(LocalDateTime.now().plusHours(SESSION_TTL_HOURS));
+        LocalDateTime sessionExpiration = LocalDateTime.now().plusHours(SESSION_TTL_HOURS);
+        user.setSession_token(signedTokens.isEnabled()
+                ? signedTokens.issue(user.getId(), String.valueOf(user.getRole()), sessionExpiration.atZone(ZoneId.systemDefault()).toInstant())
+                : generateAuthenticationToken());
+        user.setSession_expiration(sessionExpiration);
         
         // Create SSO session record for cross-service authentication
-        createSSOSession(user, user.getSession_token(), null, null, "student-portal");
+        AuthenticationSession session = createSSOSession(user, user.getSession_token(), ipAddress, userAgent,
+                serviceOrigin != null ? serviceOrigin : DEFAULT_SERVICE_ORIGIN);
         
         userRepository.save(user);
+        if (session != null) {
+            // Cached once the login commits
+            events.publishEvent(new SessionOpenedEvent(session));
+        }
         return new UserLoginResponseDTO(
                 user.getId(),
                 user.getEmail(),
@@ -104,11 +180,17 @@ public class LoginService {
     @Transactional
     public AuthenticationSession createSSOSession(Users user, String sessionToken, String ipAddress, 
                                                  String userAgent, String serviceOrigin) {
-        // Invalidate any existing active sessions for this user
-        sessionRepository.invalidateUserSessions(user.getId(), "new_login");
+        // Invalidate the user's older active sessions beyond the per-user limit in one statement
+        int displaced = sessionStore.enforceSessionLimit(user.getId(), maxSessionsPerUser - 1, "new_login");
+        sessionCache.evictUser(user.getId());
+        // Signed tokens issued before this one stop verifying too
+        revocations.revokeUser(user.getId(), signedTokens.verify(sessionToken)
+                .map(SignedSessionTokens.Claims::issuedAt)
+                .orElseGet(Instant::now));
         
-        // Delete any sessions with the same token to avoid constraint violation
-        sessionRepository.deleteBySessionToken(sessionToken);
+        // The store replaces any session with the same token
+        sessionCache.evict(sessionToken);
+        touchBuffer.discard(sessionToken);
         
         // Create new SSO session
         AuthenticationSession session = new AuthenticationSession(
@@ -120,29 +202,62 @@ public class LoginService {
             serviceOrigin
         );
         
-        return sessionRepository.save(session);
+        AuthenticationSession created = sessionStore.create(session);
+        expiryWheel.schedule(sessionToken, session.getExpiresAt());
+        if (displaced > 0) {
+            events.publishEvent(new SessionCountChangedEvent(null, -displaced));
+        }
+        events.publishEvent(new SessionCountChangedEvent(serviceOrigin, 1));
+        return created;
     }
 
     /**
-     * Validate SSO session token across services
+     * Validate SSO session token across services. Cached tokens are answered without a database read,
+     * and the last accessed time is recorded in {@link SessionTouchBuffer} for the next batched flush.
+     * Signed tokens that fail verification or are revoked are rejected without any lookup.
      */
     public Optional<Users> validateSSOSession(String sessionToken) {
         if (sessionToken == null || sessionToken.trim().isEmpty()) {
             return Optional.empty();
         }
         
+        if (signedTokens.isEnabled()) {
+            Optional<SignedSessionTokens.Claims> claims = signedTokens.verify(sessionToken);
+            if (claims.isEmpty() || revocations.isRevoked(claims.get())) {
+                return Optional.empty();
+            }
+        }
+        
+        SessionTokenCache.Lookup cached = sessionCache.lookup(sessionToken);
+        if (cached.isNegative()) {
+            return Optional.empty();
+        }
+        if (cached.isHit()) {
+            touchBuffer.touch(sessionToken, null, LocalDateTime.now());
+            return Optional.of(cached.session().getUser());
+        }
+        
         // Check session repository first
-        Optional<AuthenticationSession> sessionOpt = sessionRepository.findValidSession(sessionToken, LocalDateTime.now());
+        Optional<AuthenticationSession> sessionOpt = sessionStore.findValid(sessionToken, LocalDateTime.now());
         if (sessionOpt.isPresent()) {
             AuthenticationSession session = sessionOpt.get();
             // Update last accessed time
-            session.setLastAccessed(LocalDateTime.now());
-            sessionRepository.save(session);
+            touchBuffer.touch(sessionToken, null, LocalDateTime.now());
+            if (signedTokens.isEnabled()) {
+                sessionCache.putSigned(session);
+            } else {
+                sessionCache.put(session);
+            }
+            expiryWheel.schedule(sessionToken, session.getExpiresAt());
             return Optional.of(session.getUser());
         }
         
         // Fallback to user table session token for backward compatibility
-        return userRepository.findByValidSessionToken(sessionToken, LocalDateTime.now());
+        Optional<Users> legacy = userRepository.findByValidSessionToken(sessionToken, LocalDateTime.now());
+        if (legacy.isEmpty()) {
+            sessionCache.putMissing(sessionToken);
+        }
+        return legacy;
     }
 
     /**
@@ -154,7 +269,13 @@ public class LoginService {
         }
         
         // Invalidate SSO session
-        int sessionsInvalidated = sessionRepository.invalidateSession(sessionToken, reason != null ? reason : "manual_logout");
+        int sessionsInvalidated = sessionStore.invalidate(sessionToken, reason != null ? reason : "manual_logout");
+        sessionCache.evict(sessionToken);
+        revocations.revokeToken(sessionToken);
+        expiryWheel.cancel(sessionToken);
+        if (sessionsInvalidated > 0) {
+            events.publishEvent(new SessionCountChangedEvent(null, -sessionsInvalidated));
+        }
         
         // Also clear user table session for backward compatibility
         Optional<Users> userOpt = userRepository.findBySessionToken(sessionToken);
@@ -168,39 +289,14 @@ public class LoginService {
         return sessionsInvalidated > 0 || userOpt.isPresent();
     }
 
-    /**
-     * Clean up expired sessions
-     */
-    public int cleanupExpiredSessions() {
-        LocalDateTime expiredTime = LocalDateTime.now();
-        
-        // Clean up SSO sessions
-        int expiredSSOSessions = sessionRepository.expireOldSessions(expiredTime);
-        
-        // Clean up user table sessions
-        int clearedUserSessions = userRepository.clearExpiredSessions(expiredTime);
-        
-        return expiredSSOSessions + clearedUserSessions;
-    }
-
-    private boolean isBCrypt(String value){
-        if (value == null) return false;
-        return value.startsWith("$2a$") || value.startsWith("$2b$") || value.startsWith("$2y$");
-    }
-
     private boolean passwordMatches(String stored, String raw){
         if (stored == null || raw == null) return false;
-        if (isBCrypt(stored)){
-            return passwordEncoder.matches(raw, stored);
-        }
-        // Fallback for legacy plaintext records; upgrade to bcrypt on next success
-        boolean match = stored.equals(raw);
-        if (match){
-            // hash and upgrade stored password
-            String hashed = passwordEncoder.encode(raw);
-            // fetch fresh user and update handled by caller; to avoid extra load, let caller do it
+        if (PasswordHashingService.isBCrypt(stored)){
+            // Runs on the hashing pool; throws HashingBusyException when it is saturated
+            return passwordHashing.matches(raw, stored);
         }
-        return match;
+        // Fallback for legacy plaintext records; the caller upgrades them to bcrypt on success
+        return stored.equals(raw);
     }
 
     private String generateAuthenticationToken(){
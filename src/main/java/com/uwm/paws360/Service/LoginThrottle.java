@@ -0,0 +1,273 @@
+package com.uwm.paws360.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory sliding-window counters of failed logins, keyed by email and by client IP, so the
+ * lockout policy is enforced without writing the user row on every failed attempt and abusive
+ * traffic is turned away before any database lookup or BCrypt work.
+ *
+ * An email that reaches {@code paws360.login-throttle.max-failures-per-email} failures within
+ * {@code window} is locked for {@code lock-duration}; an IP address that reaches
+ * {@code max-failures-per-ip} is blocked likewise, which catches credential stuffing spread across
+ * many accounts. The address limit is high by default because a campus NAT puts thousands of
+ * students behind one address; the address must come from a trusted source (see
+ * {@link com.uwm.paws360.config.ClientAddressResolver}), never from a client-supplied header.
+ *
+ * State is split into lock stripes by key hash, and each stripe keeps at most
+ * {@code max-keys / stripes} keys. When a stripe is full the oldest unlocked key is dropped, so a
+ * flood of new keys cannot push out a live lock. Counters are per instance; the persisted lock on
+ * the user row still applies across instances.
+ */
+@Component
+public class LoginThrottle {
+
+    public enum Scope { ACCOUNT, ADDRESS }
+
+    /**
+     * A key that is currently locked out, and until when.
+     */
+    public record Block(Scope scope, Instant until) {}
+
+    /**
+     * Result of recording a failure: the failures counted for the email in the current window, and
+     * the lock expiry if this failure locked the account ({@code null} otherwise).
+     */
+    public record Failure(int failures, Instant lockedUntil) {
+        public boolean locked() {
+            return lockedUntil != null;
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final Duration windowLength;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final Duration lockDuration;
+
+    public LoginThrottle(@Value("${paws360.login-throttle.stripes:64}") int stripeCount,
+                         @Value("${paws360.login-throttle.max-keys:100000}") int maxKeys,
+                         @Value("${paws360.login-throttle.window:PT15M}") Duration window,
+                         @Value("${paws360.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+                         @Value("${paws360.login-throttle.max-failures-per-ip:1000}") int maxFailuresPerIp,
+                         @Value("${paws360.login-throttle.lock-duration:PT15M}") Duration lockDuration) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        int perStripe = Math.max(16, maxKeys / size);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.mask = size - 1;
+        this.windowLength = window;
+        this.maxFailuresPerEmail = Math.max(1, maxFailuresPerEmail);
+        this.maxFailuresPerIp = Math.max(1, maxFailuresPerIp);
+        this.lockDuration = lockDuration;
+    }
+
+    /**
+     * The lock currently applying to this email or IP address, if any. The account lock wins when
+     * both apply.
+     */
+    public Optional<Block> check(String email, String ipAddress) {
+        long now = System.currentTimeMillis();
+        long accountLock = lockedUntil(emailKey(email), now);
+        if (accountLock > 0) {
+            return Optional.of(new Block(Scope.ACCOUNT, Instant.ofEpochMilli(accountLock)));
+        }
+        long addressLock = lockedUntil(ipKey(ipAddress), now);
+        if (addressLock > 0) {
+            return Optional.of(new Block(Scope.ADDRESS, Instant.ofEpochMilli(addressLock)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Count a failed login against the email and the IP address, locking either one that reaches
+     * its limit.
+     */
+    public Failure recordFailure(String email, String ipAddress) {
+        long now = System.currentTimeMillis();
+        if (ipAddress != null) {
+            record(ipKey(ipAddress), maxFailuresPerIp, now);
+        }
+        if (email == null) {
+            return new Failure(0, null);
+        }
+        return record(emailKey(email), maxFailuresPerEmail, now);
+    }
+
+    /**
+     * Forget the failures and any lock for an email after a successful login. The IP address keeps
+     * its count.
+     */
+    public void recordSuccess(String email) {
+        String key = emailKey(email);
+        if (key == null) {
+            return;
+        }
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.windows.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Lock an email until the given time, e.g. from a lock found on the user row, so later
+     * attempts are refused without reading it again.
+     */
+    public void lock(String email, Instant until) {
+        String key = emailKey(email);
+        if (key == null) {
+            return;
+        }
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windowFor(key, System.currentTimeMillis());
+            window.failures.clear();
+            window.lockedUntil = Math.max(window.lockedUntil, until.toEpochMilli());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop keys whose failures have all left the window and whose lock has passed.
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<Window> it = stripe.windows.values().iterator();
+                while (it.hasNext()) {
+                    Window window = it.next();
+                    prune(window, now);
+                    if (window.failures.isEmpty() && window.lockedUntil <= now) {
+                        it.remove();
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private long lockedUntil(String key, long now) {
+        if (key == null) {
+            return 0;
+        }
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            return window != null && window.lockedUntil > now ? window.lockedUntil : 0;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Failure record(String key, int limit, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windowFor(key, now);
+            if (window.lockedUntil > now) {
+                // Already locked; the lock was persisted when it was taken
+                return new Failure(limit, null);
+            }
+            prune(window, now);
+            window.failures.addLast(now);
+            if (window.failures.size() >= limit) {
+                window.lockedUntil = now + lockDuration.toMillis();
+                window.failures.clear();
+                return new Failure(limit, Instant.ofEpochMilli(window.lockedUntil));
+            }
+            return new Failure(window.failures.size(), null);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void prune(Window window, long now) {
+        long cutoff = now - windowLength.toMillis();
+        while (!window.failures.isEmpty() && window.failures.peekFirst() <= cutoff) {
+            window.failures.pollFirst();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static String emailKey(String email) {
+        return email != null ? "e:" + email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String ipKey(String ipAddress) {
+        return ipAddress != null ? "i:" + ipAddress : null;
+    }
+
+    private static final class Window {
+        private final ArrayDeque<Long> failures = new ArrayDeque<>();
+        private long lockedUntil;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Insertion order, so eviction starts with the oldest key
+        private final Map<String, Window> windows = new LinkedHashMap<>(64);
+        private final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        // Caller holds the lock
+        Window windowFor(String key, long now) {
+            Window window = windows.get(key);
+            if (window == null) {
+                if (windows.size() >= capacity) {
+                    evictOne(now);
+                }
+                window = new Window();
+                windows.put(key, window);
+            }
+            return window;
+        }
+
+        // The oldest key that is not locked; only if every key is locked does the oldest lock go
+        private void evictOne(long now) {
+            Iterator<Window> it = windows.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().lockedUntil <= now) {
+                    it.remove();
+                    return;
+                }
+            }
+            it = windows.values().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.uwm.paws360.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated pool sized to the CPU count, so a burst of
+ * logins queues here instead of occupying every request thread. The queue is bounded; when it is
+ * full callers get {@link HashingBusyException} immediately, which the API turns into a 429.
+ *
+ * Every stored hash must reach {@code paws360.password-hashing.cost-floor}, which is configured and
+ * therefore the same on every instance; {@link #needsRehash} reports hashes below it so login can
+ * re-encode them. At startup new hashes may go above the floor when this machine can afford it,
+ * calibrated so one hash takes about {@code paws360.password-hashing.target-latency}. A hash made with
+ * a higher cost elsewhere is never re-encoded down.
+ *
+ * Bulk provisioning hashes initial passwords with {@link #encodeForProvisioning} on its own threads at
+ * the minimum cost; when that is below the floor they are upgraded the same way at first login.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration targetLatency;
+    private final int minCost;
+    private final int maxCost;
+    private final int costFloor;
+    private final boolean calibrate;
+    private volatile int cost;
+    private volatile BCryptPasswordEncoder encoder;
+    private final BCryptPasswordEncoder provisioningEncoder;
+
+    private final Timer hashTimer;
+    private final Timer provisionTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${paws360.password-hashing.threads:0}") int threads,
+                                  @Value("${paws360.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${paws360.password-hashing.timeout:PT10S}") Duration timeout,
+                                  @Value("${paws360.password-hashing.target-latency:PT0.25S}") Duration targetLatency,
+                                  @Value("${paws360.password-hashing.min-cost:10}") int minCost,
+                                  @Value("${paws360.password-hashing.max-cost:14}") int maxCost,
+                                  @Value("${paws360.password-hashing.cost-floor:10}") int costFloor,
+                                  @Value("${paws360.password-hashing.calibrate:true}") boolean calibrate) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), daemonThreads(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.targetLatency = targetLatency;
+        this.minCost = Math.max(4, minCost);
+        this.maxCost = Math.min(31, Math.max(this.minCost, maxCost));
+        this.costFloor = Math.min(this.maxCost, Math.max(this.minCost, costFloor));
+        this.calibrate = calibrate;
+        setCost(this.costFloor);
+        this.provisioningEncoder = new BCryptPasswordEncoder(this.minCost);
+
+        this.hashTimer = Timer.builder("paws360_password_hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.provisionTimer = Timer.builder("paws360_password_hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "provision")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("paws360_password_hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("paws360_password_hash_rejected_total")
+                .description("Hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("paws360_password_hash_queue_depth", executor, e -> e.getQueue().size())
+                .description("Hashing requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("paws360_password_hash_active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing requests being computed")
+                .register(meterRegistry);
+        Gauge.builder("paws360_password_hash_cost", this, PasswordHashingService::getCost)
+                .description("BCrypt cost used for new hashes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Time a hash at the lowest allowed cost and pick the highest cost whose projected time stays
+     * within the target; each cost step doubles the work. New hashes never go below the floor.
+     */
+    @PostConstruct
+    public void calibrate() {
+        if (!calibrate) {
+            return;
+        }
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(CALIBRATION_PASSWORD); // warm up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        int calibrated = minCost;
+        long projected = best;
+        while (calibrated < maxCost && projected * 2 <= targetLatency.toNanos()) {
+            projected *= 2;
+            calibrated++;
+        }
+        setCost(Math.max(costFloor, calibrated));
+        logger.info("BCrypt cost calibrated to {} (floor {}, ~{} ms per hash, target {} ms, {} hashing threads)",
+                cost, costFloor, TimeUnit.NANOSECONDS.toMillis(projected), targetLatency.toMillis(),
+                executor.getCorePoolSize());
+    }
+
+    public String encode(String rawPassword) {
+        BCryptPasswordEncoder current = encoder;
+        return submit(() -> hashTimer.record(() -> current.encode(rawPassword)));
+    }
+
+    /**
+     * Hash an initial password at the minimum cost on the calling thread, bypassing the login pool.
+     * For bulk imports that bring their own threads; login re-encodes the hash at the current cost
+     * through {@link #needsRehash}.
+     */
+    public String encodeForProvisioning(String rawPassword) {
+        return provisionTimer.record(() -> provisioningEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        BCryptPasswordEncoder current = encoder;
+        return submit(() -> verifyTimer.record(() -> current.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Whether a stored password should be re-encoded: it is not BCrypt, or was hashed with a cost
+     * below the configured floor.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (!isBCrypt(encodedPassword)) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) < costFloor;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    public static boolean isBCrypt(String value) {
+        if (value == null) return false;
+        return value.startsWith("$2a$") || value.startsWith("$2b$") || value.startsWith("$2y$");
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getCostFloor() {
+        return costFloor;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private void setCost(int cost) {
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new HashingBusyException("Password hashing queue is full");
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HashingBusyException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Thrown when there is no hashing capacity for a request; the caller should retry shortly.
+     */
+    public static class HashingBusyException extends RuntimeException {
+        public HashingBusyException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.InstallmentRunDTO;
+import com.uwm.paws360.Entity.Finances.AccountTransaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collects due payment plan installments. Due plans are read a chunk at a time through
+ * idx_payment_plans_due; each chunk advances its plans with one conditional batch UPDATE and posts
+ * the matching PAYMENT (and optional installment fee CHARGE) transactions through
+ * {@link LedgerService#postBatch}, all in one transaction. The conditional update only matches a
+ * plan whose due date has not moved, so a plan is never collected twice for the same installment.
+ */
+@Service
+public class PaymentPlanInstallmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPlanInstallmentService.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String DUE_PLANS_SQL =
+            "SELECT p.plan_id, p.student_id, p.name, p.monthly_payment, p.remaining_payments, p.next_payment_date, " +
+            "fa.account_id " +
+            "FROM payment_plans p " +
+            "LEFT JOIN financial_accounts fa ON fa.student_id = p.student_id " +
+            "WHERE p.status = 'ACTIVE' AND p.next_payment_date <= :asOf AND p.plan_id > :after " +
+            "AND MOD(p.plan_id, :shards) = :shard " +
+            "ORDER BY p.plan_id LIMIT :chunkSize";
+
+    // CASE reads the pre-update remaining_payments, so the last installment completes the plan
+    private static final String ADVANCE_PLAN_SQL =
+            "UPDATE payment_plans SET remaining_payments = remaining_payments - 1, next_payment_date = :nextDate, " +
+            "status = CASE WHEN remaining_payments <= 1 THEN 'COMPLETED' ELSE status END " +
+            "WHERE plan_id = :planId AND status = 'ACTIVE' AND next_payment_date = :dueDate";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerService ledgerService;
+    private final BigDecimal installmentFee;
+
+    private final Counter installmentsCounter;
+    private final Counter amountCounter;
+    private final Counter failedChunksCounter;
+    private final Timer runTimer;
+    private final AtomicLong currentRunPosted = new AtomicLong();
+    private final AtomicReference<Double> lastThroughput = new AtomicReference<>(0.0);
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile InstallmentRunDTO lastRun;
+
+    public PaymentPlanInstallmentService(NamedParameterJdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate,
+                                         LedgerService ledgerService,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${paws360.payment-plans.installment-fee:0}") BigDecimal installmentFee) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.ledgerService = ledgerService;
+        this.installmentFee = installmentFee;
+
+        this.installmentsCounter = Counter.builder("paws360_payment_plan_installments_total")
+                .description("Payment plan installments posted")
+                .register(meterRegistry);
+        this.amountCounter = Counter.builder("paws360_payment_plan_installment_amount_total")
+                .description("Amount collected by payment plan installments")
+                .register(meterRegistry);
+        this.failedChunksCounter = Counter.builder("paws360_payment_plan_installment_chunk_failures_total")
+                .description("Installment chunks rolled back after an error")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("paws360_payment_plan_installment_run")
+                .description("Duration of installment processing runs")
+                .register(meterRegistry);
+        Gauge.builder("paws360_payment_plan_installment_run_progress", currentRunPosted, AtomicLong::get)
+                .description("Installments posted so far by the run in progress")
+                .register(meterRegistry);
+        Gauge.builder("paws360_payment_plan_installment_throughput", lastThroughput, AtomicReference::get)
+                .description("Installments per second achieved by the last run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Post one installment for every ACTIVE plan due on or before {@code asOf}. Each plan is visited
+     * at most once per run; plans that are several months behind catch up one installment per run.
+     *
+     * @return the run summary, or the previous run's summary if a run is already in progress
+     */
+    public InstallmentRunDTO processDueInstallments(LocalDate asOf) {
+        return processDueInstallmentShard(asOf, 0, 1).orElse(lastRun);
+    }
+
+    /**
+     * As {@link #processDueInstallments(LocalDate)}, for the plans with {@code plan_id % shards == shard}
+     * only; the scheduled run hands these shards out across nodes. The shard a plan falls in depends
+     * on its id alone, so every node agrees on it however the due plans change during the run.
+     *
+     * @return the run summary, or empty if a run is already in progress on this node
+     */
+    public Optional<InstallmentRunDTO> processDueInstallmentShard(LocalDate asOf, int shard, int shards) {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Installment processing already running; skipping");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(runTimer.record(() -> doProcess(asOf, shard, shards)));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public InstallmentRunDTO getLastRun() {
+        return lastRun;
+    }
+
+    private InstallmentRunDTO doProcess(LocalDate asOf, int shard, int shards) {
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        long started = System.nanoTime();
+        currentRunPosted.set(0);
+        RunTally tally = new RunTally();
+
+        long after = -1;
+        while (true) {
+            List<DuePlan> chunk = loadDuePlans(asOf, after, shard, shards);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            after = chunk.get(chunk.size() - 1).planId();
+            try {
+                // Only a committed chunk counts towards the run
+                ChunkResult result = transactionTemplate.execute(status -> processChunk(chunk));
+                tally.add(result);
+                currentRunPosted.addAndGet(result.posted());
+                installmentsCounter.increment(result.posted());
+                amountCounter.increment(result.collected().doubleValue());
+            } catch (DataAccessException e) {
+                tally.chunksFailed++;
+                failedChunksCounter.increment();
+                logger.warn("Installment chunk ending at plan {} rolled back: {}", after, e.getMessage());
+            }
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        double perSecond = elapsedMillis > 0 ? tally.posted * 1000.0 / elapsedMillis : tally.posted;
+        lastThroughput.set(perSecond);
+        lastRun = new InstallmentRunDTO(asOf, startedAt, OffsetDateTime.now(), tally.posted, tally.completed,
+                tally.skipped, tally.chunksFailed, tally.collected, elapsedMillis, perSecond);
+        logger.info("Installment run as of {}: {} posted ({}), {} plans completed, {} skipped, {} chunks failed in {} ms",
+                asOf, tally.posted, tally.collected, tally.completed, tally.skipped, tally.chunksFailed, elapsedMillis);
+        return lastRun;
+    }
+
+    private List<DuePlan> loadDuePlans(LocalDate asOf, long after, int shard, int shards) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("asOf", asOf)
+                .addValue("after", after)
+                .addValue("shard", shard)
+                .addValue("shards", Math.max(1, shards))
+                .addValue("chunkSize", CHUNK_SIZE);
+        return jdbcTemplate.query(DUE_PLANS_SQL, params, (rs, i) -> {
+            Date due = rs.getDate("next_payment_date");
+            return new DuePlan(
+                    rs.getLong("plan_id"),
+                    rs.getInt("student_id"),
+                    rs.getString("name"),
+                    rs.getBigDecimal("monthly_payment"),
+                    rs.getObject("remaining_payments", Integer.class),
+                    due.toLocalDate(),
+                    rs.getObject("account_id", Long.class));
+        });
+    }
+
+    private ChunkResult processChunk(List<DuePlan> chunk) {
+        List<DuePlan> eligible = new ArrayList<>(chunk.size());
+        int skipped = 0;
+        for (DuePlan plan : chunk) {
+            if (plan.accountId() == null || plan.monthlyPayment() == null || plan.monthlyPayment().signum() <= 0
+                    || plan.remainingPayments() == null || plan.remainingPayments() <= 0) {
+                skipped++;
+            } else {
+                eligible.add(plan);
+            }
+        }
+        if (eligible.isEmpty()) {
+            return new ChunkResult(0, 0, skipped, BigDecimal.ZERO);
+        }
+
+        SqlParameterSource[] advance = new SqlParameterSource[eligible.size()];
+        for (int i = 0; i < eligible.size(); i++) {
+            DuePlan plan = eligible.get(i);
+            advance[i] = new MapSqlParameterSource()
+                    .addValue("nextDate", plan.nextPaymentDate().plusMonths(1))
+                    .addValue("planId", plan.planId())
+                    .addValue("dueDate", plan.nextPaymentDate());
+        }
+        int[] updated = jdbcTemplate.batchUpdate(ADVANCE_PLAN_SQL, advance);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<LedgerService.BatchPosting> postings = new ArrayList<>(eligible.size() * 2);
+        int posted = 0;
+        int completed = 0;
+        BigDecimal collected = BigDecimal.ZERO;
+        for (int i = 0; i < eligible.size(); i++) {
+            if (updated[i] == Statement.SUCCESS_NO_INFO) {
+                // Without a row count there is no telling whether this run advanced the plan, so the
+                // chunk rolls back and the plans are picked up again by the next run
+                throw new IncorrectUpdateSemanticsDataAccessException(
+                        "No update count reported for payment plan " + eligible.get(i).planId());
+            }
+            // Anything else not positive means another processor already advanced this plan
+            if (updated[i] <= 0) {
+                continue;
+            }
+            DuePlan plan = eligible.get(i);
+            String label = plan.name() != null ? plan.name() : "Payment plan " + plan.planId();
+            postings.add(new LedgerService.BatchPosting(plan.accountId(), plan.studentId(),
+                    AccountTransaction.Type.PAYMENT, plan.monthlyPayment(),
+                    label + " installment due " + plan.nextPaymentDate(), null, null, now));
+            if (installmentFee.signum() > 0) {
+                postings.add(new LedgerService.BatchPosting(plan.accountId(), plan.studentId(),
+                        AccountTransaction.Type.CHARGE, installmentFee, label + " installment fee",
+                        plan.nextPaymentDate(), null, now));
+            }
+            posted++;
+            collected = collected.add(plan.monthlyPayment());
+            if (plan.remainingPayments() <= 1) {
+                completed++;
+            }
+        }
+        ledgerService.postBatch(postings);
+        return new ChunkResult(posted, completed, skipped, collected);
+    }
+
+    private record DuePlan(Long planId, Integer studentId, String name, BigDecimal monthlyPayment,
+                           Integer remainingPayments, LocalDate nextPaymentDate, Long accountId) {}
+
+    private record ChunkResult(int posted, int completed, int skipped, BigDecimal collected) {}
+
+    private static class RunTally {
+        private int posted;
+        private int completed;
+        private int skipped;
+        private int chunksFailed;
+        private BigDecimal collected = BigDecimal.ZERO;
+
+        private void add(ChunkResult chunk) {
+            posted += chunk.posted();
+            completed += chunk.completed();
+            skipped += chunk.skipped();
+            collected = collected.add(chunk.collected());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.uwm.paws360.Service;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal pooled client for the Redis serialization protocol (RESP2). Commands are sent as arrays
+ * of bulk strings; replies come back as {@code String}, {@code Long}, {@code List<Object>} or
+ * {@code null}. Several commands can be pipelined over one connection in a single round trip.
+ *
+ * I/O failures surface as {@link DataAccessResourceFailureException} and server error replies as
+ * {@link InvalidDataAccessResourceUsageException}; a connection that failed is discarded.
+ */
+public class RespClient implements AutoCloseable {
+
+    private final String host;
+    private final int port;
+    private final String password;
+    private final int timeoutMillis;
+    private final Semaphore permits;
+    private final BlockingQueue<Connection> idle;
+
+    public RespClient(String host, int port, String password, int poolSize, Duration timeout) {
+        this.host = host;
+        this.port = port;
+        this.password = password;
+        this.timeoutMillis = (int) timeout.toMillis();
+        this.permits = new Semaphore(poolSize);
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public Object execute(String... command) {
+        return pipeline(List.<String[]>of(command)).get(0);
+    }
+
+    /**
+     * Send all commands, then read all replies. An error reply fails the whole call after every
+     * reply has been read, so the connection stays usable.
+     */
+    public List<Object> pipeline(List<String[]> commands) {
+        if (commands.isEmpty()) {
+            return List.of();
+        }
+        Connection connection = borrow();
+        boolean healthy = false;
+        try {
+            for (String[] command : commands) {
+                connection.write(command);
+            }
+            connection.out.flush();
+            List<Object> replies = new ArrayList<>(commands.size());
+            String error = null;
+            for (int i = 0; i < commands.size(); i++) {
+                Object reply = connection.read();
+                if (reply instanceof ErrorReply e && error == null) {
+                    error = commands.get(i)[0] + ": " + e.message();
+                }
+                replies.add(reply);
+            }
+            healthy = true;
+            if (error != null) {
+                throw new InvalidDataAccessResourceUsageException("Redis error reply: " + error);
+            }
+            return replies;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Redis I/O failure on " + host + ":" + port, e);
+        } finally {
+            release(connection, healthy);
+        }
+    }
+
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /*------------------------- Pooling -------------------------*/
+
+    private Connection borrow() {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new DataAccessResourceFailureException("Timed out waiting for a Redis connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrupted waiting for a Redis connection", e);
+        }
+        Connection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            return open();
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new DataAccessResourceFailureException("Cannot connect to Redis at " + host + ":" + port, e);
+        }
+    }
+
+    private void release(Connection connection, boolean healthy) {
+        if (!healthy || !idle.offer(connection)) {
+            connection.close();
+        }
+        permits.release();
+    }
+
+    private Connection open() throws IOException {
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+        socket.setSoTimeout(timeoutMillis);
+        socket.setTcpNoDelay(true);
+        Connection connection = new Connection(socket);
+        if (password != null && !password.isEmpty()) {
+            connection.write(new String[]{"AUTH", password});
+            connection.out.flush();
+            if (connection.read() instanceof ErrorReply e) {
+                connection.close();
+                throw new InvalidDataAccessResourceUsageException("Redis AUTH failed: " + e.message());
+            }
+        }
+        return connection;
+    }
+
+    /*------------------------- Protocol -------------------------*/
+
+    private record ErrorReply(String message) {}
+
+    private static final class Connection {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private void write(String[] command) throws IOException {
+            out.write(('*' + Integer.toString(command.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            for (String arg : command) {
+                byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+                out.write(('$' + Integer.toString(bytes.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(bytes);
+                out.write('\r');
+                out.write('\n');
+            }
+        }
+
+        private Object read() throws IOException {
+            int type = in.read();
+            if (type < 0) {
+                throw new EOFException("Redis closed the connection");
+            }
+            String line = readLine();
+            switch (type) {
+                case '+':
+                    return line;
+                case '-':
+                    return new ErrorReply(line);
+                case ':':
+                    return Long.parseLong(line);
+                case '$': {
+                    int length = Integer.parseInt(line);
+                    if (length < 0) {
+                        return null;
+                    }
+                    byte[] bytes = in.readNBytes(length + 2);
+                    if (bytes.length < length + 2) {
+                        throw new EOFException("Truncated bulk reply");
+                    }
+                    return new String(bytes, 0, length, StandardCharsets.UTF_8);
+                }
+                case '*': {
+                    int count = Integer.parseInt(line);
+                    if (count < 0) {
+                        return null;
+                    }
+                    List<Object> items = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        items.add(read());
+                    }
+                    return items;
+                }
+                default:
+                    throw new IOException("Unexpected RESP type byte " + type);
+            }
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(32);
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b < 0) {
+                    throw new EOFException("Redis closed the connection");
+                }
+                buffer.write(b);
+            }
+            if (in.read() != '\n') {
+                throw new IOException("Malformed RESP line");
+            }
+            return buffer.toString(StandardCharsets.UTF_8);
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing to recover
+            }
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * {@link SessionStore} on a Redis-compatible server, spoken to through {@link RespClient}.
+ *
+ * Each session is a hash at {@code paws360:session:<token>} that expires {@code retention} after the
+ * session does, which replaces the inactive-session purge. Sets per user and per IP address index
+ * the session tokens, and sorted sets scored by expiry (overall and per service origin) answer the
+ * active counts without scanning. Only the user entity comes from the database, by primary key,
+ * when a session is first read on an instance. Signed-token revocations are shared through a sorted
+ * set scored by publish time.
+ */
+public class RespSessionStore implements SessionStore, AutoCloseable {
+
+    private static final String PREFIX = "paws360:";
+    private static final String ACTIVE = PREFIX + "sessions:active";
+    private static final String ORIGINS = PREFIX + "sessions:origins";
+    private static final String NO_ORIGIN = "-";
+    // Signed-token revocations scored by publish time, members "t|tokenId|keepUntil" or "u|userId|issuedBefore|keepUntil"
+    private static final String REVOCATIONS = PREFIX + "sessions:revocations";
+
+    /*
+     * Each read-check-write on a session runs as one script, so no other command can run between
+     * the check and the write: a touch that races an invalidation can no longer put the dead token
+     * back into the active indexes. Scripts start with a "-- paws360:<name>" line. The per-origin
+     * index key is derived from the hash inside the script, so these assume a single Redis node
+     * rather than a cluster.
+     */
+
+    // KEYS: session hash, active index. ARGV: token, expires (ISO, may be empty), expires millis,
+    // accessed (ISO), retention millis, "1" to only move timestamps forward, per-origin index prefix
+    private static final String TOUCH_SCRIPT = """
+            -- paws360:touch
+            local f = redis.call('HMGET', KEYS[1], 'active', 'expires', 'accessed', 'origin')
+            if f[1] ~= '1' then return 0 end
+            local forward = ARGV[6] == '1'
+            local expires, score = ARGV[2], tonumber(ARGV[3])
+            if expires == '' or (forward and expires <= f[2]) then expires, score = f[2], nil end
+            local accessed = ARGV[4]
+            if forward and accessed <= f[3] then accessed = f[3] end
+            redis.call('HSET', KEYS[1], 'expires', expires, 'accessed', accessed)
+            if score then
+              redis.call('PEXPIREAT', KEYS[1], score + tonumber(ARGV[5]))
+              redis.call('ZADD', KEYS[2], score, ARGV[1])
+              redis.call('ZADD', ARGV[7] .. (f[4] or '-'), score, ARGV[1])
+            end
+            return 1
+            """;
+
+    // KEYS: session hash, active index. ARGV: token, reason, per-origin index prefix
+    private static final String INVALIDATE_SCRIPT = """
+            -- paws360:invalidate
+            local f = redis.call('HMGET', KEYS[1], 'active', 'origin')
+            if f[1] ~= '1' then return 0 end
+            redis.call('HSET', KEYS[1], 'active', '0', 'reason', ARGV[2])
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            redis.call('ZREM', ARGV[3] .. (f[2] or '-'), ARGV[1])
+            return 1
+            """;
+
+    // KEYS: session hash, active index. ARGV: token, cutoff millis, per-origin index prefix.
+    // An index entry whose hash is gone or inactive is dropped and counted, so a caller draining
+    // in chunks keeps going while entries remain.
+    private static final String EXPIRE_SCRIPT = """
+            -- paws360:expire
+            local f = redis.call('HMGET', KEYS[1], 'active', 'origin')
+            if f[1] ~= '1' then return redis.call('ZREM', KEYS[2], ARGV[1]) end
+            local score = redis.call('ZSCORE', KEYS[2], ARGV[1])
+            if score and tonumber(score) >= tonumber(ARGV[2]) then return 0 end
+            redis.call('HSET', KEYS[1], 'active', '0', 'reason', 'expired')
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            redis.call('ZREM', ARGV[3] .. (f[2] or '-'), ARGV[1])
+            return 1
+            """;
+
+    private final RespClient redis;
+    private final UserRepository userRepository;
+    private final Duration retention;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public RespSessionStore(RespClient redis, UserRepository userRepository, Duration retention) {
+        this.redis = redis;
+        this.userRepository = userRepository;
+        this.retention = retention;
+    }
+
+    @Override
+    public AuthenticationSession create(AuthenticationSession session) {
+        String token = session.getSessionToken();
+        Map<String, String> existing = hgetall(token);
+        List<String[]> commands = new ArrayList<>();
+        if (!existing.isEmpty()) {
+            commands.add(new String[]{"ZREM", ACTIVE, token});
+            commands.add(new String[]{"ZREM", activeKey(existing.get("origin")), token});
+        }
+        commands.add(new String[]{"DEL", sessionKey(token)});
+
+        List<String> hset = new ArrayList<>();
+        hset.add("HSET");
+        hset.add(sessionKey(token));
+        put(hset, "id", session.getSessionId());
+        put(hset, "user", Integer.toString(session.getUser().getId()));
+        put(hset, "created", session.getCreatedAt());
+        put(hset, "expires", session.getExpiresAt());
+        put(hset, "accessed", session.getLastAccessed());
+        put(hset, "ip", session.getIpAddress());
+        put(hset, "agent", session.getUserAgent());
+        put(hset, "active", session.isActive() ? "1" : "0");
+        put(hset, "origin", session.getServiceOrigin());
+        put(hset, "reason", session.getLogoutReason());
+        commands.add(hset.toArray(String[]::new));
+        commands.add(new String[]{"PEXPIREAT", sessionKey(token), Long.toString(millis(session.getExpiresAt()) + retention.toMillis())});
+
+        String userKey = userKey(session.getUser().getId());
+        commands.add(new String[]{"SADD", userKey, token});
+        commands.add(new String[]{"PEXPIRE", userKey, Long.toString(retention.toMillis())});
+        if (session.getIpAddress() != null) {
+            String ipKey = ipKey(session.getIpAddress());
+            commands.add(new String[]{"SADD", ipKey, token});
+            commands.add(new String[]{"PEXPIRE", ipKey, Long.toString(retention.toMillis())});
+        }
+        if (session.isActive()) {
+            String score = Long.toString(millis(session.getExpiresAt()));
+            commands.add(new String[]{"ZADD", ACTIVE, score, token});
+            commands.add(new String[]{"ZADD", activeKey(session.getServiceOrigin()), score, token});
+            commands.add(new String[]{"SADD", ORIGINS, origin(session.getServiceOrigin())});
+        }
+        redis.pipeline(commands);
+        return session;
+    }
+
+    @Override
+    public Optional<AuthenticationSession> findValid(String sessionToken, LocalDateTime now) {
+        return findActive(sessionToken).filter(s -> s.getExpiresAt().isAfter(now));
+    }
+
+    @Override
+    public Optional<AuthenticationSession> findActive(String sessionToken) {
+        Map<String, String> fields = hgetall(sessionToken);
+        if (fields.isEmpty() || !"1".equals(fields.get("active"))) {
+            return Optional.empty();
+        }
+        int userId = Integer.parseInt(fields.get("user"));
+        return userRepository.findById(userId).map(user -> toSession(sessionToken, fields, user));
+    }
+
+    @Override
+    public boolean extend(String sessionToken, LocalDateTime expiresAt, LocalDateTime accessTime) {
+        return count(redis.pipeline(List.<String[]>of(touch(sessionToken, expiresAt, accessTime, false)))) > 0;
+    }
+
+    @Override
+    public int applyTouches(Collection<Touch> touches) {
+        List<String[]> scripts = new ArrayList<>(touches.size());
+        for (Touch touch : touches) {
+            scripts.add(touch(touch.sessionToken(), touch.expiresAt(), touch.accessTime(), true));
+        }
+        return count(redis.pipeline(scripts));
+    }
+
+    /**
+     * Only an active session is invalidated; invalidating it again reports 0.
+     */
+    @Override
+    public int invalidate(String sessionToken, String reason) {
+        return count(redis.pipeline(List.<String[]>of(invalidation(sessionToken, reason))));
+    }
+
+    @Override
+    public int invalidateUser(int userId, String reason) {
+        List<String[]> scripts = new ArrayList<>();
+        for (String token : members(userKey(userId))) {
+            scripts.add(invalidation(token, reason));
+        }
+        return count(redis.pipeline(scripts));
+    }
+
+    @Override
+    public int enforceSessionLimit(int userId, int keep, String reason) {
+        List<String> tokens = members(userKey(userId));
+        List<String[]> reads = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            reads.add(new String[]{"HMGET", sessionKey(token), "active", "created", "origin"});
+        }
+        List<Object> current = redis.pipeline(reads);
+        List<String[]> active = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            List<?> values = (List<?>) current.get(i);
+            if ("1".equals(values.get(0))) {
+                active.add(new String[]{tokens.get(i), (String) values.get(1), (String) values.get(2)});
+            }
+        }
+        // ISO-8601 timestamps sort chronologically as strings
+        active.sort(Comparator.comparing((String[] a) -> a[1]).reversed());
+        List<String[]> scripts = new ArrayList<>();
+        for (String[] session : active.subList(Math.min(Math.max(0, keep), active.size()), active.size())) {
+            scripts.add(invalidation(session[0], reason));
+        }
+        return count(redis.pipeline(scripts));
+    }
+
+    @Override
+    public List<AuthenticationSession> findActiveForUser(int userId, LocalDateTime now) {
+        return load(members(userKey(userId)), s -> s.isActive() && s.getExpiresAt().isAfter(now));
+    }
+
+    @Override
+    public List<AuthenticationSession> findSuspiciousForUser(int userId, String currentIp, LocalDateTime now) {
+        return load(members(userKey(userId)), s -> s.isActive() && s.getExpiresAt().isAfter(now)
+                && s.getIpAddress() != null && !s.getIpAddress().equals(currentIp));
+    }
+
+    @Override
+    public List<AuthenticationSession> findUserHistory(int userId, LocalDateTime from) {
+        List<AuthenticationSession> history = load(members(userKey(userId)), s -> !s.getCreatedAt().isBefore(from));
+        history.sort(Comparator.comparing(AuthenticationSession::getCreatedAt).reversed());
+        return history;
+    }
+
+    @Override
+    public List<AuthenticationSession> findByIpAddress(String ipAddress, LocalDateTime from) {
+        return load(members(ipKey(ipAddress)), s -> !s.getCreatedAt().isBefore(from));
+    }
+
+    @Override
+    public long countActive(LocalDateTime now) {
+        return (Long) redis.execute("ZCOUNT", ACTIVE, "(" + millis(now), "+inf");
+    }
+
+    @Override
+    public long countActiveByService(String serviceOrigin, LocalDateTime now) {
+        return (Long) redis.execute("ZCOUNT", activeKey(serviceOrigin), "(" + millis(now), "+inf");
+    }
+
+    @Override
+    public List<Object[]> countActiveGroupedByService(LocalDateTime now) {
+        List<String> origins = members(ORIGINS);
+        List<String[]> counts = new ArrayList<>(origins.size());
+        for (String origin : origins) {
+            counts.add(new String[]{"ZCOUNT", PREFIX + "sessions:active:" + origin, "(" + millis(now), "+inf"});
+        }
+        List<Object> replies = redis.pipeline(counts);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < origins.size(); i++) {
+            long count = (Long) replies.get(i);
+            if (count > 0) {
+                rows.add(new Object[]{NO_ORIGIN.equals(origins.get(i)) ? null : origins.get(i), count});
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public int expireSessions(Collection<String> sessionTokens, LocalDateTime expiredTime) {
+        return expireTokens(new ArrayList<>(sessionTokens), expiredTime);
+    }
+
+    @Override
+    public int expire(LocalDateTime expiredTime, int limit) {
+        @SuppressWarnings("unchecked")
+        List<Object> tokens = (List<Object>) redis.execute("ZRANGEBYSCORE", ACTIVE, "-inf", "(" + millis(expiredTime),
+                "LIMIT", "0", Integer.toString(limit));
+        List<String> expired = new ArrayList<>(tokens.size());
+        for (Object token : tokens) {
+            expired.add((String) token);
+        }
+        return expireTokens(expired, expiredTime);
+    }
+
+    /**
+     * Session hashes expire on their own {@code retention} after the session, so nothing to do.
+     */
+    @Override
+    public int purgeInactive(LocalDateTime cleanupDate, int limit) {
+        return 0;
+    }
+
+    @Override
+    public void publishRevocation(Revocation revocation) {
+        String member = revocation.tokenId() != null
+                ? "t|" + revocation.tokenId() + "|" + revocation.keepUntil().toEpochMilli()
+                : "u|" + revocation.userId() + "|" + revocation.issuedBefore().toEpochMilli() + "|"
+                        + revocation.keepUntil().toEpochMilli();
+        redis.execute("ZADD", REVOCATIONS, Long.toString(System.currentTimeMillis()), member);
+    }
+
+    @Override
+    public List<Revocation> revocationsSince(Instant since) {
+        Object reply = redis.execute("ZRANGEBYSCORE", REVOCATIONS, Long.toString(since.toEpochMilli()), "+inf");
+        List<Revocation> revocations = new ArrayList<>();
+        if (reply instanceof List<?> members) {
+            for (Object member : members) {
+                String[] parts = ((String) member).split("\\|");
+                if (parts.length == 3 && "t".equals(parts[0])) {
+                    revocations.add(new Revocation(parts[1], null, null, Instant.ofEpochMilli(Long.parseLong(parts[2]))));
+                } else if (parts.length == 4 && "u".equals(parts[0])) {
+                    revocations.add(new Revocation(null, Integer.parseInt(parts[1]),
+                            Instant.ofEpochMilli(Long.parseLong(parts[2])), Instant.ofEpochMilli(Long.parseLong(parts[3]))));
+                }
+            }
+        }
+        return revocations;
+    }
+
+    @Override
+    public int purgeRevocations(Instant publishedBefore) {
+        return ((Long) redis.execute("ZREMRANGEBYSCORE", REVOCATIONS, "-inf",
+                "(" + publishedBefore.toEpochMilli())).intValue();
+    }
+
+    @Override
+    public void close() {
+        redis.close();
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private String[] touch(String token, LocalDateTime expiresAt, LocalDateTime accessTime, boolean forwardOnly) {
+        return new String[]{"EVAL", TOUCH_SCRIPT, "2", sessionKey(token), ACTIVE, token,
+                expiresAt != null ? expiresAt.toString() : "",
+                expiresAt != null ? Long.toString(millis(expiresAt)) : "0",
+                accessTime.toString(), Long.toString(retention.toMillis()), forwardOnly ? "1" : "0", ACTIVE + ":"};
+    }
+
+    private String[] invalidation(String token, String reason) {
+        return new String[]{"EVAL", INVALIDATE_SCRIPT, "2", sessionKey(token), ACTIVE, token,
+                reason != null ? reason : "", ACTIVE + ":"};
+    }
+
+    // Sum of the 0/1 script replies
+    private static int count(List<Object> replies) {
+        int total = 0;
+        for (Object reply : replies) {
+            total += ((Long) reply).intValue();
+        }
+        return total;
+    }
+
+    private int expireTokens(List<String> tokens, LocalDateTime expiredTime) {
+        String cutoff = Long.toString(millis(expiredTime));
+        List<String[]> commands = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            commands.add(new String[]{"EVAL", EXPIRE_SCRIPT, "2", sessionKey(token), ACTIVE, token, cutoff, ACTIVE + ":"});
+        }
+        return count(redis.pipeline(commands));
+    }
+
+    private List<AuthenticationSession> load(List<String> tokens, Predicate<AuthenticationSession> filter) {
+        List<String[]> reads = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            reads.add(new String[]{"HGETALL", sessionKey(token)});
+        }
+        List<Object> replies = redis.pipeline(reads);
+
+        Map<String, Map<String, String>> found = new HashMap<>();
+        Set<Integer> userIds = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            Map<String, String> fields = toMap(replies.get(i));
+            if (!fields.isEmpty()) {
+                found.put(tokens.get(i), fields);
+                userIds.add(Integer.parseInt(fields.get("user")));
+            }
+        }
+        Map<Integer, Users> users = new HashMap<>();
+        for (Users user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+
+        List<AuthenticationSession> sessions = new ArrayList<>();
+        found.forEach((token, fields) -> {
+            Users user = users.get(Integer.parseInt(fields.get("user")));
+            if (user != null) {
+                AuthenticationSession session = toSession(token, fields, user);
+                if (filter.test(session)) {
+                    sessions.add(session);
+                }
+            }
+        });
+        return sessions;
+    }
+
+    private AuthenticationSession toSession(String token, Map<String, String> fields, Users user) {
+        AuthenticationSession session = new AuthenticationSession();
+        session.setSessionId(fields.get("id"));
+        session.setUser(user);
+        session.setSessionToken(token);
+        session.setCreatedAt(LocalDateTime.parse(fields.get("created")));
+        session.setExpiresAt(LocalDateTime.parse(fields.get("expires")));
+        session.setLastAccessed(LocalDateTime.parse(fields.get("accessed")));
+        session.setIpAddress(fields.get("ip"));
+        session.setUserAgent(fields.get("agent"));
+        session.setActive("1".equals(fields.get("active")));
+        session.setServiceOrigin(fields.get("origin"));
+        String reason = fields.get("reason");
+        session.setLogoutReason(reason == null || reason.isEmpty() ? null : reason);
+        return session;
+    }
+
+    private Map<String, String> hgetall(String token) {
+        return toMap(redis.execute("HGETALL", sessionKey(token)));
+    }
+
+    private static Map<String, String> toMap(Object reply) {
+        Map<String, String> map = new HashMap<>();
+        if (reply instanceof List<?> items) {
+            for (int i = 0; i + 1 < items.size(); i += 2) {
+                map.put((String) items.get(i), (String) items.get(i + 1));
+            }
+        }
+        return map;
+    }
+
+    private List<String> members(String key) {
+        Object reply = redis.execute("SMEMBERS", key);
+        List<String> members = new ArrayList<>();
+        if (reply instanceof List<?> items) {
+            for (Object item : items) {
+                members.add((String) item);
+            }
+        }
+        return members;
+    }
+
+    private static void put(List<String> hset, String field, Object value) {
+        if (value != null) {
+            hset.add(field);
+            hset.add(value.toString());
+        }
+    }
+
+    private long millis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private static String sessionKey(String token) {
+        return PREFIX + "session:" + token;
+    }
+
+    private static String userKey(int userId) {
+        return PREFIX + "user-sessions:" + userId;
+    }
+
+    private static String ipKey(String ipAddress) {
+        return PREFIX + "ip-sessions:" + ipAddress;
+    }
+
+    private static String activeKey(String serviceOrigin) {
+        return ACTIVE + ":" + origin(serviceOrigin);
+    }
+
+    private static String origin(String serviceOrigin) {
+        return serviceOrigin != null ? serviceOrigin : NO_ORIGIN;
+    }
+}
@@ -0,0 +1,162 @@
+package com.uwm.paws360.Service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Registrar roster exports as CSV, one row per enrollment, for a single lecture section or every
+ * section of a term. Rows come from one query over course_enrollments, course_sections, courses,
+ * student and users read through a server-side cursor ({@value #FETCH_SIZE} rows per fetch) and are
+ * written straight to the caller's writer, so memory use does not grow with the roster.
+ *
+ * The cursor only advances as fast as the writer accepts rows: a slow client blocks the response
+ * stream, which in turn holds back the next fetch. Output is flushed every {@value #FLUSH_EVERY}
+ * rows so the first bytes go out as soon as the query starts returning. Nothing, not even the header,
+ * is written before the first row arrives: a query that fails outright still fails the request with
+ * an error status, and a failure after that cuts the response short instead of ending it cleanly.
+ */
+@Service
+public class RosterExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String HEADER =
+            "term,academic_year,course_code,course_name,section_id,section_code,lab_section_code,student_id," +
+            "campus_id,lastname,firstname,preferred_name,email,status,waitlist_position,current_letter," +
+            "final_letter,enrolled_at\n";
+
+    private static final String ROSTER_SELECT =
+            "SELECT cs.term, cs.academic_year, c.course_code, c.course_name, cs.section_id, cs.section_code, " +
+            "lab.section_code AS lab_section_code, s.student_id, s.campus_id, u.lastname, u.firstname, " +
+            "u.preferred_name, u.email, e.status, e.waitlist_position, e.current_letter, e.final_letter, e.enrolled_at " +
+            "FROM course_enrollments e " +
+            "JOIN course_sections cs ON cs.section_id = e.lecture_section_id " +
+            "JOIN courses c ON c.course_id = cs.course_id " +
+            "JOIN student s ON s.student_id = e.student_id " +
+            "JOIN users u ON u.user_id = s.user_id " +
+            "LEFT JOIN course_sections lab ON lab.section_id = e.lab_section_id ";
+
+    private static final String ROSTER_ORDER =
+            "ORDER BY c.course_code, cs.section_code, cs.section_id, u.lastname, u.firstname, e.enrollment_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public RosterExportService(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        // A template of our own, so the fetch size does not apply to every other query
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+        // PostgreSQL only uses a cursor for the fetch size when autocommit is off
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean sectionExists(long sectionId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course_sections WHERE section_id = :sectionId",
+                new MapSqlParameterSource("sectionId", sectionId), Integer.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Write the roster of one lecture section as CSV.
+     */
+    public void exportSectionRoster(long sectionId, boolean includeDropped, Writer out) throws IOException {
+        export(ROSTER_SELECT + "WHERE cs.section_id = :sectionId " + statusFilter(includeDropped) + ROSTER_ORDER,
+                new MapSqlParameterSource("sectionId", sectionId), out);
+    }
+
+    /**
+     * Write the rosters of every lecture section in a term as CSV, grouped by course and section.
+     */
+    public void exportTermRosters(String term, int academicYear, boolean includeDropped, Writer out) throws IOException {
+        export(ROSTER_SELECT + "WHERE cs.term = :term AND cs.academic_year = :year " + statusFilter(includeDropped) + ROSTER_ORDER,
+                new MapSqlParameterSource()
+                        .addValue("term", term)
+                        .addValue("year", academicYear),
+                out);
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private static String statusFilter(boolean includeDropped) {
+        return includeDropped ? "" : "AND e.status <> 'DROPPED' ";
+    }
+
+    private void export(String sql, MapSqlParameterSource params, Writer out) throws IOException {
+        int[] written = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.query(sql, params, rs -> {
+                    if (written[0] == 0) {
+                        write(out, HEADER);
+                    }
+                    writeRow(rs, out);
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        flush(out);
+                    }
+                });
+            });
+        } catch (UncheckedIOException e) {
+            // The client went away; stop reading the cursor
+            throw e.getCause();
+        }
+        if (written[0] == 0) {
+            out.write(HEADER);
+        }
+        out.flush();
+    }
+
+    private static void writeRow(ResultSet rs, Writer out) throws SQLException {
+        Timestamp enrolledAt = rs.getTimestamp("enrolled_at");
+        Object waitlistPosition = rs.getObject("waitlist_position");
+        StringBuilder row = new StringBuilder(256)
+                .append(Csv.field(rs.getString("term"))).append(',')
+                .append(rs.getInt("academic_year")).append(',')
+                .append(Csv.field(rs.getString("course_code"))).append(',')
+                .append(Csv.field(rs.getString("course_name"))).append(',')
+                .append(rs.getLong("section_id")).append(',')
+                .append(Csv.field(rs.getString("section_code"))).append(',')
+                .append(Csv.field(rs.getString("lab_section_code"))).append(',')
+                .append(rs.getInt("student_id")).append(',')
+                .append(Csv.field(rs.getString("campus_id"))).append(',')
+                .append(Csv.field(rs.getString("lastname"))).append(',')
+                .append(Csv.field(rs.getString("firstname"))).append(',')
+                .append(Csv.field(rs.getString("preferred_name"))).append(',')
+                .append(Csv.field(rs.getString("email"))).append(',')
+                .append(Csv.field(rs.getString("status"))).append(',')
+                .append(waitlistPosition != null ? waitlistPosition : "").append(',')
+                .append(Csv.field(rs.getString("current_letter"))).append(',')
+                .append(Csv.field(rs.getString("final_letter"))).append(',')
+                .append(enrolledAt != null ? enrolledAt.toInstant() : "")
+                .append('\n');
+        write(out, row.toString());
+    }
+
+    private static void write(Writer out, String text) {
+        try {
+            out.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(Writer out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
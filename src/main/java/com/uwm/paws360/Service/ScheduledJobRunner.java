@@ -0,0 +1,340 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Jobs.ScheduledJobRun;
+import com.uwm.paws360.JPARepository.Jobs.ScheduledJobRunRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the application's scheduled jobs so they behave with several instances behind the load
+ * balancer. The triggers are declared in {@link com.uwm.paws360.config.ScheduledJobs}; each job runs
+ * in one of three ways:
+ * <ul>
+ *   <li>{@link #runLocal}: on every node, for housekeeping of per-node in-memory state;</li>
+ *   <li>{@link #runOnLeader}: only on the elected leader;</li>
+ *   <li>{@link #runSharded}: split into numbered shards that any node may claim.</li>
+ * </ul>
+ *
+ * On PostgreSQL the leader is the node holding a session-level advisory lock on a connection it
+ * keeps open for the purpose. The others try to take the lock on every {@link #checkLeadership},
+ * so one of them takes over once the leader's connection goes away. Shards are claimed with an
+ * advisory lock each, and a shard already recorded as succeeded for the same run key is skipped.
+ * On any other database (H2 in tests) there is only one node: it is always the leader and shards
+ * are claimed with in-process locks.
+ *
+ * Leader and sharded runs are written to scheduled_job_runs with their duration and outcome. Local
+ * runs fire every few seconds, so they only feed the {@code paws360_scheduled_job} timer.
+ */
+@Service
+public class ScheduledJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJobRunner.class);
+
+    // First key of every two-key advisory lock taken here ("PAWS"); the second names the lock
+    private static final int LOCK_NAMESPACE = 0x50415753;
+    private static final int LEADER_LOCK = 0;
+
+    /**
+     * The work of one shard. A shard must cover the same keys on every node whatever the data looks
+     * like when the node starts, e.g. the keys with {@code key % shards == shard}.
+     */
+    @FunctionalInterface
+    public interface ShardWork {
+
+        /**
+         * @return false if the shard could not be worked now (e.g. the work was already running on
+         * this node); the run is then recorded as skipped and the shard stays open for another try
+         */
+        boolean run(int shard, int shards);
+    }
+
+    private final DataSource dataSource;
+    private final ScheduledJobRunRepository runRepository;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final Duration historyRetention;
+    private final Map<String, ReentrantLock> localLocks = new ConcurrentHashMap<>();
+
+    private Connection leaderConnection;
+    private volatile boolean leader;
+    private volatile boolean leadershipChecked;
+    private volatile Boolean postgres;
+
+    public ScheduledJobRunner(DataSource dataSource,
+                              ScheduledJobRunRepository runRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${paws360.jobs.node-id:}") String nodeId,
+                              @Value("${paws360.jobs.history-retention:P30D}") Duration historyRetention) {
+        this.dataSource = dataSource;
+        this.runRepository = runRepository;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.historyRetention = historyRetention;
+
+        Gauge.builder("paws360_scheduled_job_leader", this, runner -> runner.leader ? 1 : 0)
+                .description("1 while this node runs the cluster-wide scheduled jobs")
+                .register(meterRegistry);
+    }
+
+    /*------------------------- Running jobs -------------------------*/
+
+    /**
+     * Run a job on this node whatever the other nodes do.
+     */
+    public void runLocal(String job, Runnable work) {
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            work.run();
+            succeeded = true;
+        } catch (RuntimeException e) {
+            logger.error("Scheduled job {} failed: {}", job, e.getMessage(), e);
+        } finally {
+            timer(job, succeeded).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Run a job if this node is the leader.
+     *
+     * @return whether it ran here
+     */
+    public boolean runOnLeader(String job, Runnable work) {
+        if (!isLeader()) {
+            logger.debug("Skipping scheduled job {}: {} is not the leader", job, nodeId);
+            return false;
+        }
+        record(job, null, null, () -> {
+            work.run();
+            return true;
+        });
+        return true;
+    }
+
+    /**
+     * Run every one of {@code shards} shards that this node can claim and no node has completed yet
+     * for {@code runKey}. Nodes start from different shards, so with several nodes running the job at
+     * once each takes its own share. Shard numbers are all that is shared between nodes, so each
+     * shard must stand for the same keys everywhere (see {@link ShardWork}).
+     *
+     * @return the number of shards run here
+     */
+    public int runSharded(String job, String runKey, int shards, ShardWork work) {
+        int count = Math.max(1, shards);
+        int first = Math.floorMod(nodeId.hashCode(), count);
+        int ran = 0;
+        for (int i = 0; i < count; i++) {
+            int shard = (first + i) % count;
+            boolean claimed = withLock(job + "#" + shard, () -> {
+                if (runRepository.existsByJobNameAndRunKeyAndShardAndStatus(job, runKey, shard,
+                        ScheduledJobRun.RunStatus.SUCCEEDED)) {
+                    return false;
+                }
+                return record(job, runKey, shard, () -> work.run(shard, count));
+            });
+            if (claimed) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Delete run history older than {@code paws360.jobs.history-retention}.
+     */
+    public int purgeHistory() {
+        return runRepository.deleteStartedBefore(OffsetDateTime.now().minus(historyRetention));
+    }
+
+    /*------------------------- Leader election -------------------------*/
+
+    public boolean isLeader() {
+        if (!leadershipChecked) {
+            checkLeadership();
+        }
+        return leader;
+    }
+
+    /**
+     * Keep the leader lock if this node holds it, or try to take it if nobody does.
+     */
+    public synchronized void checkLeadership() {
+        leadershipChecked = true;
+        try {
+            if (!isPostgres()) {
+                leader = true;
+                return;
+            }
+            if (leaderConnection != null) {
+                if (leaderConnection.isValid(2)) {
+                    return;
+                }
+                logger.warn("{} lost its scheduled job leader connection", nodeId);
+                releaseLeadership();
+            }
+            Connection connection = dataSource.getConnection();
+            boolean locked = false;
+            try {
+                locked = tryAdvisoryLock(connection, LEADER_LOCK);
+            } finally {
+                if (!locked) {
+                    connection.close();
+                }
+            }
+            if (locked) {
+                leaderConnection = connection;
+                leader = true;
+                logger.info("{} is now the scheduled job leader", nodeId);
+            }
+        } catch (SQLException | DataAccessException e) {
+            logger.warn("Scheduled job leader check failed on {}: {}", nodeId, e.getMessage());
+            releaseLeadership();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void releaseLeadership() {
+        leader = false;
+        if (leaderConnection != null) {
+            // Closing returns the connection to the pool, which would keep the lock; a dead connection
+            // fails the unlock and is still closed, so the pool evicts it instead of losing the slot
+            try (Connection connection = leaderConnection) {
+                unlock(connection, LEADER_LOCK);
+            } catch (SQLException e) {
+                logger.debug("Releasing the leader connection failed: {}", e.getMessage());
+            }
+            leaderConnection = null;
+        }
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    /**
+     * Run {@code work} and write down how it went: SUCCEEDED only if it ran to the end, SKIPPED if it
+     * reported that it did not run.
+     *
+     * @return whether the work ran
+     */
+    private boolean record(String job, String runKey, Integer shard, BooleanSupplier work) {
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        long started = System.nanoTime();
+        String error = null;
+        boolean ran = false;
+        try {
+            ran = work.getAsBoolean();
+            if (!ran) {
+                logger.info("Scheduled job {}{} skipped on {}", job, shard != null ? " shard " + shard : "", nodeId);
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            logger.error("Scheduled job {}{} failed on {}: {}", job, shard != null ? " shard " + shard : "", nodeId, error, e);
+        }
+        long elapsed = System.nanoTime() - started;
+        timer(job, error == null).record(elapsed, TimeUnit.NANOSECONDS);
+        ScheduledJobRun.RunStatus status = error != null ? ScheduledJobRun.RunStatus.FAILED
+                : ran ? ScheduledJobRun.RunStatus.SUCCEEDED
+                : ScheduledJobRun.RunStatus.SKIPPED;
+        try {
+            runRepository.save(new ScheduledJobRun(job, runKey, shard, nodeId, status,
+                    startedAt, OffsetDateTime.now(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    error != null && error.length() > 500 ? error.substring(0, 500) : error));
+        } catch (DataAccessException e) {
+            logger.warn("Could not record the run of scheduled job {}: {}", job, e.getMessage());
+        }
+        return ran;
+    }
+
+    /**
+     * Run {@code work} holding the named lock, cluster-wide on PostgreSQL.
+     *
+     * @return false if the lock was held elsewhere, otherwise what {@code work} returned
+     */
+    private boolean withLock(String name, BooleanSupplier work) {
+        try {
+            if (!isPostgres()) {
+                ReentrantLock lock = localLocks.computeIfAbsent(name, n -> new ReentrantLock());
+                if (!lock.tryLock()) {
+                    return false;
+                }
+                try {
+                    return work.getAsBoolean();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                int key = name.hashCode();
+                if (!tryAdvisoryLock(connection, key)) {
+                    return false;
+                }
+                try {
+                    return work.getAsBoolean();
+                } finally {
+                    unlock(connection, key);
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not take scheduled job lock {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean tryAdvisoryLock(Connection connection, int key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setInt(2, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection, int key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?, ?)")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setInt(2, key);
+            statement.execute();
+        }
+    }
+
+    private Timer timer(String job, boolean succeeded) {
+        return Timer.builder("paws360_scheduled_job")
+                .description("Duration of scheduled job runs")
+                .tag("job", job)
+                .tag("outcome", succeeded ? "success" : "failure")
+                .register(meterRegistry);
+    }
+
+    private boolean isPostgres() throws SQLException {
+        Boolean known = postgres;
+        if (known == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                String product = connection.getMetaData().getDatabaseProductName();
+                known = product != null && product.toLowerCase().contains("postgres");
+            }
+            postgres = known;
+        }
+        return known;
+    }
+}
@@ -0,0 +1,6 @@
+package com.uwm.paws360.Service;
+
+/**
+ * Published when a staff member is assigned to a section.
+ */
+public record SectionStaffChangedEvent(int userId, Long sectionId) {}
@@ -0,0 +1,7 @@
+package com.uwm.paws360.Service;
+
+/**
+ * Published when sessions are created ({@code delta > 0}) or invalidated ({@code delta < 0}).
+ * {@code serviceOrigin} is null when the sessions ended may belong to several services.
+ */
+public record SessionCountChangedEvent(String serviceOrigin, int delta) {}
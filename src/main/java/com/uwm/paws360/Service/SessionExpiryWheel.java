@@ -0,0 +1,153 @@
+package com.uwm.paws360.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hierarchical timing wheel of session deadlines, so sessions are expired one by one close to their
+ * deadline instead of by sweeping the sessions table. Four levels of 64 slots cover 64^4 ticks
+ * ({@code paws360.session.expiry.tick}, default 1s, so about 194 days); a token sits in the coarsest
+ * level its deadline needs and moves down a level each time its slot comes round, reaching the
+ * one-tick level just before it is due.
+ *
+ * Deadlines are kept in a map beside the wheel and read lazily: sliding a session's expiry only
+ * replaces its map entry, and a token whose slot comes up with a later deadline is put back in the
+ * wheel rather than expired. Cancelled tokens are dropped when their slot comes up.
+ */
+@Component
+public class SessionExpiryWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_SPAN = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+    private final ArrayDeque<String>[][] wheel;
+    private final Object lock = new Object();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public SessionExpiryWheel(@Value("${paws360.session.expiry.tick:PT1S}") Duration tick) {
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.wheel = new ArrayDeque[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[level][slot] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    /**
+     * Track a session until {@code expiresAt}, or move its deadline if it is already tracked.
+     */
+    public void schedule(String sessionToken, LocalDateTime expiresAt) {
+        if (sessionToken == null || expiresAt == null) {
+            return;
+        }
+        long millis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long tick = (millis + tickMillis - 1) / tickMillis;
+        Long previous = deadlines.put(sessionToken, tick);
+        // A later deadline is picked up when the current slot comes round
+        if (previous == null || tick < previous) {
+            synchronized (lock) {
+                insert(sessionToken, Math.max(tick, currentTick + 1));
+            }
+        }
+    }
+
+    public void cancel(String sessionToken) {
+        if (sessionToken != null) {
+            deadlines.remove(sessionToken);
+        }
+    }
+
+    public int trackedCount() {
+        return deadlines.size();
+    }
+
+    /**
+     * Turn the wheel up to {@code nowMillis} and return the tokens whose deadline has passed. They are
+     * no longer tracked afterwards.
+     */
+    public List<String> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<String> due = new ArrayList<>();
+        synchronized (lock) {
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                ArrayDeque<String> slot = wheel[0][(int) (currentTick & SLOT_MASK)];
+                for (String token = slot.poll(); token != null; token = slot.poll()) {
+                    expireOrReschedule(token, due);
+                }
+            }
+        }
+        return due;
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    /**
+     * On reaching the start of a slot in a coarser level, spread that slot's tokens over the finer
+     * levels. Runs from the coarsest level down so tokens can move several levels in one tick.
+     */
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            long span = 1L << (SLOT_BITS * level);
+            if (currentTick % span != 0) {
+                continue;
+            }
+            ArrayDeque<String> slot = wheel[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+            for (String token = slot.poll(); token != null; token = slot.poll()) {
+                Long deadline = deadlines.get(token);
+                if (deadline != null) {
+                    insert(token, Math.max(deadline, currentTick));
+                }
+            }
+        }
+    }
+
+    private void expireOrReschedule(String token, List<String> due) {
+        Long deadline = deadlines.get(token);
+        while (deadline != null) {
+            if (deadline > currentTick) {
+                insert(token, deadline);
+                return;
+            }
+            // Fails if the session was touched meanwhile; look again at the new deadline
+            if (deadlines.remove(token, deadline)) {
+                due.add(token);
+                return;
+            }
+            deadline = deadlines.get(token);
+        }
+    }
+
+    /**
+     * Place a token in the finest level whose slots, from the current tick, reach its deadline: the
+     * level below which the deadline and the current tick first differ. Deadlines past the wheel's
+     * span are parked at its far end and re-placed from there.
+     */
+    private void insert(String token, long tick) {
+        long target = Math.min(tick, currentTick + MAX_SPAN);
+        long differing = target ^ currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && (differing >>> (SLOT_BITS * (level + 1))) != 0) {
+            level++;
+        }
+        wheel[level][(int) ((target >>> (SLOT_BITS * level)) & SLOT_MASK)].add(token);
+    }
+}
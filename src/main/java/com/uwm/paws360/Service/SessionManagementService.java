@@ -2,15 +2,19 @@ package com.uwm.paws360.Service;
 
 import com.uwm.paws360.Entity.Base.AuthenticationSession;
 import com.uwm.paws360.Entity.Base.Users;
-import com.uwm.paws360.JPARepository.User.AuthenticationSessionRepository;
 import com.uwm.paws360.JPARepository.User.UserRepository;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Comprehensive session management service for SSO authentication.
@@ -20,8 +24,17 @@ import java.util.Optional;
 @Transactional
 public class SessionManagementService {
 
-    private final AuthenticationSessionRepository sessionRepository;
+    private final SessionStore sessionStore;
     private final UserRepository userRepository;
+    private final SessionTokenCache sessionCache;
+    private final SessionTouchBuffer touchBuffer;
+    private final SignedSessionTokens signedTokens;
+    private final SessionRevocationList revocations;
+    private final SessionExpiryWheel expiryWheel;
+    private final ApplicationEventPublisher events;
+    private final int cleanupChunkSize;
+    private final Duration cleanupPause;
+    private final Duration expiryGrace;
     
     // Session configuration
     private static final int DEFAULT_SESSION_TTL_HOURS = 1;
@@ -29,10 +42,28 @@ public class SessionManagementService {
     private static final int CLEANUP_INACTIVE_SESSIONS_DAYS = 30;
     private static final int MAX_SESSIONS_PER_USER = 5;
 
-    public SessionManagementService(AuthenticationSessionRepository sessionRepository, 
-                                  UserRepository userRepository) {
-        this.sessionRepository = sessionRepository;
+    public SessionManagementService(SessionStore sessionStore, 
+                                  UserRepository userRepository,
+                                  SessionTokenCache sessionCache,
+                                  SessionTouchBuffer touchBuffer,
+                                  SignedSessionTokens signedTokens,
+                                  SessionRevocationList revocations,
+                                  SessionExpiryWheel expiryWheel,
+                                  ApplicationEventPublisher events,
+                                  @Value("${paws360.session.cleanup.chunk-size:500}") int cleanupChunkSize,
+                                  @Value("${paws360.session.cleanup.pause:PT0.1S}") Duration cleanupPause,
+                                  @Value("${paws360.session-touch.flush-interval:PT5S}") Duration expiryGrace) {
+        this.sessionStore = sessionStore;
         this.userRepository = userRepository;
+        this.sessionCache = sessionCache;
+        this.touchBuffer = touchBuffer;
+        this.signedTokens = signedTokens;
+        this.revocations = revocations;
+        this.expiryWheel = expiryWheel;
+        this.events = events;
+        this.cleanupChunkSize = Math.max(1, cleanupChunkSize);
+        this.cleanupPause = cleanupPause;
+        this.expiryGrace = expiryGrace;
     }
 
     /*------------------------- Session Creation and Validation -------------------------*/
@@ -42,8 +73,9 @@ public class SessionManagementService {
      */
     public AuthenticationSession createSession(Users user, String sessionToken, String ipAddress, 
                                              String userAgent, String serviceOrigin) {
-        // Delete any existing sessions with the same token to avoid constraint violation
-        sessionRepository.deleteBySessionToken(sessionToken);
+        // The store replaces any existing session with the same token
+        sessionCache.evict(sessionToken);
+        touchBuffer.discard(sessionToken);
         
         return createSessionWithTTL(user, sessionToken, ipAddress, userAgent, serviceOrigin, DEFAULT_SESSION_TTL_HOURS);
     }
@@ -66,7 +98,10 @@ public class SessionManagementService {
             serviceOrigin
         );
         
-        return sessionRepository.save(session);
+        AuthenticationSession created = sessionStore.create(session);
+        expiryWheel.schedule(sessionToken, session.getExpiresAt());
+        events.publishEvent(new SessionCountChangedEvent(serviceOrigin, 1));
+        return created;
     }
 
     /**
@@ -74,48 +109,94 @@ public class SessionManagementService {
      */
     public AuthenticationSession createSession(Users user, String sessionToken, String ipAddress, 
                                              String userAgent, String serviceOrigin, int ttlHours) {
-        // Delete any existing sessions with the same token to avoid constraint violation
-        sessionRepository.deleteBySessionToken(sessionToken);
+        // The store replaces any existing session with the same token
+        sessionCache.evict(sessionToken);
+        touchBuffer.discard(sessionToken);
         
         return createSessionWithTTL(user, sessionToken, ipAddress, userAgent, serviceOrigin, ttlHours);
     }
 
     /**
-     * Validate and refresh session
+     * Validate and refresh session. Tokens seen recently are answered from {@link SessionTokenCache}
+     * without reading the database, and the sliding extension goes through {@link SessionTouchBuffer}
+     * rather than being written per request. Runs outside any transaction of its own, so it holds no
+     * database connection unless the store is JPA-backed and the token is not cached.
+     *
+     * With signed tokens the signature, expiry and revocation list decide validity before anything
+     * else is consulted, and the expiry does not slide since it is part of the token.
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<AuthenticationSession> validateAndRefreshSession(String sessionToken) {
-        Optional<AuthenticationSession> sessionOpt = sessionRepository.findValidSession(sessionToken, LocalDateTime.now());
+        if (sessionToken == null) {
+            return Optional.empty();
+        }
+        boolean signed = signedTokens.isEnabled();
+        if (signed) {
+            Optional<SignedSessionTokens.Claims> claims = signedTokens.verify(sessionToken);
+            if (claims.isEmpty() || revocations.isRevoked(claims.get())) {
+                return Optional.empty();
+            }
+        }
+        SessionTokenCache.Lookup cached = sessionCache.lookup(sessionToken);
+        if (cached.isNegative()) {
+            return Optional.empty();
+        }
         
-        if (sessionOpt.isPresent()) {
-            AuthenticationSession session = sessionOpt.get();
-            
-            // Update last accessed time
-            session.setLastAccessed(LocalDateTime.now());
-            
-            // Auto-extend session if accessed within last hour
-            LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-            if (session.getLastAccessed().isAfter(oneHourAgo)) {
-                session.extendSession(DEFAULT_SESSION_TTL_HOURS);
+        // Every validated access slides an opaque token's expiry forward
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime newExpiry = signed ? null : now.plusHours(DEFAULT_SESSION_TTL_HOURS);
+        if (cached.isHit()) {
+            // The hit is this request's own copy, so it can carry the refreshed times
+            AuthenticationSession session = cached.session();
+            touchBuffer.touch(sessionToken, newExpiry, now);
+            if (newExpiry != null) {
+                session.setExpiresAt(newExpiry);
+                sessionCache.extend(sessionToken, newExpiry, now);
+                expiryWheel.schedule(sessionToken, newExpiry);
             }
-            
-            return Optional.of(sessionRepository.save(session));
+            session.setLastAccessed(now);
+            return Optional.of(session);
         }
         
-        return Optional.empty();
+        Optional<AuthenticationSession> sessionOpt = sessionStore.findValid(sessionToken, now);
+        if (sessionOpt.isEmpty()) {
+            sessionCache.putMissing(sessionToken);
+            return Optional.empty();
+        }
+        AuthenticationSession session = sessionOpt.get();
+        if (newExpiry != null) {
+            session.setExpiresAt(newExpiry);
+        }
+        session.setLastAccessed(now);
+        touchBuffer.touch(sessionToken, newExpiry, now);
+        if (signed) {
+            sessionCache.putSigned(session);
+        } else {
+            sessionCache.put(session);
+        }
+        // Also picks up sessions created before a restart or on another instance
+        expiryWheel.schedule(sessionToken, session.getExpiresAt());
+        return Optional.of(session);
     }
 
     /*------------------------- Session Management -------------------------*/
 
     /**
-     * Extend session expiration
+     * Extend session expiration. Not possible for signed tokens, whose expiry is fixed when issued.
      */
     public boolean extendSession(String sessionToken, int hours) {
-        Optional<AuthenticationSession> sessionOpt = sessionRepository.findBySessionTokenAndIsActiveTrue(sessionToken);
+        if (signedTokens.isEnabled()) {
+            return false;
+        }
+        
+        Optional<AuthenticationSession> sessionOpt = sessionStore.findActive(sessionToken);
         
         if (sessionOpt.isPresent() && !sessionOpt.get().isExpired()) {
             AuthenticationSession session = sessionOpt.get();
             session.extendSession(hours);
-            sessionRepository.save(session);
+            sessionStore.extend(sessionToken, session.getExpiresAt(), session.getLastAccessed());
+            sessionCache.extend(sessionToken, session.getExpiresAt(), session.getLastAccessed());
+            expiryWheel.schedule(sessionToken, session.getExpiresAt());
             return true;
         }
         
@@ -126,7 +207,12 @@ public class SessionManagementService {
      * Invalidate specific session
      */
     public boolean invalidateSession(String sessionToken, String reason) {
-        int invalidated = sessionRepository.invalidateSession(sessionToken, reason);
+        int invalidated = sessionStore.invalidate(sessionToken, reason);
+        sessionCache.evict(sessionToken);
+        touchBuffer.discard(sessionToken);
+        revocations.revokeToken(sessionToken);
+        expiryWheel.cancel(sessionToken);
+        publishEnded(invalidated);
         return invalidated > 0;
     }
 
@@ -134,14 +220,18 @@ public class SessionManagementService {
      * Invalidate all user sessions
      */
     public int invalidateAllUserSessions(int userId, String reason) {
-        return sessionRepository.invalidateUserSessions(userId, reason);
+        int invalidated = sessionStore.invalidateUser(userId, reason);
+        sessionCache.evictUser(userId);
+        revocations.revokeUser(userId, Instant.now());
+        publishEnded(invalidated);
+        return invalidated;
     }
 
     /**
      * Get active sessions for user
      */
     public List<AuthenticationSession> getUserActiveSessions(int userId) {
-        return sessionRepository.findActiveSessionsByUserId(userId, LocalDateTime.now());
+        return sessionStore.findActiveForUser(userId, LocalDateTime.now());
     }
 
     /*------------------------- Security and Monitoring -------------------------*/
@@ -150,7 +240,7 @@ public class SessionManagementService {
      * Detect suspicious sessions for user (multiple IPs, etc.)
      */
     public List<AuthenticationSession> detectSuspiciousSessions(int userId, String currentIp) {
-        return sessionRepository.findSuspiciousSessionsForUser(userId, currentIp, LocalDateTime.now());
+        return sessionStore.findSuspiciousForUser(userId, currentIp, LocalDateTime.now());
     }
 
     /**
@@ -158,7 +248,7 @@ public class SessionManagementService {
      */
     public List<AuthenticationSession> getUserSessionHistory(int userId, int days) {
         LocalDateTime fromDate = LocalDateTime.now().minusDays(days);
-        return sessionRepository.findUserSessionHistory(userId, fromDate);
+        return sessionStore.findUserHistory(userId, fromDate);
     }
 
     /**
@@ -166,7 +256,7 @@ public class SessionManagementService {
      */
     public List<AuthenticationSession> getSessionsByIpAddress(String ipAddress, int days) {
         LocalDateTime fromDate = LocalDateTime.now().minusDays(days);
-        return sessionRepository.findSessionsByIpAddress(ipAddress, fromDate);
+        return sessionStore.findByIpAddress(ipAddress, fromDate);
     }
 
     /*------------------------- Analytics and Statistics -------------------------*/
@@ -175,21 +265,21 @@ public class SessionManagementService {
      * Get total active sessions count
      */
     public long getActiveSessionsCount() {
-        return sessionRepository.countActiveSessions(LocalDateTime.now());
+        return sessionStore.countActive(LocalDateTime.now());
     }
 
     /**
      * Get active sessions count by service
      */
     public long getActiveSessionsCountByService(String serviceOrigin) {
-        return sessionRepository.countActiveSessionsByService(serviceOrigin, LocalDateTime.now());
+        return sessionStore.countActiveByService(serviceOrigin, LocalDateTime.now());
     }
 
     /**
      * Get session statistics by service
      */
     public List<Object[]> getSessionStatsByService() {
-        return sessionRepository.getActiveSessionCountsByService(LocalDateTime.now());
+        return sessionStore.countActiveGroupedByService(LocalDateTime.now());
     }
 
     /*------------------------- Cleanup and Maintenance -------------------------*/
@@ -198,32 +288,68 @@ public class SessionManagementService {
      * Enforce session limits per user
      */
     private void enforceSessionLimits(Users user) {
-        List<AuthenticationSession> activeSessions = getUserActiveSessions(user.getId());
-        
-        if (activeSessions.size() >= MAX_SESSIONS_PER_USER) {
-            // Invalidate oldest sessions
-            activeSessions.stream()
-                .limit(activeSessions.size() - MAX_SESSIONS_PER_USER + 1)
-                .forEach(session -> invalidateSession(session.getSessionToken(), "session_limit_exceeded"));
+        // Invalidate the oldest sessions so the new one fits, without loading them
+        int invalidated = sessionStore.enforceSessionLimit(user.getId(), MAX_SESSIONS_PER_USER - 1, "session_limit_exceeded");
+        if (invalidated > 0) {
+            sessionCache.evictUser(user.getId());
+            publishEnded(invalidated);
+        }
+    }
+
+    // Expiry is not published: expired sessions had already stopped counting as active
+    private void publishEnded(int invalidated) {
+        if (invalidated > 0) {
+            events.publishEvent(new SessionCountChangedEvent(null, -invalidated));
         }
     }
 
     /**
-     * Scheduled cleanup of expired sessions (runs every hour)
+     * Expire the sessions whose deadline {@link SessionExpiryWheel} reports as passed, a few at a
+     * time as they come due, instead of sweeping the whole table.
+     *
+     * The wheel only sees this instance's touches, so the store has the last word: a session is
+     * expired only once its stored deadline is more than one touch flush interval past, which leaves
+     * time for a touch still buffered on another instance to land. Sessions the store keeps go back
+     * on the wheel at their stored deadline.
      */
-    @Scheduled(fixedRate = 3600000) // 1 hour in milliseconds
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void expireDueSessions() {
+        List<String> due = expiryWheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        int expired = sessionStore.expireSessions(due, LocalDateTime.now().minus(expiryGrace));
+        if (expired < due.size()) {
+            for (String token : due) {
+                sessionStore.findActive(token).ifPresent(session ->
+                        expiryWheel.schedule(token, session.getExpiresAt().plus(expiryGrace)));
+            }
+        }
+        due.forEach(sessionCache::evict);
+    }
+
+    /**
+     * Scheduled cleanup of expired sessions (runs every hour, on the job leader). Catches sessions the expiry wheel
+     * does not track (created on another instance or before a restart and not used since) and
+     * purges old inactive rows. Each statement touches at most a chunk of rows and commits on its
+     * own, with a pause between chunks, so the cleanup never holds table-wide locks.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupExpiredSessions() {
         LocalDateTime now = LocalDateTime.now();
         
         // Expire old sessions
-        int expiredSessions = sessionRepository.expireOldSessions(now);
+        int expiredSessions = drain(limit -> sessionStore.expire(now, limit));
         
         // Delete inactive sessions older than 30 days
         LocalDateTime cleanupDate = now.minusDays(CLEANUP_INACTIVE_SESSIONS_DAYS);
-        int deletedSessions = sessionRepository.deleteInactiveSessions(cleanupDate);
+        int deletedSessions = drain(limit -> sessionStore.purgeInactive(cleanupDate, limit));
         
         // Also clean up user table sessions for backward compatibility
-        int clearedUserSessions = userRepository.clearExpiredSessions(now);
+        int clearedUserSessions = drain(limit -> userRepository.clearExpiredSessions(now, limit));
+        
+        // Shared signed-token revocations cannot match a live token once the longest token lifetime has passed
+        sessionStore.purgeRevocations(Instant.now().minus(signedTokens.maxTtl()));
         
         if (expiredSessions > 0 || deletedSessions > 0 || clearedUserSessions > 0) {
             System.out.println(String.format("Session cleanup completed: %d expired, %d deleted, %d user sessions cleared", 
@@ -234,18 +360,40 @@ public class SessionManagementService {
     /**
      * Manual cleanup with custom parameters
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void performManualCleanup(int expiredSessionsDays, int inactiveSessionsDays) {
         LocalDateTime expiredTime = LocalDateTime.now().minusDays(expiredSessionsDays);
         LocalDateTime cleanupTime = LocalDateTime.now().minusDays(inactiveSessionsDays);
         
-        int expiredSessions = sessionRepository.expireOldSessions(expiredTime);
-        int deletedSessions = sessionRepository.deleteInactiveSessions(cleanupTime);
-        int clearedUserSessions = userRepository.clearExpiredSessions(expiredTime);
+        int expiredSessions = drain(limit -> sessionStore.expire(expiredTime, limit));
+        int deletedSessions = drain(limit -> sessionStore.purgeInactive(cleanupTime, limit));
+        int clearedUserSessions = drain(limit -> userRepository.clearExpiredSessions(expiredTime, limit));
         
         System.out.println(String.format("Manual cleanup completed: %d expired, %d deleted, %d user sessions cleared", 
             expiredSessions, deletedSessions, clearedUserSessions));
     }
 
+    /**
+     * Run a bounded statement until it affects less than a full chunk, pausing between chunks so
+     * live requests get the rows and connections in between.
+     */
+    private int drain(IntUnaryOperator chunk) {
+        int total = 0;
+        while (true) {
+            int affected = chunk.applyAsInt(cleanupChunkSize);
+            total += affected;
+            if (affected < cleanupChunkSize) {
+                return total;
+            }
+            try {
+                Thread.sleep(cleanupPause.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+    }
+
     /*------------------------- Health Check Methods -------------------------*/
 
     /**
@@ -254,20 +402,27 @@ public class SessionManagementService {
     public boolean isSessionRepositoryHealthy() {
         try {
             // Simple count query to verify database connectivity
-            long count = sessionRepository.countActiveSessions(LocalDateTime.now());
+            long count = sessionStore.countActive(LocalDateTime.now());
             return count >= 0;
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Sessions whose expiry this instance is tracking
+     */
+    public int getTrackedExpiryCount() {
+        return expiryWheel.trackedCount();
+    }
+
     /**
      * Get session system statistics for monitoring
      */
     public SessionSystemStats getSystemStats() {
         LocalDateTime now = LocalDateTime.now();
         
-        long totalActiveSessions = sessionRepository.countActiveSessions(now);
+        long totalActiveSessions = sessionStore.countActive(now);
         long totalActiveUserSessions = userRepository.countActiveSessions(now);
         
         return new SessionSystemStats(
@@ -0,0 +1,9 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+
+/**
+ * Published when a login opens a session. Listeners run after the login transaction commits, so
+ * nothing is derived from a session that was rolled back.
+ */
+public record SessionOpenedEvent(AuthenticationSession session) {}
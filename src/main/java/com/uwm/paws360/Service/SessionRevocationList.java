@@ -0,0 +1,123 @@
+package com.uwm.paws360.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation set for {@link SignedSessionTokens}. Revoked tokens are kept by their short token id
+ * until they would have expired anyway; revoking a user records a cutoff, and every token for that
+ * user issued before it is rejected. Entries are purged once no token they could match is still
+ * alive, so the set stays proportional to recent logouts and lockouts.
+ *
+ * Checks are answered from memory. Every revocation is also published through the
+ * {@link SessionStore}, and {@link #refresh} (every {@code paws360.session.revocation-poll-interval},
+ * 2s by default) pulls in the ones recorded on other instances, so a logout on one node reaches the
+ * others within a poll.
+ */
+@Component
+public class SessionRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionRevocationList.class);
+
+    // Each poll re-reads this much of the previous window, so clock skew between nodes loses nothing
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(10);
+
+    private final SignedSessionTokens signedTokens;
+    private final SessionStore sessionStore;
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Integer, UserCutoff> revokedUsers = new ConcurrentHashMap<>();
+    private volatile Instant lastPoll;
+
+    private record UserCutoff(Instant issuedBefore, Instant keepUntil) {}
+
+    public SessionRevocationList(SignedSessionTokens signedTokens, SessionStore sessionStore) {
+        this.signedTokens = signedTokens;
+        this.sessionStore = sessionStore;
+    }
+
+    public boolean isRevoked(SignedSessionTokens.Claims claims) {
+        if (revokedTokens.containsKey(claims.tokenId())) {
+            return true;
+        }
+        UserCutoff cutoff = revokedUsers.get(claims.userId());
+        return cutoff != null && claims.issuedAt().isBefore(cutoff.issuedBefore());
+    }
+
+    /**
+     * Revoke a single token. Opaque or already expired tokens are ignored.
+     */
+    public void revokeToken(String sessionToken) {
+        if (!signedTokens.isEnabled()) {
+            return;
+        }
+        signedTokens.verify(sessionToken).ifPresent(claims -> {
+            revokedTokens.put(claims.tokenId(), claims.expiresAt());
+            publish(new SessionStore.Revocation(claims.tokenId(), null, null, claims.expiresAt()));
+        });
+    }
+
+    /**
+     * Revoke every token of a user issued before {@code issuedBefore}.
+     */
+    public void revokeUser(int userId, Instant issuedBefore) {
+        if (!signedTokens.isEnabled()) {
+            return;
+        }
+        Instant keepUntil = issuedBefore.plus(signedTokens.maxTtl());
+        applyUser(userId, new UserCutoff(issuedBefore, keepUntil));
+        publish(new SessionStore.Revocation(null, userId, issuedBefore, keepUntil));
+    }
+
+    /**
+     * Pull in the revocations other instances published since the last poll. The first poll loads
+     * every revocation that can still match a live token.
+     */
+    public void refresh() {
+        if (!signedTokens.isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant since = lastPoll != null ? lastPoll.minus(POLL_OVERLAP) : now.minus(signedTokens.maxTtl());
+        for (SessionStore.Revocation revocation : sessionStore.revocationsSince(since)) {
+            if (!revocation.keepUntil().isAfter(now)) {
+                continue;
+            }
+            if (revocation.tokenId() != null) {
+                revokedTokens.put(revocation.tokenId(), revocation.keepUntil());
+            } else if (revocation.userId() != null && revocation.issuedBefore() != null) {
+                applyUser(revocation.userId(), new UserCutoff(revocation.issuedBefore(), revocation.keepUntil()));
+            }
+        }
+        lastPoll = now;
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedUsers.values().removeIf(cutoff -> !cutoff.keepUntil().isAfter(now));
+    }
+
+    private void applyUser(int userId, UserCutoff cutoff) {
+        revokedUsers.merge(userId, cutoff,
+                (a, b) -> a.issuedBefore().isAfter(b.issuedBefore()) ? a : b);
+    }
+
+    // The revocation already holds on this node; failing to share it must not fail the logout
+    private void publish(SessionStore.Revocation revocation) {
+        try {
+            sessionStore.publishRevocation(revocation);
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish session revocation to other instances: {}", e.getMessage());
+        }
+    }
+}
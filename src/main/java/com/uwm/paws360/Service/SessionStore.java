@@ -0,0 +1,125 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for SSO sessions, used by {@link SessionManagementService}, {@link LoginService} and
+ * {@link SessionTouchBuffer}. Selected with {@code paws360.session.store}:
+ * {@code jpa} (default, the authentication_sessions table), {@code memory} (sharded maps, single
+ * node only) or {@code redis} (any server speaking RESP).
+ *
+ * Sessions returned by {@link #findValid} have their user loaded and may be cached and used
+ * outside a transaction.
+ */
+public interface SessionStore {
+
+    /**
+     * A coalesced access to apply: {@code expiresAt} is null when only the last accessed time moves.
+     */
+    record Touch(String sessionToken, LocalDateTime expiresAt, LocalDateTime accessTime) {}
+
+    /**
+     * A revocation of signed tokens: one token by {@code tokenId}, or every token of {@code userId}
+     * issued before {@code issuedBefore}. No token it could match is alive after {@code keepUntil}.
+     */
+    record Revocation(String tokenId, Integer userId, Instant issuedBefore, Instant keepUntil) {}
+
+    /**
+     * Store a new session, replacing any session that already uses the same token.
+     */
+    AuthenticationSession create(AuthenticationSession session);
+
+    /**
+     * The active session for a token if it has not expired at {@code now}.
+     */
+    Optional<AuthenticationSession> findValid(String sessionToken, LocalDateTime now);
+
+    /**
+     * The active session for a token, expired or not.
+     */
+    Optional<AuthenticationSession> findActive(String sessionToken);
+
+    /**
+     * Set a session's expiry and last accessed time, if it is still active.
+     */
+    boolean extend(String sessionToken, LocalDateTime expiresAt, LocalDateTime accessTime);
+
+    /**
+     * Apply buffered touches to active sessions. Timestamps only move forward.
+     *
+     * @return the number of sessions updated
+     */
+    int applyTouches(Collection<Touch> touches);
+
+    int invalidate(String sessionToken, String reason);
+
+    int invalidateUser(int userId, String reason);
+
+    /**
+     * Invalidate all but the {@code keep} most recently created active sessions of a user, in one
+     * statement where the store allows it. {@code keep = 0} invalidates them all.
+     */
+    int enforceSessionLimit(int userId, int keep, String reason);
+
+    List<AuthenticationSession> findActiveForUser(int userId, LocalDateTime now);
+
+    List<AuthenticationSession> findSuspiciousForUser(int userId, String currentIp, LocalDateTime now);
+
+    List<AuthenticationSession> findUserHistory(int userId, LocalDateTime from);
+
+    List<AuthenticationSession> findByIpAddress(String ipAddress, LocalDateTime from);
+
+    long countActive(LocalDateTime now);
+
+    long countActiveByService(String serviceOrigin, LocalDateTime now);
+
+    /**
+     * Active session counts as {@code [serviceOrigin, count]} rows.
+     */
+    List<Object[]> countActiveGroupedByService(LocalDateTime now);
+
+    /**
+     * Mark the given sessions inactive if they are still active and expired before
+     * {@code expiredTime}. Used for sessions whose deadline {@link SessionExpiryWheel} reports.
+     */
+    int expireSessions(Collection<String> sessionTokens, LocalDateTime expiredTime);
+
+    /**
+     * Mark at most {@code limit} active sessions that expired before {@code expiredTime} inactive.
+     * Callers loop until fewer than {@code limit} are returned, so every entry the store took off
+     * its list of active sessions counts, including stale ones it merely dropped.
+     */
+    int expire(LocalDateTime expiredTime, int limit);
+
+    /**
+     * Remove at most {@code limit} inactive sessions created before {@code cleanupDate}.
+     */
+    int purgeInactive(LocalDateTime cleanupDate, int limit);
+
+    /**
+     * Share a signed-token revocation with the other instances. Single-node stores need not keep it.
+     */
+    default void publishRevocation(Revocation revocation) {
+    }
+
+    /**
+     * Revocations published at or after {@code since}. Pollers overlap their windows, since
+     * applying a revocation twice is harmless.
+     */
+    default List<Revocation> revocationsSince(Instant since) {
+        return List.of();
+    }
+
+    /**
+     * Drop revocations published before {@code publishedBefore}, which can no longer match a live token.
+     */
+    default int purgeRevocations(Instant publishedBefore) {
+        return 0;
+    }
+}
@@ -0,0 +1,314 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.Entity.Base.Users;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-process cache of validated session tokens, sitting in front of the
+ * authentication_sessions lookups done on every authenticated request.
+ *
+ * A positive entry holds an immutable snapshot of a session whose user was fetched with it; every
+ * hit hands out a fresh {@link AuthenticationSession} built from the snapshot, so a caller that
+ * touches or extends its copy never changes what other requests see. The user entity is shared
+ * between those copies and must be treated as read-only.
+ *
+ * An entry lives until the session expires or {@code paws360.session-cache.max-age} passes,
+ * whichever comes first. The age cap bounds how long another instance's logout can go unnoticed
+ * here, so it is kept short (30s by default) and mainly absorbs bursts of requests for one token.
+ * A negative entry remembers a token that did not resolve for
+ * {@code paws360.session-cache.negative-ttl}, so replayed or garbage tokens do not hit the
+ * database on every request. The least recently used entry is evicted once
+ * {@code paws360.session-cache.max-entries} is reached.
+ *
+ * Callers must evict tokens (or a user's tokens) whenever they invalidate sessions in the database.
+ */
+@Component
+public class SessionTokenCache {
+
+    /**
+     * Outcome of a lookup: a cached live session, a cached miss, or nothing known about the token.
+     */
+    public record Lookup(State state, AuthenticationSession session) {
+        public enum State { HIT, NEGATIVE, MISS }
+
+        static final Lookup NEGATIVE = new Lookup(State.NEGATIVE, null);
+        static final Lookup MISS = new Lookup(State.MISS, null);
+
+        public boolean isHit() {
+            return state == State.HIT;
+        }
+
+        public boolean isNegative() {
+            return state == State.NEGATIVE;
+        }
+    }
+
+    public record Stats(int size, long hits, long negativeHits, long misses, long evictions) {}
+
+    private final int maxEntries;
+    private final Duration maxAge;
+    private final Duration negativeTtl;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<Integer, Set<String>> tokensByUser = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SessionTokenCache(@Value("${paws360.session-cache.max-entries:10000}") int maxEntries,
+                             @Value("${paws360.session-cache.max-age:PT30S}") Duration maxAge,
+                             @Value("${paws360.session-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxAge = maxAge;
+        this.negativeTtl = negativeTtl;
+        // Access order, so iteration starts at the least recently used token
+        this.entries = new LinkedHashMap<>(256, 0.75f, true);
+    }
+
+    public Lookup lookup(String sessionToken) {
+        LocalDateTime now = LocalDateTime.now();
+        lock.lock();
+        try {
+            Entry entry = entries.get(sessionToken);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return Lookup.MISS;
+            }
+            if (!entry.validUntil.isAfter(now)) {
+                remove(sessionToken);
+                misses.incrementAndGet();
+                return Lookup.MISS;
+            }
+            if (entry.session == null) {
+                negativeHits.incrementAndGet();
+                return Lookup.NEGATIVE;
+            }
+            hits.incrementAndGet();
+            return new Lookup(Lookup.State.HIT, entry.session.toSession());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cache a session that was just read or written. The session's user must already be loaded,
+     * since the entry is read outside any persistence context.
+     */
+    public void put(AuthenticationSession session) {
+        put(session, LocalDateTime.now().plus(maxAge));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionOpened(SessionOpenedEvent event) {
+        put(event.session());
+    }
+
+    /**
+     * Cache the session behind a signed token until the token expires. Signed tokens are checked
+     * against the shared revocation list on every request before the cache is consulted, so these
+     * entries need no age cap and the store is read once per token per instance.
+     */
+    public void putSigned(AuthenticationSession session) {
+        put(session, null);
+    }
+
+    private void put(AuthenticationSession session, LocalDateTime ageCap) {
+        if (session == null || session.getSessionToken() == null || session.getUser() == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime validUntil = ageCap != null ? earliest(session.getExpiresAt(), ageCap) : session.getExpiresAt();
+        if (validUntil == null || !validUntil.isAfter(now)) {
+            return;
+        }
+        lock.lock();
+        try {
+            remove(session.getSessionToken());
+            entries.put(session.getSessionToken(), new Entry(Snapshot.of(session), validUntil, now));
+            tokensByUser.computeIfAbsent(session.getUser().getId(), id -> new HashSet<>()).add(session.getSessionToken());
+            evictOverflow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remember that a token did not resolve to a live session.
+     */
+    public void putMissing(String sessionToken) {
+        if (sessionToken == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lock.lock();
+        try {
+            remove(sessionToken);
+            entries.put(sessionToken, new Entry(null, now.plus(negativeTtl), now));
+            evictOverflow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a new expiry for a cached session after it was extended in the database. The entry's
+     * age cap still counts from when it was loaded, so an extended session is re-read eventually.
+     */
+    public void extend(String sessionToken, LocalDateTime expiresAt, LocalDateTime lastAccessed) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(sessionToken);
+            if (entry == null || entry.session == null) {
+                return;
+            }
+            entry.session = entry.session.withTimes(expiresAt, lastAccessed);
+            entry.validUntil = earliest(expiresAt, entry.loadedAt.plus(maxAge));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(String sessionToken) {
+        if (sessionToken == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            remove(sessionToken);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evictUser(int userId) {
+        lock.lock();
+        try {
+            Set<String> tokens = tokensByUser.remove(userId);
+            if (tokens != null) {
+                for (String token : tokens) {
+                    entries.remove(token);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            tokensByUser.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(entries.size(), hits.get(), negativeHits.get(), misses.get(), evictions.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*------------------------- Internals (lock held) -------------------------*/
+
+    private void remove(String sessionToken) {
+        Entry removed = entries.remove(sessionToken);
+        if (removed != null && removed.session != null) {
+            unindex(removed.session.user().getId(), sessionToken);
+        }
+    }
+
+    private void unindex(int userId, String sessionToken) {
+        Set<String> tokens = tokensByUser.get(userId);
+        if (tokens != null) {
+            tokens.remove(sessionToken);
+            if (tokens.isEmpty()) {
+                tokensByUser.remove(userId);
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            it.remove();
+            if (eldest.getValue().session != null) {
+                unindex(eldest.getValue().session.user().getId(), eldest.getKey());
+            }
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * The cached state of a live session; only replaced, never modified.
+     */
+    private record Snapshot(String sessionId, Users user, String sessionToken, LocalDateTime createdAt,
+                            LocalDateTime expiresAt, LocalDateTime lastAccessed, String ipAddress,
+                            String userAgent, String serviceOrigin) {
+
+        static Snapshot of(AuthenticationSession session) {
+            return new Snapshot(session.getSessionId(), session.getUser(), session.getSessionToken(),
+                    session.getCreatedAt(), session.getExpiresAt(), session.getLastAccessed(),
+                    session.getIpAddress(), session.getUserAgent(), session.getServiceOrigin());
+        }
+
+        Snapshot withTimes(LocalDateTime newExpiresAt, LocalDateTime newLastAccessed) {
+            return new Snapshot(sessionId, user, sessionToken, createdAt, newExpiresAt, newLastAccessed,
+                    ipAddress, userAgent, serviceOrigin);
+        }
+
+        AuthenticationSession toSession() {
+            AuthenticationSession session = new AuthenticationSession();
+            session.setSessionId(sessionId);
+            session.setUser(user);
+            session.setSessionToken(sessionToken);
+            session.setCreatedAt(createdAt);
+            session.setExpiresAt(expiresAt);
+            session.setLastAccessed(lastAccessed);
+            session.setIpAddress(ipAddress);
+            session.setUserAgent(userAgent);
+            session.setServiceOrigin(serviceOrigin);
+            session.setActive(true);
+            return session;
+        }
+    }
+
+    private static final class Entry {
+        private Snapshot session;
+        private final LocalDateTime loadedAt;
+        private LocalDateTime validUntil;
+
+        private Entry(Snapshot session, LocalDateTime validUntil, LocalDateTime loadedAt) {
+            this.session = session;
+            this.validUntil = validUntil;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
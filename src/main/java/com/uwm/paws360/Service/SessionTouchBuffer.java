@@ -0,0 +1,95 @@
+package com.uwm.paws360.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for session last-accessed and sliding-expiry touches. Validations record a
+ * touch here instead of writing the session; touches for the same token coalesce, and the buffer
+ * is handed to {@link SessionStore#applyTouches} every {@code paws360.session-touch.flush-interval}
+ * (default 5s), so each active session is written at most once per interval however many
+ * requests it serves.
+ *
+ * Stores apply the same change as {@code AuthenticationSessionRepository.extendSession} and only to
+ * active sessions, so a touch never revives a session invalidated in the meantime. Timestamps only
+ * move forward: a late touch cannot shorten an expiry extended by other means.
+ */
+@Component
+public class SessionTouchBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTouchBuffer.class);
+
+    private final SessionStore sessionStore;
+    private final Map<String, Touch> pending = new ConcurrentHashMap<>();
+
+    public SessionTouchBuffer(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * Record an access. {@code expiresAt} may be null when only the last accessed time moves.
+     */
+    public void touch(String sessionToken, LocalDateTime expiresAt, LocalDateTime accessTime) {
+        pending.merge(sessionToken, new Touch(expiresAt, accessTime), Touch::latest);
+    }
+
+    /**
+     * Drop a pending touch, e.g. when the session is being deleted or invalidated.
+     */
+    public void discard(String sessionToken) {
+        pending.remove(sessionToken);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<SessionStore.Touch> batch = new ArrayList<>(pending.size());
+        for (String token : pending.keySet()) {
+            Touch touch = pending.remove(token);
+            if (touch != null) {
+                batch.add(new SessionStore.Touch(token, touch.expiresAt(), touch.accessTime()));
+            }
+        }
+
+        try {
+            int updated = sessionStore.applyTouches(batch);
+            logger.debug("Flushed {} session touches ({} sessions updated)", batch.size(), updated);
+        } catch (RuntimeException e) {
+            // Put the touches back; newer ones recorded meanwhile win the merge
+            for (SessionStore.Touch touch : batch) {
+                pending.merge(touch.sessionToken(), new Touch(touch.expiresAt(), touch.accessTime()), Touch::latest);
+            }
+            logger.warn("Session touch flush of {} tokens failed, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private record Touch(LocalDateTime expiresAt, LocalDateTime accessTime) {
+        static Touch latest(Touch a, Touch b) {
+            return new Touch(later(a.expiresAt, b.expiresAt), later(a.accessTime, b.accessTime));
+        }
+
+        private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return a.isAfter(b) ? a : b;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.uwm.paws360.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * HMAC-signed, self-describing session tokens, used when {@code paws360.session.token-mode} is
+ * {@code signed}. A token carries the user id, role, issue time, expiry and a short token id, so
+ * any node holding {@code paws360.session.signing-secret} can check it without a database lookup.
+ * The default {@code opaque} mode keeps the random database-backed tokens.
+ *
+ * Format: {@code s1.<base64url payload>.<base64url HMAC-SHA256 of "s1." + payload>}, with the
+ * payload {@code userId:role:issuedAtMillis:expiresAtMillis:tokenId}.
+ */
+@Component
+public class SignedSessionTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignedSessionTokens.class);
+
+    private static final String VERSION = "s1.";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    public record Claims(int userId, String role, Instant issuedAt, Instant expiresAt, String tokenId) {}
+
+    private final boolean enabled;
+    private final Duration maxTtl;
+    private final byte[] secret;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> mac;
+
+    public SignedSessionTokens(@Value("${paws360.session.token-mode:opaque}") String tokenMode,
+                               @Value("${paws360.session.signing-secret:}") String signingSecret,
+                               @Value("${paws360.session.signed-max-ttl:PT8H}") Duration maxTtl) {
+        this.enabled = "signed".equalsIgnoreCase(tokenMode.trim());
+        this.maxTtl = maxTtl;
+        if (signingSecret.isBlank()) {
+            this.secret = new byte[32];
+            random.nextBytes(this.secret);
+            if (enabled) {
+                logger.warn("paws360.session.signing-secret is not set; signed session tokens will only verify on this instance");
+            }
+        } else {
+            this.secret = signingSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Longest lifetime a signed token may have; revocations are kept this long.
+     */
+    public Duration maxTtl() {
+        return maxTtl;
+    }
+
+    public String issue(int userId, String role, Instant expiresAt) {
+        byte[] id = new byte[12];
+        random.nextBytes(id);
+        Instant issuedAt = Instant.now();
+        Instant capped = expiresAt.isAfter(issuedAt.plus(maxTtl)) ? issuedAt.plus(maxTtl) : expiresAt;
+        String payload = userId + ":" + role + ":" + issuedAt.toEpochMilli() + ":" + capped.toEpochMilli() + ":"
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+        String body = VERSION + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return body + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(body));
+    }
+
+    /**
+     * Check the signature and expiry of a token.
+     *
+     * @return the claims, or empty for opaque, tampered, malformed or expired tokens
+     */
+    public Optional<Claims> verify(String token) {
+        if (token == null || !token.startsWith(VERSION)) {
+            return Optional.empty();
+        }
+        int dot = token.lastIndexOf('.');
+        if (dot <= VERSION.length()) {
+            return Optional.empty();
+        }
+        String body = token.substring(0, dot);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(body))) {
+                return Optional.empty();
+            }
+            String payload = new String(Base64.getUrlDecoder().decode(body.substring(VERSION.length())), StandardCharsets.UTF_8);
+            String[] parts = payload.split(":");
+            if (parts.length != 5) {
+                return Optional.empty();
+            }
+            Claims claims = new Claims(Integer.parseInt(parts[0]), parts[1],
+                    Instant.ofEpochMilli(Long.parseLong(parts[2])), Instant.ofEpochMilli(Long.parseLong(parts[3])), parts[4]);
+            return claims.expiresAt().isAfter(Instant.now()) ? Optional.of(claims) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or numbers
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String body) {
+        return mac.get().doFinal(body.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(new SecretKeySpec(secret, ALGORITHM));
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
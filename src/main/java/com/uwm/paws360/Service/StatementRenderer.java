@@ -0,0 +1,103 @@
+package com.uwm.paws360.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uwm.paws360.DTO.Finances.PaymentPlanDTO;
+import com.uwm.paws360.DTO.Finances.StatementDTO;
+import com.uwm.paws360.DTO.Finances.StatementLineDTO;
+import com.uwm.paws360.Entity.Finances.StatementRun;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * Renders a single {@link StatementDTO} as CSV, JSON or plain text. Renderers write straight to the
+ * supplied writer and never build the whole document as a string.
+ */
+@Component
+public class StatementRenderer {
+
+    private final ObjectMapper objectMapper;
+
+    public StatementRenderer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String fileExtension(StatementRun.Format format) {
+        return switch (format) {
+            case CSV -> "csv";
+            case JSON -> "json";
+            case TEXT -> "txt";
+        };
+    }
+
+    public void render(StatementRun.Format format, StatementDTO statement, Writer out) throws IOException {
+        switch (format) {
+            case CSV -> renderCsv(statement, out);
+            case JSON -> renderJson(statement, out);
+            case TEXT -> renderText(statement, out);
+        }
+    }
+
+    private void renderCsv(StatementDTO s, Writer out) throws IOException {
+        out.write("record,date,description,type,amount\n");
+        out.write("opening_balance," + s.periodStart() + ",,," + s.openingBalance() + "\n");
+        for (StatementLineDTO line : s.lines()) {
+            out.write("transaction," + line.postedAt().toLocalDate() + "," + Csv.field(line.description()) + ","
+                    + line.type() + "," + line.amount() + "\n");
+        }
+        out.write("closing_balance," + s.periodEnd() + ",,," + s.closingBalance() + "\n");
+        out.write("aid_disbursed,,,," + s.aidDisbursed() + "\n");
+        out.write("amount_due," + (s.dueDate() != null ? s.dueDate() : "") + ",,," + s.amountDue() + "\n");
+        for (PaymentPlanDTO plan : s.activePaymentPlans()) {
+            out.write("payment_plan," + (plan.nextPaymentDate() != null ? plan.nextPaymentDate() : "") + ","
+                    + Csv.field(plan.name()) + ",," + plan.monthlyPayment() + "\n");
+        }
+    }
+
+    private void renderJson(StatementDTO s, Writer out) throws IOException {
+        // Leave the writer open; the caller owns the file handle
+        objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValue(out, s);
+    }
+
+    private void renderText(StatementDTO s, Writer out) throws IOException {
+        out.write("UWM PAWS360 - Account Statement\n");
+        out.write("Student: " + nullToEmpty(s.studentName()) + " (" + nullToEmpty(s.campusId()) + ")\n");
+        out.write("Period:  " + s.periodStart() + " to " + s.periodEnd() + "\n\n");
+        out.write(String.format("%-12s %-40s %-8s %12s%n", "Date", "Description", "Type", "Amount"));
+        out.write(String.format("%-12s %-40s %-8s %12s%n", s.periodStart(), "Opening balance", "", money(s.openingBalance())));
+        for (StatementLineDTO line : s.lines()) {
+            out.write(String.format("%-12s %-40s %-8s %12s%n", line.postedAt().toLocalDate(),
+                    truncate(nullToEmpty(line.description()), 40), line.type(), money(line.amount())));
+        }
+        out.write(String.format("%-12s %-40s %-8s %12s%n%n", s.periodEnd(), "Closing balance", "", money(s.closingBalance())));
+        out.write(String.format("Charges this period:  %12s%n", money(s.periodCharges())));
+        out.write(String.format("Credits this period:  %12s%n", money(s.periodCredits())));
+        out.write(String.format("Payments this period: %12s%n", money(s.periodPayments())));
+        out.write(String.format("Aid disbursed:        %12s%n", money(s.aidDisbursed())));
+        out.write(String.format("Pending aid:          %12s%n", money(s.pendingAid())));
+        out.write(String.format("Amount due:           %12s%s%n", money(s.amountDue()),
+                s.dueDate() != null ? "  (due " + s.dueDate() + ")" : ""));
+        for (PaymentPlanDTO plan : s.activePaymentPlans()) {
+            out.write(String.format("Payment plan %s: %s monthly, %d remaining, next %s%n", nullToEmpty(plan.name()),
+                    money(plan.monthlyPayment()), plan.remainingPayments() != null ? plan.remainingPayments() : 0,
+                    plan.nextPaymentDate() != null ? plan.nextPaymentDate() : "-"));
+        }
+    }
+
+    private static String money(BigDecimal amount) {
+        return amount != null ? String.format("%,.2f", amount) : "0.00";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max - 1) + "~";
+    }
+}
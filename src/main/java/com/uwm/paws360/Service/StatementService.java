@@ -0,0 +1,423 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.PaymentPlanDTO;
+import com.uwm.paws360.DTO.Finances.StatementDTO;
+import com.uwm.paws360.DTO.Finances.StatementLineDTO;
+import com.uwm.paws360.DTO.Finances.StatementRunDTO;
+import com.uwm.paws360.Entity.Finances.AccountTransaction;
+import com.uwm.paws360.Entity.Finances.PaymentPlan;
+import com.uwm.paws360.Entity.Finances.StatementRun;
+import com.uwm.paws360.Entity.Finances.StatementRunPartition;
+import com.uwm.paws360.JPARepository.Finances.StatementRunPartitionRepository;
+import com.uwm.paws360.JPARepository.Finances.StatementRunRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monthly billing statement generation. A run splits the financial_accounts id space into
+ * contiguous ranges; a fixed pool of workers walks each range a page of accounts at a time,
+ * loads that page's transactions, aid and payment plans with set-based queries, renders one file
+ * per account and checkpoints the last account id written. Memory is bounded by the page size, and
+ * a restarted run picks every unfinished partition up after its checkpoint.
+ *
+ * A claimed partition is leased for {@code paws360.statements.partition-lease}, renewed by every
+ * checkpoint. A RUNNING partition whose lease has run out lost its worker and can be claimed again.
+ */
+@Service
+public class StatementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementService.class);
+
+    private static final int PAGE_SIZE = 250;
+    private static final int PARTITIONS_PER_WORKER = 4;
+
+    private static final String ACCOUNT_RANGE_SQL =
+            "SELECT MIN(account_id) AS min_id, MAX(account_id) AS max_id FROM financial_accounts";
+
+    private static final String ACCOUNT_PAGE_SQL =
+            "SELECT fa.account_id, fa.student_id, fa.due_date, st.campus_id, u.firstname, u.lastname " +
+            "FROM financial_accounts fa " +
+            "JOIN student st ON st.student_id = fa.student_id " +
+            "JOIN users u ON u.user_id = st.user_id " +
+            "WHERE fa.account_id > :after AND fa.account_id < :rangeEnd " +
+            "ORDER BY fa.account_id LIMIT :pageSize";
+
+    private static final String OPENING_BALANCE_SQL =
+            "SELECT student_id, SUM(CASE WHEN type = 'CHARGE' THEN amount ELSE -amount END) AS balance " +
+            "FROM account_transactions " +
+            "WHERE student_id IN (:studentIds) AND status = 'POSTED' AND posted_at < :periodStart " +
+            "GROUP BY student_id";
+
+    private static final String PERIOD_TRANSACTIONS_SQL =
+            "SELECT student_id, transaction_id, posted_at, description, type, amount " +
+            "FROM account_transactions " +
+            "WHERE student_id IN (:studentIds) AND status = 'POSTED' " +
+            "AND posted_at >= :periodStart AND posted_at < :periodEnd " +
+            "ORDER BY student_id, posted_at, transaction_id";
+
+    private static final String AID_TOTALS_SQL =
+            "SELECT student_id, COALESCE(SUM(amount_accepted), 0) AS accepted, COALESCE(SUM(amount_disbursed), 0) AS disbursed " +
+            "FROM aid_awards WHERE student_id IN (:studentIds) AND status <> 'CANCELLED' GROUP BY student_id";
+
+    // Disbursement-run credits already appear as statement lines, so only the rest of the disbursed
+    // aid is subtracted again when computing the amount due
+    private static final String AID_CREDITED_SQL =
+            "SELECT student_id, SUM(amount) AS credited FROM account_transactions " +
+            "WHERE student_id IN (:studentIds) AND status = 'POSTED' AND aid_award_id IS NOT NULL GROUP BY student_id";
+
+    private static final String ACTIVE_PLANS_SQL =
+            "SELECT student_id, plan_id, name, total_amount, monthly_payment, remaining_payments, next_payment_date, status " +
+            "FROM payment_plans WHERE student_id IN (:studentIds) AND status = 'ACTIVE' ORDER BY student_id, plan_id";
+
+    private final StatementRunRepository runRepository;
+    private final StatementRunPartitionRepository partitionRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final StatementRenderer renderer;
+    private final Path outputRoot;
+    private final int workerCount;
+    private final Duration partitionLease;
+    // Statement months are calendar months in the campus time zone, whatever zone the node runs in
+    private final ZoneId zone;
+    private final ExecutorService workers;
+    // Partitions queued or running in this process, so a resume never double-submits one
+    private final Set<Long> activePartitions = ConcurrentHashMap.newKeySet();
+
+    public StatementService(StatementRunRepository runRepository,
+                            StatementRunPartitionRepository partitionRepository,
+                            NamedParameterJdbcTemplate jdbcTemplate,
+                            StatementRenderer renderer,
+                            @Value("${paws360.statements.output-dir:statements}") String outputDir,
+                            @Value("${paws360.statements.workers:4}") int workerCount,
+                            @Value("${paws360.statements.partition-lease:PT10M}") Duration partitionLease,
+                            @Value("${paws360.statements.zone:America/Chicago}") String zone) {
+        this.runRepository = runRepository;
+        this.partitionRepository = partitionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.renderer = renderer;
+        this.outputRoot = Paths.get(outputDir).toAbsolutePath();
+        this.workerCount = Math.max(1, workerCount);
+        this.partitionLease = partitionLease;
+        this.zone = ZoneId.of(zone);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, r -> {
+            Thread t = new Thread(r, "statement-worker-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /*------------------------- Runs -------------------------*/
+
+    /**
+     * Start statement generation for a month, or resume it if a run for the same month and format
+     * already exists. Returns immediately; progress is visible through {@link #getRun}.
+     */
+    public StatementRunDTO startRun(YearMonth month, StatementRun.Format format) {
+        StatementRun.Format fmt = format != null ? format : StatementRun.Format.TEXT;
+        LocalDate statementMonth = month.atDay(1);
+        var existing = runRepository.findByStatementMonthAndFormat(statementMonth, fmt);
+        if (existing.isPresent()) {
+            return resumeRun(existing.get().getId());
+        }
+
+        StatementRun run = new StatementRun();
+        run.setStatementMonth(statementMonth);
+        run.setFormat(fmt);
+        run.setOutputDir(outputRoot.resolve(month.toString()).resolve(fmt.name().toLowerCase()).toString());
+        run = runRepository.save(run);
+
+        List<StatementRunPartition> partitions = createPartitions(run.getId());
+        run.setPartitionCount(partitions.size());
+        if (partitions.isEmpty()) {
+            run.setStatus(StatementRun.RunStatus.COMPLETED);
+            run.setFinishedAt(OffsetDateTime.now());
+        }
+        run = runRepository.save(run);
+
+        logger.info("Statement run {} for {} ({}) split into {} partitions", run.getId(), month, fmt, partitions.size());
+        submit(run, partitions);
+        return toDto(run);
+    }
+
+    /**
+     * Re-queue the pending and failed partitions of a run, and the RUNNING ones whose lease ran out.
+     * Failed and stale partitions are reset to PENDING first; partitions still RUNNING within their
+     * lease are left to their worker. Each continues after its last checkpointed account, so
+     * statements already written are not rendered again.
+     */
+    public StatementRunDTO resumeRun(Long runId) {
+        StatementRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new EntityNotFoundException("Statement run not found for id " + runId));
+        OffsetDateTime now = OffsetDateTime.now();
+        partitionRepository.resetFailed(runId, now);
+        int stale = partitionRepository.resetStale(runId, now.minus(partitionLease), now);
+        if (stale > 0) {
+            logger.warn("Statement run {} had {} partitions left RUNNING past their lease", runId, stale);
+        }
+        List<StatementRunPartition> pending = partitionRepository.findByRunIdAndStatus(
+                runId, StatementRunPartition.PartitionStatus.PENDING);
+        if (!pending.isEmpty()) {
+            run.setStatus(StatementRun.RunStatus.RUNNING);
+            run.setFinishedAt(null);
+            run = runRepository.save(run);
+            logger.info("Resuming statement run {} with {} pending partitions", runId, pending.size());
+            submit(run, pending);
+        }
+        return toDto(run);
+    }
+
+    public StatementRunDTO getRun(Long runId) {
+        StatementRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new EntityNotFoundException("Statement run not found for id " + runId));
+        return toDto(run);
+    }
+
+    private List<StatementRunPartition> createPartitions(Long runId) {
+        Map<String, Object> range = jdbcTemplate.queryForMap(ACCOUNT_RANGE_SQL, new MapSqlParameterSource());
+        if (range.get("min_id") == null) {
+            return List.of();
+        }
+        long minId = ((Number) range.get("min_id")).longValue();
+        long maxId = ((Number) range.get("max_id")).longValue();
+        long span = maxId - minId + 1;
+        int count = (int) Math.min(span, (long) workerCount * PARTITIONS_PER_WORKER);
+        long width = (span + count - 1) / count;
+
+        List<StatementRunPartition> partitions = new ArrayList<>(count);
+        for (long start = minId; start <= maxId; start += width) {
+            partitions.add(new StatementRunPartition(runId, start, Math.min(start + width, maxId + 1)));
+        }
+        return partitionRepository.saveAll(partitions);
+    }
+
+    private void submit(StatementRun run, List<StatementRunPartition> partitions) {
+        YearMonth month = YearMonth.from(run.getStatementMonth());
+        Path dir = Paths.get(run.getOutputDir());
+        for (StatementRunPartition partition : partitions) {
+            if (!activePartitions.add(partition.getId())) {
+                continue;
+            }
+            workers.submit(() -> processPartition(run.getId(), run.getFormat(), month, dir, partition));
+        }
+    }
+
+    /*------------------------- Workers -------------------------*/
+
+    private void processPartition(Long runId, StatementRun.Format format, YearMonth month, Path dir,
+                                  StatementRunPartition queued) {
+        StatementRunPartition partition;
+        try {
+            // Another resume (here or on another node) may have claimed it since it was queued
+            OffsetDateTime now = OffsetDateTime.now();
+            if (partitionRepository.claim(queued.getId(), now.minus(partitionLease), now) == 0) {
+                activePartitions.remove(queued.getId());
+                return;
+            }
+            // Re-read so the worker starts from the latest checkpoint rather than the queued snapshot
+            partition = partitionRepository.findById(queued.getId()).orElse(queued);
+        } catch (RuntimeException e) {
+            logger.error("Statement run {} partition {} could not be claimed: {}", runId, queued.getId(), e.getMessage(), e);
+            activePartitions.remove(queued.getId());
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            long after = partition.getLastAccountId() != null
+                    ? partition.getLastAccountId()
+                    : partition.getRangeStart() - 1;
+            while (true) {
+                List<AccountRow> accounts = loadAccountPage(after, partition.getRangeEnd());
+                if (accounts.isEmpty()) {
+                    break;
+                }
+                for (StatementDTO statement : buildStatements(accounts, month)) {
+                    writeStatement(dir, format, statement);
+                }
+                after = accounts.get(accounts.size() - 1).accountId();
+                partitionRepository.recordProgress(partition.getId(), after, accounts.size(), OffsetDateTime.now());
+                if (accounts.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+            partitionRepository.updateStatus(partition.getId(), StatementRunPartition.PartitionStatus.COMPLETED, null,
+                    OffsetDateTime.now());
+        } catch (Exception e) {
+            logger.error("Statement run {} partition {} failed: {}", runId, partition.getId(), e.getMessage(), e);
+            String message = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage();
+            partitionRepository.updateStatus(partition.getId(), StatementRunPartition.PartitionStatus.FAILED, message,
+                    OffsetDateTime.now());
+        } finally {
+            activePartitions.remove(partition.getId());
+        }
+        finishRunIfDone(runId);
+    }
+
+    private synchronized void finishRunIfDone(Long runId) {
+        long running = partitionRepository.countByRunIdAndStatus(runId, StatementRunPartition.PartitionStatus.RUNNING)
+                + partitionRepository.countByRunIdAndStatus(runId, StatementRunPartition.PartitionStatus.PENDING);
+        if (running > 0) {
+            return;
+        }
+        runRepository.findById(runId).ifPresent(run -> {
+            long failed = partitionRepository.countByRunIdAndStatus(runId, StatementRunPartition.PartitionStatus.FAILED);
+            run.setStatus(failed > 0 ? StatementRun.RunStatus.FAILED : StatementRun.RunStatus.COMPLETED);
+            run.setFinishedAt(OffsetDateTime.now());
+            runRepository.save(run);
+            logger.info("Statement run {} finished with status {}", runId, run.getStatus());
+        });
+    }
+
+    private List<AccountRow> loadAccountPage(long after, long rangeEnd) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("after", after)
+                .addValue("rangeEnd", rangeEnd)
+                .addValue("pageSize", PAGE_SIZE);
+        return jdbcTemplate.query(ACCOUNT_PAGE_SQL, params, (rs, i) -> {
+            Date due = rs.getDate("due_date");
+            String first = rs.getString("firstname");
+            String last = rs.getString("lastname");
+            return new AccountRow(rs.getLong("account_id"), rs.getInt("student_id"), rs.getString("campus_id"),
+                    ((first != null ? first : "") + " " + (last != null ? last : "")).trim(),
+                    due != null ? due.toLocalDate() : null);
+        });
+    }
+
+    /**
+     * Build statements for one page of accounts with a few set-based queries rather than per-account lookups.
+     */
+    List<StatementDTO> buildStatements(List<AccountRow> accounts, YearMonth month) {
+        List<Integer> studentIds = accounts.stream().map(AccountRow::studentId).toList();
+        OffsetDateTime periodStart = month.atDay(1).atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime periodEnd = month.plusMonths(1).atDay(1).atStartOfDay(zone).toOffsetDateTime();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentIds", studentIds)
+                .addValue("periodStart", periodStart)
+                .addValue("periodEnd", periodEnd);
+
+        Map<Integer, BigDecimal> opening = new HashMap<>();
+        jdbcTemplate.query(OPENING_BALANCE_SQL, params, rs -> {
+            opening.put(rs.getInt("student_id"), rs.getBigDecimal("balance"));
+        });
+
+        Map<Integer, List<StatementLineDTO>> lines = new HashMap<>();
+        jdbcTemplate.query(PERIOD_TRANSACTIONS_SQL, params, rs -> {
+            lines.computeIfAbsent(rs.getInt("student_id"), k -> new ArrayList<>()).add(new StatementLineDTO(
+                    rs.getLong("transaction_id"),
+                    rs.getObject("posted_at", OffsetDateTime.class),
+                    rs.getString("description"),
+                    AccountTransaction.Type.valueOf(rs.getString("type")),
+                    rs.getBigDecimal("amount")));
+        });
+
+        Map<Integer, BigDecimal[]> aid = new HashMap<>();
+        jdbcTemplate.query(AID_TOTALS_SQL, params, rs -> {
+            aid.put(rs.getInt("student_id"), new BigDecimal[]{rs.getBigDecimal("accepted"), rs.getBigDecimal("disbursed")});
+        });
+
+        Map<Integer, BigDecimal> aidCredited = new HashMap<>();
+        jdbcTemplate.query(AID_CREDITED_SQL, params, rs -> {
+            aidCredited.put(rs.getInt("student_id"), rs.getBigDecimal("credited"));
+        });
+
+        Map<Integer, List<PaymentPlanDTO>> plans = new HashMap<>();
+        jdbcTemplate.query(ACTIVE_PLANS_SQL, params, rs -> {
+            Date next = rs.getDate("next_payment_date");
+            plans.computeIfAbsent(rs.getInt("student_id"), k -> new ArrayList<>()).add(new PaymentPlanDTO(
+                    rs.getLong("plan_id"), rs.getString("name"), rs.getBigDecimal("total_amount"),
+                    rs.getBigDecimal("monthly_payment"), rs.getObject("remaining_payments", Integer.class),
+                    next != null ? next.toLocalDate() : null, PaymentPlan.PlanStatus.valueOf(rs.getString("status"))));
+        });
+
+        List<StatementDTO> statements = new ArrayList<>(accounts.size());
+        for (AccountRow account : accounts) {
+            BigDecimal openingBalance = opening.getOrDefault(account.studentId(), BigDecimal.ZERO);
+            List<StatementLineDTO> accountLines = lines.getOrDefault(account.studentId(), List.of());
+            BigDecimal charges = BigDecimal.ZERO;
+            BigDecimal credits = BigDecimal.ZERO;
+            BigDecimal payments = BigDecimal.ZERO;
+            for (StatementLineDTO line : accountLines) {
+                switch (line.type()) {
+                    case CHARGE -> charges = charges.add(line.amount());
+                    case CREDIT -> credits = credits.add(line.amount());
+                    case PAYMENT -> payments = payments.add(line.amount());
+                }
+            }
+            BigDecimal closing = openingBalance.add(charges).subtract(credits).subtract(payments);
+
+            BigDecimal[] aidTotals = aid.getOrDefault(account.studentId(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            BigDecimal disbursed = aidTotals[1];
+            BigDecimal pendingAid = aidTotals[0].subtract(disbursed).max(BigDecimal.ZERO);
+            // Same rule as FinancesService.getSummary: disbursed aid reduces what is owed
+            BigDecimal disbursedOffLedger = disbursed.subtract(aidCredited.getOrDefault(account.studentId(), BigDecimal.ZERO))
+                    .max(BigDecimal.ZERO);
+            BigDecimal amountDue = closing.subtract(disbursedOffLedger).max(BigDecimal.ZERO);
+
+            statements.add(new StatementDTO(account.accountId(), account.studentId(), account.campusId(),
+                    account.studentName(), month.atDay(1), month.atEndOfMonth(), openingBalance, accountLines,
+                    charges, credits, payments, closing, disbursed, pendingAid, amountDue, account.dueDate(),
+                    plans.getOrDefault(account.studentId(), List.of())));
+        }
+        return statements;
+    }
+
+    /**
+     * Write to a temporary file and move it into place, so a crash never leaves a half-written
+     * statement behind and a resumed partition can safely overwrite its last page.
+     */
+    private void writeStatement(Path dir, StatementRun.Format format, StatementDTO statement) throws IOException {
+        String fileName = "statement-" + statement.accountId() + "." + renderer.fileExtension(format);
+        Path target = dir.resolve(fileName);
+        Path tmp = dir.resolve(fileName + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            renderer.render(format, statement, out);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private StatementRunDTO toDto(StatementRun run) {
+        List<StatementRunPartition> partitions = partitionRepository.findByRunIdOrderByRangeStart(run.getId());
+        long completed = partitions.stream()
+                .filter(p -> p.getStatus() == StatementRunPartition.PartitionStatus.COMPLETED).count();
+        long written = partitions.stream().mapToLong(StatementRunPartition::getStatementsWritten).sum();
+        return new StatementRunDTO(run.getId(), run.getStatementMonth(), run.getFormat(), run.getStatus(),
+                run.getOutputDir(), run.getPartitionCount(), completed, written, run.getStartedAt(), run.getFinishedAt());
+    }
+
+    record AccountRow(Long accountId, Integer studentId, String campusId, String studentName, LocalDate dueDate) {}
+}
@@ -1,13 +1,17 @@
 package com.uwm.paws360.Service;
 
+import com.uwm.paws360.DTO.User.StudentBatchResponseDTO;
+import com.uwm.paws360.DTO.User.StudentSummaryDTO;
 import com.uwm.paws360.Entity.Base.Users;
 import com.uwm.paws360.Entity.UserTypes.Student;
 import com.uwm.paws360.JPARepository.User.StudentRepository;
-import com.uwm.paws360.JPARepository.User.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,11 +24,13 @@ import java.util.Optional;
 @Transactional
 public class StudentProfileService {
 
-    private final UserRepository userRepository;
+    public static final int MAX_BATCH_SIZE = 1000;
+    // Keeps each IN list well inside driver and planner limits
+    private static final int BATCH_CHUNK_SIZE = 500;
+
     private final StudentRepository studentRepository;
 
-    public StudentProfileService(UserRepository userRepository, StudentRepository studentRepository) {
-        this.userRepository = userRepository;
+    public StudentProfileService(StudentRepository studentRepository) {
         this.studentRepository = studentRepository;
     }
 
@@ -34,53 +40,63 @@ public class StudentProfileService {
      * Get complete student profile by user ID
      */
     public Optional<StudentProfileData> getStudentProfile(int userId) {
-        Optional<Users> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
-            return Optional.empty();
-        }
-
-        Users user = userOpt.get();
-        Optional<Student> studentOpt = studentRepository.findByUser(user);
-        
-        if (studentOpt.isEmpty()) {
-            return Optional.empty();
-        }
-
-        return Optional.of(new StudentProfileData(user, studentOpt.get()));
+        return studentRepository.findByUserIdWithUser(userId).map(StudentProfileData::of);
     }
 
     /**
-     * Get student profile by email
+     * Get student profile by email (case-insensitive)
      */
     public Optional<StudentProfileData> getStudentProfileByEmail(String email) {
-        Users user = userRepository.findUsersByEmailIgnoreCase(email);
-        if (user == null) {
-            return Optional.empty();
-        }
-
-        Optional<Student> studentOpt = studentRepository.findByUser(user);
-        if (studentOpt.isEmpty()) {
+        if (email == null) {
             return Optional.empty();
         }
-
-        return Optional.of(new StudentProfileData(user, studentOpt.get()));
+        // One probe of users_email_lower_idx, with the student row in the same statement
+        return studentRepository.findByUserEmailWithUser(email.trim()).map(StudentProfileData::of);
     }
 
     /**
      * Get student profile by campus ID
      */
     public Optional<StudentProfileData> getStudentProfileByCampusId(String campusId) {
-        List<Student> students = studentRepository.findAll();
-        Optional<Student> studentOpt = students.stream()
-            .filter(s -> campusId.equals(s.getCampusId()))
-            .findFirst();
-            
-        if (studentOpt.isEmpty()) {
+        if (campusId == null) {
             return Optional.empty();
         }
+        return studentRepository.findByCampusIdWithUser(campusId.trim()).map(StudentProfileData::of);
+    }
+
+    /**
+     * Summaries of the students with the given user ids, in request order, resolved with one IN
+     * query per {@value #BATCH_CHUNK_SIZE} ids. Ids that are not students come back as missing.
+     *
+     * @throws IllegalArgumentException if more than {@value #MAX_BATCH_SIZE} distinct ids are given
+     */
+    @Transactional(readOnly = true)
+    public StudentBatchResponseDTO getStudentSummaries(Collection<Integer> userIds) {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        ids.removeIf(id -> id == null);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " user ids per request");
+        }
+
+        Map<Integer, StudentSummaryDTO> found = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + BATCH_CHUNK_SIZE));
+            for (StudentSummaryDTO summary : studentRepository.findSummariesByUserIds(chunk)) {
+                found.put(summary.userId(), summary);
+            }
+        }
 
-        Student student = studentOpt.get();
-        return Optional.of(new StudentProfileData(student.getUser(), student));
+        List<StudentSummaryDTO> students = new ArrayList<>(found.size());
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            StudentSummaryDTO summary = found.get(id);
+            if (summary != null) {
+                students.add(summary);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new StudentBatchResponseDTO(students, missing);
     }
 
     /**
@@ -108,50 +124,6 @@ public class StudentProfileService {
         ));
     }
 
-    /*------------------------- Student Search and Listing -------------------------*/
-
-    /**
-     * Get all students (for admin use)
-     */
-    public List<StudentProfileData> getAllStudents() {
-        return studentRepository.findAll().stream()
-            .map(student -> new StudentProfileData(student.getUser(), student))
-            .toList();
-    }
-
-    /**
-     * Search students by name (for admin use)
-     */
-    public List<StudentProfileData> searchStudentsByName(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return getAllStudents();
-        }
-
-        return getAllStudents().stream()
-            .filter(profile -> {
-                String fullName = (profile.getUser().getFirstname() + " " + profile.getUser().getLastname()).toLowerCase();
-                String preferredName = profile.getUser().getPreferred_name();
-                String email = profile.getUser().getEmail().toLowerCase();
-                String campusId = profile.getStudent().getCampusId();
-                
-                return fullName.contains(searchTerm.toLowerCase()) ||
-                       (preferredName != null && preferredName.toLowerCase().contains(searchTerm.toLowerCase())) ||
-                       email.contains(searchTerm.toLowerCase()) ||
-                       (campusId != null && campusId.toLowerCase().contains(searchTerm.toLowerCase()));
-            })
-            .toList();
-    }
-
-    /**
-     * Get students by department (for admin use)
-     */
-    public List<StudentProfileData> getStudentsByDepartment(String department) {
-        return getAllStudents().stream()
-            .filter(profile -> profile.getStudent().getDepartment() != null &&
-                             profile.getStudent().getDepartment().toString().equals(department))
-            .toList();
-    }
-
     /*------------------------- Data Validation and Health -------------------------*/
 
     /**
@@ -180,27 +152,6 @@ public class StudentProfileService {
         return validation;
     }
 
-    /**
-     * Get student counts for demo data validation
-     */
-    public Map<String, Long> getStudentCounts() {
-        List<Student> allStudents = studentRepository.findAll();
-        Map<String, Long> counts = new HashMap<>();
-        
-        counts.put("total_students", (long) allStudents.size());
-        counts.put("active_students", allStudents.stream()
-            .filter(s -> s.getUser().getStatus().toString().equals("ACTIVE"))
-            .count());
-        counts.put("students_with_gpa", allStudents.stream()
-            .filter(s -> s.getGpa() != null)
-            .count());
-        counts.put("students_with_campus_id", allStudents.stream()
-            .filter(s -> s.getCampusId() != null && !s.getCampusId().trim().isEmpty())
-            .count());
-            
-        return counts;
-    }
-
     /*------------------------- Data Transfer Objects -------------------------*/
 
     /**
@@ -215,6 +166,10 @@ public class StudentProfileService {
             this.student = student;
         }
 
+        static StudentProfileData of(Student student) {
+            return new StudentProfileData(student.getUser(), student);
+        }
+
         public Users getUser() { return user; }
         public Student getStudent() { return student; }
     }
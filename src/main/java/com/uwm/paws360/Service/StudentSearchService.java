@@ -0,0 +1,195 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.User.StudentSearchPageDTO;
+import com.uwm.paws360.DTO.User.StudentSearchResultDTO;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Admin student search, run entirely in the database. A search term matches names, preferred name,
+ * email and campus id by substring, and on PostgreSQL also by trigram word similarity; both are
+ * served by the pg_trgm GIN indexes users_search_trgm_idx and student_campus_id_trgm_idx. Results
+ * are ranked by similarity (a plain prefix/substring rank elsewhere) and paged with a keyset cursor
+ * on (rank, user_id), so a request only ever holds one page of rows.
+ *
+ * The total is the planner's row estimate on PostgreSQL rather than a COUNT over the matches.
+ */
+@Service
+public class StudentSearchService {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Must stay identical to the users_search_trgm_idx expression for the index to be used
+    private static final String SEARCH_TEXT =
+            "lower(u.firstname || ' ' || u.lastname || ' ' || coalesce(u.preferred_name, '') || ' ' || u.email)";
+    private static final String CAMPUS_ID = "lower(coalesce(s.campus_id, ''))";
+
+    private static final String FROM =
+            " FROM student s JOIN users u ON u.user_id = s.user_id WHERE 1 = 1";
+
+    private static final String COLUMNS =
+            "SELECT u.user_id, s.student_id, u.email, u.firstname, u.lastname, u.preferred_name, u.status, " +
+            "s.campus_id, s.department, s.standing, s.enrollement_status, s.gpa, s.expected_graduation, " +
+            "s.updated_at, u.date_created";
+
+    private static final Pattern ESTIMATED_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private static final RowMapper<StudentSearchResultDTO> ROW_MAPPER = (rs, i) -> {
+        java.sql.Date graduation = rs.getDate("expected_graduation");
+        Timestamp updated = rs.getTimestamp("updated_at");
+        java.sql.Date created = rs.getDate("date_created");
+        return new StudentSearchResultDTO(
+                rs.getInt("user_id"),
+                rs.getInt("student_id"),
+                rs.getString("email"),
+                rs.getString("firstname"),
+                rs.getString("lastname"),
+                rs.getString("preferred_name"),
+                rs.getString("status"),
+                rs.getString("campus_id"),
+                rs.getString("department"),
+                rs.getString("standing"),
+                rs.getString("enrollement_status"),
+                rs.getBigDecimal("gpa"),
+                graduation != null ? graduation.toLocalDate() : null,
+                updated != null ? updated.toLocalDateTime() : null,
+                created != null ? created.toLocalDate() : null,
+                rs.getFloat("search_rank"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public StudentSearchService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One page of students matching {@code query} and/or {@code department}, best match first.
+     * {@code cursor} is the {@code nextCursor} of the previous page.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public StudentSearchPageDTO search(String query, String department, String cursor, Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        String term = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String filter = filter(term, department, params);
+        String rank = term.isEmpty() ? "CAST(0 AS REAL)" : rank();
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM (")
+                .append(COLUMNS).append(", ").append(rank).append(" AS search_rank")
+                .append(FROM).append(filter)
+                .append(") r");
+        if (cursor != null && !cursor.isBlank()) {
+            SearchCursor position = SearchCursor.decode(cursor);
+            sql.append(" WHERE r.search_rank < :afterRank OR (r.search_rank = :afterRank AND r.user_id > :afterId)");
+            params.addValue("afterRank", position.rank()).addValue("afterId", position.userId());
+        }
+        // One extra row tells whether another page exists without a count
+        sql.append(" ORDER BY r.search_rank DESC, r.user_id LIMIT :fetch");
+        params.addValue("fetch", pageSize + 1);
+
+        List<StudentSearchResultDTO> rows = jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+        boolean hasMore = rows.size() > pageSize;
+        List<StudentSearchResultDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? SearchCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new StudentSearchPageDTO(List.copyOf(page), nextCursor, hasMore, estimateTotal(filter, params));
+    }
+
+    /*------------------------- Internals -------------------------*/
+
+    private String filter(String term, String department, MapSqlParameterSource params) {
+        StringBuilder filter = new StringBuilder();
+        if (!term.isEmpty()) {
+            String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            params.addValue("term", term)
+                    .addValue("contains", "%" + escaped + "%")
+                    .addValue("prefix", escaped + "%");
+            filter.append(" AND (").append(SEARCH_TEXT).append(" LIKE :contains OR ")
+                    .append(CAMPUS_ID).append(" LIKE :contains");
+            if (isPostgres()) {
+                // Word-similarity match catches typos the substring match misses
+                filter.append(" OR :term <% ").append(SEARCH_TEXT);
+            }
+            filter.append(")");
+        }
+        if (department != null && !department.isBlank()) {
+            filter.append(" AND s.department = :department");
+            params.addValue("department", department.trim());
+        }
+        return filter.toString();
+    }
+
+    private String rank() {
+        if (isPostgres()) {
+            return "GREATEST(word_similarity(:term, " + SEARCH_TEXT + "), similarity(:term, " + CAMPUS_ID + "))";
+        }
+        return "CAST(CASE WHEN " + SEARCH_TEXT + " LIKE :prefix OR " + CAMPUS_ID + " LIKE :prefix THEN 1 " +
+               "ELSE 0.5 END AS REAL)";
+    }
+
+    /**
+     * The planner's row estimate for the filter on PostgreSQL, which costs a plan instead of a scan;
+     * an exact count elsewhere.
+     */
+    private long estimateTotal(String filter, MapSqlParameterSource params) {
+        if (!isPostgres()) {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*)" + FROM + filter, params, Long.class);
+            return count != null ? count : 0;
+        }
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT 1" + FROM + filter, params, String.class);
+        if (!plan.isEmpty()) {
+            Matcher matcher = ESTIMATED_ROWS.matcher(plan.get(0));
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(1));
+            }
+        }
+        return 0;
+    }
+
+    private boolean isPostgres() {
+        Boolean known = postgres;
+        if (known == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            known = product != null && product.toLowerCase().contains("postgres");
+            postgres = known;
+        }
+        return known;
+    }
+
+    record SearchCursor(float rank, int userId) {
+        static SearchCursor of(StudentSearchResultDTO row) {
+            return new SearchCursor(row.rank(), row.userId());
+        }
+
+        String encode() {
+            String raw = rank + "|" + userId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SearchCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new SearchCursor(Float.parseFloat(raw.substring(0, sep)), Integer.parseInt(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.TuitionAssessmentResultDTO;
+import com.uwm.paws360.Entity.Finances.AccountTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Term-wide tuition assessment. Tuition for every ENROLLED student in a term is computed in one
+ * grouped query over course_enrollments, course_sections and courses, compared with what has
+ * already been assessed for that term, and only the differences are posted through
+ * {@link LedgerService#postBatch}. Running the job twice for the same term posts nothing the
+ * second time; adds and drops between runs post a CHARGE or CREDIT for the change. Each chunk
+ * computes and posts its differences under a per-term advisory lock, so runs started at the same
+ * time cannot both post the same tuition.
+ */
+@Service
+public class TuitionAssessmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TuitionAssessmentService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String ENROLLED_IN_TERM =
+            "FROM course_enrollments ce " +
+            "JOIN course_sections cs ON cs.section_id = ce.lecture_section_id " +
+            "WHERE ce.status = 'ENROLLED' AND cs.term = :term AND cs.academic_year = :year";
+
+    private static final String ENSURE_ACCOUNTS_SQL =
+            "INSERT INTO financial_accounts (student_id, account_balance, charges_due, pending_aid, created_at, updated_at) " +
+            "SELECT DISTINCT ce.student_id, 0, 0, 0, :now, :now " + ENROLLED_IN_TERM + " " +
+            "AND NOT EXISTS (SELECT 1 FROM financial_accounts fa WHERE fa.student_id = ce.student_id)";
+
+    // Students appear if they have tuition this term or were assessed for it before (all courses dropped).
+    // %1$s narrows the enrollments and %2$s the transactions to the students of one chunk
+    private static final String DELTA_SQL =
+            "WITH tuition AS (" +
+            "  SELECT ce.student_id, SUM(c.course_cost) AS amount " +
+            "  FROM course_enrollments ce " +
+            "  JOIN course_sections cs ON cs.section_id = ce.lecture_section_id " +
+            "  JOIN courses c ON c.course_id = cs.course_id " +
+            "  WHERE ce.status = 'ENROLLED' AND cs.term = :term AND cs.academic_year = :year%1$s " +
+            "  GROUP BY ce.student_id), " +
+            "assessed AS (" +
+            "  SELECT student_id, SUM(CASE WHEN type = 'CHARGE' THEN amount ELSE -amount END) AS amount " +
+            "  FROM account_transactions " +
+            "  WHERE term_code = :termCode AND status = 'POSTED' AND type IN ('CHARGE', 'CREDIT')%2$s " +
+            "  GROUP BY student_id), " +
+            "students AS (SELECT student_id FROM tuition UNION SELECT student_id FROM assessed) " +
+            "SELECT s.student_id, fa.account_id, COALESCE(t.amount, 0) AS tuition, COALESCE(a.amount, 0) AS assessed " +
+            "FROM students s " +
+            "JOIN financial_accounts fa ON fa.student_id = s.student_id " +
+            "LEFT JOIN tuition t ON t.student_id = s.student_id " +
+            "LEFT JOIN assessed a ON a.student_id = s.student_id " +
+            "WHERE COALESCE(t.amount, 0) <> COALESCE(a.amount, 0) " +
+            "ORDER BY s.student_id";
+
+    private static final String TERM_DELTA_SQL = String.format(DELTA_SQL, "", "");
+    private static final String CHUNK_DELTA_SQL = String.format(DELTA_SQL,
+            " AND ce.student_id IN (:studentIds)", " AND student_id IN (:studentIds)");
+
+    // Held by each chunk until it commits, so concurrent runs for the same term take turns
+    private static final String LOCK_TERM_SQL = "SELECT pg_advisory_xact_lock(hashtext(:lockKey))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerService ledgerService;
+    private volatile Boolean postgres;
+
+    public TuitionAssessmentService(NamedParameterJdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    LedgerService ledgerService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.ledgerService = ledgerService;
+    }
+
+    /**
+     * Assess tuition for every student enrolled in the given term. Each chunk of postings commits
+     * on its own, so an interrupted run is finished by simply running it again.
+     */
+    public TuitionAssessmentResultDTO assessTerm(String term, int academicYear, LocalDate dueDate) {
+        long started = System.currentTimeMillis();
+        String termCode = termCode(term, academicYear);
+        LocalDate due = dueDate != null ? dueDate : LocalDate.now().plusDays(30);
+        OffsetDateTime now = OffsetDateTime.now();
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("term", term)
+                .addValue("year", academicYear)
+                .addValue("termCode", termCode)
+                .addValue("now", now);
+
+        Integer accountsCreated = transactionTemplate.execute(status -> {
+            lockTerm(termCode);
+            return jdbcTemplate.update(ENSURE_ACCOUNTS_SQL, params);
+        });
+
+        // A first pass finds the students whose tuition changed; each chunk recomputes their deltas
+        // under the term lock, so a concurrent run posts only what this one has not
+        List<Integer> studentIds = jdbcTemplate.query(TERM_DELTA_SQL, params, (rs, i) -> rs.getInt("student_id"));
+
+        int charges = 0;
+        int credits = 0;
+        BigDecimal charged = BigDecimal.ZERO;
+        BigDecimal credited = BigDecimal.ZERO;
+        for (int from = 0; from < studentIds.size(); from += CHUNK_SIZE) {
+            MapSqlParameterSource chunkParams = new MapSqlParameterSource(params.getValues())
+                    .addValue("studentIds", studentIds.subList(from, Math.min(from + CHUNK_SIZE, studentIds.size())));
+            List<LedgerService.BatchPosting> chunk = transactionTemplate.execute(status -> {
+                lockTerm(termCode);
+                List<LedgerService.BatchPosting> deltas = deltas(chunkParams, termCode, due, now);
+                ledgerService.postBatch(deltas);
+                return deltas;
+            });
+            for (LedgerService.BatchPosting posting : chunk) {
+                if (posting.type() == AccountTransaction.Type.CHARGE) {
+                    charges++;
+                    charged = charged.add(posting.amount());
+                } else {
+                    credits++;
+                    credited = credited.add(posting.amount());
+                }
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        logger.info("Tuition assessment for {} posted {} charges ({}) and {} credits ({}) in {} ms; {} accounts opened",
+                termCode, charges, charged, credits, credited, elapsed, accountsCreated);
+        return new TuitionAssessmentResultDTO(termCode, accountsCreated != null ? accountsCreated : 0,
+                charges, credits, charged, credited, elapsed);
+    }
+
+    private List<LedgerService.BatchPosting> deltas(MapSqlParameterSource params, String termCode,
+                                                    LocalDate due, OffsetDateTime now) {
+        return jdbcTemplate.query(CHUNK_DELTA_SQL, params, (rs, i) -> {
+            BigDecimal delta = rs.getBigDecimal("tuition").subtract(rs.getBigDecimal("assessed"));
+            boolean charge = delta.signum() > 0;
+            return new LedgerService.BatchPosting(
+                    rs.getLong("account_id"),
+                    rs.getInt("student_id"),
+                    charge ? AccountTransaction.Type.CHARGE : AccountTransaction.Type.CREDIT,
+                    delta.abs(),
+                    charge ? "Tuition " + termCode : "Tuition adjustment " + termCode,
+                    due,
+                    termCode,
+                    now);
+        });
+    }
+
+    private void lockTerm(String termCode) {
+        if (isPostgres()) {
+            jdbcTemplate.queryForList(LOCK_TERM_SQL, new MapSqlParameterSource("lockKey", "tuition-assessment:" + termCode));
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean known = postgres;
+        if (known == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            known = product != null && product.toLowerCase().contains("postgres");
+            postgres = known;
+        }
+        return known;
+    }
+
+    /**
+     * Label stored on assessment transactions, matching the "Fall 2025" style used by AcademicsService.
+     */
+    static String termCode(String term, int academicYear) {
+        return term.trim() + " " + academicYear;
+    }
+}
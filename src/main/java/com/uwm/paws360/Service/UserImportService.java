@@ -0,0 +1,484 @@
+package com.uwm.paws360.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uwm.paws360.DTO.User.CreateUserDTO;
+import com.uwm.paws360.DTO.User.UserImportErrorDTO;
+import com.uwm.paws360.DTO.User.UserImportResultDTO;
+import com.uwm.paws360.Entity.EntityDomains.Ferpa_Compliance;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk provisioning of users from CSV (header row with {@link CreateUserDTO} field names) or
+ * newline-delimited JSON (one {@code POST /users/create} payload per line). Rows are read and
+ * validated one at a time and written a chunk at a time: initial passwords are hashed in parallel
+ * on this service's own pool, then the chunk's {@code users} rows and role rows go in as JDBC
+ * batches in one transaction. Role ids are drawn from the role sequences a block at a time.
+ *
+ * Rows that fail validation, repeat an email or SSN, or already exist are reported by line number
+ * and do not stop the rest of the file. Addresses are not imported.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 500;
+    // Increment of the role sequences; Hibernate's pooled optimizer treats each value drawn as the
+    // top of a block of this many ids, and so does this service
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (firstname, middlename, lastname, dob, ssn, ethnicity, gender, nationality, email, " +
+            "password, country_code, phone, status, role, date_created, account_updated, last_login, changed_password, " +
+            "failed_attempts, account_locked, ferpa_compliance, contact_by_phone, contact_by_email, contact_by_mail, " +
+            "ferpa_directory_opt_in, photo_release_opt_in) VALUES (:firstname, :middlename, :lastname, :dob, :ssn, " +
+            ":ethnicity, :gender, :nationality, :email, :password, :countryCode, :phone, :status, :role, :today, " +
+            ":today, :now, :today, 0, FALSE, :ferpa, TRUE, TRUE, FALSE, FALSE, FALSE)";
+
+    private static final String EXISTING_USERS_SQL =
+            "SELECT lower(email) AS email, ssn FROM users WHERE lower(email) IN (:emails) OR ssn IN (:ssns)";
+
+    /**
+     * The role-specific table written for each role, as {@link UserService#createUser} does;
+     * roles without one (staff and administrators) only get a {@code users} row.
+     */
+    private record RoleTable(String table, String idColumn, String sequence, String extraColumns, String extraValues) {
+        String insertSql() {
+            return "INSERT INTO " + table + " (" + idColumn + ", user_id, created_at, updated_at" + extraColumns +
+                   ") VALUES (:id, :userId, :now, :now" + extraValues + ")";
+        }
+    }
+
+    private static final Map<Role, RoleTable> ROLE_TABLES = new EnumMap<>(Map.of(
+            Role.STUDENT, new RoleTable("student", "student_id", "student_seq", "", ""),
+            Role.ADVISOR, new RoleTable("advisor", "advisor_id", "advisor_seq", ", active", ", TRUE"),
+            Role.COUNSELOR, new RoleTable("counselor", "councelor_id", "counselor_seq", ", active", ", TRUE"),
+            Role.FACULTY, new RoleTable("faculty", "faculty_id", "faculty_seq", ", active", ", TRUE"),
+            Role.INSTRUCTOR, new RoleTable("instructor", "instructor_id", "instructor_seq", ", part_time", ", FALSE"),
+            Role.MENTOR, new RoleTable("mentor", "mentor_id", "mentor_seq", ", active", ", TRUE"),
+            Role.PROFESSOR, new RoleTable("professor", "professor_id", "professor_seq", ", tenured", ", FALSE"),
+            Role.TA, new RoleTable("ta", "id", "ta_seq", ", active", ", TRUE")));
+
+    public enum Format { CSV, NDJSON }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PasswordHashingService passwordHashing;
+    private final ExecutorService hashWorkers;
+    private volatile Boolean postgres;
+
+    public UserImportService(NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PasswordHashingService passwordHashing,
+                             @Value("${paws360.user-import.hash-threads:0}") int hashThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.passwordHashing = passwordHashing;
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashWorkers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "user-import-hash-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashWorkers.shutdownNow();
+    }
+
+    /**
+     * Create a user (and role row) for every valid row in the stream. Line numbers in the report
+     * count the CSV header.
+     */
+    public UserImportResultDTO importUsers(InputStream body, Format format) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportTally tally = new ImportTally();
+        List<PendingUser> chunk = new ArrayList<>(CHUNK_SIZE);
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenSsns = new HashSet<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = parseCsvLine(line);
+                continue;
+            }
+            tally.rowsRead++;
+
+            CreateUserDTO row;
+            try {
+                row = format == Format.CSV ? fromCsv(header, parseCsvLine(line))
+                        : objectMapper.readValue(line, CreateUserDTO.class);
+            } catch (JsonProcessingException e) {
+                tally.reject(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                tally.reject(lineNumber, null, "Invalid row: " + e.getMessage());
+                continue;
+            }
+
+            String problem = validate(row);
+            if (problem == null && !seenEmails.add(row.email().trim().toLowerCase(Locale.ROOT))) {
+                problem = "Duplicate email in import";
+            } else if (problem == null && !seenSsns.add(row.ssn())) {
+                problem = "Duplicate SSN in import";
+            }
+            if (problem != null) {
+                tally.reject(lineNumber, row.email(), problem);
+                continue;
+            }
+
+            chunk.add(new PendingUser(lineNumber, row));
+            if (chunk.size() >= CHUNK_SIZE) {
+                importChunk(chunk, tally);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, tally);
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        logger.info("User import finished in {} ms: {} rows read, {} users created, {} rows rejected",
+                elapsed, tally.rowsRead, tally.created, tally.rejected);
+        return tally.toResult(elapsed);
+    }
+
+    /*------------------------- Rows -------------------------*/
+
+    private CreateUserDTO fromCsv(List<String> header, List<String> values) {
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " columns, found " + values.size());
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (!value.isEmpty()) {
+                fields.put(header.get(i).trim(), value);
+            }
+        }
+        // Same field names, enum constants and date format as the JSON payload
+        return objectMapper.convertValue(fields, CreateUserDTO.class);
+    }
+
+    private String validate(CreateUserDTO row) {
+        Set<ConstraintViolation<CreateUserDTO>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<CreateUserDTO> first = violations.iterator().next();
+            return first.getPropertyPath() + " " + first.getMessage();
+        }
+        // Column limits and checks that /users/create leaves to the entity
+        if (!row.ssn().matches("\\d{9}")) {
+            return "ssn must be exactly 9 digits";
+        }
+        if (row.email().length() > 50) {
+            return "email must be at most 50 characters";
+        }
+        if (row.firstname().length() > 100 || (row.middlename() != null && row.middlename().length() > 100)) {
+            return "names must be at most 100 characters";
+        }
+        if (row.lastname().length() > 30) {
+            return "lastname must be at most 30 characters";
+        }
+        if (row.phone() != null && row.phone().length() > 10) {
+            return "phone must be at most 10 characters";
+        }
+        if (row.addresses() != null && !row.addresses().isEmpty()) {
+            return "addresses are not imported; add them with /users/addresses/add";
+        }
+        return null;
+    }
+
+    /*------------------------- Chunks -------------------------*/
+
+    private void importChunk(List<PendingUser> chunk, ImportTally tally) {
+        List<PendingUser> fresh = rejectExisting(chunk, tally);
+        if (fresh.isEmpty()) {
+            return;
+        }
+        List<String> passwords = hashPasswords(fresh);
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            insertUsers(fresh, passwords, today, now);
+            tally.created += fresh.size();
+        } catch (DataAccessException e) {
+            // One bad row fails the whole batch; find it by inserting the rows one at a time
+            logger.warn("User import chunk of {} rows failed, retrying row by row: {}", fresh.size(), e.getMessage());
+            for (int i = 0; i < fresh.size(); i++) {
+                PendingUser pending = fresh.get(i);
+                try {
+                    insertUsers(List.of(pending), List.of(passwords.get(i)), today, now);
+                    tally.created++;
+                } catch (DataAccessException rowFailure) {
+                    tally.reject(pending.line(), pending.row().email(),
+                            "Insert failed: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void insertUsers(List<PendingUser> rows, List<String> passwords, LocalDate today, LocalDateTime now) {
+        transactionTemplate.executeWithoutResult(status -> {
+            SqlParameterSource[] userParams = new SqlParameterSource[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                CreateUserDTO row = rows.get(i).row();
+                userParams[i] = new MapSqlParameterSource()
+                        .addValue("firstname", row.firstname())
+                        .addValue("middlename", row.middlename())
+                        .addValue("lastname", row.lastname())
+                        .addValue("dob", row.dob())
+                        .addValue("ssn", row.ssn())
+                        .addValue("ethnicity", row.ethnicity().name())
+                        .addValue("gender", row.gender().name())
+                        .addValue("nationality", row.nationality().name())
+                        .addValue("email", row.email().trim())
+                        .addValue("password", passwords.get(i))
+                        .addValue("countryCode", row.countryCode().name())
+                        .addValue("phone", row.phone())
+                        .addValue("status", row.status().name())
+                        .addValue("role", row.role().name())
+                        .addValue("today", today)
+                        .addValue("now", now)
+                        .addValue("ferpa", Ferpa_Compliance.RESTRICTED.name());
+            }
+            List<Integer> userIds = insertReturningIds(userParams);
+            insertRoleRows(rows, userIds, now);
+        });
+    }
+
+    private List<PendingUser> rejectExisting(List<PendingUser> chunk, ImportTally tally) {
+        Set<String> emails = new HashSet<>();
+        Set<String> ssns = new HashSet<>();
+        for (PendingUser pending : chunk) {
+            emails.add(pending.row().email().trim().toLowerCase(Locale.ROOT));
+            ssns.add(pending.row().ssn());
+        }
+        Set<String> existingEmails = new HashSet<>();
+        Set<String> existingSsns = new HashSet<>();
+        jdbcTemplate.query(EXISTING_USERS_SQL, new MapSqlParameterSource()
+                .addValue("emails", emails)
+                .addValue("ssns", ssns), rs -> {
+            existingEmails.add(rs.getString("email"));
+            existingSsns.add(rs.getString("ssn"));
+        });
+
+        List<PendingUser> fresh = new ArrayList<>(chunk.size());
+        for (PendingUser pending : chunk) {
+            if (existingEmails.contains(pending.row().email().trim().toLowerCase(Locale.ROOT))) {
+                tally.reject(pending.line(), pending.row().email(), "A user with this email already exists");
+            } else if (existingSsns.contains(pending.row().ssn())) {
+                tally.reject(pending.line(), pending.row().email(), "A user with this SSN already exists");
+            } else {
+                fresh.add(pending);
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Hash the chunk's passwords across the import pool; values that are already BCrypt are kept.
+     */
+    private List<String> hashPasswords(List<PendingUser> rows) {
+        List<Future<String>> futures = new ArrayList<>(rows.size());
+        for (PendingUser pending : rows) {
+            String raw = pending.row().password();
+            futures.add(PasswordHashingService.isBCrypt(raw)
+                    ? CompletableFuture.completedFuture(raw)
+                    : hashWorkers.submit(() -> passwordHashing.encodeForProvisioning(raw)));
+        }
+        List<String> hashes = new ArrayList<>(rows.size());
+        for (Future<String> future : futures) {
+            try {
+                hashes.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("User import interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Password hashing failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return hashes;
+    }
+
+    private List<Integer> insertReturningIds(SqlParameterSource[] params) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, params, keyHolder, new String[]{"user_id"});
+        List<Integer> ids = new ArrayList<>(params.length);
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            Object key = keys.containsKey("user_id") ? keys.get("user_id") : keys.values().iterator().next();
+            ids.add(((Number) key).intValue());
+        }
+        return ids;
+    }
+
+    private void insertRoleRows(List<PendingUser> rows, List<Integer> userIds, LocalDateTime now) {
+        Map<Role, List<Integer>> usersByRole = new EnumMap<>(Role.class);
+        for (int i = 0; i < rows.size(); i++) {
+            Role role = rows.get(i).row().role();
+            if (ROLE_TABLES.containsKey(role)) {
+                usersByRole.computeIfAbsent(role, r -> new ArrayList<>()).add(userIds.get(i));
+            }
+        }
+        for (Map.Entry<Role, List<Integer>> entry : usersByRole.entrySet()) {
+            RoleTable roleTable = ROLE_TABLES.get(entry.getKey());
+            List<Integer> users = entry.getValue();
+            List<Integer> ids = allocateIds(roleTable.sequence(), users.size());
+            SqlParameterSource[] params = new SqlParameterSource[users.size()];
+            for (int i = 0; i < users.size(); i++) {
+                params[i] = new MapSqlParameterSource()
+                        .addValue("id", ids.get(i))
+                        .addValue("userId", users.get(i))
+                        .addValue("now", now);
+            }
+            jdbcTemplate.batchUpdate(roleTable.insertSql(), params);
+        }
+    }
+
+    /**
+     * {@code count} unused ids from a pooled sequence, drawing one sequence value per block of
+     * {@value #ID_BLOCK_SIZE} in a single query.
+     */
+    private List<Integer> allocateIds(String sequence, int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+            String sql = isPostgres()
+                    ? "SELECT nextval('" + sequence + "') FROM generate_series(1, :blocks)"
+                    : "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, :blocks)";
+            List<Long> highs = jdbcTemplate.queryForList(sql, Map.of("blocks", blocks), Long.class);
+            for (long high : highs) {
+                // The first value of a fresh sequence only covers itself
+                for (long id = Math.max(1, high - ID_BLOCK_SIZE + 1); id <= high && ids.size() < count; id++) {
+                    ids.add((int) id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private boolean isPostgres() {
+        Boolean known = postgres;
+        if (known == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            known = product != null && product.toLowerCase().contains("postgres");
+            postgres = known;
+        }
+        return known;
+    }
+
+    /**
+     * Split one CSV record on commas, honouring double-quoted fields with doubled quotes inside.
+     * Records may not span lines.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record PendingUser(int line, CreateUserDTO row) {}
+
+    /**
+     * Running counters for one import; only the first MAX_REPORTED_ERRORS errors are kept so a
+     * badly broken file cannot grow the response without bound. Rows rejected on parse are found
+     * before those rejected when their chunk is written, so the report is put back in line order.
+     */
+    private static class ImportTally {
+        private int rowsRead;
+        private int created;
+        private int rejected;
+        private final List<UserImportErrorDTO> errors = new ArrayList<>();
+
+        void reject(int line, String email, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new UserImportErrorDTO(line, email, message));
+            }
+        }
+
+        UserImportResultDTO toResult(long elapsedMs) {
+            errors.sort(Comparator.comparingInt(UserImportErrorDTO::line));
+            return new UserImportResultDTO(rowsRead, created, rejected, rejected > errors.size(), errors, elapsedMs);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.uwm.paws360;
 
+import com.uwm.paws360.Service.SessionManagementService;
+import com.uwm.paws360.config.SessionAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -60,4 +63,15 @@ public class WebConfig {
         source.registerCorsConfiguration("/**", config);
         return source;
     }
+
+    // Resolve the caller's session once per request, ahead of the controllers that read it
+    @Bean
+    public FilterRegistrationBean<SessionAuthenticationFilter> sessionAuthenticationFilter(
+            SessionManagementService sessionManagementService) {
+        FilterRegistrationBean<SessionAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new SessionAuthenticationFilter(sessionManagementService));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(0);
+        return registration;
+    }
 }
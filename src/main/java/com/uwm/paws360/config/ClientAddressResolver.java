@@ -0,0 +1,122 @@
+package com.uwm.paws360.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the address of the client behind a request for per-address throttling. Forwarding
+ * headers are only believed when the connection comes from one of
+ * {@code paws360.trusted-proxies} (addresses or CIDR ranges). Only loopback is trusted by default;
+ * a deployment behind a load balancer lists that balancer's addresses there.
+ * {@code X-Forwarded-For} is then read right to left and the first hop that is not a trusted proxy
+ * is the client, so a value a client puts at the front of the header is never used. No other
+ * header is consulted: without {@code X-Forwarded-For} the connecting address is the client.
+ */
+@Component
+public class ClientAddressResolver {
+
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9A-Fa-f:.]+");
+
+    private final List<Range> trustedProxies = new ArrayList<>();
+
+    public ClientAddressResolver(@Value("${paws360.trusted-proxies:127.0.0.0/8,::1/128}")
+                                 List<String> trustedProxies) {
+        for (String proxy : trustedProxies) {
+            Range range = Range.parse(proxy.trim());
+            if (range != null) {
+                this.trustedProxies.add(range);
+            }
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (!isTrusted(remote)) {
+            return remote;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && !isTrusted(hop)) {
+                    return hop;
+                }
+            }
+            // Every hop is one of ours; the first is the closest we get to the client
+            String first = hops[0].trim();
+            return first.isEmpty() ? remote : first;
+        }
+        return remote;
+    }
+
+    boolean isTrusted(String address) {
+        InetAddress parsed = Range.literal(address);
+        if (parsed == null) {
+            return false;
+        }
+        for (Range range : trustedProxies) {
+            if (range.contains(parsed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Range(byte[] network, int prefix) {
+
+        static Range parse(String value) {
+            int slash = value.indexOf('/');
+            InetAddress address = literal(slash < 0 ? value : value.substring(0, slash));
+            if (address == null) {
+                return null;
+            }
+            int bits = address.getAddress().length * 8;
+            try {
+                int prefix = slash < 0 ? bits : Integer.parseInt(value.substring(slash + 1));
+                return new Range(address.getAddress(), Math.max(0, Math.min(bits, prefix)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        // Only IP literals; a host name here must never cause a DNS lookup
+        static InetAddress literal(String value) {
+            if (value == null || value.isEmpty() || !IP_LITERAL.matcher(value).matches()
+                    || (value.indexOf('.') < 0 && value.indexOf(':') < 0)) {
+                return null;
+            }
+            try {
+                return InetAddress.getByName(value);
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] candidate = address.getAddress();
+            if (candidate.length != network.length) {
+                return false;
+            }
+            int whole = prefix / 8;
+            for (int i = 0; i < whole; i++) {
+                if (candidate[i] != network[i]) {
+                    return false;
+                }
+            }
+            int rest = prefix % 8;
+            if (rest == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - rest);
+            return (candidate[whole] & mask) == (network[whole] & mask);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.uwm.paws360.config;
 
+import com.uwm.paws360.Service.PasswordHashingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
@@ -282,6 +283,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
     }
 
+    /**
+     * Handle password hashing backpressure
+     */
+    @ExceptionHandler(PasswordHashingService.HashingBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleHashingBusyExceptions(
+            PasswordHashingService.HashingBusyException ex, HttpServletRequest request) {
+        
+        Map<String, Object> errorResponse = createBaseErrorResponse(
+            HttpStatus.TOO_MANY_REQUESTS,
+            "Too many requests",
+            "The server is busy. Please try again shortly.",
+            request.getRequestURI()
+        );
+
+        logger.warn("Hashing capacity exhausted on {} from {}: {}", 
+            request.getRequestURI(), 
+            getClientIp(request),
+            ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header("Retry-After", "1")
+            .body(errorResponse);
+    }
+
     /**
      * Handle all other unhandled exceptions
      */
@@ -0,0 +1,134 @@
+package com.uwm.paws360.config;
+
+import com.uwm.paws360.Service.AdminDashboardService;
+import com.uwm.paws360.Service.LoginThrottle;
+import com.uwm.paws360.Service.PaymentPlanInstallmentService;
+import com.uwm.paws360.Service.ScheduledJobRunner;
+import com.uwm.paws360.Service.SessionManagementService;
+import com.uwm.paws360.Service.SessionRevocationList;
+import com.uwm.paws360.Service.SessionTouchBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Every scheduled trigger of the application, each handed to {@link ScheduledJobRunner}. Jobs that
+ * only look after this node's memory run everywhere; jobs against the shared database run on the
+ * leader, or are sharded when one run is too much work for a single node.
+ */
+@Component
+public class ScheduledJobs {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJobs.class);
+
+    private final ScheduledJobRunner runner;
+    private final SessionManagementService sessionManagementService;
+    private final SessionTouchBuffer touchBuffer;
+    private final LoginThrottle loginThrottle;
+    private final SessionRevocationList revocations;
+    private final SessionTimeoutConfig sessionTimeoutConfig;
+    private final PaymentPlanInstallmentService installmentService;
+    private final AdminDashboardService adminDashboardService;
+    private final int installmentShards;
+
+    public ScheduledJobs(ScheduledJobRunner runner,
+                         SessionManagementService sessionManagementService,
+                         SessionTouchBuffer touchBuffer,
+                         LoginThrottle loginThrottle,
+                         SessionRevocationList revocations,
+                         SessionTimeoutConfig sessionTimeoutConfig,
+                         PaymentPlanInstallmentService installmentService,
+                         AdminDashboardService adminDashboardService,
+                         @Value("${paws360.payment-plans.installment-shards:8}") int installmentShards) {
+        this.runner = runner;
+        this.sessionManagementService = sessionManagementService;
+        this.touchBuffer = touchBuffer;
+        this.loginThrottle = loginThrottle;
+        this.revocations = revocations;
+        this.sessionTimeoutConfig = sessionTimeoutConfig;
+        this.installmentService = installmentService;
+        this.adminDashboardService = adminDashboardService;
+        this.installmentShards = installmentShards;
+    }
+
+    @Scheduled(fixedDelayString = "${paws360.jobs.leader-check-interval:PT10S}")
+    public void checkLeadership() {
+        runner.checkLeadership();
+    }
+
+    /*------------------------- Every node -------------------------*/
+
+    // The expiry wheel only tracks sessions used on this node
+    @Scheduled(fixedDelayString = "${paws360.session.expiry.tick:PT1S}")
+    public void expireDueSessions() {
+        runner.runLocal("session-expiry", sessionManagementService::expireDueSessions);
+    }
+
+    @Scheduled(fixedDelayString = "${paws360.session-touch.flush-interval:PT5S}")
+    public void flushSessionTouches() {
+        runner.runLocal("session-touch-flush", touchBuffer::flush);
+    }
+
+    @Scheduled(fixedDelayString = "${paws360.login-throttle.purge-interval:PT1M}")
+    public void purgeLoginThrottle() {
+        runner.runLocal("login-throttle-purge", loginThrottle::purgeExpired);
+    }
+
+    // Signed-token revocations recorded on other nodes
+    @Scheduled(fixedDelayString = "${paws360.session.revocation-poll-interval:PT2S}")
+    public void pollRevocations() {
+        runner.runLocal("revocation-poll", revocations::refresh);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeRevocations() {
+        runner.runLocal("revocation-purge", revocations::purgeExpired);
+    }
+
+    // Each node serves dashboards from its own snapshot
+    @Scheduled(fixedDelayString = "${paws360.admin-dashboard.refresh-interval:PT30S}")
+    public void refreshAdminDashboard() {
+        runner.runLocal("admin-dashboard-refresh", adminDashboardService::refresh);
+    }
+
+    /*------------------------- Leader only -------------------------*/
+
+    @Scheduled(fixedRate = 3600000) // 1 hour
+    public void cleanupExpiredSessions() {
+        runner.runOnLeader("session-cleanup", sessionManagementService::cleanupExpiredSessions);
+    }
+
+    @Scheduled(fixedRate = 900000) // 15 minutes
+    public void logSessionStatistics() {
+        runner.runOnLeader("session-statistics", sessionTimeoutConfig::logSessionStatistics);
+    }
+
+    @Scheduled(cron = "${paws360.jobs.history-purge-cron:0 30 3 * * *}")
+    public void purgeJobHistory() {
+        runner.runOnLeader("job-history-purge", () -> {
+            int purged = runner.purgeHistory();
+            if (purged > 0) {
+                logger.info("Purged {} scheduled job runs", purged);
+            }
+        });
+    }
+
+    /*------------------------- Sharded -------------------------*/
+
+    /**
+     * Every node fires at the same time and works through the shards of the day's due plans it can
+     * claim, so the run finishes sooner with more nodes and still completes if some are down. Plans
+     * are sharded by plan id modulo the shard count, so a shard means the same plans on every node.
+     */
+    @Scheduled(cron = "${paws360.payment-plans.installment-cron:0 15 2 * * *}")
+    public void processDueInstallments() {
+        LocalDate asOf = LocalDate.now();
+        int ran = runner.runSharded("payment-plan-installments", asOf.toString(), installmentShards,
+                (shard, shards) -> installmentService.processDueInstallmentShard(asOf, shard, shards).isPresent());
+        logger.info("Processed {} installment shards for {} on this node", ran, asOf);
+    }
+}
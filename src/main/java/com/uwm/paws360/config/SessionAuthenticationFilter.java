@@ -0,0 +1,92 @@
+package com.uwm.paws360.config;
+
+import com.uwm.paws360.Service.SessionManagementService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Resolves the SSO session carried by a request once, before any controller runs, and keeps the
+ * result as a request attribute. Controllers read it with {@link #resolve} instead of validating the
+ * token themselves, so a request costs one session lookup (normally a cache hit) no matter how many
+ * checks its handler makes. Requests without a valid session pass through unauthenticated; each
+ * endpoint still decides how to answer them.
+ *
+ * Registered in {@link com.uwm.paws360.WebConfig}.
+ */
+public class SessionAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String SESSION_COOKIE_NAME = "PAWS360_SESSION";
+
+    private static final String PRINCIPAL_ATTRIBUTE = SessionPrincipal.class.getName();
+
+    private final SessionManagementService sessionManagementService;
+
+    public SessionAuthenticationFilter(SessionManagementService sessionManagementService) {
+        this.sessionManagementService = sessionManagementService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        resolve(request, sessionManagementService);
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Login issues a new token, so whatever the request carries is not worth validating.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/auth/login");
+    }
+
+    /**
+     * The principal of this request. Normally already resolved by the filter; when the filter did
+     * not run (e.g. MockMvc without filters) the session is validated here, once, and remembered.
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<SessionPrincipal> resolve(HttpServletRequest request,
+                                                     SessionManagementService sessionManagementService) {
+        Object resolved = request.getAttribute(PRINCIPAL_ATTRIBUTE);
+        if (resolved instanceof Optional<?> principal) {
+            return (Optional<SessionPrincipal>) principal;
+        }
+        String sessionToken = extractSessionToken(request);
+        Optional<SessionPrincipal> principal = sessionToken == null
+                ? Optional.empty()
+                : sessionManagementService.validateAndRefreshSession(sessionToken)
+                        .map(session -> SessionPrincipal.of(sessionToken, session));
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        return principal;
+    }
+
+    /**
+     * Extract session token from cookie, Authorization header or X-Session-Token header
+     */
+    public static String extractSessionToken(HttpServletRequest request) {
+        // First try to get from cookie (preferred for SSO)
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (SESSION_COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+
+        // Fallback to Authorization header for API clients
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+
+        // Fallback to X-Session-Token header
+        return request.getHeader("X-Session-Token");
+    }
+}
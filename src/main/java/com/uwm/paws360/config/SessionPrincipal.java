@@ -0,0 +1,21 @@
+package com.uwm.paws360.config;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+
+/**
+ * The authenticated caller of the current request, resolved once by
+ * {@link SessionAuthenticationFilter}. The session's user is loaded and detached.
+ */
+public record SessionPrincipal(int userId, Role role, String sessionToken, AuthenticationSession session) {
+
+    static SessionPrincipal of(String sessionToken, AuthenticationSession session) {
+        Users user = session.getUser();
+        return new SessionPrincipal(user.getId(), user.getRole(), sessionToken, session);
+    }
+
+    public Users user() {
+        return session.getUser();
+    }
+}
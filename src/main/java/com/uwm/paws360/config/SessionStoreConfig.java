@@ -0,0 +1,56 @@
+package com.uwm.paws360.config;
+
+import com.uwm.paws360.JPARepository.User.AuthenticationSessionRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import com.uwm.paws360.Service.InMemorySessionStore;
+import com.uwm.paws360.Service.JpaSessionStore;
+import com.uwm.paws360.Service.RespClient;
+import com.uwm.paws360.Service.RespSessionStore;
+import com.uwm.paws360.Service.SessionStore;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Chooses the {@link SessionStore} from {@code paws360.session.store}: {@code jpa} (default),
+ * {@code memory} or {@code redis}. The Redis connection falls back to the spring.redis settings.
+ */
+@Configuration
+public class SessionStoreConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStoreConfig.class);
+
+    @Bean
+    public SessionStore sessionStore(@Value("${paws360.session.store:jpa}") String store,
+                                     @Value("${paws360.session.memory.shards:16}") int shards,
+                                     @Value("${paws360.session.redis.host:${spring.redis.host:localhost}}") String redisHost,
+                                     @Value("${paws360.session.redis.port:${spring.redis.port:6379}}") int redisPort,
+                                     @Value("${paws360.session.redis.password:${spring.redis.password:}}") String redisPassword,
+                                     @Value("${paws360.session.redis.pool-size:16}") int redisPoolSize,
+                                     @Value("${paws360.session.redis.timeout:PT2S}") Duration redisTimeout,
+                                     @Value("${paws360.session.redis.retention:P30D}") Duration redisRetention,
+                                     AuthenticationSessionRepository sessionRepository,
+                                     UserRepository userRepository,
+                                     NamedParameterJdbcTemplate jdbcTemplate,
+                                     EntityManager entityManager) {
+        switch (store.trim().toLowerCase()) {
+            case "memory":
+                logger.info("Sessions are kept in memory ({} shards); they are not shared between instances", shards);
+                return new InMemorySessionStore(shards);
+            case "redis":
+                logger.info("Sessions are kept in Redis at {}:{}", redisHost, redisPort);
+                RespClient client = new RespClient(redisHost, redisPort, redisPassword, redisPoolSize, redisTimeout);
+                return new RespSessionStore(client, userRepository, redisRetention);
+            case "jpa":
+                return new JpaSessionStore(sessionRepository, jdbcTemplate, entityManager);
+            default:
+                throw new IllegalStateException("Unknown paws360.session.store '" + store + "' (expected jpa, memory or redis)");
+        }
+    }
+}
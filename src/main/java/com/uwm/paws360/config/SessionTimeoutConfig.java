@@ -5,7 +5,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import com.uwm.paws360.Service.SessionManagementService;
@@ -33,45 +32,10 @@ public class SessionTimeoutConfig {
         this.sessionManagementService = sessionManagementService;
     }
 
-    /**
-     * Scheduled task to clean up expired sessions
-     * Runs every 5 minutes to remove expired sessions
-     */
-    @Scheduled(fixedRate = 300000) // 5 minutes
-    public void cleanupExpiredSessions() {
-        try {
-            logger.debug("Starting scheduled session cleanup");
-            
-            long activeSessionsBefore = sessionManagementService.getActiveSessionsCount();
-            sessionManagementService.cleanupExpiredSessions();
-            long activeSessionsAfter = sessionManagementService.getActiveSessionsCount();
-            
-            long cleanedSessions = activeSessionsBefore - activeSessionsAfter;
-            
-            if (cleanedSessions > 0) {
-                logger.info("Session cleanup completed: {} expired sessions removed, {} active sessions remaining", 
-                    cleanedSessions, activeSessionsAfter);
-            } else {
-                logger.debug("Session cleanup completed: no expired sessions found, {} active sessions", 
-                    activeSessionsAfter);
-            }
-            
-            // Log warning if approaching session limit
-            if (activeSessionsAfter > maxSessions * 0.8) {
-                logger.warn("High session count: {} active sessions (limit: {})", 
-                    activeSessionsAfter, maxSessions);
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error during scheduled session cleanup: {}", e.getMessage(), e);
-        }
-    }
-
     /**
      * Scheduled task to log session statistics
-     * Runs every 15 minutes for demo monitoring
+     * Runs every 15 minutes for demo monitoring, on the job leader
      */
-    @Scheduled(fixedRate = 900000) // 15 minutes
     public void logSessionStatistics() {
         try {
             long activeSessions = sessionManagementService.getActiveSessionsCount();
@@ -9,7 +9,9 @@ import com.uwm.paws360.Entity.EntityDomains.User.Country_Code;
 import com.uwm.paws360.Entity.EntityDomains.User.Role;
 import com.uwm.paws360.Entity.EntityDomains.User.Status;
 import com.uwm.paws360.Service.LoginService;
+import com.uwm.paws360.Service.PasswordHashingService;
 import com.uwm.paws360.Service.SessionManagementService;
+import com.uwm.paws360.config.ClientAddressResolver;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -51,6 +54,7 @@ import org.hamcrest.Matchers;
  * - IP address extraction and tracking
  */
 @WebMvcTest(AuthController.class)
+@Import(ClientAddressResolver.class)
 @org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc(addFilters = false)
 @DisplayName("AuthController Unit Tests")
 class AuthControllerTest {
@@ -199,13 +203,8 @@ class AuthControllerTest {
         @DisplayName("Should successfully login with valid credentials and set session cookie")
         void shouldLoginSuccessfullyWithCookie() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenReturn(successfulLoginResponse);
-            when(loginService.validateSSOSession("valid-token-123"))
-                .thenReturn(Optional.of(demoStudent));
-            when(sessionManagementService.createSession(
-                any(Users.class), anyString(), anyString(), eq("Mozilla/5.0 Test Browser"), anyString()
-            )).thenReturn(validSession);
 
             // When & Then
             mockMvc.perform(post("/auth/login")
@@ -227,10 +226,9 @@ class AuthControllerTest {
                 .andExpect(cookie().maxAge("PAWS360_SESSION", 3600))
                 .andExpect(cookie().path("PAWS360_SESSION", "/"));
 
-            // Verify session management service called with correct parameters
-            verify(sessionManagementService).createSession(
-                eq(demoStudent),
-                eq("valid-token-123"),
+            // Verify the login carried the request context for the session
+            verify(loginService).login(
+                any(UserLoginRequestDTO.class),
                 eq("192.168.1.100"),
                 eq("Mozilla/5.0 Test Browser"), // User-Agent header is set in the request
                 eq("student-portal")
@@ -241,10 +239,8 @@ class AuthControllerTest {
         @DisplayName("Should handle custom service origin from header")
         void shouldHandleCustomServiceOrigin() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenReturn(successfulLoginResponse);
-            when(loginService.validateSSOSession("valid-token-123"))
-                .thenReturn(Optional.of(demoStudent));
 
             // When & Then
             mockMvc.perform(post("/auth/login")
@@ -253,8 +249,8 @@ class AuthControllerTest {
                     .header("X-Service-Origin", "admin-dashboard"))
                 .andExpect(status().isOk());
 
-            verify(sessionManagementService).createSession(
-                any(Users.class), anyString(), eq("127.0.0.1"), isNull(), eq("admin-dashboard")
+            verify(loginService).login(
+                any(UserLoginRequestDTO.class), eq("127.0.0.1"), isNull(), eq("admin-dashboard")
             );
         }
 
@@ -262,7 +258,7 @@ class AuthControllerTest {
         @DisplayName("Should return 401 for invalid credentials")
         void shouldReturn401ForInvalidCredentials() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenReturn(failedLoginResponse);
 
             // When & Then
@@ -282,7 +278,7 @@ class AuthControllerTest {
         @DisplayName("Should return 423 for locked account")
         void shouldReturn423ForLockedAccount() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenReturn(lockedAccountResponse);
 
             // When & Then
@@ -295,13 +291,11 @@ class AuthControllerTest {
         }
 
         @Test
-        @DisplayName("Should handle IP address extraction from X-Real-IP header")
-        void shouldExtractIpFromXRealIpHeader() throws Exception {
+        @DisplayName("Should ignore the X-Real-IP header")
+        void shouldIgnoreXRealIpHeader() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenReturn(successfulLoginResponse);
-            when(loginService.validateSSOSession("valid-token-123"))
-                .thenReturn(Optional.of(demoStudent));
 
             // When & Then
             mockMvc.perform(post("/auth/login")
@@ -310,8 +304,9 @@ class AuthControllerTest {
                     .header("X-Real-IP", "10.0.0.100"))
                 .andExpect(status().isOk());
 
-            verify(sessionManagementService).createSession(
-                any(Users.class), anyString(), eq("10.0.0.100"), isNull(), anyString()
+            // Only X-Forwarded-For is read, so the connecting address is the client
+            verify(loginService).login(
+                any(UserLoginRequestDTO.class), eq("127.0.0.1"), isNull(), anyString()
             );
         }
 
@@ -319,10 +314,8 @@ class AuthControllerTest {
         @DisplayName("Should fallback to remote address when no proxy headers")
         void shouldFallbackToRemoteAddress() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenReturn(successfulLoginResponse);
-            when(loginService.validateSSOSession("valid-token-123"))
-                .thenReturn(Optional.of(demoStudent));
 
             // When & Then
             mockMvc.perform(post("/auth/login")
@@ -331,8 +324,8 @@ class AuthControllerTest {
                 .andExpect(status().isOk());
 
             // Verify called with request's remote address (usually 127.0.0.1 in tests), no User-Agent
-            verify(sessionManagementService).createSession(
-                any(Users.class), anyString(), eq("127.0.0.1"), isNull(), anyString()
+            verify(loginService).login(
+                any(UserLoginRequestDTO.class), eq("127.0.0.1"), isNull(), anyString()
             );
         }
     }
@@ -783,7 +776,7 @@ class AuthControllerTest {
         @DisplayName("Should handle service exceptions gracefully")
         void shouldHandleServiceExceptions() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenThrow(new RuntimeException("Database connection failed"));
 
             // When & Then
@@ -792,6 +785,22 @@ class AuthControllerTest {
                     .content(objectMapper.writeValueAsString(validLoginRequest)))
                 .andExpect(status().isInternalServerError());
         }
+
+        @Test
+        @DisplayName("Should return 429 when password hashing is saturated")
+        void shouldReturn429WhenHashingSaturated() throws Exception {
+            // Given
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
+                .thenThrow(new PasswordHashingService.HashingBusyException("Password hashing queue is full"));
+
+            // When & Then
+            mockMvc.perform(post("/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validLoginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(cookie().doesNotExist("PAWS360_SESSION"));
+        }
     }
 
     @Nested
@@ -802,10 +811,8 @@ class AuthControllerTest {
         @DisplayName("Should handle multiple X-Forwarded-For IPs correctly")
         void shouldHandleMultipleForwardedIPs() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenReturn(successfulLoginResponse);
-            when(loginService.validateSSOSession("valid-token-123"))
-                .thenReturn(Optional.of(demoStudent));
 
             // When & Then
             mockMvc.perform(post("/auth/login")
@@ -814,9 +821,32 @@ class AuthControllerTest {
                     .header("X-Forwarded-For", "203.0.113.195, 70.41.3.18, 150.172.238.178"))
                 .andExpect(status().isOk());
 
-            // Should extract first IP from comma-separated list, userAgent is null when not provided
-            verify(sessionManagementService).createSession(
-                any(Users.class), anyString(), eq("203.0.113.195"), isNull(), anyString()
+            // The rightmost hop not added by a trusted proxy is the client; earlier hops can be forged
+            verify(loginService).login(
+                any(UserLoginRequestDTO.class), eq("150.172.238.178"), isNull(), anyString()
+            );
+        }
+
+        @Test
+        @DisplayName("Should ignore X-Forwarded-For from clients that are not trusted proxies")
+        void shouldIgnoreSpoofedForwardedFor() throws Exception {
+            // Given
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
+                .thenReturn(successfulLoginResponse);
+
+            // When & Then
+            mockMvc.perform(post("/auth/login")
+                    .with(request -> {
+                        request.setRemoteAddr("198.51.100.7");
+                        return request;
+                    })
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validLoginRequest))
+                    .header("X-Forwarded-For", "203.0.113.195"))
+                .andExpect(status().isOk());
+
+            verify(loginService).login(
+                any(UserLoginRequestDTO.class), eq("198.51.100.7"), isNull(), anyString()
             );
         }
 
@@ -824,10 +854,8 @@ class AuthControllerTest {
         @DisplayName("Should prioritize X-Forwarded-For over X-Real-IP")
         void shouldPrioritizeXForwardedForOverXRealIP() throws Exception {
             // Given
-            when(loginService.login(any(UserLoginRequestDTO.class)))
+            when(loginService.login(any(UserLoginRequestDTO.class), any(), any(), any()))
                 .thenReturn(successfulLoginResponse);
-            when(loginService.validateSSOSession("valid-token-123"))
-                .thenReturn(Optional.of(demoStudent));
 
             // When & Then
             mockMvc.perform(post("/auth/login")
@@ -837,8 +865,8 @@ class AuthControllerTest {
                     .header("X-Real-IP", "10.0.0.100"))
                 .andExpect(status().isOk());
 
-            verify(sessionManagementService).createSession(
-                any(Users.class), anyString(), eq("192.168.1.100"), isNull(), anyString()
+            verify(loginService).login(
+                any(UserLoginRequestDTO.class), eq("192.168.1.100"), isNull(), anyString()
             );
         }
     }
@@ -6,6 +6,7 @@ import com.uwm.paws360.DTO.User.EditUserRequestDTO;
 import com.uwm.paws360.DTO.User.UserResponseDTO;
 import com.uwm.paws360.Entity.EntityDomains.User.Role;
 import com.uwm.paws360.Entity.EntityDomains.User.Status;
+import com.uwm.paws360.Service.UserImportService;
 import com.uwm.paws360.Service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +39,9 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserImportService userImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -1,5 +1,6 @@
 package com.uwm.paws360.JPARepository.User;
 
+import com.uwm.paws360.DTO.User.StudentSummaryDTO;
 import com.uwm.paws360.Entity.Base.Address;
 import com.uwm.paws360.Entity.Base.Users;
 import com.uwm.paws360.Entity.UserTypes.Student;
@@ -170,4 +171,77 @@ public class StudentRepositoryTest {
         Optional<Student> deletedStudent = studentRepository.findById(savedStudent.getId());
         assertThat(deletedStudent).isNotPresent();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindByCampusIdAndEmailWithUser() {
+        // Given
+        Student student = new Student();
+        Users user = new Users();
+        user.setFirstname("Lookup");
+        user.setLastname("Test");
+        user.setEmail("Lookup.Test@student.example.com");
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity("000000055");
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Address address = createTestAddress();
+        address.setUser(user);
+        user.getAddresses().add(address);
+
+        Users savedUser = userRepository.save(user);
+        student.setUser(savedUser);
+        student.setCampusId("990000055");
+        studentRepository.save(student);
+
+        // When
+        Optional<Student> byCampusId = studentRepository.findByCampusIdWithUser("990000055");
+        Optional<Student> byEmail = studentRepository.findByUserEmailWithUser("lookup.test@STUDENT.example.com");
+        Optional<Student> byUserId = studentRepository.findByUserIdWithUser(savedUser.getId());
+
+        // Then
+        assertThat(byCampusId).isPresent();
+        assertThat(byCampusId.get().getUser().getFirstname()).isEqualTo("Lookup");
+        assertThat(byEmail).isPresent();
+        assertThat(byEmail.get().getCampusId()).isEqualTo("990000055");
+        assertThat(byUserId).isPresent();
+        assertThat(studentRepository.findByCampusIdWithUser("990000099")).isNotPresent();
+    }
+
+    @Test
+    public void testFindSummariesByUserIds() {
+        // Given
+        Users user = new Users();
+        user.setFirstname("Batch");
+        user.setLastname("Test");
+        user.setEmail("batch.test@student.example.com");
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity("000000056");
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Users savedUser = userRepository.save(user);
+        Student student = new Student();
+        student.setUser(savedUser);
+        student.setCampusId("990000056");
+        studentRepository.save(student);
+
+        // When
+        List<StudentSummaryDTO> summaries =
+            studentRepository.findSummariesByUserIds(List.of(savedUser.getId(), savedUser.getId() + 100000));
+
+        // Then
+        assertThat(summaries).hasSize(1);
+        assertThat(summaries.get(0).userId()).isEqualTo(savedUser.getId());
+        assertThat(summaries.get(0).campusId()).isEqualTo("990000056");
+        assertThat(summaries.get(0).email()).isEqualTo("batch.test@student.example.com");
+    }
+}
@@ -0,0 +1,37 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.EntityDomains.SectionEnrollmentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AdminDashboardService Unit Tests")
+class AdminDashboardServiceTest {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final AdminDashboardService service =
+            new AdminDashboardService(jdbcTemplate, mock(SessionManagementService.class));
+
+    @Test
+    @DisplayName("Should apply session and enrollment events to the snapshot without querying")
+    void shouldApplyEvents() {
+        service.onSessionCountChanged(new SessionCountChangedEvent("student-portal", 1));
+        service.onSessionCountChanged(new SessionCountChangedEvent("student-portal", 1));
+        service.onSessionCountChanged(new SessionCountChangedEvent(null, -1));
+        service.onEnrollmentChanged(new EnrollmentChangedEvent(1, 10L, null, SectionEnrollmentStatus.WAITLISTED));
+        service.onEnrollmentChanged(new EnrollmentChangedEvent(1, 10L, SectionEnrollmentStatus.WAITLISTED, SectionEnrollmentStatus.ENROLLED));
+        service.onEnrollmentChanged(new EnrollmentChangedEvent(1, 10L, SectionEnrollmentStatus.ENROLLED, SectionEnrollmentStatus.ENROLLED));
+
+        AdminDashboardService.Snapshot snapshot = service.snapshot();
+
+        assertThat(snapshot.activeSessions()).isEqualTo(1);
+        assertThat(snapshot.activeSessionsByService()).containsEntry("student-portal", 2L);
+        assertThat(snapshot.sectionEnrollmentsByStatus())
+                .containsEntry("ENROLLED", 1L)
+                .containsEntry("WAITLISTED", 0L);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,152 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Advising.MessageDTO;
+import com.uwm.paws360.DTO.Advising.MessagePageDTO;
+import com.uwm.paws360.Entity.Advising.AdvisorMessage;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.UserTypes.Advisor;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.Advising.AdvisorAppointmentRepository;
+import com.uwm.paws360.JPARepository.Advising.AdvisorMessageRepository;
+import com.uwm.paws360.JPARepository.Advising.StudentAdvisorRepository;
+import com.uwm.paws360.JPARepository.User.AdvisorRepository;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AdvisingService Unit Tests")
+class AdvisingServiceTest {
+
+    private static final int STUDENT_ID = 7;
+
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final AdvisorRepository advisorRepository = mock(AdvisorRepository.class);
+    private final AdvisorMessageRepository messageRepository = mock(AdvisorMessageRepository.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final AdvisorMessageNotifier notifier = new AdvisorMessageNotifier(10, Duration.ofMinutes(1));
+    private final AdvisingService service = new AdvisingService(studentRepository, advisorRepository,
+            mock(StudentAdvisorRepository.class), mock(AdvisorAppointmentRepository.class), messageRepository,
+            notifier, events, Duration.ofSeconds(25));
+
+    private Advisor advisor;
+
+    @BeforeEach
+    void setUp() {
+        Users user = new Users();
+        user.setFirstname("Ada");
+        user.setLastname("Advisor");
+        advisor = mock(Advisor.class);
+        when(advisor.getId()).thenReturn(3);
+        when(advisor.getUser()).thenReturn(user);
+        when(studentRepository.existsById(STUDENT_ID)).thenReturn(true);
+    }
+
+    // Stubs its own mocks, so call it before, never inside, another when(...)
+    private AdvisorMessage message(long id) {
+        AdvisorMessage message = mock(AdvisorMessage.class);
+        when(message.getId()).thenReturn(id);
+        when(message.getAdvisor()).thenReturn(advisor);
+        when(message.getSender()).thenReturn(AdvisorMessage.Sender.STUDENT);
+        when(message.getContent()).thenReturn("hello " + id);
+        when(message.getSentAt()).thenReturn(OffsetDateTime.now());
+        return message;
+    }
+
+    private List<AdvisorMessage> messages(long... ids) {
+        return Arrays.stream(ids).mapToObj(this::message).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<MessageDTO> resultOf(DeferredResult<List<MessageDTO>> result) {
+        return (List<MessageDTO>) result.getResult();
+    }
+
+    @Test
+    @DisplayName("Should answer a poll at once when newer messages exist")
+    void shouldReturnNewerMessages() {
+        List<AdvisorMessage> newer = messages(6L, 7L);
+        when(messageRepository.findLatestId(STUDENT_ID)).thenReturn(7L);
+        when(messageRepository.findConversationAfter(eq(STUDENT_ID), eq(5L), any(Limit.class))).thenReturn(newer);
+
+        DeferredResult<List<MessageDTO>> result = service.awaitMessages(STUDENT_ID, 5L);
+
+        assertThat(result.hasResult()).isTrue();
+        assertThat(resultOf(result)).extracting(MessageDTO::id).containsExactly(6L, 7L);
+    }
+
+    @Test
+    @DisplayName("Should park an up-to-date poll and skip the database for the next one")
+    void shouldParkUpToDatePolls() {
+        when(messageRepository.findLatestId(STUDENT_ID)).thenReturn(5L);
+
+        DeferredResult<List<MessageDTO>> first = service.awaitMessages(STUDENT_ID, 5L);
+        DeferredResult<List<MessageDTO>> second = service.awaitMessages(STUDENT_ID, 5L);
+
+        assertThat(first.hasResult()).isFalse();
+        assertThat(second.hasResult()).isFalse();
+        verify(messageRepository, times(1)).findLatestId(STUDENT_ID);
+        verify(messageRepository, never()).findConversationAfter(anyInt(), anyLong(), any(Limit.class));
+
+        MessageDTO sent = new MessageDTO(6L, STUDENT_ID, 3, "Ada Advisor", "STUDENT", "hello", OffsetDateTime.now());
+        notifier.onMessageSent(new AdvisorMessageSentEvent(STUDENT_ID, sent));
+
+        assertThat(resultOf(first)).containsExactly(sent);
+        assertThat(resultOf(second)).containsExactly(sent);
+    }
+
+    @Test
+    @DisplayName("Should page back through a conversation with an opaque cursor")
+    void shouldPageMessages() {
+        List<AdvisorMessage> newest = messages(9L, 8L, 7L);
+        when(messageRepository.findConversationPage(eq(STUDENT_ID), any(Limit.class))).thenReturn(newest);
+
+        MessagePageDTO first = service.pageMessages(STUDENT_ID, null, 2);
+
+        assertThat(first.items()).extracting(MessageDTO::id).containsExactly(9L, 8L);
+        assertThat(first.hasMore()).isTrue();
+        // The first page told the notifier which message is newest
+        assertThat(notifier.park(STUDENT_ID, 9L, new DeferredResult<>())).isTrue();
+
+        List<AdvisorMessage> older = messages(7L);
+        when(messageRepository.findConversationPageBefore(eq(STUDENT_ID), eq(8L), any(Limit.class))).thenReturn(older);
+        MessagePageDTO second = service.pageMessages(STUDENT_ID, first.nextCursor(), 2);
+
+        assertThat(second.items()).extracting(MessageDTO::id).containsExactly(7L);
+        assertThat(second.hasMore()).isFalse();
+        assertThat(second.nextCursor()).isNull();
+        assertThatThrownBy(() -> service.pageMessages(STUDENT_ID, "not a cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should lock the student row before sending a message")
+    void shouldLockConversationOnSend() {
+        Student student = mock(Student.class);
+        when(student.getId()).thenReturn(STUDENT_ID);
+        when(studentRepository.findForUpdate(STUDENT_ID)).thenReturn(Optional.of(student));
+        when(advisorRepository.findById(3)).thenReturn(Optional.of(advisor));
+        AdvisorMessage saved = message(10L);
+        when(messageRepository.save(any(AdvisorMessage.class))).thenReturn(saved);
+
+        MessageDTO sent = service.sendMessage(STUDENT_ID, 3, "hello 10");
+
+        assertThat(sent.id()).isEqualTo(10L);
+        verify(studentRepository).findForUpdate(STUDENT_ID);
+        verify(studentRepository, never()).findById(anyInt());
+        verify(events).publishEvent(new AdvisorMessageSentEvent(STUDENT_ID, sent));
+    }
+}
@@ -0,0 +1,81 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Advising.MessageDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AdvisorMessageNotifier Unit Tests")
+class AdvisorMessageNotifierTest {
+
+    private static MessageDTO message(long id) {
+        return new MessageDTO(id, 7, 3, "Ada Advisor", "STUDENT", "hello " + id, OffsetDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should not park polls for conversations it has not read")
+    void shouldRequireKnownLatest() {
+        AdvisorMessageNotifier notifier = new AdvisorMessageNotifier(10, Duration.ofMinutes(1));
+
+        assertThat(notifier.park(7, 5L, new DeferredResult<>())).isFalse();
+
+        notifier.recordLatest(7, 5L);
+        assertThat(notifier.park(7, 4L, new DeferredResult<>())).isFalse();
+        assertThat(notifier.park(7, 5L, new DeferredResult<>())).isTrue();
+        assertThat(notifier.stats().waiters()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should complete parked polls with the next message")
+    void shouldDeliverNextMessage() {
+        AdvisorMessageNotifier notifier = new AdvisorMessageNotifier(10, Duration.ofMinutes(1));
+        notifier.recordLatest(7, 5L);
+        DeferredResult<List<MessageDTO>> poll = new DeferredResult<>();
+        DeferredResult<List<MessageDTO>> otherConversation = new DeferredResult<>();
+        notifier.recordLatest(8, 2L);
+        assertThat(notifier.park(7, 5L, poll)).isTrue();
+        assertThat(notifier.park(8, 2L, otherConversation)).isTrue();
+
+        notifier.onMessageSent(new AdvisorMessageSentEvent(7, message(6L)));
+
+        assertThat(poll.hasResult()).isTrue();
+        @SuppressWarnings("unchecked")
+        List<MessageDTO> delivered = (List<MessageDTO>) poll.getResult();
+        assertThat(delivered).extracting(MessageDTO::id).containsExactly(6L);
+        assertThat(otherConversation.hasResult()).isFalse();
+        assertThat(notifier.stats().waiters()).isEqualTo(1);
+
+        // The poll that follows knows everything up to the delivered message
+        assertThat(notifier.park(7, 6L, new DeferredResult<>())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should read the database again once the newest id is stale")
+    void shouldRecheckAfterMaxAge() {
+        AdvisorMessageNotifier notifier = new AdvisorMessageNotifier(10, Duration.ZERO);
+        notifier.recordLatest(7, 5L);
+
+        assertThat(notifier.park(7, 5L, new DeferredResult<>())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should evict idle conversations past the limit")
+    void shouldEvictIdleConversations() {
+        AdvisorMessageNotifier notifier = new AdvisorMessageNotifier(2, Duration.ofMinutes(1));
+        notifier.recordLatest(1, 1L);
+        assertThat(notifier.park(1, 1L, new DeferredResult<>())).isTrue();
+        notifier.recordLatest(2, 1L);
+        notifier.recordLatest(3, 1L);
+
+        assertThat(notifier.stats().conversations()).isEqualTo(2);
+        // Conversation 1 has a parked poll, so conversation 2 went instead
+        assertThat(notifier.park(1, 1L, new DeferredResult<>())).isTrue();
+        assertThat(notifier.park(2, 1L, new DeferredResult<>())).isFalse();
+    }
+}
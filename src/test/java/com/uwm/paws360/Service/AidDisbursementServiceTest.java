@@ -0,0 +1,247 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.AidDisbursementResultDTO;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.EntityDomains.Department;
+import com.uwm.paws360.Entity.EntityDomains.Ferpa_Compliance;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import com.uwm.paws360.Entity.EntityDomains.User.Status;
+import com.uwm.paws360.Entity.Finances.AccountBalance;
+import com.uwm.paws360.Entity.Finances.AccountTransaction;
+import com.uwm.paws360.Entity.Finances.AidAward;
+import com.uwm.paws360.Entity.Finances.FinancialAccount;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.Finances.AccountBalanceRepository;
+import com.uwm.paws360.JPARepository.Finances.AidAwardRepository;
+import com.uwm.paws360.JPARepository.Finances.FinancialAccountRepository;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AidDisbursementService.class, LedgerService.class})
+// Pages are written on the service's worker threads, which only see committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("AidDisbursementService Tests")
+class AidDisbursementServiceTest {
+
+    private static final String TERM = "SUMMER";
+    private static final int YEAR = 2032;
+
+    @Autowired
+    private AidDisbursementService aidDisbursementService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private FinancialAccountRepository financialAccountRepository;
+
+    @Autowired
+    private AidAwardRepository aidAwardRepository;
+
+    @Autowired
+    private AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Student> students = new ArrayList<>();
+
+    private FinancialAccount account;
+    private AidAward grant;
+    private AidAward loan;
+
+    @BeforeEach
+    void setUp() {
+        Student owing = createStudent("Owen", "owen.aid@aid.example.com", "000000081");
+        account = createAccount(owing);
+        charge(owing, "1000.00");
+        grant = award(owing, "600.00");
+        loan = award(owing, "800.00");
+        // Nothing owed, so nothing to disburse
+        Student settled = createStudent("Sela", "sela.aid@aid.example.com", "000000082");
+        createAccount(settled);
+        award(settled, "300.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        MapSqlParameterSource ids = new MapSqlParameterSource("studentIds",
+                students.stream().map(Student::getId).toList());
+        String accounts = "(SELECT account_id FROM financial_accounts WHERE student_id IN (:studentIds))";
+        jdbcTemplate.update("DELETE FROM account_ledger_entries WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balance_snapshots WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balances WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_transactions WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM aid_awards WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM financial_accounts WHERE student_id IN (:studentIds)", ids);
+        studentRepository.deleteAll(students);
+        userRepository.deleteAll(students.stream().map(Student::getUser).toList());
+    }
+
+    private Student createStudent(String firstname, String email, String ssn) {
+        Users user = new Users();
+        user.setFirstname(firstname);
+        user.setLastname("Aidman");
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity(ssn);
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Student student = new Student(userRepository.save(user));
+        student.setDepartment(Department.COMPUTER_SCIENCE);
+        student = studentRepository.save(student);
+        students.add(student);
+        return student;
+    }
+
+    private FinancialAccount createAccount(Student student) {
+        FinancialAccount created = new FinancialAccount();
+        created.setStudent(student);
+        return financialAccountRepository.save(created);
+    }
+
+    private void charge(Student student, String amount) {
+        AccountTransaction transaction = new AccountTransaction();
+        transaction.setStudent(student);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setType(AccountTransaction.Type.CHARGE);
+        transaction.setDescription("Tuition");
+        ledgerService.postTransaction(transaction);
+    }
+
+    private AidAward award(Student student, String accepted) {
+        AidAward award = new AidAward();
+        award.setStudent(student);
+        award.setType(AidAward.AidType.GRANT);
+        award.setAmountOffered(new BigDecimal(accepted));
+        award.setAmountAccepted(new BigDecimal(accepted));
+        award.setStatus(AidAward.AidStatus.ACTIVE);
+        award.setTerm(TERM);
+        award.setAcademicYear(YEAR);
+        return ledgerService.postAidAward(award);
+    }
+
+    private BigDecimal disbursed(AidAward award) {
+        return aidAwardRepository.findById(award.getId()).orElseThrow().getAmountDisbursed();
+    }
+
+    private int creditsFor(AidAward award) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_transactions WHERE aid_award_id = :awardId",
+                new MapSqlParameterSource("awardId", award.getId()), Integer.class);
+    }
+
+    @Test
+    @DisplayName("Should disburse up to the balance owed, reconcile, and post nothing on a rerun")
+    void shouldDisburseAndReconcile() {
+        AidDisbursementResultDTO result = aidDisbursementService.disburseTerm(TERM, YEAR, false);
+
+        assertThat(result.reconciled()).isTrue();
+        assertThat(result.awardsDisbursed()).isEqualTo(2);
+        assertThat(result.awardsWithoutBalance()).isEqualTo(1);
+        assertThat(result.amountDisbursed()).isEqualByComparingTo("1000.00");
+        assertThat(disbursed(grant)).isEqualByComparingTo("600.00");
+        assertThat(disbursed(loan)).isEqualByComparingTo("400.00");
+
+        // Aid-linked credits count as disbursed aid only, both incrementally and after a rebuild
+        AccountBalance balance = balanceRepository.findById(account.getId()).orElseThrow();
+        assertThat(balance.getTotalAidDisbursed()).isEqualByComparingTo("1000.00");
+        assertThat(balance.getTotalCredits()).isEqualByComparingTo("0");
+        AccountBalance rebuilt = ledgerService.rebuildBalance(account.getId());
+        assertThat(rebuilt.getTotalAidDisbursed()).isEqualByComparingTo("1000.00");
+        assertThat(rebuilt.getTotalCredits()).isEqualByComparingTo("0");
+
+        AidDisbursementResultDTO rerun = aidDisbursementService.disburseTerm(TERM, YEAR, false);
+
+        assertThat(rerun.reconciled()).isTrue();
+        assertThat(rerun.awardsDisbursed()).isZero();
+        assertThat(rerun.amountDisbursed()).isEqualByComparingTo("0");
+        assertThat(creditsFor(grant) + creditsFor(loan)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should write nothing on a dry run")
+    void shouldNotWriteOnDryRun() {
+        AidDisbursementResultDTO result = aidDisbursementService.disburseTerm(TERM, YEAR, true);
+
+        assertThat(result.reconciled()).isTrue();
+        assertThat(result.amountDisbursed()).isEqualByComparingTo("1000.00");
+        assertThat(result.awardsDisbursedAfter()).isEqualByComparingTo(result.awardsDisbursedBefore());
+        assertThat(disbursed(grant)).isEqualByComparingTo("0");
+        assertThat(creditsFor(grant)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should check the awards when the driver reports no row counts")
+    void shouldVerifyAwardsWithoutRowCounts() {
+        NamedParameterJdbcTemplate reporting = spy(jdbcTemplate);
+        doAnswer(invocation -> {
+            // Another run disburses against the grant after this one read it
+            jdbcTemplate.update("UPDATE aid_awards SET amount_disbursed = 50 WHERE award_id = :awardId",
+                    new MapSqlParameterSource("awardId", grant.getId()));
+            int[] counts = (int[]) invocation.callRealMethod();
+            Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+            return counts;
+        }).when(reporting).batchUpdate(startsWith("UPDATE aid_awards"), any(SqlParameterSource[].class));
+        AidDisbursementService service = new AidDisbursementService(reporting, transactionTemplate, ledgerService, 1);
+
+        AidDisbursementResultDTO result;
+        try {
+            result = service.disburseTerm(TERM, YEAR, false);
+        } finally {
+            service.shutdown();
+        }
+
+        assertThat(result.awardsConflicted()).isEqualTo(1);
+        assertThat(result.awardsDisbursed()).isEqualTo(1);
+        assertThat(result.amountDisbursed()).isEqualByComparingTo("400.00");
+        assertThat(disbursed(grant)).isEqualByComparingTo("50.00");
+        assertThat(creditsFor(grant)).isZero();
+        assertThat(creditsFor(loan)).isEqualTo(1);
+    }
+}
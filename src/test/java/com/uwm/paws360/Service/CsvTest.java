@@ -0,0 +1,37 @@
+package com.uwm.paws360.Service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Csv Unit Tests")
+class CsvTest {
+
+    @Test
+    @DisplayName("Should leave plain values unquoted")
+    void shouldLeavePlainValues() {
+        assertThat(Csv.field(null)).isEmpty();
+        assertThat(Csv.field("Tuition Fall 2025")).isEqualTo("Tuition Fall 2025");
+    }
+
+    @Test
+    @DisplayName("Should quote separators, quotes and both kinds of line break")
+    void shouldQuoteSpecialCharacters() {
+        assertThat(Csv.field("Smith, Jr.")).isEqualTo("\"Smith, Jr.\"");
+        assertThat(Csv.field("the \"A\" plan")).isEqualTo("\"the \"\"A\"\" plan\"");
+        assertThat(Csv.field("line\nbreak")).isEqualTo("\"line\nbreak\"");
+        assertThat(Csv.field("carriage\rreturn")).isEqualTo("\"carriage\rreturn\"");
+    }
+
+    @Test
+    @DisplayName("Should neutralise values a spreadsheet would run as formulas")
+    void shouldNeutraliseFormulas() {
+        assertThat(Csv.field("=HYPERLINK(\"http://x\")")).isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\"");
+        assertThat(Csv.field("+1")).isEqualTo("'+1");
+        assertThat(Csv.field("-2+3")).isEqualTo("'-2+3");
+        assertThat(Csv.field("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(Csv.field("a=b")).isEqualTo("a=b");
+        assertThat(Csv.field("")).isEmpty();
+    }
+}
@@ -0,0 +1,245 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.FinancesSummaryResponseDTO;
+import com.uwm.paws360.DTO.Finances.TransactionDTO;
+import com.uwm.paws360.DTO.Finances.TransactionPageDTO;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.EntityDomains.Department;
+import com.uwm.paws360.Entity.EntityDomains.Ferpa_Compliance;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import com.uwm.paws360.Entity.EntityDomains.User.Status;
+import com.uwm.paws360.Entity.Finances.AccountBalance;
+import com.uwm.paws360.Entity.Finances.AccountTransaction;
+import com.uwm.paws360.Entity.Finances.AidAward;
+import com.uwm.paws360.Entity.Finances.FinancialAccount;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.Finances.AccountBalanceRepository;
+import com.uwm.paws360.JPARepository.Finances.AccountTransactionRepository;
+import com.uwm.paws360.JPARepository.Finances.AidAwardRepository;
+import com.uwm.paws360.JPARepository.Finances.FinancialAccountRepository;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FinancesService.class, LedgerService.class})
+// The first summary rebuilds the balance in its own transaction, which only sees committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("FinancesService Tests")
+class FinancesServiceTest {
+
+    @Autowired
+    private FinancesService financesService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private FinancialAccountRepository financialAccountRepository;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepository;
+
+    @Autowired
+    private AidAwardRepository aidAwardRepository;
+
+    @Autowired
+    private AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final List<Student> students = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        MapSqlParameterSource ids = new MapSqlParameterSource("studentIds",
+                students.stream().map(Student::getId).toList());
+        String accounts = "(SELECT account_id FROM financial_accounts WHERE student_id IN (:studentIds))";
+        jdbcTemplate.update("DELETE FROM account_ledger_entries WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balance_snapshots WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balances WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_transactions WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM aid_awards WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM financial_accounts WHERE student_id IN (:studentIds)", ids);
+        studentRepository.deleteAll(students);
+        userRepository.deleteAll(students.stream().map(Student::getUser).toList());
+    }
+
+    private Student createStudent(String firstname, String email, String ssn) {
+        Users user = new Users();
+        user.setFirstname(firstname);
+        user.setLastname("Financeman");
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity(ssn);
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Student student = new Student(userRepository.save(user));
+        student.setDepartment(Department.COMPUTER_SCIENCE);
+        student = studentRepository.save(student);
+        students.add(student);
+        return student;
+    }
+
+    private FinancialAccount createAccount(Student student) {
+        FinancialAccount account = new FinancialAccount();
+        account.setStudent(student);
+        return financialAccountRepository.save(account);
+    }
+
+    private static AccountTransaction transaction(Student student, AccountTransaction.Type type, String amount) {
+        AccountTransaction transaction = new AccountTransaction();
+        transaction.setStudent(student);
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDescription(type.name());
+        return transaction;
+    }
+
+    private static AidAward award(Student student, String accepted, String disbursed) {
+        AidAward award = new AidAward();
+        award.setStudent(student);
+        award.setType(AidAward.AidType.GRANT);
+        award.setAmountOffered(new BigDecimal(accepted));
+        award.setAmountAccepted(new BigDecimal(accepted));
+        award.setAmountDisbursed(new BigDecimal(disbursed));
+        award.setStatus(AidAward.AidStatus.ACTIVE);
+        return award;
+    }
+
+    @Test
+    @DisplayName("Should seed the balance of an account that predates the ledger on first read")
+    void shouldRebuildBalanceLazily() {
+        Student student = createStudent("Fay", "fay.finance@finance.example.com", "000000061");
+        FinancialAccount account = createAccount(student);
+        transactionRepository.save(transaction(student, AccountTransaction.Type.CHARGE, "1000.00"));
+        transactionRepository.save(transaction(student, AccountTransaction.Type.PAYMENT, "300.00"));
+        aidAwardRepository.save(award(student, "500.00", "200.00"));
+        assertThat(balanceRepository.findById(account.getId())).isEmpty();
+
+        FinancesSummaryResponseDTO summary = financesService.getSummary(student.getId());
+
+        assertThat(summary.accountBalance()).isEqualByComparingTo("500.00");
+        assertThat(summary.chargesDue()).isEqualByComparingTo("500.00");
+        assertThat(summary.pendingAid()).isEqualByComparingTo("300.00");
+        assertThat(summary.lastPaymentAmount()).isEqualByComparingTo("300.00");
+        assertThat(balanceRepository.findById(account.getId())).isPresent();
+        assertThat(financesService.getSummary(student.getId())).isEqualTo(summary);
+    }
+
+    @Test
+    @DisplayName("Should count an aid-linked credit once, as disbursed aid")
+    void shouldNotDoubleCountAidCredits() {
+        Student student = createStudent("Finn", "finn.finance@finance.example.com", "000000062");
+        FinancialAccount account = createAccount(student);
+        ledgerService.postTransaction(transaction(student, AccountTransaction.Type.CHARGE, "1000.00"));
+        AidAward grant = ledgerService.postAidAward(award(student, "500.00", "0"));
+        // What a disbursement run writes for the grant: the award total and its aid-linked credit
+        ledgerService.postBatch(List.of(new LedgerService.BatchPosting(account.getId(), student.getId(),
+                AccountTransaction.Type.CREDIT, new BigDecimal("400.00"), "Financial aid disbursement",
+                null, null, null, grant.getId())));
+        jdbcTemplate.update("UPDATE aid_awards SET amount_disbursed = 400 WHERE award_id = :awardId",
+                new MapSqlParameterSource("awardId", grant.getId()));
+
+        FinancesSummaryResponseDTO summary = financesService.getSummary(student.getId());
+
+        assertThat(summary.accountBalance()).isEqualByComparingTo("600.00");
+        assertThat(summary.pendingAid()).isEqualByComparingTo("100.00");
+
+        ledgerService.rebuildBalance(account.getId());
+
+        assertThat(financesService.getSummary(student.getId()).accountBalance()).isEqualByComparingTo("600.00");
+        assertThat(financesService.getSummary(student.getId()).pendingAid()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    @DisplayName("Should page through history without gaps or repeats when rows share a posted_at")
+    void shouldPageAcrossEqualPostedAt() {
+        Student student = createStudent("Flo", "flo.finance@finance.example.com", "000000063");
+        OffsetDateTime batch = OffsetDateTime.of(2033, 1, 15, 9, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < 7; i++) {
+            AccountTransaction transaction = transaction(student, AccountTransaction.Type.CHARGE, (100 + i) + ".00");
+            // Five rows posted in the same instant, so only the id separates them
+            transaction.setPostedAt(i < 5 ? batch : batch.minusDays(i));
+            transactionRepository.save(transaction);
+        }
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDTO page = financesService.pageTransactions(student.getId(), cursor, 2);
+            page.items().forEach(t -> paged.add(t.id()));
+            assertThat(page.hasMore()).isEqualTo(page.nextCursor() != null);
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(paged).doesNotHaveDuplicates()
+                .containsExactlyElementsOf(financesService.listTransactions(student.getId()).stream()
+                        .map(TransactionDTO::id).toList());
+        assertThatThrownBy(() -> financesService.pageTransactions(student.getId(), "not a cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should export the full history as CSV, newest first")
+    void shouldExportTransactions() throws Exception {
+        Student student = createStudent("Fern", "fern.finance@finance.example.com", "000000064");
+        AccountTransaction older = transaction(student, AccountTransaction.Type.CHARGE, "250.00");
+        older.setDescription("Lab fee, chemistry");
+        older.setPostedAt(OffsetDateTime.now().minusDays(2));
+        transactionRepository.save(older);
+        AccountTransaction newer = transaction(student, AccountTransaction.Type.PAYMENT, "100.00");
+        newer.setDescription("=HYPERLINK(\"x\")");
+        transactionRepository.save(newer);
+
+        StringWriter out = new StringWriter();
+        financesService.exportTransactions(student.getId(), out);
+
+        List<String> lines = out.toString().lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("transaction_id,posted_at,due_date,type,status,amount,description");
+        assertThat(lines.get(1)).startsWith(newer.getId() + ",").contains(",PAYMENT,POSTED,100.00,\"'=HYPERLINK");
+        assertThat(lines.get(2)).startsWith(older.getId() + ",").endsWith("\"Lab fee, chemistry\"");
+    }
+}
@@ -0,0 +1,132 @@
+package com.uwm.paws360.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uwm.paws360.DTO.Course.GradeSyncErrorDTO;
+import com.uwm.paws360.DTO.Course.GradeSyncResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("GradeSyncService Unit Tests")
+class GradeSyncServiceTest {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final JdbcTemplate plainJdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final GradeSyncService service = new GradeSyncService(jdbcTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper(), events);
+
+    // Enrollment ids written by batches that went through
+    private final List<Long> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(plainJdbcTemplate);
+        // Student 1 is enrolled in sections 10, 11 and 12 as enrollments 100, 101 and 102
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (long section = 10; section <= 12; section++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt("student_id")).thenReturn(1);
+                when(rs.getLong("lecture_section_id")).thenReturn(section);
+                when(rs.getLong("enrollment_id")).thenReturn(section + 90);
+                when(rs.getString("status")).thenReturn("ENROLLED");
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    private GradeSyncResultDTO sync(String... lines) throws Exception {
+        String body = String.join("\n", lines);
+        return service.syncCurrentGrades(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String line(long sectionId, String letter) {
+        return "{\"studentId\":1,\"lectureSectionId\":" + sectionId + ",\"currentLetter\":\"" + letter + "\",\"currentPercentage\":90}";
+    }
+
+    /**
+     * Batches fail as a whole when they contain {@code failingEnrollmentId}; otherwise their rows are recorded.
+     */
+    private void failBatchesContaining(long failingEnrollmentId) {
+        when(plainJdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                PreparedStatement ps = mock(PreparedStatement.class);
+                setter.setValues(ps, i);
+                ids.add(captureEnrollmentId(ps));
+            }
+            if (ids.contains(failingEnrollmentId)) {
+                throw new DataIntegrityViolationException("check constraint violated for " + failingEnrollmentId);
+            }
+            written.addAll(ids);
+            return new int[ids.size()];
+        });
+    }
+
+    private static long captureEnrollmentId(PreparedStatement ps) throws Exception {
+        ArgumentCaptor<Long> captor = ArgumentCaptor.forClass(Long.class);
+        verify(ps).setLong(eq(5), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed chunk line by line and reject only the failing line")
+    void shouldRejectOnlyTheFailingLine() throws Exception {
+        failBatchesContaining(101L);
+
+        GradeSyncResultDTO result = sync(line(10, "A"), line(11, "B"), line(12, "C"));
+
+        assertThat(result.linesRead()).isEqualTo(3);
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).extracting(GradeSyncErrorDTO::line).containsExactly(2);
+        assertThat(result.errors().get(0).message()).contains("Update failed").contains("101");
+        assertThat(written).containsExactly(100L, 102L);
+        // Only the committed rows publish enrollment events
+        verify(events, times(2)).publishEvent(any(EnrollmentChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should reject unmatched and malformed lines and apply the rest")
+    void shouldRejectUnmatchedLines() throws Exception {
+        failBatchesContaining(-1L);
+
+        GradeSyncResultDTO result = sync(line(10, "A"), line(99, "B"), "{not json", "", line(12, "C"));
+
+        assertThat(result.linesRead()).isEqualTo(4);
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors()).extracting(GradeSyncErrorDTO::line).containsExactlyInAnyOrder(2, 3);
+        assertThat(result.errors()).anySatisfy(error -> {
+            assertThat(error.line()).isEqualTo(2);
+            assertThat(error.message()).isEqualTo("Enrollment not found for student 1 in section 99");
+        });
+        assertThat(written).containsExactly(100L, 102L);
+        // The whole chunk went through in one batch
+        verify(plainJdbcTemplate, times(1)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+}
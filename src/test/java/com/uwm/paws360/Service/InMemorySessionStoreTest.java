@@ -0,0 +1,131 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.Entity.Base.Users;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("InMemorySessionStore Unit Tests")
+class InMemorySessionStoreTest {
+
+    private final InMemorySessionStore store = new InMemorySessionStore(4);
+    private final Users user = new Users();
+
+    private AuthenticationSession session(String token, String origin) {
+        return new AuthenticationSession(user, token, LocalDateTime.now().plusHours(1), "10.0.0.1", "junit", origin);
+    }
+
+    @Test
+    @DisplayName("Should find a stored session and count it as active")
+    void shouldStoreAndFindSession() {
+        store.create(session("token-a", "student-portal"));
+
+        AuthenticationSession found = store.findValid("token-a", LocalDateTime.now()).orElseThrow();
+        assertThat(found.getServiceOrigin()).isEqualTo("student-portal");
+        assertThat(store.findValid("token-a", LocalDateTime.now().plusHours(2))).isEmpty();
+        assertThat(store.countActive(LocalDateTime.now())).isEqualTo(1);
+        assertThat(store.countActiveByService("student-portal", LocalDateTime.now())).isEqualTo(1);
+        assertThat(store.countActiveGroupedByService(LocalDateTime.now())).hasSize(1);
+        assertThat(store.findByIpAddress("10.0.0.1", LocalDateTime.now().minusMinutes(1))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should apply touches only forward and only to active sessions")
+    void shouldApplyTouches() {
+        AuthenticationSession a = session("token-a", "student-portal");
+        LocalDateTime expiresAt = a.getExpiresAt();
+        store.create(a);
+        store.create(session("token-b", "student-portal"));
+        store.invalidate("token-b", "manual_logout");
+
+        LocalDateTime later = LocalDateTime.now().plusHours(3);
+        int updated = store.applyTouches(List.of(
+                new SessionStore.Touch("token-a", later, LocalDateTime.now()),
+                new SessionStore.Touch("token-b", later, LocalDateTime.now())));
+        store.applyTouches(List.of(new SessionStore.Touch("token-a", expiresAt, LocalDateTime.now().minusHours(1))));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(store.findValid("token-a", LocalDateTime.now()).orElseThrow().getExpiresAt()).isEqualTo(later);
+        assertThat(store.findValid("token-b", LocalDateTime.now())).isEmpty();
+        assertThat(store.extend("token-b", later, LocalDateTime.now())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should only count the first invalidation of a session")
+    void shouldInvalidateOnce() {
+        store.create(session("token-a", "student-portal"));
+
+        assertThat(store.invalidate("token-a", "manual_logout")).isEqualTo(1);
+        assertThat(store.invalidate("token-a", "manual_logout")).isZero();
+        assertThat(store.invalidate("token-x", "manual_logout")).isZero();
+        assertThat(store.countActive(LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should invalidate all of a user's sessions and expire old ones")
+    void shouldInvalidateAndExpire() {
+        store.create(session("token-a", "student-portal"));
+        store.create(session("token-b", "admin-view"));
+
+        assertThat(store.invalidateUser(user.getId(), "new_login")).isEqualTo(2);
+        assertThat(store.findActiveForUser(user.getId(), LocalDateTime.now())).isEmpty();
+        assertThat(store.findUserHistory(user.getId(), LocalDateTime.now().minusDays(1))).hasSize(2);
+
+        store.create(session("token-c", "student-portal"));
+        assertThat(store.expire(LocalDateTime.now().plusHours(2), 100)).isEqualTo(1);
+        assertThat(store.countActive(LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should expire only the given sessions that are past their deadline")
+    void shouldExpireGivenSessions() {
+        store.create(session("token-a", "student-portal"));
+        AuthenticationSession due = session("token-b", "student-portal");
+        due.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        store.create(due);
+
+        assertThat(store.expireSessions(List.of("token-a", "token-b", "token-x"), LocalDateTime.now())).isEqualTo(1);
+        assertThat(store.findActive("token-b")).isEmpty();
+        assertThat(store.findValid("token-a", LocalDateTime.now())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest sessions when enforcing the per-user limit")
+    void shouldEnforceSessionLimit() {
+        AuthenticationSession oldest = session("token-a", "student-portal");
+        oldest.setCreatedAt(LocalDateTime.now().minusMinutes(20));
+        AuthenticationSession older = session("token-b", "student-portal");
+        older.setCreatedAt(LocalDateTime.now().minusMinutes(10));
+        store.create(oldest);
+        store.create(older);
+        store.create(session("token-c", "student-portal"));
+
+        assertThat(store.enforceSessionLimit(user.getId(), 1, "new_login")).isEqualTo(2);
+        assertThat(store.findActiveForUser(user.getId(), LocalDateTime.now()))
+                .extracting(AuthenticationSession::getSessionToken)
+                .containsExactly("token-c");
+    }
+
+    @Test
+    @DisplayName("Should purge old inactive sessions in bounded batches")
+    void shouldPurgeInactiveSessions() {
+        for (int i = 0; i < 5; i++) {
+            AuthenticationSession old = session("token-" + i, "student-portal");
+            old.setCreatedAt(LocalDateTime.now().minusDays(40));
+            store.create(old);
+        }
+        store.create(session("token-live", "student-portal"));
+        store.invalidateUser(user.getId(), "test");
+
+        assertThat(store.purgeInactive(LocalDateTime.now().minusDays(30), 3)).isEqualTo(3);
+        assertThat(store.purgeInactive(LocalDateTime.now().minusDays(30), 3)).isEqualTo(2);
+        assertThat(store.findUserHistory(user.getId(), LocalDateTime.now().minusDays(60)))
+                .extracting(AuthenticationSession::getSessionToken)
+                .containsExactly("token-live");
+    }
+}
@@ -0,0 +1,112 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Course.InstructorSectionSummaryDTO;
+import com.uwm.paws360.Entity.EntityDomains.InstructionalRole;
+import com.uwm.paws360.Entity.EntityDomains.SectionEnrollmentStatus;
+import com.uwm.paws360.Entity.EntityDomains.SectionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("InstructorDashboardService Unit Tests")
+class InstructorDashboardServiceTest {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final InstructorDashboardService service =
+            new InstructorDashboardService(jdbcTemplate, 100, Duration.ofMinutes(10));
+
+    private static InstructorSectionSummaryDTO section(long id, Long parentId, int enrolled, int finalGrades) {
+        return new InstructorSectionSummaryDTO(id, parentId, "COMPSCI 351", "Data Structures", "001",
+                parentId == null ? SectionType.LECTURE : SectionType.LAB, "FALL", 2025, InstructionalRole.INSTRUCTOR,
+                40, 10, enrolled, 2, 0, 0, enrolled, finalGrades, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnSections(InstructorSectionSummaryDTO... sections) {
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(sections));
+    }
+
+    @Test
+    @DisplayName("Should cache a dashboard until an enrollment in one of its sections changes")
+    void shouldCacheUntilEnrollmentChanges() {
+        returnSections(section(10L, null, 30, 5), section(11L, 10L, 15, 0));
+
+        var first = service.getDashboard(7);
+        service.getDashboard(7);
+        service.onEnrollmentChanged(new EnrollmentChangedEvent(1, 99L, null, SectionEnrollmentStatus.ENROLLED));
+        service.getDashboard(7);
+
+        assertThat(first.totalEnrolled()).isEqualTo(30);
+        assertThat(first.totalFinalGradesPending()).isEqualTo(25);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+
+        service.onEnrollmentChanged(new EnrollmentChangedEvent(1, 10L, SectionEnrollmentStatus.ENROLLED, SectionEnrollmentStatus.ENROLLED));
+        service.getDashboard(7);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        assertThat(service.stats().hits()).isEqualTo(2);
+    }
+
+    /**
+     * The next dashboard query fires {@code event} before it returns, as a commit landing mid-load would.
+     */
+    @SuppressWarnings("unchecked")
+    private void changeDuringLoad(Runnable event, InstructorSectionSummaryDTO... sections) {
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    event.run();
+                    return List.of(sections);
+                })
+                .thenReturn(List.of(sections));
+    }
+
+    @Test
+    @DisplayName("Should not cache a dashboard whose own section changed while it loaded")
+    void shouldNotCacheAcrossOwnSectionChange() {
+        changeDuringLoad(() -> service.onEnrollmentChanged(
+                new EnrollmentChangedEvent(1, 10L, null, SectionEnrollmentStatus.ENROLLED)), section(11L, 10L, 15, 0));
+
+        service.getDashboard(7);
+        service.getDashboard(7);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        assertThat(service.stats().size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should still cache a dashboard when only other sections and staff changed while it loaded")
+    void shouldCacheAcrossUnrelatedChanges() {
+        changeDuringLoad(() -> {
+            service.onEnrollmentChanged(new EnrollmentChangedEvent(1, 99L, null, SectionEnrollmentStatus.ENROLLED));
+            service.onSectionStaffChanged(new SectionStaffChangedEvent(8, 99L));
+        }, section(10L, null, 30, 0));
+
+        service.getDashboard(7);
+        service.getDashboard(7);
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        assertThat(service.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop a staff member's dashboard when they are assigned a section")
+    void shouldEvictOnStaffAssignment() {
+        returnSections(section(10L, null, 30, 0));
+
+        service.getDashboard(7);
+        service.onSectionStaffChanged(new SectionStaffChangedEvent(7, 12L));
+        service.getDashboard(7);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+}
@@ -0,0 +1,249 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.EntityDomains.Department;
+import com.uwm.paws360.Entity.EntityDomains.Ferpa_Compliance;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import com.uwm.paws360.Entity.EntityDomains.User.Status;
+import com.uwm.paws360.Entity.Finances.AccountBalance;
+import com.uwm.paws360.Entity.Finances.AccountTransaction;
+import com.uwm.paws360.Entity.Finances.AidAward;
+import com.uwm.paws360.Entity.Finances.FinancialAccount;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.Finances.AccountBalanceRepository;
+import com.uwm.paws360.JPARepository.Finances.AccountTransactionRepository;
+import com.uwm.paws360.JPARepository.Finances.AidAwardRepository;
+import com.uwm.paws360.JPARepository.Finances.FinancialAccountRepository;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LedgerService.class)
+// rebuildBalance runs in its own transaction, which only sees committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("LedgerService Tests")
+class LedgerServiceTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private FinancialAccountRepository financialAccountRepository;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepository;
+
+    @Autowired
+    private AidAwardRepository aidAwardRepository;
+
+    @Autowired
+    private AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final List<Student> students = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        MapSqlParameterSource ids = new MapSqlParameterSource("studentIds",
+                students.stream().map(Student::getId).toList());
+        String accounts = "(SELECT account_id FROM financial_accounts WHERE student_id IN (:studentIds))";
+        jdbcTemplate.update("DELETE FROM account_ledger_entries WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balance_snapshots WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balances WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_transactions WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM aid_awards WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM financial_accounts WHERE student_id IN (:studentIds)", ids);
+        studentRepository.deleteAll(students);
+        userRepository.deleteAll(students.stream().map(Student::getUser).toList());
+    }
+
+    private Student createStudent(String firstname, String email, String ssn) {
+        Users user = new Users();
+        user.setFirstname(firstname);
+        user.setLastname("Ledgerman");
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity(ssn);
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Student student = new Student(userRepository.save(user));
+        student.setDepartment(Department.COMPUTER_SCIENCE);
+        student = studentRepository.save(student);
+        students.add(student);
+        return student;
+    }
+
+    private FinancialAccount createAccount(Student student) {
+        FinancialAccount account = new FinancialAccount();
+        account.setStudent(student);
+        return financialAccountRepository.save(account);
+    }
+
+    private static AccountTransaction transaction(Student student, AccountTransaction.Type type, String amount) {
+        AccountTransaction transaction = new AccountTransaction();
+        transaction.setStudent(student);
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDescription(type.name());
+        return transaction;
+    }
+
+    private static AidAward award(Student student, String accepted, String disbursed) {
+        AidAward award = new AidAward();
+        award.setStudent(student);
+        award.setType(AidAward.AidType.GRANT);
+        award.setAmountOffered(new BigDecimal(accepted));
+        award.setAmountAccepted(new BigDecimal(accepted));
+        award.setAmountDisbursed(new BigDecimal(disbursed));
+        award.setStatus(AidAward.AidStatus.ACTIVE);
+        return award;
+    }
+
+    private static LedgerService.BatchPosting batchPosting(FinancialAccount account, Student student,
+                                                           AccountTransaction.Type type, String amount,
+                                                           OffsetDateTime postedAt, Long aidAwardId) {
+        return new LedgerService.BatchPosting(account.getId(), student.getId(), type, new BigDecimal(amount),
+                type.name(), null, null, postedAt, aidAwardId);
+    }
+
+    private AccountBalance balance(FinancialAccount account) {
+        return balanceRepository.findById(account.getId()).orElseThrow();
+    }
+
+    private void assertTotals(AccountBalance balance, String charges, String credits, String payments,
+                              String aidAccepted, String aidDisbursed) {
+        assertThat(balance.getTotalCharges()).isEqualByComparingTo(charges);
+        assertThat(balance.getTotalCredits()).isEqualByComparingTo(credits);
+        assertThat(balance.getTotalPayments()).isEqualByComparingTo(payments);
+        assertThat(balance.getTotalAidAccepted()).isEqualByComparingTo(aidAccepted);
+        assertThat(balance.getTotalAidDisbursed()).isEqualByComparingTo(aidDisbursed);
+    }
+
+    private void assertMatchesEntries(AccountBalance balance) {
+        Map<String, BigDecimal> sums = new HashMap<>();
+        jdbcTemplate.query("SELECT entry_type, SUM(amount) AS total FROM account_ledger_entries " +
+                        "WHERE account_id = :accountId GROUP BY entry_type",
+                new MapSqlParameterSource("accountId", balance.getAccountId()),
+                rs -> { sums.put(rs.getString("entry_type"), rs.getBigDecimal("total")); });
+        Integer entries = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_ledger_entries WHERE account_id = :accountId",
+                new MapSqlParameterSource("accountId", balance.getAccountId()), Integer.class);
+        assertTotals(balance,
+                sums.getOrDefault("CHARGE", BigDecimal.ZERO).toPlainString(),
+                sums.getOrDefault("CREDIT", BigDecimal.ZERO).toPlainString(),
+                sums.getOrDefault("PAYMENT", BigDecimal.ZERO).toPlainString(),
+                sums.getOrDefault("AID_ACCEPTED", BigDecimal.ZERO).toPlainString(),
+                sums.getOrDefault("AID_DISBURSED", BigDecimal.ZERO).toPlainString());
+        assertThat(balance.getEntryCount()).isEqualTo(entries.longValue());
+    }
+
+    @Test
+    @DisplayName("Should keep the balance equal to its ledger entries across single postings, batches and a rebuild")
+    void shouldMatchEntriesAfterPostBatchAndRebuild() {
+        Student student = createStudent("Lea", "lea.ledger@ledger.example.com", "000000071");
+        FinancialAccount account = createAccount(student);
+        OffsetDateTime now = OffsetDateTime.now();
+
+        ledgerService.postTransaction(transaction(student, AccountTransaction.Type.CHARGE, "1000.00"));
+        ledgerService.postTransaction(transaction(student, AccountTransaction.Type.PAYMENT, "200.00"));
+        ledgerService.postTransaction(transaction(student, AccountTransaction.Type.CREDIT, "50.00"));
+        AidAward grant = ledgerService.postAidAward(award(student, "500.00", "100.00"));
+        ledgerService.postBatch(List.of(
+                batchPosting(account, student, AccountTransaction.Type.CHARGE, "300.00", now, null),
+                batchPosting(account, student, AccountTransaction.Type.PAYMENT, "100.00", now, null),
+                batchPosting(account, student, AccountTransaction.Type.CREDIT, "150.00", now, grant.getId())));
+        // The disbursement run moves the award in the same transaction as its aid-linked credit
+        jdbcTemplate.update("UPDATE aid_awards SET amount_disbursed = amount_disbursed + 150 WHERE award_id = :awardId",
+                new MapSqlParameterSource("awardId", grant.getId()));
+
+        AccountBalance posted = balance(account);
+        assertMatchesEntries(posted);
+        // The aid-linked credit is disbursed aid, not a second credit
+        assertTotals(posted, "1300.00", "50.00", "300.00", "500.00", "250.00");
+
+        AccountBalance rebuilt = ledgerService.rebuildBalance(account.getId());
+        assertTotals(rebuilt, "1300.00", "50.00", "300.00", "500.00", "250.00");
+        // The batch payment is dated before the single one, so the single one stays the latest
+        assertThat(rebuilt.getLastPaymentAmount()).isEqualByComparingTo("200.00");
+        assertThat(posted.getLastPaymentAmount()).isEqualByComparingTo("200.00");
+    }
+
+    @Test
+    @DisplayName("Should seed an account that predates the ledger from its history exactly once")
+    void shouldSeedFromHistoryOnce() {
+        Student student = createStudent("Leo", "leo.ledger@ledger.example.com", "000000072");
+        FinancialAccount account = createAccount(student);
+        // History written before the ledger existed: no entries, no balance row
+        transactionRepository.save(transaction(student, AccountTransaction.Type.CHARGE, "700.00"));
+        aidAwardRepository.save(award(student, "300.00", "200.00"));
+
+        ledgerService.postBatch(List.of(
+                batchPosting(account, student, AccountTransaction.Type.CHARGE, "100.00", null, null)));
+
+        assertTotals(balance(account), "800.00", "0", "0", "300.00", "200.00");
+        assertThat(balance(account).getEntryCount()).isEqualTo(1);
+
+        ledgerService.postTransaction(transaction(student, AccountTransaction.Type.PAYMENT, "50.00"));
+
+        AccountBalance posted = balance(account);
+        assertTotals(posted, "800.00", "0", "50.00", "300.00", "200.00");
+        AccountBalance rebuilt = ledgerService.rebuildBalance(account.getId());
+        assertTotals(rebuilt, "800.00", "0", "50.00", "300.00", "200.00");
+    }
+
+    @Test
+    @DisplayName("Should not move the last payment back for an out-of-order batch posting")
+    void shouldKeepLatestPayment() {
+        Student student = createStudent("Lou", "lou.ledger@ledger.example.com", "000000073");
+        FinancialAccount account = createAccount(student);
+        OffsetDateTime now = OffsetDateTime.now();
+        ledgerService.postTransaction(transaction(student, AccountTransaction.Type.CHARGE, "400.00"));
+
+        ledgerService.postBatch(List.of(
+                batchPosting(account, student, AccountTransaction.Type.PAYMENT, "75.00", now, null),
+                batchPosting(account, student, AccountTransaction.Type.PAYMENT, "25.00", now.minusDays(3), null)));
+
+        AccountBalance posted = balance(account);
+        assertMatchesEntries(posted);
+        assertThat(posted.getLastPaymentAmount()).isEqualByComparingTo("75.00");
+    }
+}
@@ -6,6 +6,7 @@ import com.uwm.paws360.Entity.Base.Users;
 import com.uwm.paws360.Entity.EntityDomains.User.Role;
 import com.uwm.paws360.Entity.EntityDomains.User.Status;
 import com.uwm.paws360.JPARepository.User.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,9 +14,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.*;
@@ -39,7 +45,35 @@ class LoginServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private com.uwm.paws360.JPARepository.User.AuthenticationSessionRepository sessionRepository;
+    private SessionStore sessionStore;
+
+    @Mock
+    private SessionTokenCache sessionCache;
+
+    @Mock
+    private SessionTouchBuffer touchBuffer;
+
+    @Mock
+    private SignedSessionTokens signedTokens;
+
+    @Mock
+    private SessionRevocationList revocations;
+
+    @Mock
+    private SessionExpiryWheel expiryWheel;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Spy
+    private PasswordHashingService passwordHashing = new PasswordHashingService(new SimpleMeterRegistry(),
+            2, 16, Duration.ofSeconds(10), Duration.ofMillis(250), 4, 12, 10, false);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private LoginThrottle loginThrottle = new LoginThrottle(4, 1000, Duration.ofMinutes(15), 5, 50, Duration.ofMinutes(15));
 
     @InjectMocks
     private LoginService loginService;
@@ -105,10 +139,9 @@ class LoginServiceTest {
             when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
                 .thenReturn(validUser);
             when(userRepository.save(any(Users.class))).thenReturn(validUser);
-            // Session repository mocks for SSO
-            when(sessionRepository.invalidateUserSessions(anyInt(), any())).thenReturn(1);
-            when(sessionRepository.deleteBySessionToken(any())).thenReturn(1);
-            when(sessionRepository.save(any())).thenReturn(null);
+            // Session store mocks for SSO
+            when(sessionStore.enforceSessionLimit(anyInt(), anyInt(), any())).thenReturn(1);
+            when(sessionStore.create(any())).thenReturn(null);
 
             // When
             UserLoginResponseDTO response = loginService.login(validLoginRequest);
@@ -134,6 +167,21 @@ class LoginServiceTest {
             ));
         }
 
+        @Test
+        @DisplayName("Should leave caching the new session to the after-commit event")
+        void shouldCacheSessionAfterCommit() {
+            when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
+                .thenReturn(validUser);
+            when(sessionStore.create(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            UserLoginResponseDTO response = loginService.login(validLoginRequest);
+
+            assertThat(response.message()).isEqualTo("Login Successful");
+            verify(events).publishEvent(argThat((Object event) -> event instanceof SessionOpenedEvent opened
+                    && opened.session().getSessionToken().equals(response.session_token())));
+            verify(sessionCache, never()).put(any());
+        }
+
         @Test
         @DisplayName("Should generate unique session tokens for multiple logins")
         void shouldGenerateUniqueSessionTokens() {
@@ -141,10 +189,9 @@ class LoginServiceTest {
             when(userRepository.findUsersByEmailIgnoreCase(anyString()))
                 .thenReturn(validUser);
             when(userRepository.save(any(Users.class))).thenReturn(validUser);
-            // Session repository mocks for SSO
-            when(sessionRepository.invalidateUserSessions(anyInt(), any())).thenReturn(1);
-            when(sessionRepository.deleteBySessionToken(any())).thenReturn(1);
-            when(sessionRepository.save(any())).thenReturn(null);
+            // Session store mocks for SSO
+            when(sessionStore.enforceSessionLimit(anyInt(), anyInt(), any())).thenReturn(1);
+            when(sessionStore.create(any())).thenReturn(null);
 
             // When
             UserLoginResponseDTO response1 = loginService.login(validLoginRequest);
@@ -174,10 +221,9 @@ class LoginServiceTest {
             when(userRepository.findUsersByEmailIgnoreCase("legacy.user@uwm.edu"))
                 .thenReturn(legacyUser);
             when(userRepository.save(any(Users.class))).thenReturn(legacyUser);
-            // Session repository mocks for SSO
-            when(sessionRepository.invalidateUserSessions(anyInt(), any())).thenReturn(1);
-            when(sessionRepository.deleteBySessionToken(any())).thenReturn(1);
-            when(sessionRepository.save(any())).thenReturn(null);
+            // Session store mocks for SSO
+            when(sessionStore.enforceSessionLimit(anyInt(), anyInt(), any())).thenReturn(1);
+            when(sessionStore.create(any())).thenReturn(null);
 
             // When
             UserLoginResponseDTO response = loginService.login(legacyLoginRequest);
@@ -283,8 +329,8 @@ class LoginServiceTest {
         }
 
         @Test
-        @DisplayName("Should increment failed attempts on wrong password")
-        void shouldIncrementFailedAttempts() {
+        @DisplayName("Should count failed attempts without writing the user")
+        void shouldCountFailedAttemptsInMemory() {
             // Given
             Users userWithFailedAttempts = new Users();
             userWithFailedAttempts.setEmail("failing.user@uwm.edu");
@@ -292,25 +338,23 @@ class LoginServiceTest {
             userWithFailedAttempts.setRole(Role.STUDENT);
             userWithFailedAttempts.setStatus(Status.ACTIVE);
             userWithFailedAttempts.setAccount_locked(false);
-            userWithFailedAttempts.setFailed_attempts(2); // Already has 2 failed attempts
+            userWithFailedAttempts.setFailed_attempts(0);
 
             when(userRepository.findUsersByEmailIgnoreCase("failing.user@uwm.edu"))
                 .thenReturn(userWithFailedAttempts);
-            when(userRepository.save(any(Users.class))).thenReturn(userWithFailedAttempts);
 
             UserLoginRequestDTO failingRequest = 
                 new UserLoginRequestDTO("failing.user@uwm.edu", "wrongpassword");
 
             // When
+            loginService.login(failingRequest);
+            loginService.login(failingRequest);
             UserLoginResponseDTO response = loginService.login(failingRequest);
 
             // Then
             assertThat(response.message()).isEqualTo("Invalid Email or Password");
-            
-            // Verify failed attempts incremented
-            verify(userRepository).save(argThat(user -> 
-                user.getFailed_attempts() == 3
-            ));
+            verify(loginThrottle, times(3)).recordFailure("failing.user@uwm.edu", null);
+            verify(userRepository, never()).save(any(Users.class));
         }
 
         @Test
@@ -323,11 +367,14 @@ class LoginServiceTest {
             userNearLockout.setRole(Role.STUDENT);
             userNearLockout.setStatus(Status.ACTIVE);
             userNearLockout.setAccount_locked(false);
-            userNearLockout.setFailed_attempts(4); // One attempt away from lockout
+            userNearLockout.setFailed_attempts(0);
 
             when(userRepository.findUsersByEmailIgnoreCase("nearlocked.user@uwm.edu"))
                 .thenReturn(userNearLockout);
             when(userRepository.save(any(Users.class))).thenReturn(userNearLockout);
+            for (int i = 0; i < 4; i++) {
+                loginThrottle.recordFailure("nearlocked.user@uwm.edu", "10.0.0.1"); // One attempt away from lockout
+            }
 
             UserLoginRequestDTO lockoutRequest = 
                 new UserLoginRequestDTO("nearlocked.user@uwm.edu", "wrongpassword");
@@ -345,6 +392,59 @@ class LoginServiceTest {
                 user.getAccount_locked_duration() != null
             ));
         }
+
+        @Test
+        @DisplayName("Should refuse a throttled email before reading the user or hashing")
+        void shouldRefuseThrottledEmailBeforeLookup() {
+            // Given
+            for (int i = 0; i < 5; i++) {
+                loginThrottle.recordFailure("demo.student@uwm.edu", null);
+            }
+
+            // When
+            UserLoginResponseDTO response = loginService.login(validLoginRequest);
+
+            // Then
+            assertThat(response.message()).isEqualTo("Account Locked - Try again later");
+            verifyNoInteractions(userRepository);
+            verify(passwordHashing, never()).matches(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should refuse an abusive IP address across accounts")
+        void shouldRefuseAbusiveAddress() {
+            // Given
+            for (int i = 0; i < 50; i++) {
+                loginThrottle.recordFailure("user" + i + "@uwm.edu", "203.0.113.7");
+            }
+
+            // When
+            UserLoginResponseDTO response = loginService.login(validLoginRequest, "203.0.113.7", null, null);
+
+            // Then
+            assertThat(response.message()).startsWith("Too Many Attempts");
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        @DisplayName("Should clear the failure count after a successful login")
+        void shouldClearFailuresOnSuccess() {
+            // Given
+            when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
+                .thenReturn(validUser);
+            when(userRepository.save(any(Users.class))).thenReturn(validUser);
+            for (int i = 0; i < 4; i++) {
+                loginThrottle.recordFailure("demo.student@uwm.edu", null);
+            }
+
+            // When
+            loginService.login(validLoginRequest);
+            LoginThrottle.Failure next = loginThrottle.recordFailure("demo.student@uwm.edu", null);
+
+            // Then
+            assertThat(next.failures()).isEqualTo(1);
+            assertThat(next.locked()).isFalse();
+        }
     }
 
     @Nested
@@ -417,6 +517,93 @@ class LoginServiceTest {
                        savedPassword.startsWith("$2y$");
             }));
         }
+
+        @Test
+        @DisplayName("Should rehash passwords stored below the BCrypt cost floor")
+        void shouldRehashPasswordsBelowCostFloor() {
+            // Given
+            Users lowCostUser = new Users();
+            lowCostUser.setEmail("lowcost.user@uwm.edu");
+            lowCostUser.setPassword(new BCryptPasswordEncoder(4).encode("testPassword123"));
+            lowCostUser.setRole(Role.STUDENT);
+            lowCostUser.setStatus(Status.ACTIVE);
+            lowCostUser.setAccount_locked(false);
+            lowCostUser.setFailed_attempts(0);
+
+            when(userRepository.findUsersByEmailIgnoreCase("lowcost.user@uwm.edu"))
+                .thenReturn(lowCostUser);
+            when(userRepository.save(any(Users.class))).thenReturn(lowCostUser);
+
+            // When
+            UserLoginResponseDTO response = loginService.login(
+                new UserLoginRequestDTO("lowcost.user@uwm.edu", "testPassword123"));
+
+            // Then
+            assertThat(response.message()).isEqualTo("Login Successful");
+            assertThat(lowCostUser.getPassword()).startsWith("$2a$10$");
+            assertThat(passwordEncoder.matches("testPassword123", lowCostUser.getPassword())).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should not rehash passwords already at the current cost")
+        void shouldNotRehashPasswordsAtCurrentCost() {
+            // Given
+            String stored = validUser.getPassword();
+            when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
+                .thenReturn(validUser);
+            when(userRepository.save(any(Users.class))).thenReturn(validUser);
+
+            // When
+            loginService.login(validLoginRequest);
+
+            // Then
+            assertThat(validUser.getPassword()).isEqualTo(stored);
+            verify(passwordHashing, never()).encode(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not rehash passwords stored above the cost floor")
+        void shouldNotRehashPasswordsAboveCostFloor() {
+            String stored = new BCryptPasswordEncoder(11).encode("student123");
+            validUser.setPassword(stored);
+            when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
+                .thenReturn(validUser);
+
+            UserLoginResponseDTO response = loginService.login(validLoginRequest);
+
+            assertThat(response.message()).isEqualTo("Login Successful");
+            assertThat(validUser.getPassword()).isEqualTo(stored);
+            verify(passwordHashing, never()).encode(anyString());
+        }
+
+        @Test
+        @DisplayName("Should verify the password before opening the login transaction")
+        void shouldHashOutsideTransaction() {
+            when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
+                .thenReturn(validUser);
+            doThrow(new PasswordHashingService.HashingBusyException("Password hashing timed out"))
+                .when(passwordHashing).matches(anyString(), anyString());
+
+            assertThatThrownBy(() -> loginService.login(validLoginRequest))
+                .isInstanceOf(PasswordHashingService.HashingBusyException.class);
+            verify(transactionTemplate, never()).execute(any());
+        }
+
+        @Test
+        @DisplayName("Should propagate hashing backpressure without touching the account")
+        void shouldPropagateHashingBackpressure() {
+            // Given
+            when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
+                .thenReturn(validUser);
+            doThrow(new PasswordHashingService.HashingBusyException("Password hashing queue is full"))
+                .when(passwordHashing).matches(anyString(), anyString());
+
+            // When / Then
+            assertThatThrownBy(() -> loginService.login(validLoginRequest))
+                .isInstanceOf(PasswordHashingService.HashingBusyException.class);
+            assertThat(validUser.getFailed_attempts()).isZero();
+            verify(userRepository, never()).save(any(Users.class));
+        }
     }
 
     @Nested
@@ -430,10 +617,9 @@ class LoginServiceTest {
             when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
                 .thenReturn(validUser);
             when(userRepository.save(any(Users.class))).thenReturn(validUser);
-            // Session repository mocks for SSO
-            when(sessionRepository.invalidateUserSessions(anyInt(), any())).thenReturn(1);
-            when(sessionRepository.deleteBySessionToken(any())).thenReturn(1);
-            when(sessionRepository.save(any())).thenReturn(null);
+            // Session store mocks for SSO
+            when(sessionStore.enforceSessionLimit(anyInt(), anyInt(), any())).thenReturn(1);
+            when(sessionStore.create(any())).thenReturn(null);
 
             // When
             UserLoginResponseDTO response = loginService.login(validLoginRequest);
@@ -451,10 +637,9 @@ class LoginServiceTest {
             when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
                 .thenReturn(validUser);
             when(userRepository.save(any(Users.class))).thenReturn(validUser);
-            // Session repository mocks for SSO
-            when(sessionRepository.invalidateUserSessions(anyInt(), any())).thenReturn(1);
-            when(sessionRepository.deleteBySessionToken(any())).thenReturn(1);
-            when(sessionRepository.save(any())).thenReturn(null);
+            // Session store mocks for SSO
+            when(sessionStore.enforceSessionLimit(anyInt(), anyInt(), any())).thenReturn(1);
+            when(sessionStore.create(any())).thenReturn(null);
 
             LocalDateTime beforeLogin = LocalDateTime.now();
 
@@ -478,10 +663,9 @@ class LoginServiceTest {
             when(userRepository.findUsersByEmailIgnoreCase("demo.student@uwm.edu"))
                 .thenReturn(validUser);
             when(userRepository.save(any(Users.class))).thenReturn(validUser);
-            // Session repository mocks for SSO
-            when(sessionRepository.invalidateUserSessions(anyInt(), any())).thenReturn(1);
-            when(sessionRepository.deleteBySessionToken(any())).thenReturn(1);
-            when(sessionRepository.save(any())).thenReturn(null);
+            // Session store mocks for SSO
+            when(sessionStore.enforceSessionLimit(anyInt(), anyInt(), any())).thenReturn(1);
+            when(sessionStore.create(any())).thenReturn(null);
 
             // When
             loginService.login(validLoginRequest);
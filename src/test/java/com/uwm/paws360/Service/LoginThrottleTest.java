@@ -0,0 +1,66 @@
+package com.uwm.paws360.Service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LoginThrottle Unit Tests")
+class LoginThrottleTest {
+
+    @Test
+    @DisplayName("Should lock an email once it reaches the failure limit")
+    void shouldLockEmailAtLimit() {
+        LoginThrottle throttle = new LoginThrottle(4, 1000, Duration.ofMinutes(15), 3, 1000, Duration.ofMinutes(15));
+
+        assertThat(throttle.recordFailure("a@uwm.edu", "10.0.0.1").locked()).isFalse();
+        assertThat(throttle.recordFailure("A@uwm.edu ", "10.0.0.2").locked()).isFalse();
+        assertThat(throttle.recordFailure("a@uwm.edu", "10.0.0.3").locked()).isTrue();
+
+        assertThat(throttle.check("a@uwm.edu", "10.0.0.9"))
+                .hasValueSatisfying(block -> assertThat(block.scope()).isEqualTo(LoginThrottle.Scope.ACCOUNT));
+        assertThat(throttle.check("b@uwm.edu", "10.0.0.1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should block an address only after failures across many accounts")
+    void shouldBlockAddressAcrossAccounts() {
+        LoginThrottle throttle = new LoginThrottle(4, 1000, Duration.ofMinutes(15), 5, 20, Duration.ofMinutes(15));
+
+        for (int i = 0; i < 19; i++) {
+            throttle.recordFailure("user" + i + "@uwm.edu", "203.0.113.5");
+        }
+        assertThat(throttle.check("new@uwm.edu", "203.0.113.5")).isEmpty();
+
+        throttle.recordFailure("user19@uwm.edu", "203.0.113.5");
+        assertThat(throttle.check("new@uwm.edu", "203.0.113.5"))
+                .hasValueSatisfying(block -> assertThat(block.scope()).isEqualTo(LoginThrottle.Scope.ADDRESS));
+    }
+
+    @Test
+    @DisplayName("Should clear an email's failures after a successful login")
+    void shouldClearOnSuccess() {
+        LoginThrottle throttle = new LoginThrottle(4, 1000, Duration.ofMinutes(15), 2, 1000, Duration.ofMinutes(15));
+
+        throttle.recordFailure("a@uwm.edu", null);
+        throttle.recordSuccess("a@uwm.edu");
+
+        assertThat(throttle.recordFailure("a@uwm.edu", null).failures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep live locks when a flood of new keys fills the stripes")
+    void shouldKeepLocksUnderKeyChurn() {
+        LoginThrottle throttle = new LoginThrottle(2, 32, Duration.ofMinutes(15), 5, 1000, Duration.ofMinutes(15));
+        throttle.lock("victim@uwm.edu", Instant.now().plus(Duration.ofMinutes(10)));
+
+        for (int i = 0; i < 10_000; i++) {
+            throttle.recordFailure("spray" + i + "@uwm.edu", "198.51.100." + (i % 250));
+        }
+
+        assertThat(throttle.check("victim@uwm.edu", null)).isPresent();
+    }
+}
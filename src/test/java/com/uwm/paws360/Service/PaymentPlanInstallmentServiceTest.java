@@ -0,0 +1,223 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.InstallmentRunDTO;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.EntityDomains.Department;
+import com.uwm.paws360.Entity.EntityDomains.Ferpa_Compliance;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import com.uwm.paws360.Entity.EntityDomains.User.Status;
+import com.uwm.paws360.Entity.Finances.FinancialAccount;
+import com.uwm.paws360.Entity.Finances.PaymentPlan;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.Finances.AccountBalanceRepository;
+import com.uwm.paws360.JPARepository.Finances.FinancialAccountRepository;
+import com.uwm.paws360.JPARepository.Finances.PaymentPlanRepository;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LedgerService.class)
+// Each chunk commits on its own as it does in production, and reruns read what the last run committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("PaymentPlanInstallmentService Tests")
+class PaymentPlanInstallmentServiceTest {
+
+    private static final LocalDate FIRST_DUE = LocalDate.of(2034, 2, 1);
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private FinancialAccountRepository financialAccountRepository;
+
+    @Autowired
+    private PaymentPlanRepository paymentPlanRepository;
+
+    @Autowired
+    private AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Student> students = new ArrayList<>();
+
+    private FinancialAccount account;
+    private PaymentPlan plan;
+    private PaymentPlan withoutAccount;
+
+    @BeforeEach
+    void setUp() {
+        Student paying = createStudent("Pia", "pia.plan@plan.example.com", "000000041");
+        account = new FinancialAccount();
+        account.setStudent(paying);
+        account = financialAccountRepository.save(account);
+        plan = createPlan(paying, 2, FIRST_DUE);
+        // Due later than any run below
+        createPlan(paying, 3, FIRST_DUE.plusYears(1));
+        withoutAccount = createPlan(createStudent("Pat", "pat.plan@plan.example.com", "000000042"), 2, FIRST_DUE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MapSqlParameterSource ids = new MapSqlParameterSource("studentIds",
+                students.stream().map(Student::getId).toList());
+        String accounts = "(SELECT account_id FROM financial_accounts WHERE student_id IN (:studentIds))";
+        jdbcTemplate.update("DELETE FROM account_ledger_entries WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balance_snapshots WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balances WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_transactions WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM payment_plans WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM financial_accounts WHERE student_id IN (:studentIds)", ids);
+        studentRepository.deleteAll(students);
+        userRepository.deleteAll(students.stream().map(Student::getUser).toList());
+    }
+
+    private Student createStudent(String firstname, String email, String ssn) {
+        Users user = new Users();
+        user.setFirstname(firstname);
+        user.setLastname("Planman");
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity(ssn);
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Student student = new Student(userRepository.save(user));
+        student.setDepartment(Department.COMPUTER_SCIENCE);
+        student = studentRepository.save(student);
+        students.add(student);
+        return student;
+    }
+
+    private PaymentPlan createPlan(Student student, int remainingPayments, LocalDate nextPaymentDate) {
+        PaymentPlan created = new PaymentPlan();
+        created.setStudent(student);
+        created.setName("Spring plan");
+        created.setTotalAmount(new BigDecimal("100.00").multiply(BigDecimal.valueOf(remainingPayments)));
+        created.setMonthlyPayment(new BigDecimal("100.00"));
+        created.setRemainingPayments(remainingPayments);
+        created.setNextPaymentDate(nextPaymentDate);
+        return paymentPlanRepository.save(created);
+    }
+
+    private PaymentPlanInstallmentService service(NamedParameterJdbcTemplate template, String fee) {
+        return new PaymentPlanInstallmentService(template, transactionTemplate, ledgerService,
+                new SimpleMeterRegistry(), new BigDecimal(fee));
+    }
+
+    private int postings(String type) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_transactions WHERE student_id = :studentId AND type = :type",
+                new MapSqlParameterSource()
+                        .addValue("studentId", plan.getStudent().getId())
+                        .addValue("type", type), Integer.class);
+    }
+
+    private PaymentPlan reload(PaymentPlan stale) {
+        return paymentPlanRepository.findById(stale.getId()).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should collect each installment once however often a day is rerun")
+    void shouldCollectOncePerInstallment() {
+        PaymentPlanInstallmentService service = service(jdbcTemplate, "0");
+
+        InstallmentRunDTO first = service.processDueInstallments(FIRST_DUE);
+
+        assertThat(first.installmentsPosted()).isEqualTo(1);
+        assertThat(first.amountCollected()).isEqualByComparingTo("100.00");
+        assertThat(first.plansSkipped()).isEqualTo(1);
+        assertThat(reload(plan).getNextPaymentDate()).isEqualTo(FIRST_DUE.plusMonths(1));
+        assertThat(reload(plan).getRemainingPayments()).isEqualTo(1);
+        assertThat(reload(withoutAccount).getNextPaymentDate()).isEqualTo(FIRST_DUE);
+
+        InstallmentRunDTO rerun = service.processDueInstallments(FIRST_DUE);
+
+        assertThat(rerun.installmentsPosted()).isZero();
+        assertThat(postings("PAYMENT")).isEqualTo(1);
+
+        InstallmentRunDTO last = service.processDueInstallments(FIRST_DUE.plusMonths(1));
+
+        assertThat(last.installmentsPosted()).isEqualTo(1);
+        assertThat(last.plansCompleted()).isEqualTo(1);
+        assertThat(reload(plan).getStatus()).isEqualTo(PaymentPlan.PlanStatus.COMPLETED);
+        assertThat(service.processDueInstallments(FIRST_DUE.plusMonths(2)).installmentsPosted()).isZero();
+        assertThat(postings("PAYMENT")).isEqualTo(2);
+        assertThat(balanceRepository.findById(account.getId()).orElseThrow().getTotalPayments())
+                .isEqualByComparingTo("200.00");
+    }
+
+    @Test
+    @DisplayName("Should charge the installment fee alongside each payment")
+    void shouldChargeInstallmentFee() {
+        InstallmentRunDTO run = service(jdbcTemplate, "5.00").processDueInstallments(FIRST_DUE);
+
+        assertThat(run.installmentsPosted()).isEqualTo(1);
+        assertThat(postings("PAYMENT")).isEqualTo(1);
+        assertThat(postings("CHARGE")).isEqualTo(1);
+        assertThat(balanceRepository.findById(account.getId()).orElseThrow().getTotalCharges())
+                .isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    @DisplayName("Should roll the chunk back when the driver reports no row counts")
+    void shouldRollBackWithoutRowCounts() {
+        NamedParameterJdbcTemplate reporting = spy(jdbcTemplate);
+        doAnswer(invocation -> {
+            int[] counts = (int[]) invocation.callRealMethod();
+            Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+            return counts;
+        }).when(reporting).batchUpdate(startsWith("UPDATE payment_plans"), any(SqlParameterSource[].class));
+
+        InstallmentRunDTO run = service(reporting, "0").processDueInstallments(FIRST_DUE);
+
+        assertThat(run.chunksFailed()).isEqualTo(1);
+        assertThat(run.installmentsPosted()).isZero();
+        assertThat(postings("PAYMENT")).isZero();
+        assertThat(reload(plan).getNextPaymentDate()).isEqualTo(FIRST_DUE);
+    }
+}
@@ -0,0 +1,463 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exercises {@link RespSessionStore} and {@link RespClient} against a small in-process RESP server
+ * that implements just the commands the store uses.
+ */
+@DisplayName("RespSessionStore Unit Tests")
+class RespSessionStoreTest {
+
+    private FakeRespServer server;
+    private RespSessionStore store;
+    private final Users user = new Users();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeRespServer();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        RespClient client = new RespClient("127.0.0.1", server.port(), "secret", 2, Duration.ofSeconds(2));
+        store = new RespSessionStore(client, userRepository, Duration.ofDays(30));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+        server.close();
+    }
+
+    private AuthenticationSession session(String token, String origin) {
+        return new AuthenticationSession(user, token, LocalDateTime.now().plusHours(1), "10.0.0.1", "junit", origin);
+    }
+
+    @Test
+    @DisplayName("Should round-trip a session and count it as active")
+    void shouldStoreAndFindSession() {
+        store.create(session("token-a", "student-portal"));
+
+        AuthenticationSession found = store.findValid("token-a", LocalDateTime.now()).orElseThrow();
+        assertThat(found.getServiceOrigin()).isEqualTo("student-portal");
+        assertThat(found.getIpAddress()).isEqualTo("10.0.0.1");
+        assertThat(store.countActive(LocalDateTime.now())).isEqualTo(1);
+        assertThat(store.countActiveByService("student-portal", LocalDateTime.now())).isEqualTo(1);
+        assertThat(store.countActiveGroupedByService(LocalDateTime.now())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should apply touches only forward and only to active sessions")
+    void shouldApplyTouches() {
+        store.create(session("token-a", "student-portal"));
+        store.create(session("token-b", "student-portal"));
+        store.invalidate("token-b", "manual_logout");
+
+        LocalDateTime later = LocalDateTime.now().plusHours(3);
+        int updated = store.applyTouches(List.of(
+                new SessionStore.Touch("token-a", later, LocalDateTime.now()),
+                new SessionStore.Touch("token-b", later, LocalDateTime.now())));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(store.findValid("token-a", LocalDateTime.now()).orElseThrow().getExpiresAt()).isEqualTo(later);
+        assertThat(store.findValid("token-b", LocalDateTime.now())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should invalidate all of a user's sessions and expire old ones")
+    void shouldInvalidateAndExpire() {
+        store.create(session("token-a", "student-portal"));
+        store.create(session("token-b", "admin-view"));
+
+        assertThat(store.invalidateUser(user.getId(), "new_login")).isEqualTo(2);
+        assertThat(store.findActiveForUser(user.getId(), LocalDateTime.now())).isEmpty();
+        assertThat(store.findUserHistory(user.getId(), LocalDateTime.now().minusDays(1))).hasSize(2);
+
+        store.create(session("token-c", "student-portal"));
+        assertThat(store.expire(LocalDateTime.now().plusHours(2), 100)).isEqualTo(1);
+        assertThat(store.countActive(LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should expire only the given sessions that are past their deadline")
+    void shouldExpireGivenSessions() {
+        store.create(session("token-a", "student-portal"));
+        AuthenticationSession due = session("token-b", "student-portal");
+        due.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        store.create(due);
+
+        assertThat(store.expireSessions(List.of("token-a", "token-b", "token-x"), LocalDateTime.now())).isEqualTo(1);
+        assertThat(store.findActive("token-b")).isEmpty();
+        assertThat(store.findValid("token-a", LocalDateTime.now())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should count stale index entries so chunked expiry keeps draining")
+    void shouldCountStaleIndexEntries() {
+        for (String token : List.of("token-a", "token-b", "token-c")) {
+            AuthenticationSession due = session(token, "student-portal");
+            due.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+            store.create(due);
+        }
+        synchronized (server.data) {
+            server.data.remove("paws360:session:token-a");
+        }
+
+        assertThat(store.expire(LocalDateTime.now(), 2)).isEqualTo(2);
+        assertThat(store.expire(LocalDateTime.now(), 2)).isEqualTo(1);
+        assertThat(store.countActive(LocalDateTime.now().minusHours(1))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not expire a session whose stored deadline was moved past the cutoff")
+    void shouldNotExpireRefreshedSession() {
+        AuthenticationSession session = session("token-a", "student-portal");
+        session.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        store.create(session);
+        store.extend("token-a", LocalDateTime.now().plusHours(1), LocalDateTime.now());
+
+        assertThat(store.expireSessions(List.of("token-a"), LocalDateTime.now())).isZero();
+        assertThat(store.findValid("token-a", LocalDateTime.now())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest sessions when enforcing the per-user limit")
+    void shouldEnforceSessionLimit() {
+        AuthenticationSession oldest = session("token-a", "student-portal");
+        oldest.setCreatedAt(LocalDateTime.now().minusMinutes(20));
+        AuthenticationSession older = session("token-b", "student-portal");
+        older.setCreatedAt(LocalDateTime.now().minusMinutes(10));
+        store.create(oldest);
+        store.create(older);
+        store.create(session("token-c", "student-portal"));
+
+        assertThat(store.enforceSessionLimit(user.getId(), 1, "new_login")).isEqualTo(2);
+        assertThat(store.findActiveForUser(user.getId(), LocalDateTime.now()))
+                .extracting(AuthenticationSession::getSessionToken)
+                .containsExactly("token-c");
+        assertThat(store.countActive(LocalDateTime.now())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not put an invalidated session back into the active counts when touched")
+    void shouldNotReviveInvalidatedSession() {
+        store.create(session("token-a", "student-portal"));
+        store.invalidate("token-a", "manual_logout");
+
+        assertThat(store.extend("token-a", LocalDateTime.now().plusHours(5), LocalDateTime.now())).isFalse();
+        assertThat(store.applyTouches(List.of(
+                new SessionStore.Touch("token-a", LocalDateTime.now().plusHours(5), LocalDateTime.now())))).isZero();
+        assertThat(store.invalidate("token-a", "manual_logout")).isZero();
+        assertThat(store.countActive(LocalDateTime.now())).isZero();
+        assertThat(store.countActiveByService("student-portal", LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never move a session's timestamps backwards when applying touches")
+    void shouldOnlyMoveTouchesForward() {
+        AuthenticationSession session = session("token-a", "student-portal");
+        LocalDateTime expiresAt = session.getExpiresAt();
+        store.create(session);
+
+        store.applyTouches(List.of(new SessionStore.Touch("token-a", expiresAt.minusMinutes(30), LocalDateTime.now())));
+        assertThat(store.findValid("token-a", LocalDateTime.now()).orElseThrow().getExpiresAt()).isEqualTo(expiresAt);
+
+        store.applyTouches(List.of(new SessionStore.Touch("token-a", null, LocalDateTime.now())));
+        assertThat(store.findValid("token-a", LocalDateTime.now()).orElseThrow().getExpiresAt()).isEqualTo(expiresAt);
+    }
+
+    /**
+     * Single-database RESP server holding hashes, sets and sorted sets; expiry commands are accepted
+     * and ignored. The store's scripts are recognised by their "-- paws360:<name>" first line and
+     * run here as the same command sequence, under the same lock as every other command.
+     */
+    static final class FakeRespServer implements AutoCloseable {
+        private final ServerSocket socket = new ServerSocket(0);
+        private final Map<String, Object> data = new HashMap<>();
+
+        FakeRespServer() throws IOException {
+            Thread acceptor = new Thread(() -> {
+                while (!socket.isClosed()) {
+                    try {
+                        Socket client = socket.accept();
+                        Thread handler = new Thread(() -> serve(client));
+                        handler.setDaemon(true);
+                        handler.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        private void serve(Socket client) {
+            try (client) {
+                InputStream in = new BufferedInputStream(client.getInputStream());
+                OutputStream out = new BufferedOutputStream(client.getOutputStream());
+                while (true) {
+                    List<String> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    Object reply;
+                    synchronized (data) {
+                        reply = handle(command);
+                    }
+                    write(out, reply);
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException ignored) {
+                // Client went away
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object handle(List<String> c) {
+            String key = c.size() > 1 ? c.get(1) : null;
+            switch (c.get(0).toUpperCase()) {
+                case "AUTH", "PING":
+                    return "+OK";
+                case "DEL":
+                    return data.remove(key) != null ? 1L : 0L;
+                case "PEXPIRE", "PEXPIREAT":
+                    return data.containsKey(key) ? 1L : 0L;
+                case "HSET": {
+                    Map<String, String> hash = (Map<String, String>) data.computeIfAbsent(key, k -> new LinkedHashMap<>());
+                    for (int i = 2; i + 1 < c.size(); i += 2) {
+                        hash.put(c.get(i), c.get(i + 1));
+                    }
+                    return (long) (c.size() - 2) / 2;
+                }
+                case "HGET": {
+                    Map<String, String> hash = (Map<String, String>) data.get(key);
+                    return hash != null ? hash.get(c.get(2)) : null;
+                }
+                case "HGETALL": {
+                    Map<String, String> hash = (Map<String, String>) data.getOrDefault(key, Map.of());
+                    List<Object> items = new ArrayList<>();
+                    hash.forEach((f, v) -> {
+                        items.add(f);
+                        items.add(v);
+                    });
+                    return items;
+                }
+                case "HMGET": {
+                    Map<String, String> hash = (Map<String, String>) data.getOrDefault(key, Map.of());
+                    List<Object> items = new ArrayList<>();
+                    for (int i = 2; i < c.size(); i++) {
+                        items.add(hash.get(c.get(i)));
+                    }
+                    return items;
+                }
+                case "SADD": {
+                    Set<String> set = (Set<String>) data.computeIfAbsent(key, k -> new LinkedHashSet<>());
+                    return set.add(c.get(2)) ? 1L : 0L;
+                }
+                case "SREM": {
+                    Set<String> set = (Set<String>) data.get(key);
+                    return set != null && set.remove(c.get(2)) ? 1L : 0L;
+                }
+                case "SMEMBERS":
+                    return new ArrayList<Object>((Set<String>) data.getOrDefault(key, Set.of()));
+                case "ZADD": {
+                    Map<String, Double> zset = (Map<String, Double>) data.computeIfAbsent(key, k -> new HashMap<>());
+                    return zset.put(c.get(3), Double.parseDouble(c.get(2))) == null ? 1L : 0L;
+                }
+                case "ZREM": {
+                    Map<String, Double> zset = (Map<String, Double>) data.get(key);
+                    return zset != null && zset.remove(c.get(2)) != null ? 1L : 0L;
+                }
+                case "ZCOUNT":
+                    return (long) inRange((Map<String, Double>) data.getOrDefault(key, Map.of()), c.get(2), c.get(3)).size();
+                case "ZRANGEBYSCORE": {
+                    List<String> members = inRange((Map<String, Double>) data.getOrDefault(key, Map.of()), c.get(2), c.get(3));
+                    if (c.size() > 6 && c.get(4).equalsIgnoreCase("LIMIT")) {
+                        int offset = Math.min(Integer.parseInt(c.get(5)), members.size());
+                        members = members.subList(offset, Math.min(offset + Integer.parseInt(c.get(6)), members.size()));
+                    }
+                    return new ArrayList<Object>(members);
+                }
+                case "EVAL":
+                    return eval(c);
+                default:
+                    return new IllegalArgumentException("ERR unknown command " + c.get(0));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object eval(List<String> c) {
+            String name = c.get(1).strip().lines().findFirst().orElse("").replace("-- paws360:", "");
+            int keyCount = Integer.parseInt(c.get(2));
+            List<String> keys = c.subList(3, 3 + keyCount);
+            List<String> argv = c.subList(3 + keyCount, c.size());
+            switch (name) {
+                case "touch": {
+                    List<Object> f = (List<Object>) handle(List.of("HMGET", keys.get(0), "active", "expires", "accessed", "origin"));
+                    if (!"1".equals(f.get(0))) {
+                        return 0L;
+                    }
+                    boolean forward = "1".equals(argv.get(5));
+                    String expires = argv.get(1);
+                    String score = argv.get(2);
+                    if (expires.isEmpty() || (forward && expires.compareTo((String) f.get(1)) <= 0)) {
+                        expires = (String) f.get(1);
+                        score = null;
+                    }
+                    String accessed = argv.get(3);
+                    if (forward && accessed.compareTo((String) f.get(2)) <= 0) {
+                        accessed = (String) f.get(2);
+                    }
+                    handle(List.of("HSET", keys.get(0), "expires", expires, "accessed", accessed));
+                    if (score != null) {
+                        String origin = f.get(3) != null ? (String) f.get(3) : "-";
+                        handle(List.of("ZADD", keys.get(1), score, argv.get(0)));
+                        handle(List.of("ZADD", argv.get(6) + origin, score, argv.get(0)));
+                    }
+                    return 1L;
+                }
+                case "invalidate": {
+                    List<Object> f = (List<Object>) handle(List.of("HMGET", keys.get(0), "active", "origin"));
+                    if (!"1".equals(f.get(0))) {
+                        return 0L;
+                    }
+                    String origin = f.get(1) != null ? (String) f.get(1) : "-";
+                    handle(List.of("HSET", keys.get(0), "active", "0", "reason", argv.get(1)));
+                    handle(List.of("ZREM", keys.get(1), argv.get(0)));
+                    handle(List.of("ZREM", argv.get(2) + origin, argv.get(0)));
+                    return 1L;
+                }
+                case "expire": {
+                    List<Object> f = (List<Object>) handle(List.of("HMGET", keys.get(0), "active", "origin"));
+                    if (!"1".equals(f.get(0))) {
+                        return handle(List.of("ZREM", keys.get(1), argv.get(0)));
+                    }
+                    Double score = ((Map<String, Double>) data.getOrDefault(keys.get(1), Map.of())).get(argv.get(0));
+                    if (score != null && score >= Double.parseDouble(argv.get(1))) {
+                        return 0L;
+                    }
+                    String origin = f.get(1) != null ? (String) f.get(1) : "-";
+                    handle(List.of("HSET", keys.get(0), "active", "0", "reason", "expired"));
+                    handle(List.of("ZREM", keys.get(1), argv.get(0)));
+                    handle(List.of("ZREM", argv.get(2) + origin, argv.get(0)));
+                    return 1L;
+                }
+                default:
+                    return new IllegalArgumentException("ERR unknown script " + name);
+            }
+        }
+
+        private static List<String> inRange(Map<String, Double> zset, String min, String max) {
+            List<String> members = new ArrayList<>();
+            zset.forEach((member, score) -> {
+                if (above(score, min) && below(score, max)) {
+                    members.add(member);
+                }
+            });
+            return members;
+        }
+
+        private static boolean above(double score, String min) {
+            if (min.equals("-inf")) return true;
+            if (min.startsWith("(")) return score > Double.parseDouble(min.substring(1));
+            return score >= Double.parseDouble(min);
+        }
+
+        private static boolean below(double score, String max) {
+            if (max.equals("+inf")) return true;
+            if (max.startsWith("(")) return score < Double.parseDouble(max.substring(1));
+            return score <= Double.parseDouble(max);
+        }
+
+        private static List<String> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<String> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                byte[] bytes = in.readNBytes(length + 2);
+                args.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            }
+            return args;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b < 0) {
+                    return null;
+                }
+                line.append((char) b);
+            }
+            in.read();
+            return line.toString();
+        }
+
+        private static void write(OutputStream out, Object reply) throws IOException {
+            if (reply == null) {
+                out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            } else if (reply instanceof IllegalArgumentException e) {
+                out.write(("-" + e.getMessage() + "\r\n").getBytes(StandardCharsets.UTF_8));
+            } else if (reply instanceof Long n) {
+                out.write((":" + n + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            } else if (reply instanceof String s && s.startsWith("+")) {
+                out.write((s + "\r\n").getBytes(StandardCharsets.UTF_8));
+            } else if (reply instanceof String s) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(bytes);
+                out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+            } else if (reply instanceof List<?> items) {
+                out.write(("*" + items.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (Object item : items) {
+                    write(out, item);
+                }
+            }
+        }
+    }
+}
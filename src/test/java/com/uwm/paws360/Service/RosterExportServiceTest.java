@@ -0,0 +1,186 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.Course.CourseEnrollment;
+import com.uwm.paws360.Entity.Course.CourseSection;
+import com.uwm.paws360.Entity.Course.Courses;
+import com.uwm.paws360.Entity.EntityDomains.Delivery_Method;
+import com.uwm.paws360.Entity.EntityDomains.Department;
+import com.uwm.paws360.Entity.EntityDomains.Ferpa_Compliance;
+import com.uwm.paws360.Entity.EntityDomains.SectionEnrollmentStatus;
+import com.uwm.paws360.Entity.EntityDomains.SectionType;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import com.uwm.paws360.Entity.EntityDomains.User.Status;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.Course.CourseEnrollmentRepository;
+import com.uwm.paws360.JPARepository.Course.CourseRepository;
+import com.uwm.paws360.JPARepository.Course.CourseSectionRepository;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RosterExportService.class)
+@DisplayName("RosterExportService Tests")
+class RosterExportServiceTest {
+
+    private static final String TERM = "SUMMER";
+    private static final int YEAR = 2031;
+
+    @Autowired
+    private RosterExportService rosterExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseSectionRepository courseSectionRepository;
+
+    @Autowired
+    private CourseEnrollmentRepository courseEnrollmentRepository;
+
+    private CourseSection databases;
+    private CourseSection compilers;
+
+    @BeforeEach
+    void setUp() {
+        databases = createSection("RSTR 410", "Databases", "001");
+        compilers = createSection("RSTR 520", "Compilers", "002");
+        Student ann = createStudent("Ann", "Rosterman", "ann.rosterman@roster.example.com", "000000091", "890000091");
+        Student bob = createStudent("Bob", "=cmd|' /C calc'!A0", "bob.rosterman@roster.example.com", "000000092", "890000092");
+        Student cal = createStudent("Cal", "Rosterman, Jr", "cal.rosterman@roster.example.com", "000000093", "890000093");
+        enroll(ann, databases, SectionEnrollmentStatus.ENROLLED);
+        enroll(bob, databases, SectionEnrollmentStatus.ENROLLED);
+        enroll(cal, databases, SectionEnrollmentStatus.DROPPED);
+        enroll(ann, compilers, SectionEnrollmentStatus.WAITLISTED);
+        courseEnrollmentRepository.flush();
+    }
+
+    private CourseSection createSection(String courseCode, String courseName, String sectionCode) {
+        Courses course = courseRepository.save(new Courses(courseCode, courseName, null, Department.COMPUTER_SCIENCE,
+                "400", new BigDecimal("3.0"), new BigDecimal("900.00"), Delivery_Method.IN_PERSON, true, 40, YEAR, TERM));
+        CourseSection section = new CourseSection();
+        section.setCourse(course);
+        section.setSectionCode(sectionCode);
+        section.setSectionType(SectionType.LECTURE);
+        section.setTerm(TERM);
+        section.setAcademicYear(YEAR);
+        return courseSectionRepository.save(section);
+    }
+
+    private Student createStudent(String firstname, String lastname, String email, String ssn, String campusId) {
+        Users user = new Users();
+        user.setFirstname(firstname);
+        user.setLastname(lastname);
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity(ssn);
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Student student = new Student(userRepository.save(user));
+        student.setCampusId(campusId);
+        student.setDepartment(Department.COMPUTER_SCIENCE);
+        return studentRepository.save(student);
+    }
+
+    private void enroll(Student student, CourseSection section, SectionEnrollmentStatus status) {
+        courseEnrollmentRepository.save(new CourseEnrollment(student, section, null, status));
+    }
+
+    private static List<String> lines(StringWriter out) {
+        return out.toString().lines().toList();
+    }
+
+    @Test
+    @DisplayName("Should export one section without dropped enrollments and neutralise formula values")
+    void shouldExportSectionRoster() throws Exception {
+        StringWriter out = new StringWriter();
+        rosterExportService.exportSectionRoster(databases.getId(), false, out);
+
+        List<String> lines = lines(out);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).startsWith("term,academic_year,course_code");
+        assertThat(lines.get(1)).contains("'=cmd|' /C calc'!A0").contains("bob.rosterman@roster.example.com");
+        assertThat(lines.get(2)).contains("Rosterman,Ann").contains("ENROLLED");
+        assertThat(out.toString()).doesNotContain("cal.rosterman");
+
+        StringWriter withDropped = new StringWriter();
+        rosterExportService.exportSectionRoster(databases.getId(), true, withDropped);
+
+        assertThat(lines(withDropped)).hasSize(4).anySatisfy(line ->
+                assertThat(line).contains("\"Rosterman, Jr\"").contains("DROPPED"));
+    }
+
+    @Test
+    @DisplayName("Should export every section of a term grouped by course")
+    void shouldExportTermRosters() throws Exception {
+        StringWriter out = new StringWriter();
+        rosterExportService.exportTermRosters(TERM, YEAR, false, out);
+
+        List<String> lines = lines(out);
+        assertThat(lines).hasSize(4);
+        assertThat(lines.subList(1, 3)).allSatisfy(line -> assertThat(line).startsWith("SUMMER,2031,RSTR 410,Databases,"));
+        assertThat(lines.get(3)).startsWith("SUMMER,2031,RSTR 520,Compilers,").contains("WAITLISTED");
+    }
+
+    @Test
+    @DisplayName("Should write only the header for an empty roster")
+    void shouldWriteHeaderForEmptyRoster() throws Exception {
+        StringWriter out = new StringWriter();
+        rosterExportService.exportTermRosters(TERM, YEAR + 1, false, out);
+
+        List<String> lines = lines(out);
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).startsWith("term,academic_year");
+    }
+
+    @Test
+    @DisplayName("Should write nothing when the query fails before the first row")
+    void shouldWriteNothingWhenQueryFails() throws Exception {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("database unavailable"));
+        RosterExportService failing = new RosterExportService(new NamedParameterJdbcTemplate(broken),
+                new TransactionTemplate(new DataSourceTransactionManager(broken)));
+
+        StringWriter out = new StringWriter();
+        assertThatThrownBy(() -> failing.exportTermRosters(TERM, YEAR, false, out))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(out.toString()).isEmpty();
+    }
+}
@@ -0,0 +1,140 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Jobs.ScheduledJobRun;
+import com.uwm.paws360.JPARepository.Jobs.ScheduledJobRunRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ScheduledJobRunner Unit Tests")
+class ScheduledJobRunnerTest {
+
+    private ScheduledJobRunRepository runRepository;
+    private ScheduledJobRunner runner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        runRepository = mock(ScheduledJobRunRepository.class);
+        runner = new ScheduledJobRunner(dataSource, runRepository, new SimpleMeterRegistry(), "node-1", Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("Should run leader jobs on a single node and record them")
+    void shouldRunLeaderJobsOnSingleNode() {
+        List<String> ran = new ArrayList<>();
+
+        assertThat(runner.runOnLeader("job", () -> ran.add("job"))).isTrue();
+
+        assertThat(ran).containsExactly("job");
+        verify(runRepository).save(argThat(run -> run.getStatus() == ScheduledJobRun.RunStatus.SUCCEEDED));
+    }
+
+    @Test
+    @DisplayName("Should skip shards already completed for the run key")
+    void shouldSkipCompletedShards() {
+        when(runRepository.existsByJobNameAndRunKeyAndShardAndStatus(eq("job"), eq("2026-01-01"), anyInt(),
+                eq(ScheduledJobRun.RunStatus.SUCCEEDED))).thenAnswer(invocation -> invocation.getArgument(2, Integer.class) == 1);
+        List<Integer> ran = new ArrayList<>();
+
+        int count = runner.runSharded("job", "2026-01-01", 4, (shard, shards) -> ran.add(shard));
+
+        assertThat(count).isEqualTo(3);
+        assertThat(ran).containsExactlyInAnyOrder(0, 2, 3);
+    }
+
+    @Test
+    @DisplayName("Should never record a shard that did not run as succeeded")
+    void shouldRecordSkippedShards() {
+        int count = runner.runSharded("job", "2026-01-01", 2, (shard, shards) -> shard == 0);
+
+        assertThat(count).isEqualTo(1);
+        verify(runRepository).save(argThat(run -> run.getShard() == 0
+                && run.getStatus() == ScheduledJobRun.RunStatus.SUCCEEDED));
+        verify(runRepository).save(argThat(run -> run.getShard() == 1
+                && run.getStatus() == ScheduledJobRun.RunStatus.SKIPPED));
+    }
+
+    @Test
+    @DisplayName("Should record a failed run without propagating the error")
+    void shouldRecordFailure() {
+        runner.runOnLeader("job", () -> { throw new IllegalStateException("boom"); });
+
+        verify(runRepository).save(argThat(run -> run.getStatus() == ScheduledJobRun.RunStatus.FAILED
+                && "boom".equals(run.getErrorMessage())));
+    }
+
+    /**
+     * A runner on PostgreSQL whose pool hands out {@code leaderConnections} after the metadata probe.
+     */
+    private ScheduledJobRunner postgresRunner(Connection... leaderConnections) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        Connection probe = mock(Connection.class);
+        when(probe.getMetaData()).thenReturn(metaData);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(probe, leaderConnections);
+        return new ScheduledJobRunner(dataSource, runRepository, new SimpleMeterRegistry(), "node-1", Duration.ofDays(30));
+    }
+
+    private static Connection lockingConnection() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getBoolean(1)).thenReturn(true);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(rs);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        return connection;
+    }
+
+    @Test
+    @DisplayName("Should return the connection to the pool when the leader lock query fails")
+    void shouldCloseConnectionWhenLockFails() throws Exception {
+        Connection broken = mock(Connection.class);
+        when(broken.prepareStatement(anyString())).thenThrow(new SQLException("connection reset"));
+        ScheduledJobRunner postgres = postgresRunner(broken);
+
+        postgres.checkLeadership();
+
+        assertThat(postgres.isLeader()).isFalse();
+        verify(broken).close();
+    }
+
+    @Test
+    @DisplayName("Should close a dead leader connection even though the unlock fails")
+    void shouldCloseDeadLeaderConnection() throws Exception {
+        Connection leaderConnection = lockingConnection();
+        ScheduledJobRunner postgres = postgresRunner(leaderConnection, lockingConnection());
+        postgres.checkLeadership();
+        assertThat(postgres.isLeader()).isTrue();
+
+        when(leaderConnection.isValid(anyInt())).thenReturn(false);
+        when(leaderConnection.prepareStatement(anyString())).thenThrow(new SQLException("connection reset"));
+        postgres.checkLeadership();
+
+        verify(leaderConnection).close();
+        // The next connection from the pool took the lock over
+        assertThat(postgres.isLeader()).isTrue();
+    }
+}
@@ -0,0 +1,59 @@
+package com.uwm.paws360.Service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SessionExpiryWheel Unit Tests")
+class SessionExpiryWheelTest {
+
+    private final SessionExpiryWheel wheel = new SessionExpiryWheel(Duration.ofSeconds(1));
+    private final long start = System.currentTimeMillis() / 1000 * 1000;
+
+    private LocalDateTime at(long seconds) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(start + seconds * 1000), ZoneId.systemDefault());
+    }
+
+    private List<String> advanceTo(long seconds) {
+        List<String> due = new ArrayList<>();
+        for (long s = 1; s <= seconds; s++) {
+            due.addAll(wheel.advance(start + s * 1000));
+        }
+        return due;
+    }
+
+    @Test
+    @DisplayName("Should report sessions at their deadline across wheel levels")
+    void shouldExpireAtDeadline() {
+        wheel.schedule("short", at(5));
+        wheel.schedule("hour", at(3600));
+        wheel.schedule("day", at(86400));
+
+        assertThat(wheel.advance(start + 4000)).isEmpty();
+        assertThat(wheel.advance(start + 5000)).containsExactly("short");
+        assertThat(wheel.advance(start + 3599_000)).isEmpty();
+        assertThat(wheel.advance(start + 3600_000)).containsExactly("hour");
+        assertThat(wheel.advance(start + 86400_000)).containsExactly("day");
+        assertThat(wheel.trackedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should follow a sliding deadline and drop cancelled sessions")
+    void shouldRescheduleAndCancel() {
+        wheel.schedule("sliding", at(10));
+        wheel.schedule("cancelled", at(10));
+        wheel.schedule("sliding", at(70));
+        wheel.cancel("cancelled");
+
+        assertThat(advanceTo(69)).isEmpty();
+        assertThat(advanceTo(70)).containsExactly("sliding");
+    }
+}
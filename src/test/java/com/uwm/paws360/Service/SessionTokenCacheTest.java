@@ -0,0 +1,109 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.Entity.Base.Users;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SessionTokenCache Unit Tests")
+class SessionTokenCacheTest {
+
+    private final Users user = new Users();
+
+    private AuthenticationSession session(String token, LocalDateTime expiresAt) {
+        return new AuthenticationSession(user, token, expiresAt, null, null, "student-portal");
+    }
+
+    @Test
+    @DisplayName("Should return cached sessions until they are evicted")
+    void shouldHitUntilEvicted() {
+        SessionTokenCache cache = new SessionTokenCache(10, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        cache.put(session("token-a", LocalDateTime.now().plusHours(1)));
+
+        SessionTokenCache.Lookup lookup = cache.lookup("token-a");
+        assertThat(lookup.isHit()).isTrue();
+        assertThat(lookup.session().getSessionToken()).isEqualTo("token-a");
+
+        cache.evict("token-a");
+        assertThat(cache.lookup("token-a").state()).isEqualTo(SessionTokenCache.Lookup.State.MISS);
+    }
+
+    @Test
+    @DisplayName("Should not cache sessions that have already expired")
+    void shouldSkipExpiredSessions() {
+        SessionTokenCache cache = new SessionTokenCache(10, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        cache.put(session("token-a", LocalDateTime.now().minusSeconds(1)));
+
+        assertThat(cache.lookup("token-a").isHit()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should remember unknown tokens and evict all of a user's tokens")
+    void shouldCacheMissesAndEvictUsers() {
+        SessionTokenCache cache = new SessionTokenCache(10, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        cache.putMissing("garbage");
+        cache.put(session("token-a", LocalDateTime.now().plusHours(1)));
+        cache.put(session("token-b", LocalDateTime.now().plusHours(1)));
+
+        assertThat(cache.lookup("garbage").isNegative()).isTrue();
+
+        cache.evictUser(user.getId());
+        assertThat(cache.lookup("token-a").isHit()).isFalse();
+        assertThat(cache.lookup("token-b").isHit()).isFalse();
+        assertThat(cache.lookup("garbage").isNegative()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used token when full")
+    void shouldEvictLeastRecentlyUsed() {
+        SessionTokenCache cache = new SessionTokenCache(2, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        cache.put(session("token-a", LocalDateTime.now().plusHours(1)));
+        cache.put(session("token-b", LocalDateTime.now().plusHours(1)));
+        cache.lookup("token-a");
+        cache.put(session("token-c", LocalDateTime.now().plusHours(1)));
+
+        assertThat(cache.lookup("token-a").isHit()).isTrue();
+        assertThat(cache.lookup("token-b").isHit()).isFalse();
+        assertThat(cache.lookup("token-c").isHit()).isTrue();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should hand out copies that callers cannot change for other requests")
+    void shouldReturnIndependentCopies() {
+        SessionTokenCache cache = new SessionTokenCache(10, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        AuthenticationSession original = session("token-a", expiresAt);
+        cache.put(original);
+
+        original.setExpiresAt(expiresAt.plusHours(5));
+        AuthenticationSession first = cache.lookup("token-a").session();
+        first.extendSession(10);
+        first.invalidate("test");
+
+        AuthenticationSession second = cache.lookup("token-a").session();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(second.isActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should record extensions without touching copies already handed out")
+    void shouldExtendBySnapshot() {
+        SessionTokenCache cache = new SessionTokenCache(10, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        cache.put(session("token-a", expiresAt));
+        AuthenticationSession before = cache.lookup("token-a").session();
+
+        LocalDateTime extended = expiresAt.plusHours(2);
+        cache.extend("token-a", extended, LocalDateTime.now());
+
+        assertThat(before.getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(cache.lookup("token-a").session().getExpiresAt()).isEqualTo(extended);
+    }
+}
@@ -0,0 +1,75 @@
+package com.uwm.paws360.Service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("SessionTouchBuffer Unit Tests")
+class SessionTouchBufferTest {
+
+    private final SessionStore sessionStore = mock(SessionStore.class);
+    private final SessionTouchBuffer buffer = new SessionTouchBuffer(sessionStore);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @SuppressWarnings("unchecked")
+    private List<SessionStore.Touch> flushed(int times) {
+        ArgumentCaptor<Collection<SessionStore.Touch>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(sessionStore, times(times)).applyTouches(captor.capture());
+        return List.copyOf(captor.getValue());
+    }
+
+    @Test
+    @DisplayName("Should merge touches for a token into its latest expiry and access time")
+    void shouldMergeTouches() {
+        buffer.touch("token-a", now.plusHours(2), now.plusSeconds(1));
+        buffer.touch("token-a", now.plusHours(1), now.plusSeconds(3));
+        buffer.touch("token-a", null, now.plusSeconds(2));
+        buffer.touch("token-b", null, now);
+
+        assertThat(buffer.pendingCount()).isEqualTo(2);
+        buffer.flush();
+
+        assertThat(flushed(1)).containsExactlyInAnyOrder(
+                new SessionStore.Touch("token-a", now.plusHours(2), now.plusSeconds(3)),
+                new SessionStore.Touch("token-b", null, now));
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not write anything when no touches are pending")
+    void shouldSkipEmptyFlush() {
+        buffer.touch("token-a", null, now);
+        buffer.discard("token-a");
+
+        buffer.flush();
+
+        verifyNoInteractions(sessionStore);
+    }
+
+    @Test
+    @DisplayName("Should requeue a failed flush and merge it with newer touches")
+    void shouldRequeueFailedFlush() {
+        when(sessionStore.applyTouches(anyCollection()))
+                .thenThrow(new IllegalStateException("store down"))
+                .thenReturn(1);
+        buffer.touch("token-a", now.plusHours(1), now);
+
+        buffer.flush();
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+
+        buffer.touch("token-a", null, now.plusSeconds(5));
+        buffer.flush();
+
+        assertThat(flushed(2)).containsExactly(
+                new SessionStore.Touch("token-a", now.plusHours(1), now.plusSeconds(5)));
+        assertThat(buffer.pendingCount()).isZero();
+    }
+}
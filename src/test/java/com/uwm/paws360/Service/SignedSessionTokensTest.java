@@ -0,0 +1,83 @@
+package com.uwm.paws360.Service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("SignedSessionTokens Unit Tests")
+class SignedSessionTokensTest {
+
+    private final SignedSessionTokens tokens = new SignedSessionTokens("signed", "test-secret", Duration.ofHours(8));
+
+    @Test
+    @DisplayName("Should verify a token it issued")
+    void shouldVerifyIssuedToken() {
+        String token = tokens.issue(42, "STUDENT", Instant.now().plusSeconds(3600));
+
+        SignedSessionTokens.Claims claims = tokens.verify(token).orElseThrow();
+        assertThat(claims.userId()).isEqualTo(42);
+        assertThat(claims.role()).isEqualTo("STUDENT");
+        assertThat(token.length()).isLessThanOrEqualTo(255);
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, foreign, expired and opaque tokens")
+    void shouldRejectInvalidTokens() {
+        String token = tokens.issue(42, "STUDENT", Instant.now().plusSeconds(3600));
+        String tampered = token.substring(0, 5) + (token.charAt(5) == 'A' ? 'B' : 'A') + token.substring(6);
+        SignedSessionTokens other = new SignedSessionTokens("signed", "other-secret", Duration.ofHours(8));
+
+        assertThat(tokens.verify(tampered)).isEmpty();
+        assertThat(other.verify(token)).isEmpty();
+        assertThat(tokens.verify(tokens.issue(42, "STUDENT", Instant.now().minusSeconds(1)))).isEmpty();
+        assertThat(tokens.verify("abcdefghijklmnopqrstuvwxyz123456")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject tokens issued before a user revocation")
+    void shouldHonourUserRevocation() {
+        SessionRevocationList revocations = new SessionRevocationList(tokens, new InMemorySessionStore(1));
+        String token = tokens.issue(42, "STUDENT", Instant.now().plusSeconds(3600));
+        SignedSessionTokens.Claims claims = tokens.verify(token).orElseThrow();
+
+        revocations.revokeUser(42, claims.issuedAt().plusMillis(1));
+        assertThat(revocations.isRevoked(claims)).isTrue();
+
+        SessionRevocationList single = new SessionRevocationList(tokens, new InMemorySessionStore(1));
+        single.revokeToken(token);
+        assertThat(single.isRevoked(claims)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should pick up revocations published by another instance")
+    void shouldShareRevocationsThroughStore() {
+        List<SessionStore.Revocation> published = new ArrayList<>();
+        SessionStore store = mock(SessionStore.class);
+        doAnswer(inv -> published.add(inv.getArgument(0))).when(store).publishRevocation(any());
+        when(store.revocationsSince(any())).thenAnswer(inv -> List.copyOf(published));
+        SessionRevocationList nodeA = new SessionRevocationList(tokens, store);
+        SessionRevocationList nodeB = new SessionRevocationList(tokens, store);
+
+        String token = tokens.issue(42, "STUDENT", Instant.now().plusSeconds(3600));
+        String other = tokens.issue(7, "STUDENT", Instant.now().plusSeconds(3600));
+        SignedSessionTokens.Claims claims = tokens.verify(token).orElseThrow();
+        SignedSessionTokens.Claims otherClaims = tokens.verify(other).orElseThrow();
+        nodeB.refresh();
+
+        nodeA.revokeToken(token);
+        nodeA.revokeUser(7, otherClaims.issuedAt().plusMillis(1));
+        assertThat(nodeB.isRevoked(claims)).isFalse();
+
+        nodeB.refresh();
+        assertThat(nodeB.isRevoked(claims)).isTrue();
+        assertThat(nodeB.isRevoked(otherClaims)).isTrue();
+    }
+}
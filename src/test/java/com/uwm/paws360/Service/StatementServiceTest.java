@@ -0,0 +1,133 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.StatementRunDTO;
+import com.uwm.paws360.Entity.Finances.StatementRun;
+import com.uwm.paws360.Entity.Finances.StatementRunPartition;
+import com.uwm.paws360.JPARepository.Finances.StatementRunPartitionRepository;
+import com.uwm.paws360.JPARepository.Finances.StatementRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({StatementService.class, StatementRenderer.class})
+@TestPropertySource(properties = "paws360.statements.partition-lease=PT5M")
+// Partitions run on the service's worker threads, which only see committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("StatementService Tests")
+class StatementServiceTest {
+
+    // Far above any seeded account, so the partitions below have nothing to render
+    private static final long EMPTY_RANGE_START = 900_000_000L;
+
+    @TempDir
+    static Path outputDir;
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private StatementRunRepository runRepository;
+
+    @Autowired
+    private StatementRunPartitionRepository partitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM statement_run_partitions");
+        jdbcTemplate.update("DELETE FROM statement_runs");
+    }
+
+    /**
+     * A run with one partition left RUNNING by a worker that last checkpointed {@code lastCheckpoint}.
+     */
+    private StatementRun runWithRunningPartition(OffsetDateTime lastCheckpoint) {
+        StatementRun run = new StatementRun();
+        run.setStatementMonth(LocalDate.of(2031, 3, 1));
+        run.setFormat(StatementRun.Format.TEXT);
+        run.setOutputDir(outputDir.toString());
+        run.setPartitionCount(1);
+        run = runRepository.save(run);
+        StatementRunPartition partition = partitionRepository.save(
+                new StatementRunPartition(run.getId(), EMPTY_RANGE_START, EMPTY_RANGE_START + 100));
+        jdbcTemplate.update("UPDATE statement_run_partitions SET status = 'RUNNING', updated_at = ? WHERE partition_id = ?",
+                lastCheckpoint, partition.getId());
+        return run;
+    }
+
+    private StatementRunDTO awaitFinished(Long runId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        StatementRunDTO run = statementService.getRun(runId);
+        while (run.status() == StatementRun.RunStatus.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            run = statementService.getRun(runId);
+        }
+        return run;
+    }
+
+    @Test
+    @DisplayName("Should re-queue a RUNNING partition whose lease ran out and finish the run")
+    void shouldResumeOrphanedPartition() throws Exception {
+        StatementRun run = runWithRunningPartition(OffsetDateTime.now().minusHours(1));
+
+        statementService.resumeRun(run.getId());
+
+        StatementRunDTO finished = awaitFinished(run.getId());
+        assertThat(finished.status()).isEqualTo(StatementRun.RunStatus.COMPLETED);
+        assertThat(finished.partitionsCompleted()).isEqualTo(1);
+        assertThat(finished.finishedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should leave a RUNNING partition inside its lease to its worker")
+    void shouldNotStealLeasedPartition() {
+        StatementRun run = runWithRunningPartition(OffsetDateTime.now().minusMinutes(1));
+
+        statementService.resumeRun(run.getId());
+
+        assertThat(partitionRepository.findByRunIdOrderByRangeStart(run.getId()))
+                .extracting(StatementRunPartition::getStatus)
+                .containsExactly(StatementRunPartition.PartitionStatus.RUNNING);
+        assertThat(statementService.getRun(run.getId()).status()).isEqualTo(StatementRun.RunStatus.RUNNING);
+    }
+
+    @Test
+    @DisplayName("Should let only an expired lease be claimed")
+    void shouldClaimOnlyExpiredLeases() {
+        StatementRun run = runWithRunningPartition(OffsetDateTime.now().minusMinutes(1));
+        Long partitionId = partitionRepository.findByRunIdOrderByRangeStart(run.getId()).get(0).getId();
+        OffsetDateTime now = OffsetDateTime.now();
+
+        assertThat(partitionRepository.claim(partitionId, now.minusMinutes(5), now)).isZero();
+        assertThat(partitionRepository.claim(partitionId, now, now)).isEqualTo(1);
+        // The claim renewed the lease, so a cutoff the old checkpoint was behind no longer reaches it
+        assertThat(partitionRepository.claim(partitionId, now.minusSeconds(30), now)).isZero();
+    }
+}
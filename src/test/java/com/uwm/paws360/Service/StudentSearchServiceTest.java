@@ -0,0 +1,110 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.User.StudentSearchPageDTO;
+import com.uwm.paws360.DTO.User.StudentSearchResultDTO;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.EntityDomains.Department;
+import com.uwm.paws360.Entity.EntityDomains.Ferpa_Compliance;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import com.uwm.paws360.Entity.EntityDomains.User.Status;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StudentSearchService.class)
+@DisplayName("StudentSearchService Tests")
+class StudentSearchServiceTest {
+
+    @Autowired
+    private StudentSearchService studentSearchService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        createStudent("Ann", "Searchwell", "ann.searchwell@search.example.com", "000000061", "880000061", Department.COMPUTER_SCIENCE);
+        createStudent("Bob", "Searchwell", "bob.searchwell@search.example.com", "000000062", "880000062", Department.HISTORY);
+        createStudent("Searchwell", "Carter", "c.carter@search.example.com", "000000063", "880000063", Department.COMPUTER_SCIENCE);
+        studentRepository.flush();
+    }
+
+    private void createStudent(String firstname, String lastname, String email, String ssn, String campusId,
+                               Department department) {
+        Users user = new Users();
+        user.setFirstname(firstname);
+        user.setLastname(lastname);
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity(ssn);
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Student student = new Student(userRepository.save(user));
+        student.setCampusId(campusId);
+        student.setDepartment(department);
+        studentRepository.save(student);
+    }
+
+    @Test
+    @DisplayName("Should rank prefix matches first and page through every match once")
+    void shouldRankAndPage() {
+        List<StudentSearchResultDTO> seen = new ArrayList<>();
+        StudentSearchPageDTO page = studentSearchService.search("SEARCHWELL", null, null, 2);
+        assertThat(page.estimatedTotal()).isEqualTo(3);
+        assertThat(page.students().get(0).firstname()).isEqualTo("Searchwell");
+        seen.addAll(page.students());
+        while (page.hasMore()) {
+            page = studentSearchService.search("SEARCHWELL", null, page.nextCursor(), 2);
+            seen.addAll(page.students());
+        }
+
+        assertThat(seen).extracting(StudentSearchResultDTO::email).doesNotHaveDuplicates().hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should filter by department and match campus ids")
+    void shouldFilterByDepartmentAndCampusId() {
+        StudentSearchPageDTO byDepartment = studentSearchService.search("searchwell", "COMPUTER_SCIENCE", null, 10);
+        StudentSearchPageDTO byCampusId = studentSearchService.search("880000062", null, null, 10);
+
+        assertThat(byDepartment.students()).extracting(StudentSearchResultDTO::email)
+            .containsExactlyInAnyOrder("ann.searchwell@search.example.com", "c.carter@search.example.com");
+        assertThat(byCampusId.students()).extracting(StudentSearchResultDTO::campusId).containsExactly("880000062");
+        assertThat(byCampusId.hasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> studentSearchService.search("searchwell", null, "not-a-cursor", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
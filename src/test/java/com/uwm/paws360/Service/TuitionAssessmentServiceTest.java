@@ -0,0 +1,233 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.Finances.TuitionAssessmentResultDTO;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.Course.CourseEnrollment;
+import com.uwm.paws360.Entity.Course.CourseSection;
+import com.uwm.paws360.Entity.Course.Courses;
+import com.uwm.paws360.Entity.EntityDomains.Delivery_Method;
+import com.uwm.paws360.Entity.EntityDomains.Department;
+import com.uwm.paws360.Entity.EntityDomains.Ferpa_Compliance;
+import com.uwm.paws360.Entity.EntityDomains.SectionEnrollmentStatus;
+import com.uwm.paws360.Entity.EntityDomains.SectionType;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import com.uwm.paws360.Entity.EntityDomains.User.Status;
+import com.uwm.paws360.Entity.Finances.AccountBalance;
+import com.uwm.paws360.Entity.Finances.FinancialAccount;
+import com.uwm.paws360.Entity.UserTypes.Student;
+import com.uwm.paws360.JPARepository.Course.CourseEnrollmentRepository;
+import com.uwm.paws360.JPARepository.Course.CourseRepository;
+import com.uwm.paws360.JPARepository.Course.CourseSectionRepository;
+import com.uwm.paws360.JPARepository.Finances.AccountBalanceRepository;
+import com.uwm.paws360.JPARepository.Finances.FinancialAccountRepository;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TuitionAssessmentService.class, LedgerService.class})
+// Each chunk commits on its own as it does in production, and reruns read what the last run committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("TuitionAssessmentService Tests")
+class TuitionAssessmentServiceTest {
+
+    private static final String TERM = "FALL";
+    private static final int YEAR = 2033;
+    private static final LocalDate DUE = LocalDate.of(YEAR, 9, 15);
+
+    @Autowired
+    private TuitionAssessmentService tuitionAssessmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseSectionRepository courseSectionRepository;
+
+    @Autowired
+    private CourseEnrollmentRepository courseEnrollmentRepository;
+
+    @Autowired
+    private FinancialAccountRepository financialAccountRepository;
+
+    @Autowired
+    private AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final List<Courses> courses = new ArrayList<>();
+    private final List<CourseSection> sections = new ArrayList<>();
+    private final List<Student> students = new ArrayList<>();
+    private final List<CourseEnrollment> enrollments = new ArrayList<>();
+
+    private Student tess;
+    private Student tom;
+    private CourseEnrollment tessCompilers;
+    private CourseEnrollment tessDatabases;
+
+    @BeforeEach
+    void setUp() {
+        CourseSection compilers = createSection("TUIT 520", "Compilers", "900.00");
+        CourseSection databases = createSection("TUIT 410", "Databases", "600.00");
+        tess = createStudent("Tess", "tess.tuition@tuition.example.com", "000000051");
+        tom = createStudent("Tom", "tom.tuition@tuition.example.com", "000000052");
+        tessCompilers = enroll(tess, compilers, SectionEnrollmentStatus.ENROLLED);
+        tessDatabases = enroll(tess, databases, SectionEnrollmentStatus.ENROLLED);
+        enroll(tom, databases, SectionEnrollmentStatus.ENROLLED);
+        enroll(tom, compilers, SectionEnrollmentStatus.WAITLISTED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MapSqlParameterSource ids = new MapSqlParameterSource("studentIds",
+                students.stream().map(Student::getId).toList());
+        String accounts = "(SELECT account_id FROM financial_accounts WHERE student_id IN (:studentIds))";
+        jdbcTemplate.update("DELETE FROM account_ledger_entries WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balance_snapshots WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_balances WHERE account_id IN " + accounts, ids);
+        jdbcTemplate.update("DELETE FROM account_transactions WHERE student_id IN (:studentIds)", ids);
+        jdbcTemplate.update("DELETE FROM financial_accounts WHERE student_id IN (:studentIds)", ids);
+        courseEnrollmentRepository.deleteAll(enrollments);
+        courseSectionRepository.deleteAll(sections);
+        courseRepository.deleteAll(courses);
+        studentRepository.deleteAll(students);
+        userRepository.deleteAll(students.stream().map(Student::getUser).toList());
+    }
+
+    private CourseSection createSection(String courseCode, String courseName, String cost) {
+        Courses course = courseRepository.save(new Courses(courseCode, courseName, null, Department.COMPUTER_SCIENCE,
+                "400", new BigDecimal("3.0"), new BigDecimal(cost), Delivery_Method.IN_PERSON, true, 40, YEAR, TERM));
+        courses.add(course);
+        CourseSection section = new CourseSection();
+        section.setCourse(course);
+        section.setSectionCode("001");
+        section.setSectionType(SectionType.LECTURE);
+        section.setTerm(TERM);
+        section.setAcademicYear(YEAR);
+        section = courseSectionRepository.save(section);
+        sections.add(section);
+        return section;
+    }
+
+    private Student createStudent(String firstname, String email, String ssn) {
+        Users user = new Users();
+        user.setFirstname(firstname);
+        user.setLastname("Tuitionman");
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setDob(LocalDate.of(2000, 1, 1));
+        user.setSocialsecurity(ssn);
+        user.setEthnicity(com.uwm.paws360.Entity.EntityDomains.User.Ethnicity.OTHER);
+        user.setGender(com.uwm.paws360.Entity.EntityDomains.User.Gender.OTHER);
+        user.setNationality(com.uwm.paws360.Entity.EntityDomains.User.Nationality.UNITED_STATES);
+        user.setFerpa_compliance(Ferpa_Compliance.PUBLIC);
+        user.setRole(Role.STUDENT);
+        user.setStatus(Status.ACTIVE);
+        Student student = new Student(userRepository.save(user));
+        student.setDepartment(Department.COMPUTER_SCIENCE);
+        student = studentRepository.save(student);
+        students.add(student);
+        return student;
+    }
+
+    private CourseEnrollment enroll(Student student, CourseSection section, SectionEnrollmentStatus status) {
+        CourseEnrollment enrollment = courseEnrollmentRepository.save(new CourseEnrollment(student, section, null, status));
+        enrollments.add(enrollment);
+        return enrollment;
+    }
+
+    private void drop(CourseEnrollment enrollment) {
+        enrollment.setStatus(SectionEnrollmentStatus.DROPPED);
+        courseEnrollmentRepository.save(enrollment);
+    }
+
+    private AccountBalance balance(Student student) {
+        FinancialAccount account = financialAccountRepository.findByStudent(student).orElseThrow();
+        return balanceRepository.findById(account.getId()).orElseThrow();
+    }
+
+    private BigDecimal assessed(Student student) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(CASE WHEN type = 'CHARGE' THEN amount ELSE -amount END), 0) " +
+                "FROM account_transactions WHERE student_id = :studentId AND term_code = :termCode",
+                new MapSqlParameterSource()
+                        .addValue("studentId", student.getId())
+                        .addValue("termCode", TuitionAssessmentService.termCode(TERM, YEAR)), BigDecimal.class);
+    }
+
+    @Test
+    @DisplayName("Should charge enrolled tuition once and post nothing when run again")
+    void shouldPostNothingOnRerun() {
+        TuitionAssessmentResultDTO first = tuitionAssessmentService.assessTerm(TERM, YEAR, DUE);
+
+        assertThat(first.termCode()).isEqualTo("FALL 2033");
+        assertThat(first.accountsOpened()).isEqualTo(2);
+        assertThat(first.chargesPosted()).isEqualTo(2);
+        assertThat(first.totalCharged()).isEqualByComparingTo("2100.00");
+        // Waitlisted sections are not billed
+        assertThat(assessed(tess)).isEqualByComparingTo("1500.00");
+        assertThat(assessed(tom)).isEqualByComparingTo("600.00");
+        assertThat(balance(tess).getTotalCharges()).isEqualByComparingTo("1500.00");
+
+        TuitionAssessmentResultDTO rerun = tuitionAssessmentService.assessTerm(TERM, YEAR, DUE);
+
+        assertThat(rerun.accountsOpened()).isZero();
+        assertThat(rerun.chargesPosted()).isZero();
+        assertThat(rerun.creditsPosted()).isZero();
+        assertThat(balance(tess).getTotalCharges()).isEqualByComparingTo("1500.00");
+    }
+
+    @Test
+    @DisplayName("Should credit only the difference for drops between runs")
+    void shouldCreditDrops() {
+        tuitionAssessmentService.assessTerm(TERM, YEAR, DUE);
+        drop(tessCompilers);
+
+        TuitionAssessmentResultDTO afterDrop = tuitionAssessmentService.assessTerm(TERM, YEAR, DUE);
+
+        assertThat(afterDrop.chargesPosted()).isZero();
+        assertThat(afterDrop.creditsPosted()).isEqualTo(1);
+        assertThat(afterDrop.totalCredited()).isEqualByComparingTo("900.00");
+        assertThat(assessed(tess)).isEqualByComparingTo("600.00");
+
+        // A student with every course dropped is still found through what was assessed before
+        drop(tessDatabases);
+        TuitionAssessmentResultDTO allDropped = tuitionAssessmentService.assessTerm(TERM, YEAR, DUE);
+
+        assertThat(allDropped.creditsPosted()).isEqualTo(1);
+        assertThat(assessed(tess)).isEqualByComparingTo("0");
+        assertThat(balance(tess).getTotalCredits()).isEqualByComparingTo("1500.00");
+        assertThat(tuitionAssessmentService.assessTerm(TERM, YEAR, DUE).creditsPosted()).isZero();
+    }
+}
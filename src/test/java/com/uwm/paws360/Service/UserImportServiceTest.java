@@ -0,0 +1,135 @@
+package com.uwm.paws360.Service;
+
+import com.uwm.paws360.DTO.User.UserImportErrorDTO;
+import com.uwm.paws360.DTO.User.UserImportResultDTO;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.JPARepository.User.StudentRepository;
+import com.uwm.paws360.JPARepository.User.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(excludeAutoConfiguration = {
+    org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+    org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({UserImportService.class, PasswordHashingService.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+    "paws360.password-hashing.calibrate=false",
+    "paws360.password-hashing.min-cost=4"
+})
+@DisplayName("UserImportService Tests")
+class UserImportServiceTest {
+
+    private static final String CSV_HEADER =
+        "firstname,lastname,dob,ssn,ethnicity,gender,nationality,email,password,countryCode,phone,status,role";
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserImportResultDTO importCsv(String... rows) throws Exception {
+        String body = CSV_HEADER + "\n" + String.join("\n", rows) + "\n";
+        return userImportService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+            UserImportService.Format.CSV);
+    }
+
+    @Test
+    @DisplayName("Should create users with role rows and report bad rows by line")
+    void shouldImportCsvAndReportErrors() throws Exception {
+        UserImportResultDTO result = importCsv(
+            "Ada,Import,2001-02-03,000000071,OTHER,FEMALE,UNITED_STATES,ada.import@import.example.com,secret1,US,4145550101,ACTIVE,STUDENT",
+            "\"Bo, Jr\",Import,2001-02-03,000000072,OTHER,MALE,UNITED_STATES,bo.import@import.example.com,secret2,US,,ACTIVE,ADVISOR",
+            "Cy,Import,2001-02-03,12345,OTHER,MALE,UNITED_STATES,cy.import@import.example.com,secret3,US,,ACTIVE,STUDENT",
+            "Di,Import,2001-02-03,000000074,OTHER,FEMALE,UNITED_STATES,ADA.import@import.example.com,secret4,US,,ACTIVE,STUDENT",
+            "Ed,Import,not-a-date,000000075,OTHER,MALE,UNITED_STATES,ed.import@import.example.com,secret5,US,,ACTIVE,STUDENT");
+
+        assertThat(result.rowsRead()).isEqualTo(5);
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.errors()).extracting(UserImportErrorDTO::line).containsExactlyInAnyOrder(4, 5, 6);
+
+        Users ada = userRepository.findUsersByEmailIgnoreCase("ada.import@import.example.com");
+        assertThat(ada).isNotNull();
+        assertThat(ada.getPassword()).startsWith("$2").isNotEqualTo("secret1");
+        assertThat(studentRepository.findByUserIdWithUser(ada.getId())).isPresent();
+        assertThat(userRepository.findUsersByEmailIgnoreCase("bo.import@import.example.com").getFirstname())
+            .isEqualTo("Bo, Jr");
+    }
+
+    @Test
+    @DisplayName("Should reject NDJSON rows for users that already exist")
+    void shouldRejectExistingUsers() throws Exception {
+        importCsv("Fay,Import,2001-02-03,000000076,OTHER,FEMALE,UNITED_STATES,fay.import@import.example.com,secret,US,,ACTIVE,STUDENT");
+
+        String line = "{\"firstname\":\"Fay\",\"lastname\":\"Again\",\"dob\":\"2001-02-03\",\"ssn\":\"000000077\"," +
+            "\"ethnicity\":\"OTHER\",\"gender\":\"FEMALE\",\"nationality\":\"UNITED_STATES\"," +
+            "\"email\":\"Fay.Import@import.example.com\",\"password\":\"secret\",\"countryCode\":\"US\"," +
+            "\"status\":\"ACTIVE\",\"role\":\"STUDENT\"}\n{not json}\n";
+        UserImportResultDTO result = userImportService.importUsers(
+            new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.NDJSON);
+
+        assertThat(result.created()).isZero();
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors().get(0).message()).contains("already exists");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should keep the good rows of a chunk the database rejects")
+    void shouldRetryFailedChunkRowByRow() throws Exception {
+        jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT import_test_check CHECK (lastname <> 'Refused')");
+        try {
+            UserImportResultDTO result = importCsv(
+                "Gus,Retry,2001-02-03,000000081,OTHER,MALE,UNITED_STATES,gus.retry@import.example.com,secret,US,,ACTIVE,STUDENT",
+                "Hal,Refused,2001-02-03,000000082,OTHER,MALE,UNITED_STATES,hal.retry@import.example.com,secret,US,,ACTIVE,STUDENT",
+                "Ivy,Retry,2001-02-03,000000083,OTHER,FEMALE,UNITED_STATES,ivy.retry@import.example.com,secret,US,,ACTIVE,STUDENT");
+
+            assertThat(result.created()).isEqualTo(2);
+            assertThat(result.errors()).extracting(UserImportErrorDTO::line).containsExactly(3);
+            assertThat(result.errors().get(0).message()).startsWith("Insert failed");
+            Users ivy = userRepository.findUsersByEmailIgnoreCase("ivy.retry@import.example.com");
+            assertThat(ivy).isNotNull();
+            assertThat(studentRepository.findByUserIdWithUser(ivy.getId())).isPresent();
+            assertThat(userRepository.findUsersByEmailIgnoreCase("hal.retry@import.example.com")).isNull();
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT import_test_check");
+            jdbcTemplate.update("DELETE FROM student WHERE user_id IN " +
+                "(SELECT user_id FROM users WHERE email LIKE '%.retry@import.example.com')");
+            jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%.retry@import.example.com'");
+        }
+    }
+
+    @Test
+    @DisplayName("Should split quoted CSV fields")
+    void shouldParseQuotedCsv() {
+        assertThat(UserImportService.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\",")).containsExactly("a", "b, c", "say \"hi\"", "");
+    }
+}
@@ -0,0 +1,66 @@
+package com.uwm.paws360.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ClientAddressResolver Unit Tests")
+class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver = new ClientAddressResolver(List.of("127.0.0.1", "10.0.0.0/8", "::1/128"));
+
+    private MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should ignore forwarding headers from untrusted peers")
+    void shouldIgnoreHeadersFromUntrustedPeers() {
+        assertThat(resolver.resolve(request("198.51.100.7", "1.2.3.4"))).isEqualTo("198.51.100.7");
+    }
+
+    @Test
+    @DisplayName("Should take the rightmost untrusted hop behind a trusted proxy")
+    void shouldTakeRightmostUntrustedHop() {
+        // The client prepended 1.2.3.4; the proxy appended the address it actually saw
+        assertThat(resolver.resolve(request("10.1.2.3", "1.2.3.4, 203.0.113.9, 10.0.0.5"))).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    @DisplayName("Should ignore X-Real-IP even from a trusted proxy")
+    void shouldIgnoreRealIp() {
+        MockHttpServletRequest request = request("127.0.0.1", null);
+        request.addHeader("X-Real-IP", "203.0.113.9");
+
+        assertThat(resolver.resolve(request)).isEqualTo("127.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Should trust only loopback when no proxies are configured")
+    void shouldTrustOnlyLoopbackByDefault() {
+        ClientAddressResolver defaults = new ClientAddressResolver(List.of("127.0.0.0/8", "::1/128"));
+
+        assertThat(defaults.resolve(request("10.1.2.3", "203.0.113.9"))).isEqualTo("10.1.2.3");
+        assertThat(defaults.resolve(request("192.168.1.1", "203.0.113.9"))).isEqualTo("192.168.1.1");
+        assertThat(defaults.resolve(request("127.0.0.1", "203.0.113.9"))).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    @DisplayName("Should match CIDR ranges and never resolve host names")
+    void shouldMatchRanges() {
+        assertThat(resolver.isTrusted("10.255.0.1")).isTrue();
+        assertThat(resolver.isTrusted("11.0.0.1")).isFalse();
+        assertThat(resolver.isTrusted("::1")).isTrue();
+        assertThat(resolver.isTrusted("localhost")).isFalse();
+        assertThat(resolver.isTrusted(null)).isFalse();
+    }
+}
@@ -0,0 +1,68 @@
+package com.uwm.paws360.config;
+
+import com.uwm.paws360.Entity.Base.AuthenticationSession;
+import com.uwm.paws360.Entity.Base.Users;
+import com.uwm.paws360.Entity.EntityDomains.User.Role;
+import com.uwm.paws360.Service.SessionManagementService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("SessionAuthenticationFilter Unit Tests")
+class SessionAuthenticationFilterTest {
+
+    private final SessionManagementService sessionManagementService = mock(SessionManagementService.class);
+    private final SessionAuthenticationFilter filter = new SessionAuthenticationFilter(sessionManagementService);
+
+    @Test
+    @DisplayName("Should validate the session once however often the request asks for it")
+    void shouldResolveOncePerRequest() throws Exception {
+        Users user = new Users();
+        user.setRole(Role.STUDENT);
+        AuthenticationSession session = new AuthenticationSession(user, "token-a",
+                LocalDateTime.now().plusHours(1), "10.0.0.1", "junit", "student-portal");
+        when(sessionManagementService.validateAndRefreshSession("token-a")).thenReturn(Optional.of(session));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/profile/student");
+        request.setCookies(new Cookie(SessionAuthenticationFilter.SESSION_COOKIE_NAME, "token-a"));
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Optional<SessionPrincipal> first = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+        Optional<SessionPrincipal> second = SessionAuthenticationFilter.resolve(request, sessionManagementService);
+
+        assertThat(first).isPresent();
+        assertThat(first.get().role()).isEqualTo(Role.STUDENT);
+        assertThat(first.get().sessionToken()).isEqualTo("token-a");
+        assertThat(second).isSameAs(first);
+        verify(sessionManagementService, times(1)).validateAndRefreshSession("token-a");
+    }
+
+    @Test
+    @DisplayName("Should pass requests without a token through unauthenticated")
+    void shouldSkipRequestsWithoutToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/session");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SessionAuthenticationFilter.resolve(request, sessionManagementService)).isEmpty();
+        verify(sessionManagementService, never()).validateAndRefreshSession(anyString());
+    }
+
+    @Test
+    @DisplayName("Should read the token from the Authorization header")
+    void shouldExtractBearerToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token-b");
+
+        assertThat(SessionAuthenticationFilter.extractSessionToken(request)).isEqualTo("token-b");
+    }
+}
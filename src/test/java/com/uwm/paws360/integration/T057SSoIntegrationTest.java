@@ -223,9 +223,9 @@ class T057SSoIntegrationTest {
             assertThat(response.getBody().user_id()).isEqualTo(-1);
             assertThat(response.getBody().session_token()).isNull();
 
-            // Verify failed attempt tracking
+            // Failed attempts are counted in memory; the user row only changes when it locks
             Users updatedUser = userRepository.findById(testStudent.getId()).orElseThrow();
-            assertThat(updatedUser.getFailed_attempts()).isEqualTo(1);
+            assertThat(updatedUser.getFailed_attempts()).isZero();
         }
 
         @Test